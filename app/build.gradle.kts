@@ -15,9 +15,17 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Modo fallo del detector de E/S en el hilo principal (solo debug)
+        buildConfigField("boolean", "MAIN_THREAD_IO_FAIL", "false")
     }
 
     buildTypes {
+        debug {
+            // ./gradlew connectedDebugAndroidTest -PmainThreadIoFail=true
+            buildConfigField("boolean", "MAIN_THREAD_IO_FAIL",
+                (project.findProperty("mainThreadIoFail") == "true").toString())
+        }
         release {
             isMinifyEnabled = false
             proguardFiles(
@@ -38,6 +46,18 @@ android {
     
     buildFeatures {
         viewBinding = true
+        buildConfig = true
+    }
+
+    testOptions {
+        // Robolectric: tests de JVM que usan SQLite, Looper y recursos de Android
+        unitTests.isIncludeAndroidResources = true
+        unitTests.all {
+            // Los benchmarks (clases *BenchmarkTest) solo corren con
+            // ./gradlew testDebugUnitTest -Pbenchmarks=true
+            it.systemProperty("benchmarks", project.findProperty("benchmarks") ?: "false")
+            it.maxHeapSize = "2g"
+        }
     }
 }
 
@@ -50,9 +70,12 @@ dependencies {
     
     // Lifecycle
     implementation("androidx.lifecycle:lifecycle-runtime-ktx:2.7.0")
+    implementation("androidx.lifecycle:lifecycle-viewmodel:2.7.0")
+    implementation("androidx.lifecycle:lifecycle-livedata:2.7.0")
     
     // RecyclerView
     implementation("androidx.recyclerview:recyclerview:1.3.2")
+    implementation("androidx.asynclayoutinflater:asynclayoutinflater:1.0.0")
     
     // CardView
     implementation("androidx.cardview:cardview:1.0.0")
@@ -61,9 +84,14 @@ dependencies {
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
     implementation("com.squareup.retrofit2:converter-gson:2.9.0")
     implementation("com.google.code.gson:gson:2.10.1")
+    implementation("com.squareup.okhttp3:okhttp:3.14.9")
     
     // Testing
     testImplementation("junit:junit:4.13.2")
+    testImplementation("org.robolectric:robolectric:4.14.1")
+    testImplementation("com.squareup.okhttp3:mockwebserver:3.14.9")
     androidTestImplementation("androidx.test.ext:junit:1.1.5")
+    androidTestImplementation("androidx.test:core:1.5.0")
+    androidTestImplementation("androidx.test:runner:1.5.2")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.5.1")
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.androidinterfaces;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.action.ViewActions.longClick;
+import static androidx.test.espresso.matcher.ViewMatchers.withId;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeTrue;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.example.androidinterfaces.metrics.MainThreadIoGuard;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Abre las pantallas y falla ante E/S en el hilo principal que no esté en
+ * la línea base (assets/main_thread_io_baseline.txt de debug)
+ * Con el modo fallo la app cae en el mismo sitio de la llamada:
+ * ./gradlew connectedDebugAndroidTest -PmainThreadIoFail=true
+ */
+@RunWith(AndroidJUnit4.class)
+public class MainThreadIoTest {
+
+    // Margen para que terminen las lecturas en segundo plano de cada pantalla
+    private static final long ESPERA_CARGA_MS = 1000;
+
+    @Before
+    public void setUp() {
+        assumeTrue("El detector solo se instala en debug", MainThreadIoGuard.isInstalado());
+    }
+
+    private void abrir(Class<? extends Activity> pantalla) {
+        try (ActivityScenario<? extends Activity> scenario = ActivityScenario.launch(pantalla)) {
+            SystemClock.sleep(ESPERA_CARGA_MS);
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        }
+    }
+
+    /**
+     * Los sitios fuera de la línea base se marcan con "* " en el resumen
+     */
+    private void verificarSinSitiosNuevos() {
+        String[] resumen = new String[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+            resumen[0] = MainThreadIoGuard.resumen());
+        for (String linea : resumen[0].split("\n")) {
+            assertFalse("E/S nueva en el hilo principal: " + linea, linea.startsWith("* "));
+        }
+    }
+
+    @Test
+    public void pantallasConLineaBase_sinSitiosNuevos() {
+        abrir(MainActivity.class);
+        abrir(FormularioActivity.class);
+        abrir(ListadoActivity.class);
+
+        verificarSinSitiosNuevos();
+    }
+
+    @Test
+    public void demasPantallas_sinSitiosNuevos() {
+        abrir(BusquedaActivity.class);
+        abrir(ApiActivity.class);
+        abrir(PreferenciasActivity.class);
+
+        verificarSinSitiosNuevos();
+    }
+
+    @Test
+    public void listado_verificarIndicesNoUsaElHiloPrincipal() {
+        try (ActivityScenario<ListadoActivity> scenario =
+                 ActivityScenario.launch(ListadoActivity.class)) {
+            onView(withId(R.id.tvTotal)).perform(longClick());
+            SystemClock.sleep(ESPERA_CARGA_MS);
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        }
+
+        verificarSinSitiosNuevos();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.androidinterfaces;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.example.androidinterfaces.api.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Bind del cuerpo de un post: texto medido en segundo plano
+ * (PrecomputedTextCompat) contra setText(), que mide en el hilo principal
+ * Cada bind usa un cuerpo distinto en el TextView de item_post y se mide
+ * hasta el layout, como una fila que aparece al hacer scroll. Las cifras
+ * dependen del dispositivo: se escriben en logcat (adb logcat -s PrecomputedTextBind).
+ * ./gradlew connectedDebugAndroidTest
+ *     -Pandroid.testInstrumentationRunnerArguments.class=com.example.androidinterfaces.PrecomputedTextBindTest
+ */
+@RunWith(AndroidJUnit4.class)
+public class PrecomputedTextBindTest {
+
+    private static final String TAG = "PrecomputedTextBind";
+    private static final int CUERPOS = 500;
+    private static final int CALENTAMIENTO = 50;
+
+    private Context context;
+    private final List<String> cuerpos = new ArrayList<>(CUERPOS);
+
+    @Before
+    public void setUp() {
+        context = new ContextThemeWrapper(
+            InstrumentationRegistry.getInstrumentation().getTargetContext(),
+            R.style.Theme_AplicacionInformaticoDeInterfaces);
+        for (int i = 0; i < CUERPOS; i++) {
+            cuerpos.add("Cuerpo del post " + i + ": quia et suscipit suscipit recusandae "
+                + "consequuntur expedita et cum reprehenderit molestiae ut ut quas totam "
+                + "nostrum rerum est autem sunt rem eveniet architecto " + i);
+        }
+    }
+
+    /**
+     * Fila de item_post en un contenedor del ancho de la pantalla
+     */
+    private TextView crearCuerpo(FrameLayout[] contenedor) {
+        contenedor[0] = new FrameLayout(context);
+        View fila = LayoutInflater.from(context)
+            .inflate(R.layout.item_post, contenedor[0], false);
+        contenedor[0].addView(fila);
+        return fila.findViewById(R.id.tvBodyPost);
+    }
+
+    private static void medirYUbicar(FrameLayout contenedor) {
+        int ancho = contenedor.getResources().getDisplayMetrics().widthPixels;
+        contenedor.measure(View.MeasureSpec.makeMeasureSpec(ancho, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        contenedor.layout(0, 0, contenedor.getMeasuredWidth(), contenedor.getMeasuredHeight());
+    }
+
+    @Test
+    public void bindCuerpo_precalculadoContraSetText() {
+        FrameLayout[] contenedor = new FrameLayout[1];
+        TextView[] tvBody = new TextView[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+            tvBody[0] = crearCuerpo(contenedor));
+
+        // Medición fuera del hilo principal, como PrecomputedTextCache
+        PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(tvBody[0]);
+        List<PrecomputedTextCompat> precalculados = new ArrayList<>(CUERPOS);
+        for (String cuerpo : cuerpos) {
+            precalculados.add(PrecomputedTextCompat.create(cuerpo, params));
+        }
+
+        LatencyHistogram conSetText = new LatencyHistogram();
+        LatencyHistogram conPrecalculo = new LatencyHistogram();
+        int[] lineas = new int[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            for (int i = 0; i < CUERPOS; i++) {
+                long inicio = System.nanoTime();
+                tvBody[0].setText(cuerpos.get(i));
+                medirYUbicar(contenedor[0]);
+                if (i >= CALENTAMIENTO) {
+                    conSetText.registrar(System.nanoTime() - inicio);
+                }
+            }
+            for (int i = 0; i < CUERPOS; i++) {
+                long inicio = System.nanoTime();
+                TextViewCompat.setPrecomputedText(tvBody[0], precalculados.get(i));
+                medirYUbicar(contenedor[0]);
+                if (i >= CALENTAMIENTO) {
+                    conPrecalculo.registrar(System.nanoTime() - inicio);
+                }
+            }
+            lineas[0] = tvBody[0].getLineCount();
+        });
+
+        Log.i(TAG, "setText():\n" + conSetText.resumen());
+        Log.i(TAG, "setPrecomputedText():\n" + conPrecalculo.resumen());
+        assertEquals(CUERPOS - CALENTAMIENTO, conSetText.getCantidad());
+        assertEquals(CUERPOS - CALENTAMIENTO, conPrecalculo.getCantidad());
+        // El último cuerpo quedó aplicado y con su layout armado
+        assertTrue(lineas[0] > 0);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.androidinterfaces;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.action.ViewActions.click;
+import static androidx.test.espresso.action.ViewActions.swipeUp;
+import static androidx.test.espresso.matcher.ViewMatchers.withId;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.example.androidinterfaces.adapters.PostViewPool;
+import com.example.androidinterfaces.data.DatabaseHelper;
+import com.example.androidinterfaces.metrics.FrameMetricsRecorder;
+import com.example.androidinterfaces.models.Post;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Arnés de jank del primer scroll de ApiActivity, sin y con filas precalentadas
+ * Las cifras dependen del dispositivo: el test no las compara, las escribe en
+ * logcat (adb logcat -s PrimerScrollJank) para repetirlo en equipos reales.
+ * ./gradlew connectedDebugAndroidTest
+ *     -Pandroid.testInstrumentationRunnerArguments.class=com.example.androidinterfaces.PrimerScrollJankTest
+ */
+@RunWith(AndroidJUnit4.class)
+public class PrimerScrollJankTest {
+
+    private static final String TAG = "PrimerScrollJank";
+    private static final int POSTS = 200;
+    private static final long PLAZO_PRIMERA_PAGINA_MS = 10_000;
+    // Margen para que terminen de llegar las filas infladas y los FrameMetrics
+    private static final long ESPERA_ASINCRONA_MS = 500;
+
+    private Context context;
+
+    /**
+     * La primera página sale de SQLite: el scroll no espera a la red
+     */
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        List<Post> posts = new ArrayList<>(POSTS);
+        for (int i = 1; i <= POSTS; i++) {
+            posts.add(new Post(1 + i % 10, i, "Post de prueba " + i,
+                "Cuerpo del post " + i + " con texto suficiente para ocupar varias líneas "
+                    + "en la fila y obligar a medirlo al mostrarla por primera vez."));
+        }
+        DatabaseHelper dbHelper = DatabaseHelper.getInstance(context);
+        long ahora = System.currentTimeMillis();
+        dbHelper.guardarLotePosts(posts, ahora);
+        dbHelper.finalizarSincronizacionPosts(ahora, ahora);
+    }
+
+    @Test
+    public void primerScroll_sinYConFilasPrecalentadas() {
+        String sinPrecalentar = medirPrimerScroll(0);
+        String precalentadas = medirPrimerScroll(10);
+
+        Log.i(TAG, "Sin filas precalentadas:\n" + sinPrecalentar);
+        Log.i(TAG, "Con 10 filas precalentadas:\n" + precalentadas);
+        assertTrue(sinPrecalentar.contains("primer scroll"));
+        assertTrue(precalentadas.contains("primer scroll"));
+    }
+
+    /**
+     * Abre la pantalla con el pool vacío, carga la primera página y mide el
+     * primer deslizamiento
+     * @return resumen de FrameMetricsRecorder de ese scroll
+     */
+    private String medirPrimerScroll(int filasPrecalentadas) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+            PostViewPool.getInstance(context).vaciar());
+        Intent intent = new Intent(context, ApiActivity.class)
+            .putExtra(ApiActivity.EXTRA_FILAS_PRECALENTADAS, filasPrecalentadas);
+
+        try (ActivityScenario<ApiActivity> scenario = ActivityScenario.launch(intent)) {
+            onView(withId(R.id.btnCargar)).perform(click());
+            esperarPrimeraPagina(scenario);
+            SystemClock.sleep(ESPERA_ASINCRONA_MS);
+
+            FrameMetricsRecorder recorder = FrameMetricsRecorder.getInstance();
+            recorder.reiniciar();
+            FrameMetricsRecorder.Operacion scroll = recorder.iniciarOperacion("primer scroll");
+            onView(withId(R.id.recyclerView)).perform(swipeUp());
+            scroll.terminarTrasFrame();
+            SystemClock.sleep(ESPERA_ASINCRONA_MS);
+            return recorder.resumen();
+        }
+    }
+
+    private void esperarPrimeraPagina(ActivityScenario<ApiActivity> scenario) {
+        long limite = SystemClock.uptimeMillis() + PLAZO_PRIMERA_PAGINA_MS;
+        int[] filas = {0};
+        while (filas[0] == 0 && SystemClock.uptimeMillis() < limite) {
+            scenario.onActivity(activity -> {
+                RecyclerView recyclerView = activity.findViewById(R.id.recyclerView);
+                filas[0] = recyclerView.getAdapter().getItemCount();
+            });
+            SystemClock.sleep(50);
+        }
+        assertTrue("La primera página no llegó", filas[0] > 0);
+    }
+}
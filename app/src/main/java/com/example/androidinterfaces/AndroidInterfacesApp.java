@@ -0,0 +1,22 @@
+package com.example.androidinterfaces;
+
+import android.app.Application;
+import com.example.androidinterfaces.data.PreferenciasStore;
+import com.example.androidinterfaces.metrics.MainThreadIoGuard;
+
+/**
+ * Application de la app
+ * - En depuración instala el detector de E/S en el hilo principal
+ * - Empieza a leer las preferencias en segundo plano desde el arranque
+ */
+public class AndroidInterfacesApp extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        if (BuildConfig.DEBUG) {
+            MainThreadIoGuard.instalar(this, BuildConfig.MAIN_THREAD_IO_FAIL);
+        }
+        PreferenciasStore.getInstance(this);
+    }
+}
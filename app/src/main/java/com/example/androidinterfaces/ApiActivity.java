@@ -1,25 +1,35 @@
 package com.example.androidinterfaces;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
 import android.widget.Button;
+import android.widget.EditText;
 import android.widget.ProgressBar;
 import android.widget.Toast;
+import androidx.appcompat.app.AlertDialog;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.androidinterfaces.adapters.PostAdapter;
-import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.adapters.PostViewPool;
+import com.example.androidinterfaces.api.CircuitOpenException;
 import com.example.androidinterfaces.api.RetrofitClient;
+import com.example.androidinterfaces.data.PostPagingLoader;
+import com.example.androidinterfaces.metrics.FrameMetricsRecorder;
+import com.example.androidinterfaces.metrics.FrameTracker;
+import com.example.androidinterfaces.metrics.MainThreadIoGuard;
 import com.example.androidinterfaces.models.Post;
+import com.example.androidinterfaces.models.Usuario;
+import com.example.androidinterfaces.viewmodels.ApiViewModel;
+import java.io.File;
 import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
 import java.util.List;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 /**
  * Activity que demuestra el consumo de API REST
@@ -27,28 +37,51 @@ import retrofit2.Response;
  * - RecyclerView para mostrar datos
  * - Llamadas asíncronas a API
  * - Manejo completo de excepciones de red
- * - Sistema de caché de datos
+ * - Caché persistente en SQLite con revalidación en segundo plano
+ * - Scroll infinito paginado con precarga y ventana de páginas acotada
+ * - Detalle de cada post precargado en paralelo antes de que sea visible
+ * - Cuerpos de los posts medidos en segundo plano antes de que aparezcan
+ * - Autor de cada post resuelto con una petición por página
+ * - Recarga incremental: solo se piden los posts posteriores al último sincronizado
+ * - Búsqueda local con índice invertido sobre los posts ya cargados
+ * - Estado en un ViewModel: rotar o cambiar de tema no vuelve a cargar
  * - ProgressBar para feedback visual
  */
 public class ApiActivity extends AppCompatActivity {
 
+    // Filas por delante de la última visible cuyo detalle se precarga
+    private static final int FILAS_PRECARGA_DETALLES = 5;
+    // Filas a cada lado de las visibles cuyo cuerpo se mide por adelantado
+    private static final int FILAS_PRECALCULO_TEXTOS = 8;
+    // Filas que se inflan en segundo plano antes de la primera carga
+    private static final int FILAS_PRECALENTADAS = 10;
+    // Cambia las filas a precalentar (0 = ninguna); lo usa PrimerScrollJankTest
+    public static final String EXTRA_FILAS_PRECALENTADAS = "filas_precalentadas";
+
     private RecyclerView recyclerView;
+    private LinearLayoutManager layoutManager;
+    private FrameTracker frameTracker;
     private PostAdapter adapter;
     private List<Post> posts;
     private Button btnCargar, btnRecargar;
+    private EditText etBuscarPosts;
     private ProgressBar progressBar;
-    private ApiService apiService;
+    private ApiViewModel viewModel;
+    private PostPagingLoader pagingLoader;
+    // Mientras hay consulta el adapter muestra resultados, no la ventana paginada
+    private boolean modoBusqueda = false;
     private boolean dataCached = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_api);
+        frameTracker = new FrameTracker(this);
 
         try {
             initializeViews();
-            setupRecyclerView();
             setupApiService();
+            setupRecyclerView();
             setupEventListeners();
         } catch (Exception e) {
             Toast.makeText(this, "Error al inicializar: " + e.getMessage(), 
@@ -61,27 +94,161 @@ public class ApiActivity extends AppCompatActivity {
         btnCargar = findViewById(R.id.btnCargar);
         btnRecargar = findViewById(R.id.btnRecargar);
         progressBar = findViewById(R.id.progressBar);
-        posts = new ArrayList<>();
+        etBuscarPosts = findViewById(R.id.etBuscarPosts);
     }
 
     private void setupRecyclerView() {
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
+        // Pool compartido: las filas ya infladas sobreviven a esta pantalla
+        PostViewPool viewPool = PostViewPool.getInstance(this);
+        recyclerView.setRecycledViewPool(viewPool.getPool());
         adapter = new PostAdapter(this, posts);
+        adapter.setViewPool(viewPool);
+        adapter.setOnPostClickListener(post -> viewModel.cargarDetalle(post.getId()));
+        adapter.setAuthorJoiner(viewModel.getAuthorJoiner());
+        adapter.setTextCache(viewModel.getTextCache());
         recyclerView.setAdapter(adapter);
+        viewPool.precalentar(recyclerView,
+            getIntent().getIntExtra(EXTRA_FILAS_PRECALENTADAS, FILAS_PRECALENTADAS));
+
+        // Evento onScrolled - Precarga de páginas cercanas
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                revisarPrecarga();
+            }
+        });
     }
 
     /**
-     * Inicializa el servicio de API con Retrofit
+     * Obtiene del ViewModel el paginador y conecta sus avisos
+     * Tras una rotación los posts ya están cargados y se muestran tal cual.
      */
     private void setupApiService() {
         try {
-            apiService = RetrofitClient.getInstance().create(ApiService.class);
+            viewModel = new ViewModelProvider(this).get(ApiViewModel.class);
+            pagingLoader = viewModel.getPagingLoader();
+            pagingLoader.setListener(new PostPagingLoader.Listener() {
+                @Override
+                public void onInsertados(int posicion, int cantidad) {
+                    dataCached = true;
+                    viewModel.indexar(posts.subList(posicion, posicion + cantidad));
+                    viewModel.resolverAutores(posts.subList(posicion, posicion + cantidad));
+                    if (modoBusqueda) {
+                        return;
+                    }
+                    FrameMetricsRecorder.getInstance().marcarProximoFrame("bind de posts");
+                    adapter.notifyItemRangeInserted(posicion, cantidad);
+                    // Si la página no llena la pantalla se sigue precargando
+                    recyclerView.post(() -> revisarPrecarga());
+                }
+
+                @Override
+                public void onEliminados(int posicion, int cantidad) {
+                    if (!modoBusqueda) {
+                        adapter.notifyItemRangeRemoved(posicion, cantidad);
+                    }
+                }
+
+                @Override
+                public void onCambiados(int posicion, int cantidad) {
+                    if (!modoBusqueda) {
+                        FrameMetricsRecorder.getInstance().marcarProximoFrame("bind de posts");
+                        adapter.notifyItemRangeChanged(posicion, cantidad);
+                    }
+                }
+
+                @Override
+                public void onRevalidados(List<Post> anteriores) {
+                    viewModel.indexar(posts);
+                    viewModel.resolverAutores(posts);
+                    if (!modoBusqueda) {
+                        FrameMetricsRecorder.getInstance().marcarProximoFrame("bind de posts");
+                        adapter.actualizarPosts(anteriores);
+                    }
+                }
+
+                @Override
+                public void onCargando(boolean cargando) {
+                    btnCargar.setEnabled(!cargando);
+                    actualizarProgreso();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    mostrarErrorRed(t, "");
+                }
+            });
+            posts = pagingLoader.getPosts();
+            dataCached = !pagingLoader.estaVacio();
+            btnCargar.setEnabled(!pagingLoader.isCargando());
+            observarViewModel();
         } catch (Exception e) {
             Toast.makeText(this, "Error al configurar API: " + e.getMessage(), 
                 Toast.LENGTH_LONG).show();
         }
     }
 
+    /**
+     * Conecta la pantalla a lo que publica el ViewModel
+     * Tras una rotación el progreso y los resultados pendientes se vuelven a recibir.
+     */
+    private void observarViewModel() {
+        // Los resultados llegan del hilo del índice
+        viewModel.getResultadosBusqueda().observe(this, resultados -> {
+            if (modoBusqueda) {
+                adapter.setPosts(resultados);
+                recyclerView.scrollToPosition(0);
+            }
+        });
+
+        viewModel.getSincronizando().observe(this, sincronizando -> {
+            btnRecargar.setEnabled(!Boolean.TRUE.equals(sincronizando));
+            actualizarProgreso();
+        });
+
+        viewModel.getCargandoDetalle().observe(this, cargando -> actualizarProgreso());
+
+        viewModel.getAutoresResueltos().observe(this, version -> {
+            if (adapter != null && adapter.getItemCount() > 0) {
+                adapter.notifyItemRangeChanged(0, adapter.getItemCount(),
+                    PostAdapter.PAYLOAD_AUTOR);
+            }
+        });
+
+        viewModel.getDetalle().observe(this, post -> {
+            if (post != null) {
+                viewModel.consumirDetalle();
+                mostrarDialogoPost(post);
+            }
+        });
+
+        viewModel.getAviso().observe(this, aviso -> {
+            if (aviso != null) {
+                viewModel.consumirAviso();
+                Toast.makeText(this, aviso, Toast.LENGTH_SHORT).show();
+            }
+        });
+
+        viewModel.getError().observe(this, error -> {
+            if (error != null) {
+                viewModel.consumirError();
+                mostrarErrorRed(error.getCausa(), error.getSufijo());
+            }
+        });
+    }
+
+    /**
+     * La barra se ve mientras carga una página, una sincronización o un detalle
+     */
+    private void actualizarProgreso() {
+        boolean ocupado = (pagingLoader != null && pagingLoader.isCargando())
+            || Boolean.TRUE.equals(viewModel.getSincronizando().getValue())
+            || Boolean.TRUE.equals(viewModel.getCargandoDetalle().getValue());
+        progressBar.setVisibility(ocupado ? View.VISIBLE : View.GONE);
+    }
+
     private void setupEventListeners() {
         // Evento onClick para cargar datos de la API
         btnCargar.setOnClickListener(new View.OnClickListener() {
@@ -97,78 +264,180 @@ public class ApiActivity extends AppCompatActivity {
             }
         });
 
-        // Evento onClick para forzar recarga desde API
-        btnRecargar.setOnClickListener(v -> {
-            dataCached = false;
-            cargarDatosApi();
+        // Evento onLongClick para ver las métricas de red
+        btnCargar.setOnLongClickListener(v -> {
+            mostrarMetricasRed();
+            return true;
         });
 
+        // Evento onClick para traer los cambios desde la API
+        btnRecargar.setOnClickListener(v -> viewModel.sincronizarCambios());
+
         // Evento onLongClick para limpiar caché
         btnRecargar.setOnLongClickListener(v -> {
             limpiarCache();
             return true;
         });
+
+        // Evento afterTextChanged - Búsqueda en los posts cargados
+        etBuscarPosts.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                buscarPosts(s.toString());
+            }
+        });
     }
 
     /**
-     * Carga datos desde la API con manejo completo de excepciones
+     * Muestra los posts que cumplen la consulta; sin consulta vuelve a la lista paginada
      */
-    private void cargarDatosApi() {
-        progressBar.setVisibility(View.VISIBLE);
-        btnCargar.setEnabled(false);
+    private void buscarPosts(String consulta) {
+        FrameMetricsRecorder.getInstance().marcarProximoFrame("búsqueda de posts");
+        if (consulta.trim().isEmpty()) {
+            viewModel.cancelarBusqueda();
+            if (modoBusqueda) {
+                modoBusqueda = false;
+                adapter.setPosts(posts);
+            }
+            return;
+        }
+        modoBusqueda = true;
+        viewModel.buscar(consulta);
+    }
 
+    /**
+     * Carga la primera página; las siguientes se piden al hacer scroll
+     */
+    private void cargarDatosApi() {
         try {
-            Call<List<Post>> call = apiService.getPosts();
-            
-            call.enqueue(new Callback<List<Post>>() {
+            pagingLoader.reiniciar();
+        } catch (Exception e) {
+            mostrarError("Error al realizar llamada: " + e.getMessage());
+        }
+    }
+
+    private void revisarPrecarga() {
+        if (pagingLoader != null && !pagingLoader.estaVacio() && !modoBusqueda) {
+            int primeraVisible = layoutManager.findFirstVisibleItemPosition();
+            int ultimaVisible = layoutManager.findLastVisibleItemPosition();
+            pagingLoader.onScroll(primeraVisible, ultimaVisible);
+            precargarDetalles(ultimaVisible);
+            if (ultimaVisible >= 0) {
+                adapter.precalcularTextos(primeraVisible - FILAS_PRECALCULO_TEXTOS,
+                    ultimaVisible + 1 + FILAS_PRECALCULO_TEXTOS);
+            }
+        }
+    }
+
+    /**
+     * Precarga el detalle de las filas que están por aparecer
+     */
+    private void precargarDetalles(int ultimaVisible) {
+        if (ultimaVisible < 0) {
+            return;
+        }
+        int desde = ultimaVisible + 1;
+        int hasta = Math.min(posts.size(), desde + FILAS_PRECARGA_DETALLES);
+        if (desde >= hasta) {
+            return;
+        }
+        int[] ids = new int[hasta - desde];
+        for (int i = desde; i < hasta; i++) {
+            ids[i - desde] = posts.get(i).getId();
+        }
+        viewModel.getDetailFetcher().precargar(ids);
+    }
+
+    private void mostrarDialogoPost(Post post) {
+        new AlertDialog.Builder(this)
+            .setTitle(post.getTitle())
+            .setMessage("Post " + post.getId() + " · " + nombreAutor(post)
+                + "\n\n" + post.getBody())
+            .setPositiveButton("Cerrar", null)
+            .show();
+    }
+
+    /**
+     * Manejo específico de diferentes tipos de errores de red
+     */
+    private void mostrarErrorRed(Throwable t, String sufijo) {
+        if (t instanceof CircuitOpenException) {
+            long segundos = (((CircuitOpenException) t).getEsperaRestanteMs() + 999) / 1000;
+            mostrarError("Servicio no disponible, reintenta en " + segundos + " s" + sufijo);
+        } else if (t instanceof UnknownHostException) {
+            mostrarError("Sin conexión a internet" + sufijo);
+        } else if (t instanceof SocketTimeoutException) {
+            mostrarError("Tiempo de espera agotado" + sufijo);
+        } else if (t instanceof IOException) {
+            mostrarError("Error de red: " + t.getMessage() + sufijo);
+        } else {
+            mostrarError("Error general: " + t.getMessage() + sufijo);
+        }
+    }
+
+    private String nombreAutor(Post post) {
+        Usuario autor = viewModel.getAuthorJoiner().obtenerAutor(post.getUserId());
+        return autor != null
+            ? autor.getNombre() + " (" + autor.getEmail() + ")"
+            : "Usuario " + post.getUserId();
+    }
+
+    /**
+     * Muestra las métricas de caché, agrupación, reintentos y tiempos de red
+     */
+    private void mostrarMetricasRed() {
+        String metricas = RetrofitClient.getCacheMetrics().resumen()
+            + "\nPeticiones agrupadas: " + RetrofitClient.getPeticionesAgrupadas()
+            + "\n" + RetrofitClient.getResilience().resumen()
+            + "\nFilas en el pool: " + PostViewPool.getInstance(this).getDisponibles()
+            + "\n" + adapter.resumenBind()
+            + "\n\n" + RetrofitClient.getTimingRecorder().volcado();
+        new AlertDialog.Builder(this)
+            .setTitle("Métricas de red")
+            .setMessage(metricas)
+            .setPositiveButton("Cerrar", null)
+            .setNeutralButton("Reiniciar tiempos",
+                (dialog, which) -> RetrofitClient.getTimingRecorder().reiniciar())
+            .setNegativeButton("Frames", (dialog, which) -> mostrarMetricasFrames())
+            .show();
+    }
+
+    /**
+     * Muestra los frames de todas las pantallas y permite exportarlos a CSV
+     */
+    private void mostrarMetricasFrames() {
+        FrameMetricsRecorder recorder = FrameMetricsRecorder.getInstance();
+        new AlertDialog.Builder(this)
+            .setTitle("Frames por pantalla")
+            .setMessage(recorder.resumen() + "\nE/S en el hilo principal\n"
+                + MainThreadIoGuard.resumen())
+            .setPositiveButton("Cerrar", null)
+            .setNeutralButton("Reiniciar", (dialog, which) -> recorder.reiniciar())
+            .setNegativeButton("Exportar", (dialog, which) -> exportarFrames())
+            .show();
+    }
+
+    private void exportarFrames() {
+        FrameMetricsRecorder.getInstance().exportar(getFilesDir(),
+            new FrameMetricsRecorder.ExportCallback() {
                 @Override
-                public void onResponse(Call<List<Post>> call, Response<List<Post>> response) {
-                    progressBar.setVisibility(View.GONE);
-                    btnCargar.setEnabled(true);
-
-                    try {
-                        if (response.isSuccessful() && response.body() != null) {
-                            posts.clear();
-                            posts.addAll(response.body());
-                            adapter.notifyDataSetChanged();
-                            dataCached = true;
-                            
-                            Toast.makeText(ApiActivity.this, 
-                                "Cargados " + posts.size() + " posts", 
-                                Toast.LENGTH_SHORT).show();
-                        } else {
-                            throw new IOException("Respuesta vacía o errónea del servidor");
-                        }
-                    } catch (IOException e) {
-                        mostrarError("Error de I/O: " + e.getMessage());
-                    } catch (Exception e) {
-                        mostrarError("Error al procesar respuesta: " + e.getMessage());
-                    }
+                public void onExportado(File archivo, int frames) {
+                    Toast.makeText(ApiActivity.this,
+                        frames + " frames exportados a " + archivo.getName(),
+                        Toast.LENGTH_LONG).show();
                 }
 
                 @Override
-                public void onFailure(Call<List<Post>> call, Throwable t) {
-                    progressBar.setVisibility(View.GONE);
-                    btnCargar.setEnabled(true);
-
-                    // Manejo específico de diferentes tipos de errores
-                    if (t instanceof UnknownHostException) {
-                        mostrarError("Sin conexión a internet");
-                    } else if (t instanceof SocketTimeoutException) {
-                        mostrarError("Tiempo de espera agotado");
-                    } else if (t instanceof IOException) {
-                        mostrarError("Error de red: " + t.getMessage());
-                    } else {
-                        mostrarError("Error general: " + t.getMessage());
-                    }
+                public void onError(IOException e) {
+                    mostrarError("Error al exportar frames: " + e.getMessage());
                 }
             });
-
-        } catch (Exception e) {
-            progressBar.setVisibility(View.GONE);
-            btnCargar.setEnabled(true);
-            mostrarError("Error al realizar llamada: " + e.getMessage());
-        }
     }
 
     /**
@@ -176,8 +445,12 @@ public class ApiActivity extends AppCompatActivity {
      */
     private void limpiarCache() {
         try {
-            posts.clear();
-            adapter.notifyDataSetChanged();
+            pagingLoader.vaciar();
+            viewModel.limpiarIndice();
+            if (modoBusqueda) {
+                viewModel.buscar(etBuscarPosts.getText().toString());
+            }
+            viewModel.getRepository().limpiarCache();
             dataCached = false;
             Toast.makeText(this, "Caché limpiado", Toast.LENGTH_SHORT).show();
         } catch (Exception e) {
@@ -193,6 +466,18 @@ public class ApiActivity extends AppCompatActivity {
         Toast.makeText(this, mensaje, Toast.LENGTH_LONG).show();
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        frameTracker.iniciar();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        frameTracker.detener();
+    }
+
     @Override
     protected void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
@@ -204,6 +489,21 @@ public class ApiActivity extends AppCompatActivity {
         super.onRestoreInstanceState(savedInstanceState);
         if (savedInstanceState != null) {
             dataCached = savedInstanceState.getBoolean("dataCached", false);
+            // Tras una rotación el ViewModel conserva los posts; si el proceso
+            // murió, la primera página se lee de SQLite y solo se revalida con
+            // la red si ya pasó su TTL
+            if (dataCached && pagingLoader.estaVacio()) {
+                cargarDatosApi();
+            }
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // El ViewModel cierra el repositorio y los hilos cuando ya no se necesitan
+        if (pagingLoader != null) {
+            pagingLoader.setListener(null);
         }
     }
-}
\ No newline at end of file
+}
@@ -3,12 +3,20 @@ package com.example.androidinterfaces;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.util.SparseArray;
 import android.view.View;
 import android.widget.*;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.SearchView;
-import com.example.androidinterfaces.data.DatabaseHelper;
+import androidx.lifecycle.ViewModelProvider;
+import com.example.androidinterfaces.adapters.ResultadoBusquedaAdapter;
+import com.example.androidinterfaces.data.FuzzySearchIndex;
+import com.example.androidinterfaces.data.QueryResultCache;
+import com.example.androidinterfaces.data.UsuarioStore;
+import com.example.androidinterfaces.metrics.FrameMetricsRecorder;
+import com.example.androidinterfaces.metrics.FrameTracker;
 import com.example.androidinterfaces.models.Usuario;
+import com.example.androidinterfaces.viewmodels.BusquedaViewModel;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -21,6 +29,10 @@ import java.util.List;
  * - Filtrado de datos en tiempo real
  * - AutoCompleteTextView
  * - Manejo de cache de resultados
+ * - Búsqueda tolerante a errores tipográficos (FuzzySearchIndex)
+ * - Caché LRU de consultas repetidas (QueryResultCache)
+ * - Usuarios del UsuarioStore compartido, observados con LiveData: rotar
+ *   o volver a la pantalla no relee SQLite si la tabla no cambió
  * - Eventos de texto y búsqueda
  */
 public class BusquedaActivity extends AppCompatActivity {
@@ -28,25 +40,32 @@ public class BusquedaActivity extends AppCompatActivity {
     private SearchView searchView;
     private ListView listViewResultados;
     private AutoCompleteTextView autoCompleteTextView;
-    private DatabaseHelper dbHelper;
+    private BusquedaViewModel viewModel;
     private List<Usuario> todosUsuarios;
+    // Cada búsqueda arma una lista nueva: la que ya tiene el adapter no se toca
     private List<Usuario> resultadosFiltrados;
-    private ArrayAdapter<String> listAdapter;
+    private UsuarioStore.Instantanea instantanea;
+    private FuzzySearchIndex indiceDifuso;
+    private QueryResultCache cacheConsultas;
+    private long versionCargada = -1;
+    private ResultadoBusquedaAdapter listAdapter;
     private ArrayAdapter<String> autoCompleteAdapter;
     private TextView tvResultados;
     private ProgressBar progressBar;
+    private FrameTracker frameTracker;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_busqueda);
+        frameTracker = new FrameTracker(this);
 
         try {
-            dbHelper = new DatabaseHelper(this);
+            viewModel = new ViewModelProvider(this).get(BusquedaViewModel.class);
             initializeViews();
-            cargarDatos();
             setupSearchView();
             setupAutoComplete();
+            observarDatos();
         } catch (Exception e) {
             Toast.makeText(this, "Error al inicializar: " + e.getMessage(), 
                 Toast.LENGTH_LONG).show();
@@ -62,33 +81,53 @@ public class BusquedaActivity extends AppCompatActivity {
         
         todosUsuarios = new ArrayList<>();
         resultadosFiltrados = new ArrayList<>();
+        cacheConsultas = viewModel.getCacheConsultas();
+        listAdapter = new ResultadoBusquedaAdapter(this);
+        listViewResultados.setAdapter(listAdapter);
     }
 
     /**
-     * Carga todos los usuarios desde la base de datos
+     * Observa los usuarios del almacén compartido, su carga y sus errores
+     * Tras una rotación la última instantánea llega al instante, sin leer SQLite.
      */
-    private void cargarDatos() {
-        progressBar.setVisibility(View.VISIBLE);
-        
+    private void observarDatos() {
+        viewModel.getUsuarios().observe(this, this::aplicarInstantanea);
+
+        viewModel.getCargando().observe(this, cargando ->
+            progressBar.setVisibility(Boolean.TRUE.equals(cargando) ? View.VISIBLE : View.GONE));
+
+        viewModel.getError().observe(this, e -> {
+            if (e == null) {
+                return;
+            }
+            if (e instanceof SQLException) {
+                Toast.makeText(this, "Error de base de datos: " + e.getMessage(), 
+                    Toast.LENGTH_LONG).show();
+            } else if (e instanceof IOException) {
+                Toast.makeText(this, "Error de I/O: " + e.getMessage(), 
+                    Toast.LENGTH_LONG).show();
+            } else {
+                Toast.makeText(this, "Error general: " + e.getMessage(), 
+                    Toast.LENGTH_LONG).show();
+            }
+            viewModel.consumirError();
+        });
+    }
+
+    /**
+     * Usa los usuarios de una instantánea y repite la búsqueda en curso
+     */
+    private void aplicarInstantanea(UsuarioStore.Instantanea nueva) {
         try {
-            todosUsuarios = dbHelper.obtenerTodosUsuarios();
-            resultadosFiltrados = new ArrayList<>(todosUsuarios);
-            
-            actualizarLista();
+            instantanea = nueva;
+            todosUsuarios = nueva.getUsuarios();
+            indiceDifuso = nueva.getIndiceDifuso();
+            versionCargada = nueva.getVersion();
+
             configurarAutoComplete();
-            
-            progressBar.setVisibility(View.GONE);
+            buscar(searchView.getQuery().toString());
 
-        } catch (SQLException e) {
-            progressBar.setVisibility(View.GONE);
-            Toast.makeText(this, "Error de base de datos: " + e.getMessage(), 
-                Toast.LENGTH_LONG).show();
-        } catch (IOException e) {
-            progressBar.setVisibility(View.GONE);
-            Toast.makeText(this, "Error de I/O: " + e.getMessage(), 
-                Toast.LENGTH_LONG).show();
         } catch (Exception e) {
-            progressBar.setVisibility(View.GONE);
             Toast.makeText(this, "Error general: " + e.getMessage(), 
                 Toast.LENGTH_LONG).show();
         }
@@ -108,6 +147,7 @@ public class BusquedaActivity extends AppCompatActivity {
             @Override
             public boolean onQueryTextChange(String newText) {
                 // Búsqueda en tiempo real
+                FrameMetricsRecorder.getInstance().marcarProximoFrame("tecla de búsqueda");
                 buscar(newText);
                 return true;
             }
@@ -117,12 +157,18 @@ public class BusquedaActivity extends AppCompatActivity {
         searchView.setOnCloseListener(new SearchView.OnCloseListener() {
             @Override
             public boolean onClose() {
-                resultadosFiltrados.clear();
+                resultadosFiltrados = new ArrayList<>();
                 resultadosFiltrados.addAll(todosUsuarios);
                 actualizarLista();
                 return false;
             }
         });
+
+        // Evento onLongClick para mostrar las métricas de la caché de consultas
+        tvResultados.setOnLongClickListener(v -> {
+            Toast.makeText(this, cacheConsultas.resumen(), Toast.LENGTH_LONG).show();
+            return true;
+        });
     }
 
     /**
@@ -136,6 +182,7 @@ public class BusquedaActivity extends AppCompatActivity {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (s.length() >= 2) {
+                    FrameMetricsRecorder.getInstance().marcarProximoFrame("búsqueda por ciudad");
                     buscarPorCiudad(s.toString());
                 }
             }
@@ -180,21 +227,30 @@ public class BusquedaActivity extends AppCompatActivity {
 
     /**
      * Realiza la búsqueda con manejo de excepciones
+     * Las consultas repetidas se resuelven desde la caché
      */
     private void buscar(String query) {
         try {
-            resultadosFiltrados.clear();
+            resultadosFiltrados = new ArrayList<>();
 
             if (query.isEmpty()) {
                 resultadosFiltrados.addAll(todosUsuarios);
             } else {
                 String queryLower = query.toLowerCase();
-                for (Usuario usuario : todosUsuarios) {
-                    if (usuario.getNombre().toLowerCase().contains(queryLower) ||
-                        usuario.getEmail().toLowerCase().contains(queryLower) ||
-                        usuario.getCiudad().toLowerCase().contains(queryLower)) {
-                        resultadosFiltrados.add(usuario);
+                String clave = "q:" + queryLower;
+                int[] ids = cacheConsultas.obtener(clave);
+
+                if (ids != null) {
+                    agregarPorIds(ids);
+                } else if (instantanea != null) {
+                    // Los textos ya vienen en minúsculas desde la instantánea
+                    for (int i = 0; i < todosUsuarios.size(); i++) {
+                        if (instantanea.getTextoBusqueda(i).contains(queryLower)) {
+                            resultadosFiltrados.add(todosUsuarios.get(i));
+                        }
                     }
+                    agregarCoincidenciasAproximadas(query);
+                    cacheConsultas.guardar(clave, idsDeResultados(), versionCargada);
                 }
             }
 
@@ -209,17 +265,48 @@ public class BusquedaActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Agrega al final los usuarios que coinciden con errores tipográficos
+     * y que no estaban ya entre los resultados exactos
+     */
+    private void agregarCoincidenciasAproximadas(String query) {
+        if (indiceDifuso == null) {
+            return;
+        }
+
+        SparseArray<Usuario> yaIncluidos = new SparseArray<>(resultadosFiltrados.size());
+        for (Usuario usuario : resultadosFiltrados) {
+            yaIncluidos.put(usuario.getId(), usuario);
+        }
+
+        for (int id : indiceDifuso.buscar(query)) {
+            Usuario usuario = instantanea.obtenerPorId(id);
+            if (usuario != null && yaIncluidos.get(id) == null) {
+                resultadosFiltrados.add(usuario);
+            }
+        }
+    }
+
     /**
      * Busca usuarios por ciudad
      */
     private void buscarPorCiudad(String ciudad) {
         try {
-            resultadosFiltrados.clear();
+            resultadosFiltrados = new ArrayList<>();
             
-            for (Usuario usuario : todosUsuarios) {
-                if (usuario.getCiudad().toLowerCase().contains(ciudad.toLowerCase())) {
-                    resultadosFiltrados.add(usuario);
+            String ciudadLower = ciudad.toLowerCase();
+            String clave = "c:" + ciudadLower;
+            int[] ids = cacheConsultas.obtener(clave);
+
+            if (ids != null) {
+                agregarPorIds(ids);
+            } else if (instantanea != null) {
+                for (int i = 0; i < todosUsuarios.size(); i++) {
+                    if (instantanea.getCiudadBusqueda(i).contains(ciudadLower)) {
+                        resultadosFiltrados.add(todosUsuarios.get(i));
+                    }
                 }
+                cacheConsultas.guardar(clave, idsDeResultados(), versionCargada);
             }
 
             actualizarLista();
@@ -230,19 +317,36 @@ public class BusquedaActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Agrega a los resultados los usuarios con los IDs indicados, en orden
+     */
+    private void agregarPorIds(int[] ids) {
+        if (instantanea == null) {
+            return;
+        }
+        for (int id : ids) {
+            Usuario usuario = instantanea.obtenerPorId(id);
+            if (usuario != null) {
+                resultadosFiltrados.add(usuario);
+            }
+        }
+    }
+
+    private int[] idsDeResultados() {
+        int[] ids = new int[resultadosFiltrados.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = resultadosFiltrados.get(i).getId();
+        }
+        return ids;
+    }
+
     /**
      * Actualiza la lista de resultados
+     * El adapter se reutiliza: no se arman textos ni adapters por pulsación.
      */
     private void actualizarLista() {
         try {
-            List<String> nombres = new ArrayList<>();
-            for (Usuario usuario : resultadosFiltrados) {
-                nombres.add(usuario.getNombre() + " - " + usuario.getCiudad());
-            }
-
-            listAdapter = new ArrayAdapter<>(this,
-                android.R.layout.simple_list_item_1, nombres);
-            listViewResultados.setAdapter(listAdapter);
+            listAdapter.setResultados(resultadosFiltrados, instantanea);
 
             tvResultados.setText("Resultados encontrados: " + resultadosFiltrados.size());
 
@@ -253,10 +357,16 @@ public class BusquedaActivity extends AppCompatActivity {
     }
 
     @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (dbHelper != null) {
-            dbHelper.close();
-        }
+    protected void onResume() {
+        super.onResume();
+        frameTracker.iniciar();
+        // Lee la tabla solo si cambió desde la última lectura de cualquier pantalla
+        viewModel.cargarSiCambio();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        frameTracker.detener();
     }
 }
\ No newline at end of file
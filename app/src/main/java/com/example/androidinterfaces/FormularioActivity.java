@@ -7,6 +7,7 @@ import android.view.View;
 import android.widget.*;
 import androidx.appcompat.app.AppCompatActivity;
 import com.example.androidinterfaces.data.DatabaseHelper;
+import com.example.androidinterfaces.data.UsuarioSyncWorker;
 import com.example.androidinterfaces.models.Usuario;
 import java.sql.SQLException;
 
@@ -34,7 +35,7 @@ public class FormularioActivity extends AppCompatActivity {
         setContentView(R.layout.activity_formulario);
 
         try {
-            dbHelper = new DatabaseHelper(this);
+            dbHelper = DatabaseHelper.getInstance(this);
             initializeViews();
             setupSpinner();
             setupEventListeners();
@@ -172,6 +173,8 @@ public class FormularioActivity extends AppCompatActivity {
                 Toast.makeText(this, "Usuario guardado exitosamente", 
                     Toast.LENGTH_LONG).show();
                 limpiarFormulario();
+                // El alta quedó en el outbox; se enviará en el próximo lote
+                UsuarioSyncWorker.getInstance(this).notificarCambios();
             } else {
                 throw new SQLException("Error al insertar en la base de datos");
             }
@@ -238,12 +241,4 @@ public class FormularioActivity extends AppCompatActivity {
         switchNotificaciones.setChecked(false);
         tvCaracteresNombre.setText("Caracteres: 0");
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (dbHelper != null) {
-            dbHelper.close();
-        }
-    }
 }
\ No newline at end of file
@@ -3,43 +3,86 @@ package com.example.androidinterfaces;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.*;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.DividerItemDecoration;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import com.google.android.material.snackbar.Snackbar;
 import com.example.androidinterfaces.adapters.UsuarioAdapter;
 import com.example.androidinterfaces.data.DatabaseHelper;
+import com.example.androidinterfaces.data.UsuarioPagingLoader;
+import com.example.androidinterfaces.metrics.FrameMetricsRecorder;
+import com.example.androidinterfaces.metrics.FrameTracker;
 import com.example.androidinterfaces.models.Usuario;
-import java.io.IOException;
+import com.example.androidinterfaces.viewmodels.ListadoViewModel;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Activity que muestra un listado de usuarios
  * Demuestra:
- * - Uso de ListView con adapter personalizado
- * - Eventos onItemClick y onItemLongClick
+ * - RecyclerView con adapter personalizado e IDs estables
+ * - Listado paginado desde SQLite: las páginas se leen al acercarse al final
+ * - Eventos de click y click largo sobre cada fila
+ * - Selección múltiple con borrado en una sola transacción y opción de deshacer
+ * - Estado en un ViewModel: rotar o cambiar de tema no vuelve a leer SQLite
  * - Operaciones CRUD (Read, Update, Delete)
  * - Manejo de excepciones de base de datos e I/O
  */
 public class ListadoActivity extends AppCompatActivity {
 
-    private ListView listView;
+    // Tiempo para deshacer antes de borrar de SQLite
+    private static final int DURACION_DESHACER_MS = 5000;
+
+    private RecyclerView recyclerView;
+    private LinearLayoutManager layoutManager;
+    private ListadoViewModel viewModel;
     private DatabaseHelper dbHelper;
     private List<Usuario> usuarios;
     private UsuarioAdapter adapter;
-    private Button btnRefrescar;
+    private UsuarioPagingLoader pagingLoader;
+    private Button btnRefrescar, btnEliminarSeleccion, btnCancelarSeleccion;
+    private LinearLayout layoutSeleccion;
     private TextView tvTotal;
+    private boolean avisarSiVacio = true;
+    private FrameTracker frameTracker;
+    // Etiqueta los frames mientras se carga una página
+    private FrameMetricsRecorder.Operacion operacionCarga;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_listado);
+        frameTracker = new FrameTracker(this);
 
         try {
-            dbHelper = new DatabaseHelper(this);
+            dbHelper = DatabaseHelper.getInstance(this);
+            viewModel = new ViewModelProvider(this).get(ListadoViewModel.class);
             initializeViews();
-            cargarDatos();
+            setupRecyclerView();
+            if (pagingLoader.sinCargar()) {
+                cargarDatos();
+            } else {
+                // Recreada tras una rotación: se muestra lo que ya estaba cargado
+                avisarSiVacio = false;
+                tvTotal.setText("Total de registros: " + pagingLoader.getTotal());
+                btnRefrescar.setEnabled(!pagingLoader.isCargando());
+            }
             setupEventListeners();
+            // La verificación corre en el hilo del cargador; el resultado llega aquí
+            viewModel.getVerificacionIndices().observe(this, resultado -> {
+                if (resultado != null) {
+                    viewModel.consumirVerificacionIndices();
+                    Toast.makeText(this, resultado, Toast.LENGTH_LONG).show();
+                }
+            });
+            if (viewModel.getEliminacionPendiente() != null) {
+                mostrarDeshacer(viewModel.getEliminacionPendiente());
+            }
         } catch (Exception e) {
             Toast.makeText(this, "Error al inicializar: " + e.getMessage(), 
                 Toast.LENGTH_LONG).show();
@@ -47,58 +90,129 @@ public class ListadoActivity extends AppCompatActivity {
     }
 
     private void initializeViews() {
-        listView = findViewById(R.id.listView);
+        recyclerView = findViewById(R.id.recyclerView);
         btnRefrescar = findViewById(R.id.btnRefrescar);
         tvTotal = findViewById(R.id.tvTotal);
+        layoutSeleccion = findViewById(R.id.layoutSeleccion);
+        btnEliminarSeleccion = findViewById(R.id.btnEliminarSeleccion);
+        btnCancelarSeleccion = findViewById(R.id.btnCancelarSeleccion);
     }
 
-    /**
-     * Carga los datos desde la base de datos con manejo de excepciones
-     */
-    private void cargarDatos() {
-        try {
-            usuarios = dbHelper.obtenerTodosUsuarios();
-            
-            if (usuarios == null) {
-                usuarios = new ArrayList<>();
-                throw new SQLException("Error al obtener usuarios de la base de datos");
+    private void setupRecyclerView() {
+        pagingLoader = viewModel.getPagingLoader();
+        pagingLoader.setListener(new UsuarioPagingLoader.Listener() {
+            @Override
+            public void onInsertados(int posicion, int cantidad) {
+                adapter.notifyItemRangeInserted(posicion, cantidad);
+                // Si la página no llena la pantalla se sigue cargando
+                recyclerView.post(() -> revisarPrecarga());
             }
 
-            adapter = new UsuarioAdapter(this, usuarios);
-            listView.setAdapter(adapter);
-            
-            tvTotal.setText("Total de registros: " + usuarios.size());
+            @Override
+            public void onEliminados(int posicion, int cantidad) {
+                adapter.notifyItemRangeRemoved(posicion, cantidad);
+            }
 
-            if (usuarios.isEmpty()) {
-                Toast.makeText(this, "No hay registros para mostrar", 
-                    Toast.LENGTH_SHORT).show();
+            @Override
+            public void onTotal(int total) {
+                tvTotal.setText("Total de registros: " + total);
+                if (total == 0 && avisarSiVacio) {
+                    Toast.makeText(ListadoActivity.this, "No hay registros para mostrar", 
+                        Toast.LENGTH_SHORT).show();
+                }
+                avisarSiVacio = false;
             }
 
-        } catch (SQLException e) {
-            Toast.makeText(this, "Error de base de datos: " + e.getMessage(), 
-                Toast.LENGTH_LONG).show();
-            usuarios = new ArrayList<>();
-            adapter = new UsuarioAdapter(this, usuarios);
-            listView.setAdapter(adapter);
-        } catch (IOException e) {
-            Toast.makeText(this, "Error de I/O al cargar datos: " + e.getMessage(), 
-                Toast.LENGTH_LONG).show();
+            @Override
+            public void onCargando(boolean cargando) {
+                btnRefrescar.setEnabled(!cargando);
+                if (cargando) {
+                    operacionCarga = FrameMetricsRecorder.getInstance()
+                        .iniciarOperacion("carga del listado");
+                } else {
+                    terminarOperacionCarga();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                if (t instanceof SQLException) {
+                    Toast.makeText(ListadoActivity.this, 
+                        "Error de base de datos: " + t.getMessage(), 
+                        Toast.LENGTH_LONG).show();
+                } else {
+                    Toast.makeText(ListadoActivity.this, 
+                        "Error general: " + t.getMessage(), 
+                        Toast.LENGTH_LONG).show();
+                }
+            }
+        });
+        usuarios = pagingLoader.getUsuarios();
+
+        layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.addItemDecoration(
+            new DividerItemDecoration(this, DividerItemDecoration.VERTICAL));
+        adapter = new UsuarioAdapter(this, usuarios);
+        recyclerView.setAdapter(adapter);
+
+        // Evento onScrolled - Carga de la página siguiente
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                revisarPrecarga();
+            }
+        });
+    }
+
+    /**
+     * Carga la primera página y el total; las siguientes llegan con el scroll
+     */
+    private void cargarDatos() {
+        try {
+            avisarSiVacio = true;
+            pagingLoader.reiniciar();
         } catch (Exception e) {
             Toast.makeText(this, "Error general: " + e.getMessage(), 
                 Toast.LENGTH_LONG).show();
         }
     }
 
+    /**
+     * La página recién llegada se dibuja en el próximo frame
+     */
+    private void terminarOperacionCarga() {
+        if (operacionCarga != null) {
+            operacionCarga.terminarTrasFrame();
+            operacionCarga = null;
+        }
+    }
+
+    private void revisarPrecarga() {
+        if (!usuarios.isEmpty()) {
+            pagingLoader.onScroll(layoutManager.findLastVisibleItemPosition());
+        }
+    }
+
     /**
      * Configura los listeners de eventos
      */
     private void setupEventListeners() {
-        // Evento onItemClick - Ver detalles del usuario
-        listView.setOnItemClickListener(new AdapterView.OnItemClickListener() {
+        adapter.setOnUsuarioClickListener(new UsuarioAdapter.OnUsuarioClickListener() {
+            // Evento onClick - Ver detalles del usuario (o marcarlo en modo selección)
             @Override
-            public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
+            public void onUsuarioClick(Usuario resumen, int position) {
+                if (adapter.isModoSeleccion()) {
+                    alternarSeleccion(position);
+                    return;
+                }
                 try {
-                    Usuario usuario = usuarios.get(position);
+                    // El listado solo trae la proyección; el detalle se toma de lo
+                    // que ya leyó otra pantalla o, si no, se lee completo
+                    Usuario usuario = viewModel.obtenerDetalleCompartido(resumen.getId());
+                    if (usuario == null) {
+                        usuario = dbHelper.obtenerUsuarioPorId(resumen.getId());
+                    }
                     mostrarDetalles(usuario);
                 } catch (Exception e) {
                     Toast.makeText(ListadoActivity.this, 
@@ -106,16 +220,16 @@ public class ListadoActivity extends AppCompatActivity {
                         Toast.LENGTH_SHORT).show();
                 }
             }
-        });
 
-        // Evento onItemLongClick - Eliminar usuario
-        listView.setOnItemLongClickListener(new AdapterView.OnItemLongClickListener() {
+            // Evento onLongClick - Entrar en modo selección para eliminar
             @Override
-            public boolean onItemLongClick(AdapterView<?> parent, View view, 
-                    int position, long id) {
+            public boolean onUsuarioLongClick(Usuario usuario, int position) {
                 try {
-                    Usuario usuario = usuarios.get(position);
-                    confirmarEliminacion(usuario, position);
+                    if (!adapter.isModoSeleccion()) {
+                        adapter.setModoSeleccion(true);
+                        layoutSeleccion.setVisibility(View.VISIBLE);
+                    }
+                    alternarSeleccion(position);
                     return true;
                 } catch (Exception e) {
                     Toast.makeText(ListadoActivity.this, 
@@ -126,6 +240,16 @@ public class ListadoActivity extends AppCompatActivity {
             }
         });
 
+        // Evento onLongClick del contador - Verificar planes de consulta
+        tvTotal.setOnLongClickListener(v -> {
+            viewModel.verificarIndices();
+            return true;
+        });
+
+        // Eventos del modo selección
+        btnEliminarSeleccion.setOnClickListener(v -> confirmarEliminacion());
+        btnCancelarSeleccion.setOnClickListener(v -> salirModoSeleccion());
+
         // Evento onClick del botón refrescar
         btnRefrescar.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -156,54 +280,133 @@ public class ListadoActivity extends AppCompatActivity {
         builder.show();
     }
 
+    private void alternarSeleccion(int position) {
+        adapter.alternarSeleccion(position);
+        int cantidad = adapter.getCantidadSeleccionados();
+        if (cantidad == 0) {
+            salirModoSeleccion();
+        } else {
+            btnEliminarSeleccion.setText("Eliminar (" + cantidad + ")");
+        }
+    }
+
+    private void salirModoSeleccion() {
+        adapter.setModoSeleccion(false);
+        layoutSeleccion.setVisibility(View.GONE);
+    }
+
     /**
-     * Confirma la eliminación de un usuario
+     * Confirma la eliminación de los usuarios seleccionados
      */
-    private void confirmarEliminacion(Usuario usuario, int position) {
+    private void confirmarEliminacion() {
+        int cantidad = adapter.getCantidadSeleccionados();
+        if (cantidad == 0) {
+            return;
+        }
         new AlertDialog.Builder(this)
-            .setTitle("Eliminar usuario")
-            .setMessage("¿Estás seguro de eliminar a " + usuario.getNombre() + "?")
-            .setPositiveButton("Eliminar", (dialog, which) -> eliminarUsuario(usuario, position))
+            .setTitle("Eliminar usuarios")
+            .setMessage("¿Estás seguro de eliminar " + cantidad +
+                (cantidad == 1 ? " usuario?" : " usuarios?"))
+            .setPositiveButton("Eliminar", (dialog, which) -> eliminarSeleccionados())
             .setNegativeButton("Cancelar", null)
             .show();
     }
 
     /**
-     * Elimina un usuario de la base de datos
+     * Oculta los seleccionados y ofrece deshacer; se borran de SQLite al
+     * cerrarse el Snackbar sin deshacer, todos en una transacción
      */
-    private void eliminarUsuario(Usuario usuario, int position) {
-        try {
-            boolean resultado = dbHelper.eliminarUsuario(usuario.getId());
-            
-            if (resultado) {
-                usuarios.remove(position);
-                adapter.notifyDataSetChanged();
-                tvTotal.setText("Total de registros: " + usuarios.size());
-                Toast.makeText(this, "Usuario eliminado", Toast.LENGTH_SHORT).show();
-            } else {
-                throw new SQLException("No se pudo eliminar el usuario");
-            }
+    private void eliminarSeleccionados() {
+        Set<Integer> ids = adapter.getSeleccionados();
+        salirModoSeleccion();
+        // Solo una eliminación se puede deshacer a la vez
+        purgarPendiente();
 
-        } catch (SQLException e) {
-            Toast.makeText(this, "Error al eliminar: " + e.getMessage(), 
-                Toast.LENGTH_LONG).show();
-        } catch (Exception e) {
-            Toast.makeText(this, "Error general: " + e.getMessage(), 
-                Toast.LENGTH_LONG).show();
+        UsuarioPagingLoader.Eliminacion eliminacion = pagingLoader.ocultar(ids);
+        if (eliminacion == null) {
+            return;
         }
+        viewModel.setEliminacionPendiente(eliminacion);
+        mostrarDeshacer(eliminacion);
+    }
+
+    /**
+     * Snackbar para deshacer; se vuelve a mostrar si la activity se recrea
+     */
+    private void mostrarDeshacer(UsuarioPagingLoader.Eliminacion eliminacion) {
+        int cantidad = eliminacion.getCantidad();
+        Snackbar.make(recyclerView,
+                cantidad == 1 ? "Usuario eliminado" : cantidad + " usuarios eliminados",
+                DURACION_DESHACER_MS)
+            .setAction("Deshacer", v -> {
+                pagingLoader.restaurar(eliminacion);
+                viewModel.setEliminacionPendiente(null);
+            })
+            .addCallback(new Snackbar.Callback() {
+                @Override
+                public void onDismissed(Snackbar snackbar, int event) {
+                    // En una rotación la eliminación sigue pendiente en el ViewModel
+                    if (event != DISMISS_EVENT_ACTION && !isChangingConfigurations()
+                            && viewModel.getEliminacionPendiente() == eliminacion) {
+                        purgarPendiente();
+                    }
+                }
+            })
+            .show();
+    }
+
+    /**
+     * Borra de SQLite la eliminación pendiente, si la hay
+     */
+    private void purgarPendiente() {
+        viewModel.purgarPendiente(new UsuarioPagingLoader.PurgaCallback() {
+            @Override
+            public void onPurgado(int eliminados) {
+                // Las filas ya no están en la lista: nada más que hacer
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                Toast.makeText(ListadoActivity.this, "Error al eliminar: " + t.getMessage(), 
+                    Toast.LENGTH_LONG).show();
+            }
+        });
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        cargarDatos();
+        frameTracker.iniciar();
+        // Al volver del formulario solo se recarga si hubo cambios
+        pagingLoader.recargarSiCambio();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        frameTracker.detener();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // No se deja nada a medio eliminar si la activity deja de verse,
+        // salvo en una rotación: el ViewModel la conserva para deshacer
+        if (!isChangingConfigurations()) {
+            purgarPendiente();
+        }
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (dbHelper != null) {
-            dbHelper.close();
+        // El ViewModel cierra el cargador cuando la pantalla ya no se necesita
+        if (pagingLoader != null) {
+            pagingLoader.setListener(null);
+        }
+        // Una carga sin terminar no debe etiquetar frames de otras pantallas
+        if (operacionCarga != null) {
+            operacionCarga.terminar();
         }
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import android.view.View;
 import android.widget.Button;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
+import com.example.androidinterfaces.data.UsuarioSyncWorker;
 
 /**
  * Activity principal que actúa como menú de navegación
@@ -24,6 +25,9 @@ public class MainActivity extends AppCompatActivity {
         
         initializeViews();
         setupEventListeners();
+
+        // Envía los usuarios que quedaron pendientes en sesiones anteriores
+        UsuarioSyncWorker.getInstance(this).iniciar();
     }
 
     /**
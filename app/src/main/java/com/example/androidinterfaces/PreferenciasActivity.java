@@ -1,26 +1,28 @@
 package com.example.androidinterfaces;
 
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.*;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.app.AppCompatDelegate;
+import com.example.androidinterfaces.data.PreferenciasStore;
+import com.example.androidinterfaces.models.Preferencias;
 import java.io.IOException;
 
 /**
  * Activity para manejar preferencias del usuario
  * Demuestra:
- * - Uso de SharedPreferences para persistencia de datos
+ * - Persistencia con PreferenciasStore (instantánea en memoria, escritura en segundo plano)
  * - Switches, SeekBar, RadioButtons
  * - Eventos onCheckedChanged, onProgressChanged
  * - Caché de configuraciones
  */
 public class PreferenciasActivity extends AppCompatActivity {
 
-    private static final String PREFS_NAME = "AppPreferences";
-    private SharedPreferences preferences;
-    private SharedPreferences.Editor editor;
+    private PreferenciasStore store;
+    // Lo que muestran los controles, para no recargarlos con sus propios valores
+    private Preferencias mostradas;
+    private boolean listenersListos = false;
 
     private Switch switchTemaOscuro, switchNotificaciones, switchSonidos;
     private SeekBar seekBarVolumen;
@@ -35,12 +37,10 @@ public class PreferenciasActivity extends AppCompatActivity {
         setContentView(R.layout.activity_preferencias);
 
         try {
-            preferences = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
-            editor = preferences.edit();
-            
+            store = PreferenciasStore.getInstance(this);
+
             initializeViews();
-            cargarPreferencias();
-            setupEventListeners();
+            observarPreferencias();
         } catch (Exception e) {
             Toast.makeText(this, "Error al inicializar: " + e.getMessage(), 
                 Toast.LENGTH_LONG).show();
@@ -60,16 +60,49 @@ public class PreferenciasActivity extends AppCompatActivity {
     }
 
     /**
-     * Carga las preferencias guardadas con manejo de excepciones
+     * Muestra las preferencias del almacén y sus cambios
+     * Los listeners se conectan tras la primera carga, como antes, para que
+     * los valores iniciales no disparen avisos.
+     */
+    private void observarPreferencias() {
+        store.getPreferencias().observe(this, nuevas -> {
+            if (nuevas.equals(mostradas)) {
+                return;
+            }
+            cargarPreferencias(nuevas);
+            if (!listenersListos) {
+                setupEventListeners();
+                listenersListos = true;
+            }
+        });
+
+        store.getError().observe(this, e -> {
+            if (e == null) {
+                return;
+            }
+            if (e instanceof IOException) {
+                Toast.makeText(this, "Error de I/O: " + e.getMessage(), 
+                    Toast.LENGTH_LONG).show();
+            } else {
+                Toast.makeText(this, "Error con las preferencias: " + e.getMessage(), 
+                    Toast.LENGTH_LONG).show();
+            }
+            store.consumirError();
+        });
+    }
+
+    /**
+     * Carga una instantánea de preferencias en los controles
      */
-    private void cargarPreferencias() {
+    private void cargarPreferencias(Preferencias preferencias) {
         try {
-            boolean temaOscuro = preferences.getBoolean("tema_oscuro", false);
-            boolean notificaciones = preferences.getBoolean("notificaciones", true);
-            boolean sonidos = preferences.getBoolean("sonidos", true);
-            int volumen = preferences.getInt("volumen", 50);
-            String idioma = preferences.getString("idioma", "espanol");
-            String nombreUsuario = preferences.getString("nombre_usuario", "");
+            mostradas = preferencias;
+            boolean temaOscuro = preferencias.isTemaOscuro();
+            boolean notificaciones = preferencias.isNotificaciones();
+            boolean sonidos = preferencias.isSonidos();
+            int volumen = preferencias.getVolumen();
+            String idioma = preferencias.getIdioma();
+            String nombreUsuario = preferencias.getNombreUsuario();
 
             switchTemaOscuro.setChecked(temaOscuro);
             switchNotificaciones.setChecked(notificaciones);
@@ -79,17 +112,14 @@ public class PreferenciasActivity extends AppCompatActivity {
             etNombreUsuario.setText(nombreUsuario);
 
             // Seleccionar idioma
-            if (idioma.equals("espanol")) {
+            if (idioma.equals(Preferencias.IDIOMA_ESPANOL)) {
                 rgIdioma.check(R.id.rbEspanol);
-            } else if (idioma.equals("ingles")) {
+            } else if (idioma.equals(Preferencias.IDIOMA_INGLES)) {
                 rgIdioma.check(R.id.rbIngles);
             }
 
             aplicarTema(temaOscuro);
 
-        } catch (ClassCastException e) {
-            Toast.makeText(this, "Error al cargar preferencias: tipo de dato incorrecto", 
-                Toast.LENGTH_LONG).show();
         } catch (Exception e) {
             Toast.makeText(this, "Error general al cargar: " + e.getMessage(), 
                 Toast.LENGTH_LONG).show();
@@ -146,42 +176,43 @@ public class PreferenciasActivity extends AppCompatActivity {
             }
         });
 
+        // Evento onLongClick para ver los tiempos de guardado
+        btnGuardar.setOnLongClickListener(v -> {
+            Toast.makeText(this, store.resumen(), Toast.LENGTH_LONG).show();
+            return true;
+        });
+
         // Evento onClick del botón restaurar
         btnRestaurar.setOnClickListener(v -> restaurarPorDefecto());
     }
 
     /**
      * Guarda las preferencias con manejo de excepciones
+     * La escritura a disco sigue en segundo plano; sus errores llegan por
+     * el almacén (ver observarPreferencias()).
      */
     private void guardarPreferencias() {
         try {
-            editor.putBoolean("tema_oscuro", switchTemaOscuro.isChecked());
-            editor.putBoolean("notificaciones", switchNotificaciones.isChecked());
-            editor.putBoolean("sonidos", switchSonidos.isChecked());
-            editor.putInt("volumen", seekBarVolumen.getProgress());
-            
             // Guardar idioma seleccionado
             int selectedIdiomaId = rgIdioma.getCheckedRadioButtonId();
-            String idioma = "espanol";
+            String idioma = Preferencias.IDIOMA_ESPANOL;
             if (selectedIdiomaId == R.id.rbIngles) {
-                idioma = "ingles";
-            }
-            editor.putString("idioma", idioma);
-            
-            editor.putString("nombre_usuario", etNombreUsuario.getText().toString());
-
-            boolean resultado = editor.commit();
-            
-            if (resultado) {
-                Toast.makeText(this, "Preferencias guardadas exitosamente", 
-                    Toast.LENGTH_SHORT).show();
-            } else {
-                throw new IOException("Error al guardar preferencias en disco");
+                idioma = Preferencias.IDIOMA_INGLES;
             }
 
-        } catch (IOException e) {
-            Toast.makeText(this, "Error de I/O: " + e.getMessage(), 
-                Toast.LENGTH_LONG).show();
+            Preferencias nuevas = new Preferencias(
+                switchTemaOscuro.isChecked(),
+                switchNotificaciones.isChecked(),
+                switchSonidos.isChecked(),
+                seekBarVolumen.getProgress(),
+                idioma,
+                etNombreUsuario.getText().toString());
+            mostradas = nuevas;
+            store.guardar(nuevas);
+
+            Toast.makeText(this, "Preferencias guardadas exitosamente", 
+                Toast.LENGTH_SHORT).show();
+
         } catch (Exception e) {
             Toast.makeText(this, "Error al guardar: " + e.getMessage(), 
                 Toast.LENGTH_LONG).show();
@@ -193,19 +224,11 @@ public class PreferenciasActivity extends AppCompatActivity {
      */
     private void restaurarPorDefecto() {
         try {
-            editor.clear();
-            boolean resultado = editor.commit();
-            
-            if (resultado) {
-                cargarPreferencias();
-                Toast.makeText(this, "Preferencias restauradas", Toast.LENGTH_SHORT).show();
-            } else {
-                throw new IOException("Error al limpiar preferencias");
-            }
+            // Los controles pueden tener cambios sin guardar: se recargan siempre
+            cargarPreferencias(Preferencias.DEFECTO);
+            store.guardar(Preferencias.DEFECTO);
+            Toast.makeText(this, "Preferencias restauradas", Toast.LENGTH_SHORT).show();
 
-        } catch (IOException e) {
-            Toast.makeText(this, "Error de I/O: " + e.getMessage(), 
-                Toast.LENGTH_LONG).show();
         } catch (Exception e) {
             Toast.makeText(this, "Error: " + e.getMessage(), 
                 Toast.LENGTH_LONG).show();
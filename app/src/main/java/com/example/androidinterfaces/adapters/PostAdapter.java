@@ -1,41 +1,222 @@
 package com.example.androidinterfaces.adapters;
 
 import android.content.Context;
+import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.androidinterfaces.R;
+import com.example.androidinterfaces.api.LatencyHistogram;
+import com.example.androidinterfaces.data.IntLruCache;
+import com.example.androidinterfaces.data.PostAuthorJoiner;
 import com.example.androidinterfaces.models.Post;
+import com.example.androidinterfaces.models.Usuario;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 /**
  * Adapter para RecyclerView de posts de API
  */
 public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder> {
+    // Payload para actualizar solo el autor de las filas
+    public static final Object PAYLOAD_AUTOR = new Object();
+    // Textos "ID: n" guardados: de sobra para la ventana paginada (10 páginas de 20)
+    private static final int CAPACIDAD_TEXTOS_ID = 256;
+
     private Context context;
     private List<Post> posts;
+    private OnPostClickListener onPostClickListener;
+    private PostAuthorJoiner authorJoiner;
+    private PrecomputedTextCache textCache;
+    private PostViewPool viewPool;
+    // Textos de autor por userId: cada uno se arma una sola vez
+    private final SparseArray<String> textosAutor = new SparseArray<>();
+    private final SparseArray<String> textosUsuario = new SparseArray<>();
+    // Texto "ID: n" por ID de post: el bind no concatena por fila; acotado
+    // para que recorrer miles de posts no los retenga todos
+    private final IntLruCache<String> textosId = new IntLruCache<>(CAPACIDAD_TEXTOS_ID);
+    // Tiempo de poner el cuerpo en la fila, según llegó medido o no
+    private final LatencyHistogram bindConPrecalculo = new LatencyHistogram();
+    private final LatencyHistogram bindSinPrecalculo = new LatencyHistogram();
+
+    /**
+     * Receptor del click sobre un post
+     */
+    public interface OnPostClickListener {
+        void onPostClick(Post post);
+    }
 
     public PostAdapter(Context context, List<Post> posts) {
         this.context = context;
         this.posts = posts;
     }
 
+    public void setOnPostClickListener(OnPostClickListener listener) {
+        this.onPostClickListener = listener;
+    }
+
+    /**
+     * Caché de cuerpos ya medidos; sin ella el cuerpo se mide al hacer bind
+     */
+    public void setTextCache(PrecomputedTextCache textCache) {
+        this.textCache = textCache;
+    }
+
+    /**
+     * Pool compartido: las filas nuevas se inflan con su contexto, así
+     * pueden volver al pool sin retener la activity
+     */
+    public void setViewPool(PostViewPool viewPool) {
+        this.viewPool = viewPool;
+    }
+
+    /**
+     * Fuente de los autores que se muestran en cada fila
+     */
+    public void setAuthorJoiner(PostAuthorJoiner authorJoiner) {
+        this.authorJoiner = authorJoiner;
+    }
+
     @NonNull
     @Override
     public PostViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(context).inflate(R.layout.item_post, parent, false);
-        return new PostViewHolder(view);
+        View view = viewPool != null
+            ? viewPool.inflar(parent)
+            : LayoutInflater.from(context).inflate(R.layout.item_post, parent, false);
+        PostViewHolder holder = new PostViewHolder(view);
+        if (textCache != null) {
+            textCache.setParams(holder.paramsCuerpo);
+        }
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull PostViewHolder holder, int position) {
+        // Las filas del pool compartido pueden venir de otro adapter
+        holder.adapter = this;
+        if (textCache != null && !textCache.tieneParams()) {
+            textCache.setParams(holder.paramsCuerpo);
+        }
         Post post = posts.get(position);
         holder.tvTitle.setText(post.getTitle());
-        holder.tvBody.setText(post.getBody());
-        holder.tvId.setText("ID: " + post.getId());
+        bindCuerpo(holder, post);
+        holder.tvId.setText(textoId(post.getId()));
+        bindAutor(holder, post);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull PostViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_AUTOR)) {
+            bindAutor(holder, posts.get(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull PostViewHolder holder) {
+        // La fila puede quedar en el pool compartido: no debe retener este adapter
+        holder.adapter = null;
+    }
+
+    private void onClick(PostViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        if (onPostClickListener != null && position != RecyclerView.NO_POSITION) {
+            onPostClickListener.onPostClick(posts.get(position));
+        }
+    }
+
+    /**
+     * Usa el cuerpo ya medido si está listo y sirve para este TextView; si
+     * no, lo mide el TextView. setPrecomputedText() rechaza un texto medido
+     * con otros parámetros (p. ej. una fila inflada con otro tema); se
+     * comparan con los de la fila, calculados una sola vez al crearla.
+     * En una fila reciclada de ancho fijo setText() ya arma el layout, así
+     * el tiempo registrado incluye la medición del texto.
+     */
+    private void bindCuerpo(PostViewHolder holder, Post post) {
+        PrecomputedTextCompat precalculado =
+            textCache != null ? textCache.obtener(post.getId(), post.getBody()) : null;
+        boolean usable = precalculado != null
+            && precalculado.getParams().equals(holder.paramsCuerpo);
+        long inicio = System.nanoTime();
+        if (usable) {
+            TextViewCompat.setPrecomputedText(holder.tvBody, precalculado);
+            bindConPrecalculo.registrar(System.nanoTime() - inicio);
+        } else {
+            holder.tvBody.setText(post.getBody());
+            bindSinPrecalculo.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Tiempo medio de bind del cuerpo con y sin texto ya medido
+     */
+    public String resumenBind() {
+        return String.format(Locale.getDefault(),
+            "Bind del cuerpo precalculado: n=%d media=%.3fms max=%.3fms"
+                + "\nBind del cuerpo sin precalcular: n=%d media=%.3fms max=%.3fms",
+            bindConPrecalculo.getCantidad(), bindConPrecalculo.getMediaMs(),
+            bindConPrecalculo.getMaximoMs(),
+            bindSinPrecalculo.getCantidad(), bindSinPrecalculo.getMediaMs(),
+            bindSinPrecalculo.getMaximoMs());
+    }
+
+    /**
+     * Mide en segundo plano los cuerpos de las filas [desde, hasta)
+     */
+    public void precalcularTextos(int desde, int hasta) {
+        if (textCache == null) {
+            return;
+        }
+        for (int i = Math.max(0, desde); i < Math.min(hasta, posts.size()); i++) {
+            Post post = posts.get(i);
+            textCache.precalcular(post.getId(), post.getBody());
+        }
+    }
+
+    private void bindAutor(PostViewHolder holder, Post post) {
+        holder.tvAutor.setText(textoAutor(post.getUserId()));
+    }
+
+    /**
+     * "Por nombre" si el autor ya se resolvió, si no "Usuario N"
+     * Los textos se guardan por userId para no concatenar en cada bind.
+     */
+    private String textoAutor(int userId) {
+        String texto = textosAutor.get(userId);
+        if (texto != null) {
+            return texto;
+        }
+        Usuario autor = authorJoiner != null ? authorJoiner.obtenerAutor(userId) : null;
+        if (autor != null) {
+            texto = "Por " + autor.getNombre();
+            textosAutor.put(userId, texto);
+            return texto;
+        }
+        texto = textosUsuario.get(userId);
+        if (texto == null) {
+            texto = "Usuario " + userId;
+            textosUsuario.put(userId, texto);
+        }
+        return texto;
+    }
+
+    private String textoId(int id) {
+        String texto = textosId.obtener(id);
+        if (texto == null) {
+            texto = "ID: " + id;
+            textosId.guardar(id, texto);
+        }
+        return texto;
     }
 
     @Override
@@ -43,16 +224,87 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
         return posts.size();
     }
 
-    static class PostViewHolder extends RecyclerView.ViewHolder {
+    /**
+     * Cambia la lista que se muestra (p. ej. resultados de búsqueda)
+     * La lista se usa tal cual, sin copiarla.
+     */
+    public void setPosts(List<Post> posts) {
+        this.posts = posts;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Notifica solo las filas que cambiaron respecto de "anteriores"
+     * La lista que se muestra ya tiene los posts nuevos: la modifica su
+     * dueño (p. ej. el cargador paginado al revalidar una página).
+     */
+    public void actualizarPosts(List<Post> anteriores) {
+        DiffUtil.calculateDiff(new PostDiffCallback(anteriores, posts)).dispatchUpdatesTo(this);
+    }
+
+    /**
+     * Compara posts por ID y por contenido
+     */
+    static class PostDiffCallback extends DiffUtil.Callback {
+        private final List<Post> anteriores;
+        private final List<Post> nuevos;
+
+        PostDiffCallback(List<Post> anteriores, List<Post> nuevos) {
+            this.anteriores = anteriores;
+            this.nuevos = nuevos;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return anteriores.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return nuevos.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return anteriores.get(oldItemPosition).getId() == nuevos.get(newItemPosition).getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            Post anterior = anteriores.get(oldItemPosition);
+            Post nuevo = nuevos.get(newItemPosition);
+            return anterior.getUserId() == nuevo.getUserId()
+                && Objects.equals(anterior.getTitle(), nuevo.getTitle())
+                && Objects.equals(anterior.getBody(), nuevo.getBody());
+        }
+    }
+
+    static class PostViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
         TextView tvTitle;
         TextView tvBody;
         TextView tvId;
+        TextView tvAutor;
+        // Parámetros de medición del cuerpo: dependen solo del estilo del
+        // TextView, que no cambia en la vida de la fila
+        final PrecomputedTextCompat.Params paramsCuerpo;
+        // Adapter que la tiene asignada; null mientras está en el pool
+        PostAdapter adapter;
 
         public PostViewHolder(@NonNull View itemView) {
             super(itemView);
+            itemView.setOnClickListener(this);
             tvTitle = itemView.findViewById(R.id.tvTitlePost);
             tvBody = itemView.findViewById(R.id.tvBodyPost);
             tvId = itemView.findViewById(R.id.tvIdPost);
+            tvAutor = itemView.findViewById(R.id.tvAutorPost);
+            paramsCuerpo = TextViewCompat.getTextMetricsParams(tvBody);
+        }
+
+        @Override
+        public void onClick(View v) {
+            if (adapter != null) {
+                adapter.onClick(this);
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.example.androidinterfaces.adapters;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.androidinterfaces.R;
+import java.util.ArrayDeque;
+
+/**
+ * Pool de filas de posts compartido por todas las pantallas que las muestran
+ * - precalentar() infla filas en segundo plano con AsyncLayoutInflater y
+ *   las guarda aparte; PostAdapter.onCreateViewHolder() las toma con
+ *   inflar() antes de inflar una nueva. No van al RecycledViewPool: un
+ *   ViewHolder que nunca pasó por el adapter no tiene tipo de vista y el
+ *   RecyclerView no lo devolvería
+ * - El pool de RecyclerView guarda las filas recicladas por cualquier pantalla
+ * - Las vistas se inflan con el contexto de la aplicación (con el tema y la
+ *   configuración de la pantalla), así el pool no retiene ninguna activity
+ * - Si cambia la configuración (tema oscuro, densidad, fuente) el pool se
+ *   vacía: esas filas ya no sirven
+ * Se usa solo desde el hilo principal.
+ */
+public class PostViewPool {
+
+    // PostAdapter tiene un solo tipo de vista
+    private static final int TIPO_POST = 0;
+    private static final int MAX_POR_TIPO = 20;
+
+    private static PostViewPool instancia = null;
+
+    private final Context aplicacion;
+    private final RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+    // Filas infladas por precalentar() que todavía no usó ningún adapter
+    private final ArrayDeque<View> precalentadas = new ArrayDeque<>();
+    private Configuration configuracion;
+    private Context contexto;
+    private AsyncLayoutInflater inflater;
+    private int enCurso = 0;
+    // Descarta las filas infladas con una configuración anterior
+    private int generacion = 0;
+
+    private PostViewPool(Context context) {
+        this.aplicacion = context.getApplicationContext();
+        pool.setMaxRecycledViews(TIPO_POST, MAX_POR_TIPO);
+    }
+
+    public static PostViewPool getInstance(Context context) {
+        if (instancia == null) {
+            instancia = new PostViewPool(context);
+        }
+        return instancia;
+    }
+
+    /**
+     * Pool para RecyclerView.setRecycledViewPool()
+     */
+    public RecyclerView.RecycledViewPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Infla en segundo plano las filas que falten hasta tener "cantidad"
+     * El RecyclerView solo se usa como padre para los LayoutParams.
+     */
+    public void precalentar(RecyclerView recyclerView, int cantidad) {
+        actualizarConfiguracion(recyclerView.getContext());
+        int faltantes = Math.min(cantidad, MAX_POR_TIPO)
+            - pool.getRecycledViewCount(TIPO_POST) - precalentadas.size() - enCurso;
+        int gen = generacion;
+        for (int i = 0; i < faltantes; i++) {
+            enCurso++;
+            inflater.inflate(R.layout.item_post, recyclerView, (view, resid, parent) -> {
+                if (gen != generacion) {
+                    return;
+                }
+                enCurso--;
+                precalentadas.addLast(view);
+            });
+        }
+    }
+
+    /**
+     * Fila para onCreateViewHolder: una precalentada si queda alguna; si no,
+     * se infla en el hilo principal con el mismo contexto
+     */
+    public View inflar(ViewGroup parent) {
+        actualizarConfiguracion(parent.getContext());
+        View precalentada = precalentadas.pollFirst();
+        if (precalentada != null) {
+            return precalentada;
+        }
+        return LayoutInflater.from(contexto).inflate(R.layout.item_post, parent, false);
+    }
+
+    /**
+     * Descarta las filas guardadas; las próximas se inflan al crearse
+     */
+    public void vaciar() {
+        pool.clear();
+        precalentadas.clear();
+        generacion++;
+        enCurso = 0;
+    }
+
+    private void actualizarConfiguracion(Context pantalla) {
+        Configuration actual = pantalla.getResources().getConfiguration();
+        if (configuracion != null && configuracion.diff(actual) == 0) {
+            return;
+        }
+        vaciar();
+        configuracion = new Configuration(actual);
+        contexto = new ContextThemeWrapper(
+            aplicacion.createConfigurationContext(configuracion),
+            aplicacion.getApplicationInfo().theme);
+        inflater = new AsyncLayoutInflater(contexto);
+    }
+
+    /**
+     * Filas listas para usar: recicladas más precalentadas
+     */
+    public int getDisponibles() {
+        return pool.getRecycledViewCount(TIPO_POST) + precalentadas.size();
+    }
+}
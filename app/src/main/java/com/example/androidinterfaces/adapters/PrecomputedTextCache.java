@@ -0,0 +1,110 @@
+package com.example.androidinterfaces.adapters;
+
+import android.text.TextUtils;
+import android.util.SparseBooleanArray;
+import androidx.core.text.PrecomputedTextCompat;
+import com.example.androidinterfaces.data.IntLruCache;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caché acotada de textos con el layout ya medido (PrecomputedTextCompat)
+ * - La medición se hace en un hilo propio, antes de que la fila aparezca
+ * - Cada entrada se guarda por ID y solo vale para el mismo texto y los
+ *   mismos parámetros (fuente, tamaño, cortes de línea) del TextView
+ * - Si los parámetros cambian (p. ej. otro tema) se descarta todo
+ * - Las claves son int de punta a punta: obtener() en el bind no crea objetos
+ * precalcular() y setParams() pueden llamarse desde el hilo principal;
+ * obtener() es seguro desde cualquier hilo.
+ */
+public class PrecomputedTextCache {
+
+    /**
+     * Texto original y su versión precalculada
+     */
+    private static class Entrada {
+        final CharSequence texto;
+        final PrecomputedTextCompat precalculado;
+
+        Entrada(CharSequence texto, PrecomputedTextCompat precalculado) {
+            this.texto = texto;
+            this.precalculado = precalculado;
+        }
+    }
+
+    private final IntLruCache<Entrada> cache;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    // IDs en cola de medición; protegido por su propio monitor
+    private final SparseBooleanArray pendientes = new SparseBooleanArray();
+    private volatile PrecomputedTextCompat.Params params;
+
+    public PrecomputedTextCache(int capacidad) {
+        this.cache = new IntLruCache<>(capacidad);
+    }
+
+    /**
+     * Parámetros del TextView donde se mostrarán los textos
+     */
+    public void setParams(PrecomputedTextCompat.Params nuevos) {
+        if (!nuevos.equals(params)) {
+            params = nuevos;
+            cache.limpiar();
+        }
+    }
+
+    public boolean tieneParams() {
+        return params != null;
+    }
+
+    /**
+     * Mide el texto en segundo plano si no está ya en la caché o en curso
+     */
+    public void precalcular(int id, CharSequence texto) {
+        PrecomputedTextCompat.Params actuales = params;
+        if (actuales == null || TextUtils.isEmpty(texto)) {
+            return;
+        }
+        Entrada entrada = cache.obtener(id);
+        if (entrada != null && esValida(entrada, texto, actuales)) {
+            return;
+        }
+        synchronized (pendientes) {
+            if (pendientes.get(id)) {
+                return;
+            }
+            pendientes.put(id, true);
+        }
+        executor.execute(() -> {
+            try {
+                cache.guardar(id, new Entrada(texto, PrecomputedTextCompat.create(texto, actuales)));
+            } finally {
+                synchronized (pendientes) {
+                    pendientes.delete(id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Texto precalculado para ese ID y ese texto; null si todavía no está
+     */
+    public PrecomputedTextCompat obtener(int id, CharSequence texto) {
+        PrecomputedTextCompat.Params actuales = params;
+        Entrada entrada = cache.obtener(id);
+        if (entrada == null || actuales == null || !esValida(entrada, texto, actuales)) {
+            return null;
+        }
+        return entrada.precalculado;
+    }
+
+    private static boolean esValida(Entrada entrada, CharSequence texto,
+                                    PrecomputedTextCompat.Params actuales) {
+        return (entrada.texto == texto || TextUtils.equals(entrada.texto, texto))
+            && entrada.precalculado.getParams().equals(actuales);
+    }
+
+    public void cerrar() {
+        executor.shutdownNow();
+        cache.limpiar();
+    }
+}
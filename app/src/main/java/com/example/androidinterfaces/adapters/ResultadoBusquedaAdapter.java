@@ -0,0 +1,78 @@
+package com.example.androidinterfaces.adapters;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.TextView;
+import com.example.androidinterfaces.data.UsuarioStore;
+import com.example.androidinterfaces.models.Usuario;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Adapter para la ListView de resultados de búsqueda
+ * Se crea una sola vez y cada búsqueda solo cambia la lista; el texto de
+ * cada fila viene ya armado en la instantánea, sin concatenar al mostrar.
+ */
+public class ResultadoBusquedaAdapter extends BaseAdapter {
+    private LayoutInflater inflater;
+    private List<Usuario> resultados = Collections.emptyList();
+    private UsuarioStore.Instantanea instantanea;
+
+    public ResultadoBusquedaAdapter(Context context) {
+        this.inflater = LayoutInflater.from(context);
+    }
+
+    /**
+     * Muestra los resultados; la lista se usa tal cual, sin copiarla
+     * El llamador no debe modificarla después: para otra búsqueda se pasa una
+     * lista nueva, porque la ListView puede leer la anterior hasta el próximo
+     * notifyDataSetChanged().
+     */
+    public void setResultados(List<Usuario> resultados, UsuarioStore.Instantanea instantanea) {
+        this.resultados = resultados;
+        this.instantanea = instantanea;
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getCount() {
+        return resultados.size();
+    }
+
+    @Override
+    public Object getItem(int position) {
+        return resultados.get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return resultados.get(position).getId();
+    }
+
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        TextView textView;
+
+        if (convertView == null) {
+            convertView = inflater.inflate(android.R.layout.simple_list_item_1, parent, false);
+            textView = convertView.findViewById(android.R.id.text1);
+            convertView.setTag(textView);
+        } else {
+            textView = (TextView) convertView.getTag();
+        }
+
+        Usuario usuario = resultados.get(position);
+        String texto = instantanea != null ? instantanea.getTextoResultado(usuario.getId()) : null;
+        textView.setText(texto != null ? texto : usuario.getNombre() + " - " + usuario.getCiudad());
+
+        return convertView;
+    }
+}
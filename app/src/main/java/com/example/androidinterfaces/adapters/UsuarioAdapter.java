@@ -4,67 +4,152 @@ import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.BaseAdapter;
 import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
 import com.example.androidinterfaces.R;
 import com.example.androidinterfaces.models.Usuario;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Adapter personalizado para ListView de usuarios
+ * Adapter para RecyclerView de usuarios
+ * Usa IDs estables (el ID del usuario) para que las animaciones y la
+ * posición del scroll sobrevivan a inserciones y eliminaciones.
+ * La selección múltiple se guarda por ID, así no depende de las posiciones.
  */
-public class UsuarioAdapter extends BaseAdapter {
-    private Context context;
+public class UsuarioAdapter extends RecyclerView.Adapter<UsuarioAdapter.UsuarioViewHolder> {
+    // Payload para actualizar solo el estado de selección de las filas
+    public static final Object PAYLOAD_SELECCION = new Object();
+
     private List<Usuario> usuarios;
+    private final Set<Integer> seleccionados = new HashSet<>();
+    private boolean modoSeleccion = false;
     private LayoutInflater inflater;
+    private OnUsuarioClickListener onUsuarioClickListener;
+
+    /**
+     * Receptor de clicks sobre una fila
+     */
+    public interface OnUsuarioClickListener {
+        void onUsuarioClick(Usuario usuario, int position);
+
+        boolean onUsuarioLongClick(Usuario usuario, int position);
+    }
 
     public UsuarioAdapter(Context context, List<Usuario> usuarios) {
-        this.context = context;
         this.usuarios = usuarios;
         this.inflater = LayoutInflater.from(context);
+        setHasStableIds(true);
     }
 
-    @Override
-    public int getCount() {
-        return usuarios.size();
+    public void setOnUsuarioClickListener(OnUsuarioClickListener listener) {
+        this.onUsuarioClickListener = listener;
     }
 
-    @Override
-    public Object getItem(int position) {
-        return usuarios.get(position);
+    public boolean isModoSeleccion() {
+        return modoSeleccion;
     }
 
-    @Override
-    public long getItemId(int position) {
-        return usuarios.get(position).getId();
+    /**
+     * Entra o sale del modo de selección; al salir se descarta la selección
+     */
+    public void setModoSeleccion(boolean activo) {
+        if (modoSeleccion == activo) {
+            return;
+        }
+        modoSeleccion = activo;
+        if (!activo && !seleccionados.isEmpty()) {
+            seleccionados.clear();
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECCION);
+        }
     }
 
-    @Override
-    public View getView(int position, View convertView, ViewGroup parent) {
-        ViewHolder holder;
-
-        if (convertView == null) {
-            convertView = inflater.inflate(R.layout.item_usuario, parent, false);
-            holder = new ViewHolder();
-            holder.tvNombre = convertView.findViewById(R.id.tvNombreItem);
-            holder.tvEmail = convertView.findViewById(R.id.tvEmailItem);
-            holder.tvCiudad = convertView.findViewById(R.id.tvCiudadItem);
-            convertView.setTag(holder);
-        } else {
-            holder = (ViewHolder) convertView.getTag();
+    /**
+     * Marca o desmarca la fila y actualiza solo esa fila
+     */
+    public void alternarSeleccion(int position) {
+        int id = usuarios.get(position).getId();
+        if (!seleccionados.remove(id)) {
+            seleccionados.add(id);
         }
+        notifyItemChanged(position, PAYLOAD_SELECCION);
+    }
+
+    public int getCantidadSeleccionados() {
+        return seleccionados.size();
+    }
+
+    /**
+     * IDs seleccionados (copia)
+     */
+    public Set<Integer> getSeleccionados() {
+        return new HashSet<>(seleccionados);
+    }
+
+    @NonNull
+    @Override
+    public UsuarioViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = inflater.inflate(R.layout.item_usuario, parent, false);
+        UsuarioViewHolder holder = new UsuarioViewHolder(view);
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (onUsuarioClickListener != null && position != RecyclerView.NO_POSITION) {
+                onUsuarioClickListener.onUsuarioClick(usuarios.get(position), position);
+            }
+        });
+        view.setOnLongClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            return onUsuarioClickListener != null && position != RecyclerView.NO_POSITION
+                && onUsuarioClickListener.onUsuarioLongClick(usuarios.get(position), position);
+        });
+        return holder;
+    }
 
+    @Override
+    public void onBindViewHolder(@NonNull UsuarioViewHolder holder, int position) {
         Usuario usuario = usuarios.get(position);
         holder.tvNombre.setText(usuario.getNombre());
         holder.tvEmail.setText(usuario.getEmail());
         holder.tvCiudad.setText(usuario.getCiudad());
+        bindSeleccion(holder, usuario);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull UsuarioViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_SELECCION)) {
+            bindSeleccion(holder, usuarios.get(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    private void bindSeleccion(UsuarioViewHolder holder, Usuario usuario) {
+        holder.itemView.setActivated(seleccionados.contains(usuario.getId()));
+    }
+
+    @Override
+    public int getItemCount() {
+        return usuarios.size();
+    }
 
-        return convertView;
+    @Override
+    public long getItemId(int position) {
+        return usuarios.get(position).getId();
     }
 
-    static class ViewHolder {
+    static class UsuarioViewHolder extends RecyclerView.ViewHolder {
         TextView tvNombre;
         TextView tvEmail;
         TextView tvCiudad;
+
+        public UsuarioViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvNombre = itemView.findViewById(R.id.tvNombreItem);
+            tvEmail = itemView.findViewById(R.id.tvEmailItem);
+            tvCiudad = itemView.findViewById(R.id.tvCiudadItem);
+        }
     }
-}
\ No newline at end of file
+}
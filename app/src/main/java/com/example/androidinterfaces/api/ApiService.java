@@ -1,10 +1,19 @@
 package com.example.androidinterfaces.api;
 
 import com.example.androidinterfaces.models.Post;
+import com.example.androidinterfaces.models.Usuario;
 import java.util.List;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
+import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Headers;
+import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 /**
  * Interface de servicios API
@@ -18,9 +27,55 @@ public interface ApiService {
     @GET("posts")
     Call<List<Post>> getPosts();
     
+    /**
+     * Obtiene la lista de posts sin decodificar, para leerla en streaming
+     * (ver PostStreamReader); no se agrupa con otras peticiones en curso
+     * porque eso obligaría a guardar el cuerpo completo en memoria
+     */
+    @Streaming
+    @Headers(RequestCoalescingInterceptor.HEADER_SIN_AGRUPAR + ": 1")
+    @GET("posts")
+    Call<ResponseBody> getPostsStream();
+    
+    /**
+     * Obtiene una página de posts (paginación de json-server)
+     * @param pagina número de página, comenzando en 1
+     * @param limite cantidad de posts por página
+     */
+    @GET("posts")
+    Call<List<Post>> getPostsPaginados(@Query("_page") int pagina, @Query("_limit") int limite);
+    
+    /**
+     * Obtiene los posts con ID mayor que la marca, ordenados por ID
+     * (filtros de json-server), para la sincronización incremental
+     */
+    @GET("posts?_sort=id&_order=asc")
+    Call<List<Post>> getPostsDesde(@Query("id_gt") long marcaId);
+    
     /**
      * Obtiene un post específico por ID
      */
     @GET("posts/{id}")
     Call<Post> getPost(@Path("id") int id);
+    
+    /**
+     * Obtiene varios usuarios en una sola petición (?id=1&id=2...)
+     */
+    @GET("users")
+    Call<List<Usuario>> getUsuarios(@Query("id") List<Integer> ids);
+    
+    /**
+     * Obtiene un usuario específico por ID
+     */
+    @GET("users/{id}")
+    Call<Usuario> getUsuario(@Path("id") int id);
+    
+    /**
+     * Envía un lote de usuarios creados localmente, comprimido con gzip
+     * @param claveIdempotencia misma clave en cada reintento del mismo lote
+     */
+    @Headers("Content-Encoding: gzip")
+    @POST("usuarios/lote")
+    Call<ResponseBody> enviarUsuarios(@Header("Idempotency-Key") String claveIdempotencia,
+                                      @Body RequestBody lote);
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.example.androidinterfaces.api;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Interceptores de OkHttp para la caché HTTP en disco
+ */
+public final class CacheInterceptors {
+
+    private CacheInterceptors() {}
+
+    /**
+     * Interceptor de aplicación, solo para GET (lo único que guarda la caché):
+     * - Sin conexión fuerza la lectura desde caché aunque esté vencida
+     * - Clasifica cada respuesta para las métricas
+     * El resto de los métodos (p. ej. el POST de usuarios/lote) pasa sin cambios.
+     */
+    public static class Offline implements Interceptor {
+        private final Context context;
+        private final int maxStaleDias;
+        private final HttpCacheMetrics metrics;
+
+        public Offline(Context context, int maxStaleDias, HttpCacheMetrics metrics) {
+            this.context = context.getApplicationContext();
+            this.maxStaleDias = maxStaleDias;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            if (!"GET".equals(request.method())) {
+                return chain.proceed(request);
+            }
+            if (!hayConexion()) {
+                request = request.newBuilder()
+                    .cacheControl(new CacheControl.Builder()
+                        .onlyIfCached()
+                        .maxStale(maxStaleDias, TimeUnit.DAYS)
+                        .build())
+                    .build();
+            }
+
+            Response response = chain.proceed(request);
+            String url = request.url().toString();
+            Response cacheResponse = response.cacheResponse();
+            Response networkResponse = response.networkResponse();
+
+            if (cacheResponse != null && networkResponse == null) {
+                metrics.registrarAcierto(url, longitudCabecera(cacheResponse));
+            } else if (cacheResponse != null && networkResponse.code() == 304) {
+                metrics.registrarRevalidada(url, longitudCabecera(cacheResponse));
+            } else if (networkResponse != null) {
+                metrics.registrarFallo();
+            }
+            return response;
+        }
+
+        private boolean hayConexion() {
+            ConnectivityManager manager =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            if (manager == null) {
+                return true;
+            }
+            Network red = manager.getActiveNetwork();
+            NetworkCapabilities capacidades = red != null ? manager.getNetworkCapabilities(red) : null;
+            return capacidades != null
+                && capacidades.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+        }
+
+        private static long longitudCabecera(Response response) {
+            String valor = response.header("Content-Length");
+            try {
+                return valor != null ? Long.parseLong(valor) : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Interceptor de red:
+     * - Si el servidor no envió política de caché (ni Cache-Control ni
+     *   Pragma) agrega max-age para que la respuesta se guarde y luego se
+     *   revalide con peticiones condicionales (ETag / Last-Modified); una
+     *   política propia (no-store, private, no-cache...) se respeta tal cual
+     * - Cuenta los bytes del cuerpo recibidos por la red
+     */
+    public static class Revalidation implements Interceptor {
+        private final int maxAgeSegundos;
+        private final HttpCacheMetrics metrics;
+
+        public Revalidation(int maxAgeSegundos, HttpCacheMetrics metrics) {
+            this.maxAgeSegundos = maxAgeSegundos;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+
+            // El 304 también se reescribe: sus cabeceras actualizan la entrada guardada
+            boolean noModificado = response.code() == 304;
+            if (!"GET".equals(request.method()) || !(response.isSuccessful() || noModificado)) {
+                return response;
+            }
+
+            Response.Builder builder = response.newBuilder();
+            if (response.header("Cache-Control") == null && response.header("Pragma") == null) {
+                builder.header("Cache-Control", "public, max-age=" + maxAgeSegundos);
+            }
+
+            ResponseBody body = response.body();
+            if (body != null && !noModificado) {
+                String url = request.url().toString();
+                Source contador = new ForwardingSource(body.source()) {
+                    private long leidos = 0;
+                    private boolean registrado = false;
+
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        long n = super.read(sink, byteCount);
+                        if (n == -1) {
+                            if (!registrado) {
+                                registrado = true;
+                                metrics.registrarDescarga(url, leidos);
+                            }
+                        } else {
+                            leidos += n;
+                        }
+                        return n;
+                    }
+                };
+                builder.body(ResponseBody.create(body.contentType(), body.contentLength(),
+                    Okio.buffer(contador)));
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.androidinterfaces.api;
+
+import java.util.Locale;
+
+/**
+ * Circuit breaker de un host
+ * - CERRADO: las peticiones pasan; tras "umbralFallos" fallos seguidos se abre
+ * - ABIERTO: se rechazan las peticiones durante "aperturaMs"
+ * - SEMIABIERTO: pasa una sola petición de prueba; si funciona se cierra,
+ *   si falla se vuelve a abrir
+ * Es seguro entre hilos.
+ */
+public class CircuitBreaker {
+
+    public enum Estado { CERRADO, ABIERTO, SEMIABIERTO }
+
+    private final String host;
+    private final int umbralFallos;
+    private final long aperturaMs;
+
+    private Estado estado = Estado.CERRADO;
+    private int fallosConsecutivos;
+    private long abiertoDesdeMs;
+    private boolean pruebaEnCurso;
+
+    // Métricas
+    private long exitos;
+    private long fallos;
+    private long aperturas;
+    private long rechazadas;
+
+    public CircuitBreaker(String host, int umbralFallos, long aperturaMs) {
+        if (umbralFallos <= 0) {
+            throw new IllegalArgumentException("El umbral de fallos debe ser mayor que cero");
+        }
+        this.host = host;
+        this.umbralFallos = umbralFallos;
+        this.aperturaMs = aperturaMs;
+    }
+
+    /**
+     * Indica si una petición puede salir hacia el host
+     * Cada petición permitida debe cerrarse con registrarExito(),
+     * registrarFallo() o liberar().
+     */
+    synchronized boolean permitir() {
+        if (estado == Estado.ABIERTO) {
+            if (ahoraMs() - abiertoDesdeMs < aperturaMs) {
+                rechazadas++;
+                return false;
+            }
+            estado = Estado.SEMIABIERTO;
+            pruebaEnCurso = false;
+        }
+        if (estado == Estado.SEMIABIERTO) {
+            if (pruebaEnCurso) {
+                rechazadas++;
+                return false;
+            }
+            pruebaEnCurso = true;
+        }
+        return true;
+    }
+
+    synchronized void registrarExito() {
+        exitos++;
+        fallosConsecutivos = 0;
+        estado = Estado.CERRADO;
+        pruebaEnCurso = false;
+    }
+
+    synchronized void registrarFallo() {
+        fallos++;
+        fallosConsecutivos++;
+        if (estado == Estado.SEMIABIERTO || fallosConsecutivos >= umbralFallos) {
+            if (estado != Estado.ABIERTO) {
+                aperturas++;
+            }
+            estado = Estado.ABIERTO;
+            abiertoDesdeMs = ahoraMs();
+            pruebaEnCurso = false;
+        }
+    }
+
+    /**
+     * Cierra una petición que no dice nada sobre la salud del host
+     * (cancelada o servida desde caché)
+     */
+    synchronized void liberar() {
+        pruebaEnCurso = false;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    public synchronized int getFallosConsecutivos() {
+        return fallosConsecutivos;
+    }
+
+    /**
+     * Milisegundos que faltan para admitir una petición de prueba
+     */
+    public synchronized long getEsperaRestanteMs() {
+        if (estado != Estado.ABIERTO) {
+            return 0;
+        }
+        return Math.max(0, aperturaMs - (ahoraMs() - abiertoDesdeMs));
+    }
+
+    public synchronized long getExitos() {
+        return exitos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    public synchronized long getAperturas() {
+        return aperturas;
+    }
+
+    public synchronized long getRechazadas() {
+        return rechazadas;
+    }
+
+    public synchronized String resumen() {
+        return String.format(Locale.getDefault(),
+            "%s: %s, %d éxitos, %d fallos, %d aperturas, %d rechazadas",
+            host, estado, exitos, fallos, aperturas, rechazadas);
+    }
+
+    private static long ahoraMs() {
+        return System.nanoTime() / 1_000_000;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.androidinterfaces.api;
+
+import java.io.IOException;
+
+/**
+ * Petición rechazada sin salir a la red porque el circuito del host está abierto
+ */
+public class CircuitOpenException extends IOException {
+
+    private final long esperaRestanteMs;
+
+    public CircuitOpenException(String host, long esperaRestanteMs) {
+        super("Circuito abierto para " + host);
+        this.esperaRestanteMs = esperaRestanteMs;
+    }
+
+    /**
+     * Milisegundos hasta que se admita una nueva petición de prueba
+     */
+    public long getEsperaRestanteMs() {
+        return esperaRestanteMs;
+    }
+}
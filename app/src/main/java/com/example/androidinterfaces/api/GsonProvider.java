@@ -0,0 +1,24 @@
+package com.example.androidinterfaces.api;
+
+import com.example.androidinterfaces.models.Post;
+import com.example.androidinterfaces.models.Usuario;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Instancia compartida de Gson con los TypeAdapters de los modelos
+ * registrados, para no recurrir a la deserialización por reflexión
+ */
+public final class GsonProvider {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Post.class, new PostTypeAdapter().nullSafe())
+            .registerTypeAdapter(Usuario.class, new UsuarioTypeAdapter().nullSafe())
+            .create();
+
+    private GsonProvider() {}
+
+    public static Gson get() {
+        return GSON;
+    }
+}
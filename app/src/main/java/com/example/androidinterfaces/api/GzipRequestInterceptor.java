@@ -0,0 +1,42 @@
+package com.example.androidinterfaces.api;
+
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * Interceptor que comprime con gzip el cuerpo de las peticiones que lo
+ * piden con la cabecera "Content-Encoding: gzip" (ver ApiService)
+ * El cuerpo comprimido se guarda en memoria para enviar su longitud y
+ * poder repetirlo en los reintentos.
+ */
+public class GzipRequestInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (body == null || !"gzip".equalsIgnoreCase(request.header("Content-Encoding"))) {
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder()
+            .method(request.method(), comprimir(body))
+            .build());
+    }
+
+    private static RequestBody comprimir(RequestBody body) throws IOException {
+        Buffer comprimido = new Buffer();
+        try (BufferedSink gzip = Okio.buffer(new GzipSink(comprimido))) {
+            body.writeTo(gzip);
+        }
+        MediaType tipo = body.contentType();
+        return RequestBody.create(tipo, comprimido.readByteString());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.androidinterfaces.api;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métricas de la caché HTTP en disco
+ * - Aciertos: respuestas servidas desde disco sin tocar la red
+ * - Revalidadas: peticiones condicionales respondidas con 304
+ * - Fallos: respuestas descargadas completas
+ * - Bytes ahorrados: tamaño en red de los cuerpos que no se descargaron
+ */
+public class HttpCacheMetrics {
+
+    private static final int MAX_TAMANOS_RECORDADOS = 64;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong revalidadas = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong bytesDescargados = new AtomicLong();
+    private final AtomicLong bytesAhorrados = new AtomicLong();
+
+    // Último tamaño en red de cada URL, para estimar los bytes ahorrados
+    private final Map<String, Long> tamanoPorUrl =
+        new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > MAX_TAMANOS_RECORDADOS;
+            }
+        };
+
+    void registrarAcierto(String url, long tamanoCabecera) {
+        aciertos.incrementAndGet();
+        bytesAhorrados.addAndGet(tamanoConocido(url, tamanoCabecera));
+    }
+
+    void registrarRevalidada(String url, long tamanoCabecera) {
+        revalidadas.incrementAndGet();
+        bytesAhorrados.addAndGet(tamanoConocido(url, tamanoCabecera));
+    }
+
+    void registrarFallo() {
+        fallos.incrementAndGet();
+    }
+
+    /**
+     * Registra los bytes leídos de la red para el cuerpo de una URL
+     */
+    void registrarDescarga(String url, long bytes) {
+        bytesDescargados.addAndGet(bytes);
+        synchronized (tamanoPorUrl) {
+            tamanoPorUrl.put(url, bytes);
+        }
+    }
+
+    private long tamanoConocido(String url, long tamanoCabecera) {
+        synchronized (tamanoPorUrl) {
+            Long tamano = tamanoPorUrl.get(url);
+            if (tamano != null) {
+                return tamano;
+            }
+        }
+        return Math.max(0, tamanoCabecera);
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getRevalidadas() {
+        return revalidadas.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    public long getBytesDescargados() {
+        return bytesDescargados.get();
+    }
+
+    public long getBytesAhorrados() {
+        return bytesAhorrados.get();
+    }
+
+    public void reiniciar() {
+        aciertos.set(0);
+        revalidadas.set(0);
+        fallos.set(0);
+        bytesDescargados.set(0);
+        bytesAhorrados.set(0);
+    }
+
+    public String resumen() {
+        return String.format(Locale.getDefault(),
+            "HTTP caché: %d aciertos, %d revalidadas (304), %d fallos, %d KB descargados, %d KB ahorrados",
+            getAciertos(), getRevalidadas(), getFallos(),
+            getBytesDescargados() / 1024, getBytesAhorrados() / 1024);
+    }
+}
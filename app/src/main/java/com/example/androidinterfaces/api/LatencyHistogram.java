@@ -0,0 +1,102 @@
+package com.example.androidinterfaces.api;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Histograma de latencias con cubetas fijas en escala logarítmica
+ * Registrar no reserva memoria ni bloquea; los percentiles son la cota
+ * superior de la cubeta donde caen.
+ */
+public class LatencyHistogram {
+
+    // Cota superior de cada cubeta en milisegundos; la última es ilimitada
+    private static final long[] LIMITES_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final long[] limitesMs;
+    private final AtomicLongArray cubetas;
+    private final AtomicLong cantidad = new AtomicLong();
+    private final AtomicLong sumaNanos = new AtomicLong();
+    private final LongAccumulator maximoNanos = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        this(LIMITES_MS);
+    }
+
+    /**
+     * Histograma con otras cubetas (ordenadas, en milisegundos)
+     */
+    public LatencyHistogram(long[] limitesMs) {
+        this.limitesMs = limitesMs.clone();
+        this.cubetas = new AtomicLongArray(limitesMs.length + 1);
+    }
+
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        cubetas.incrementAndGet(indiceCubeta(nanos));
+        cantidad.incrementAndGet();
+        sumaNanos.addAndGet(nanos);
+        maximoNanos.accumulate(nanos);
+    }
+
+    private int indiceCubeta(long nanos) {
+        long ms = nanos / 1_000_000;
+        for (int i = 0; i < limitesMs.length; i++) {
+            if (ms < limitesMs[i]) {
+                return i;
+            }
+        }
+        return limitesMs.length;
+    }
+
+    public long getCantidad() {
+        return cantidad.get();
+    }
+
+    public double getMediaMs() {
+        long n = cantidad.get();
+        return n == 0 ? 0 : sumaNanos.get() / (n * 1_000_000.0);
+    }
+
+    public double getMaximoMs() {
+        return maximoNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Cota superior en milisegundos del percentil indicado (0 a 100)
+     */
+    public double percentilMs(double percentil) {
+        long total = cantidad.get();
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(total * percentil / 100.0);
+        long acumulado = 0;
+        for (int i = 0; i < limitesMs.length; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limitesMs[i], getMaximoMs());
+            }
+        }
+        return getMaximoMs();
+    }
+
+    public void reiniciar() {
+        for (int i = 0; i < cubetas.length(); i++) {
+            cubetas.set(i, 0);
+        }
+        cantidad.set(0);
+        sumaNanos.set(0);
+        maximoNanos.reset();
+    }
+
+    public String resumen() {
+        return String.format(Locale.getDefault(),
+            "n=%d media=%.1fms p50≤%.0fms p95≤%.0fms max=%.1fms",
+            getCantidad(), getMediaMs(), percentilMs(50), percentilMs(95), getMaximoMs());
+    }
+}
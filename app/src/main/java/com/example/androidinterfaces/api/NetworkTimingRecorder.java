@@ -0,0 +1,99 @@
+package com.example.androidinterfaces.api;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import okhttp3.HttpUrl;
+
+/**
+ * Tiempos de red por endpoint y fase
+ * Los endpoints se agrupan por plantilla de ruta: los segmentos numéricos
+ * se reemplazan por {id} ("posts/1" -> "posts/{id}") y se ignora la query.
+ */
+public class NetworkTimingRecorder {
+
+    public enum Fase {
+        DNS, CONEXION, TLS, TTFB, CUERPO, CONVERSION, TOTAL
+    }
+
+    private final ConcurrentHashMap<String, Map<Fase, LatencyHistogram>> histogramas =
+        new ConcurrentHashMap<>();
+
+    public void registrar(String endpoint, Fase fase, long nanos) {
+        histogramas.computeIfAbsent(endpoint, e -> crearHistogramas()).get(fase).registrar(nanos);
+    }
+
+    private static Map<Fase, LatencyHistogram> crearHistogramas() {
+        // Se crean todos de una vez para que el mapa sea de solo lectura
+        Map<Fase, LatencyHistogram> mapa = new EnumMap<>(Fase.class);
+        for (Fase fase : Fase.values()) {
+            mapa.put(fase, new LatencyHistogram());
+        }
+        return mapa;
+    }
+
+    /**
+     * Histograma de una fase, o null si el endpoint no tiene registros
+     */
+    public LatencyHistogram getHistograma(String endpoint, Fase fase) {
+        Map<Fase, LatencyHistogram> mapa = histogramas.get(endpoint);
+        return mapa != null ? mapa.get(fase) : null;
+    }
+
+    /**
+     * Plantilla de ruta del endpoint de una URL
+     */
+    public static String endpointDe(HttpUrl url) {
+        List<String> segmentos = url.encodedPathSegments();
+        StringBuilder sb = new StringBuilder();
+        for (String segmento : segmentos) {
+            if (segmento.isEmpty()) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append('/');
+            }
+            sb.append(esNumerico(segmento) ? "{id}" : segmento);
+        }
+        return sb.toString();
+    }
+
+    private static boolean esNumerico(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (!Character.isDigit(texto.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void reiniciar() {
+        histogramas.clear();
+    }
+
+    /**
+     * Volcado legible de todas las fases con registros, por endpoint
+     */
+    public String volcado() {
+        if (histogramas.isEmpty()) {
+            return "Sin llamadas registradas";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Map<Fase, LatencyHistogram>> entrada :
+                new TreeMap<>(histogramas).entrySet()) {
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(entrada.getKey()).append('\n');
+            for (Map.Entry<Fase, LatencyHistogram> fase : entrada.getValue().entrySet()) {
+                if (fase.getValue().getCantidad() > 0) {
+                    sb.append("  ").append(fase.getKey().name().toLowerCase())
+                        .append(": ").append(fase.getValue().resumen()).append('\n');
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
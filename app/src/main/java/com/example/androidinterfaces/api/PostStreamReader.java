@@ -0,0 +1,56 @@
+package com.example.androidinterfaces.api;
+
+import com.example.androidinterfaces.models.Post;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import okhttp3.ResponseBody;
+
+/**
+ * Lector incremental de un arreglo JSON de posts
+ * Decodifica post a post con JsonReader mientras llegan los bytes y
+ * entrega lotes de tamaño fijo, sin armar la lista completa en memoria.
+ */
+public class PostStreamReader {
+
+    /**
+     * Receptor de cada lote decodificado
+     */
+    public interface LoteListener {
+        void onLote(List<Post> lote) throws IOException;
+    }
+
+    private final TypeAdapter<Post> adapter;
+
+    public PostStreamReader(Gson gson) {
+        this.adapter = gson.getAdapter(Post.class);
+    }
+
+    /**
+     * Lee el cuerpo completo y lo entrega en lotes
+     * @return cantidad total de posts leídos
+     */
+    public int leer(ResponseBody body, int tamanoLote, LoteListener listener) throws IOException {
+        int total = 0;
+        try (JsonReader reader = new JsonReader(body.charStream())) {
+            reader.beginArray();
+            List<Post> lote = new ArrayList<>(tamanoLote);
+            while (reader.hasNext()) {
+                lote.add(adapter.read(reader));
+                total++;
+                if (lote.size() == tamanoLote) {
+                    listener.onLote(lote);
+                    lote = new ArrayList<>(tamanoLote);
+                }
+            }
+            reader.endArray();
+            if (!lote.isEmpty()) {
+                listener.onLote(lote);
+            }
+        }
+        return total;
+    }
+}
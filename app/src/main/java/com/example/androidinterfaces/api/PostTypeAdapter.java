@@ -0,0 +1,77 @@
+package com.example.androidinterfaces.api;
+
+import com.example.androidinterfaces.models.Post;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * TypeAdapter escrito a mano para Post
+ * Lee los campos por nombre sin reflexión ni boxing
+ */
+public class PostTypeAdapter extends TypeAdapter<Post> {
+
+    @Override
+    public void write(JsonWriter out, Post post) throws IOException {
+        if (post == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("userId").value(post.getUserId());
+        out.name("id").value(post.getId());
+        out.name("title").value(post.getTitle());
+        out.name("body").value(post.getBody());
+        out.endObject();
+    }
+
+    @Override
+    public Post read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Post post = new Post();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "userId":
+                    post.setUserId(leerEntero(in));
+                    break;
+                case "id":
+                    post.setId(leerEntero(in));
+                    break;
+                case "title":
+                    post.setTitle(leerTexto(in));
+                    break;
+                case "body":
+                    post.setBody(leerTexto(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return post;
+    }
+
+    static int leerEntero(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return in.nextInt();
+    }
+
+    static String leerTexto(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+}
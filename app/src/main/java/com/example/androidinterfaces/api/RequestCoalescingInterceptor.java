@@ -0,0 +1,158 @@
+package com.example.androidinterfaces.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Interceptor de aplicación que agrupa peticiones GET idénticas en curso
+ * La primera petición para un método + URL va a la red; las que llegan
+ * mientras tanto esperan su resultado y reciben una copia del cuerpo.
+ * Cada espera respeta la cancelación y el timeout de su propia llamada;
+ * si la que fue a la red se cancela, las que esperaban hacen su propia
+ * petición en vez de heredar ese fallo.
+ * Las peticiones con la cabecera HEADER_SIN_AGRUPAR (p. ej. descargas en
+ * streaming, que no deben guardarse en memoria) pasan sin agrupar.
+ */
+public class RequestCoalescingInterceptor implements Interceptor {
+
+    public static final String HEADER_SIN_AGRUPAR = "X-Sin-Agrupar";
+
+    // Cada cuánto una espera revisa si su llamada se canceló
+    private static final long INTERVALO_CANCELACION_MS = 50;
+
+    private final ConcurrentHashMap<String, CompletableFuture<RespuestaCompartida>> enCurso =
+        new ConcurrentHashMap<>();
+    private final AtomicLong agrupadas = new AtomicLong();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.header(HEADER_SIN_AGRUPAR) != null) {
+            return chain.proceed(request.newBuilder().removeHeader(HEADER_SIN_AGRUPAR).build());
+        }
+        if (!"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+
+        String clave = request.method() + " " + request.url();
+        CompletableFuture<RespuestaCompartida> propia = new CompletableFuture<>();
+        CompletableFuture<RespuestaCompartida> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            agrupadas.incrementAndGet();
+            return esperar(existente, chain);
+        }
+
+        try {
+            RespuestaCompartida compartida = RespuestaCompartida.leer(chain.proceed(request));
+            propia.complete(compartida);
+            return compartida.crear(request);
+        } catch (IOException | RuntimeException e) {
+            if (chain.call().isCanceled()) {
+                // null: el fallo es de esta llamada, no de la petición
+                propia.complete(null);
+            } else {
+                propia.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    /**
+     * Espera la respuesta de la petición en curso sin pasar del timeout de
+     * esta llamada y cortando apenas se cancela
+     */
+    private Response esperar(CompletableFuture<RespuestaCompartida> futuro, Chain chain)
+            throws IOException {
+        Call call = chain.call();
+        long timeoutNanos = call.timeout().timeoutNanos();
+        long limite = timeoutNanos > 0 ? System.nanoTime() + timeoutNanos : Long.MAX_VALUE;
+        try {
+            while (true) {
+                if (call.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                long restanteMs = limite == Long.MAX_VALUE ? INTERVALO_CANCELACION_MS
+                    : TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime());
+                if (restanteMs <= 0) {
+                    throw new InterruptedIOException("timeout");
+                }
+                RespuestaCompartida compartida;
+                try {
+                    compartida = futuro.get(Math.min(restanteMs, INTERVALO_CANCELACION_MS),
+                        TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    continue;
+                }
+                if (compartida == null) {
+                    // La petición en curso se canceló: esta hace la suya
+                    return chain.proceed(chain.request());
+                }
+                return compartida.crear(chain.request());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Petición agrupada interrumpida");
+        } catch (ExecutionException e) {
+            // Se relanza la misma excepción para conservar su tipo
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new IOException(causa);
+        }
+    }
+
+    /**
+     * Cantidad de peticiones resueltas con la respuesta de otra en curso
+     */
+    public long getAgrupadas() {
+        return agrupadas.get();
+    }
+
+    /**
+     * Respuesta con el cuerpo ya leído, para entregar una copia a cada llamador
+     */
+    private static class RespuestaCompartida {
+        private final Response response;
+        private final MediaType tipo;
+        private final byte[] cuerpo;
+
+        private RespuestaCompartida(Response response, MediaType tipo, byte[] cuerpo) {
+            this.response = response;
+            this.tipo = tipo;
+            this.cuerpo = cuerpo;
+        }
+
+        static RespuestaCompartida leer(Response response) throws IOException {
+            try (ResponseBody body = response.body()) {
+                MediaType tipo = body != null ? body.contentType() : null;
+                byte[] cuerpo = body != null ? body.bytes() : new byte[0];
+                return new RespuestaCompartida(response, tipo, cuerpo);
+            }
+        }
+
+        Response crear(Request request) {
+            return response.newBuilder()
+                .request(request)
+                .body(ResponseBody.create(tipo, cuerpo))
+                .build();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.androidinterfaces.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Interceptor de aplicación con reintentos y circuit breaker por host
+ * - Solo reintenta métodos idempotentes (o con cabecera Idempotency-Key),
+ *   ante errores de red o 429/502/503/504
+ * - Espera exponencial con jitter completo entre intentos (respeta
+ *   Retry-After si el servidor lo indica, sin pasar de la espera máxima);
+ *   no reintenta si la llamada se canceló o si la espera no cabe en lo
+ *   que queda de su timeout
+ * - Es la única capa que reintenta: el cliente se crea con
+ *   retryOnConnectionFailure(false)
+ * - Cada host tiene su CircuitBreaker; con el circuito abierto las
+ *   peticiones fallan al instante con CircuitOpenException
+ * Las lecturas forzadas desde caché (sin conexión) pasan sin tocarse.
+ */
+public class ResilienceInterceptor implements Interceptor {
+
+    private static final Set<String> METODOS_IDEMPOTENTES =
+        new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+    private static final Set<Integer> CODIGOS_REINTENTABLES =
+        new HashSet<>(Arrays.asList(429, 502, 503, 504));
+    // Cada cuánto la espera entre intentos revisa si la llamada se canceló
+    private static final long INTERVALO_CANCELACION_MS = 50;
+
+    private final int maxReintentos;
+    private final long esperaBaseMs;
+    private final long esperaMaximaMs;
+    private final int umbralFallos;
+    private final long aperturaMs;
+
+    private final ConcurrentHashMap<String, CircuitBreaker> circuitos = new ConcurrentHashMap<>();
+    private final AtomicLong reintentos = new AtomicLong();
+
+    public ResilienceInterceptor(int maxReintentos, long esperaBaseMs, long esperaMaximaMs,
+                                 int umbralFallos, long aperturaMs) {
+        this.maxReintentos = maxReintentos;
+        this.esperaBaseMs = esperaBaseMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.umbralFallos = umbralFallos;
+        this.aperturaMs = aperturaMs;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.cacheControl().onlyIfCached()) {
+            return chain.proceed(request);
+        }
+
+        long inicioNanos = System.nanoTime();
+        String host = request.url().host();
+        CircuitBreaker circuito = getCircuito(host);
+        boolean idempotente = METODOS_IDEMPOTENTES.contains(request.method())
+            || request.header("Idempotency-Key") != null;
+
+        for (int intento = 0; ; intento++) {
+            if (!circuito.permitir()) {
+                throw new CircuitOpenException(host, circuito.getEsperaRestanteMs());
+            }
+
+            Response response;
+            // Toda petición permitida termina en éxito, fallo o liberar(): si
+            // no, una prueba del semiabierto quedaría tomada para siempre
+            boolean registrado = false;
+            try {
+                response = chain.proceed(request);
+                if (response.networkResponse() == null) {
+                    // Servida desde caché: no dice nada sobre el host
+                    return response;
+                }
+                int codigo = response.code();
+                if (codigo < 500 && codigo != 429) {
+                    circuito.registrarExito();
+                    registrado = true;
+                    return response;
+                }
+                circuito.registrarFallo();
+                registrado = true;
+            } catch (IOException e) {
+                if (chain.call().isCanceled()) {
+                    throw e;
+                }
+                circuito.registrarFallo();
+                registrado = true;
+                long espera = calcularEspera(intento, 0);
+                if (!idempotente || intento >= maxReintentos
+                        || !cabeEnElPlazo(chain.call(), inicioNanos, espera)) {
+                    throw e;
+                }
+                esperar(chain.call(), espera);
+                continue;
+            } finally {
+                if (!registrado) {
+                    circuito.liberar();
+                }
+            }
+
+            int codigo = response.code();
+            if (!idempotente || intento >= maxReintentos
+                    || !CODIGOS_REINTENTABLES.contains(codigo)) {
+                return response;
+            }
+            long espera = calcularEspera(intento, leerRetryAfterMs(response));
+            if (!cabeEnElPlazo(chain.call(), inicioNanos, espera)) {
+                return response;
+            }
+            response.close();
+            esperar(chain.call(), espera);
+        }
+    }
+
+    /**
+     * Espera exponencial con jitter completo, al menos el Retry-After
+     */
+    private long calcularEspera(int intento, long minimoMs) {
+        long techo = Math.min(esperaMaximaMs, esperaBaseMs << Math.min(intento, 20));
+        return Math.max(ThreadLocalRandom.current().nextLong(techo + 1),
+            Math.min(minimoMs, esperaMaximaMs));
+    }
+
+    /**
+     * Indica si vale la pena reintentar: la llamada sigue viva y la espera
+     * termina antes de su timeout (si tiene)
+     */
+    private static boolean cabeEnElPlazo(Call call, long inicioNanos, long esperaMs) {
+        if (call.isCanceled()) {
+            return false;
+        }
+        long timeoutNanos = call.timeout().timeoutNanos();
+        if (timeoutNanos == 0) {
+            return true;
+        }
+        long restanteNanos = timeoutNanos - (System.nanoTime() - inicioNanos);
+        return TimeUnit.MILLISECONDS.toNanos(esperaMs) < restanteNanos;
+    }
+
+    /**
+     * Duerme entre intentos en tramos cortos, cortando si la llamada se cancela
+     */
+    private void esperar(Call call, long esperaMs) throws IOException {
+        reintentos.incrementAndGet();
+        long finNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMs);
+        try {
+            while (true) {
+                if (call.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                long restanteMs = TimeUnit.NANOSECONDS.toMillis(finNanos - System.nanoTime());
+                if (restanteMs <= 0) {
+                    return;
+                }
+                Thread.sleep(Math.min(restanteMs, INTERVALO_CANCELACION_MS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Reintento interrumpido");
+        }
+    }
+
+    private static long leerRetryAfterMs(Response response) {
+        String valor = response.header("Retry-After");
+        if (valor == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(valor.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            // Formato de fecha HTTP: se usa la espera exponencial
+            return 0;
+        }
+    }
+
+    /**
+     * Circuit breaker del host, creado al primer uso
+     */
+    public CircuitBreaker getCircuito(String host) {
+        return circuitos.computeIfAbsent(host,
+            h -> new CircuitBreaker(h, umbralFallos, aperturaMs));
+    }
+
+    public long getReintentos() {
+        return reintentos.get();
+    }
+
+    public String resumen() {
+        StringBuilder sb = new StringBuilder("Reintentos: ").append(getReintentos());
+        for (CircuitBreaker circuito : circuitos.values()) {
+            sb.append('\n').append(circuito.resumen());
+        }
+        return sb.toString();
+    }
+}
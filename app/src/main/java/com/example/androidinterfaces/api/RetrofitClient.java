@@ -1,26 +1,174 @@
 package com.example.androidinterfaces.api;
 
+import android.content.Context;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  * Cliente Retrofit para consumo de API REST
- * Patrón Singleton para asegurar una sola instancia
+ * Patrón Singleton para asegurar una sola instancia, creada de forma
+ * perezosa y segura entre hilos
+ * Usa un OkHttpClient compartido con caché HTTP en disco:
+ * - Revalidación condicional (ETag / Last-Modified) en cada petición
+ * - Lectura desde caché vencida cuando no hay conexión
+ * - Peticiones GET idénticas en curso agrupadas en una sola llamada
+ * - Reintentos con espera exponencial y circuit breaker por host
+ * - Cuerpos comprimidos con gzip en las peticiones que lo indican
+ * - Tiempos de cada fase de red y de la conversión, por endpoint
  */
 public class RetrofitClient {
     private static final String BASE_URL = "https://jsonplaceholder.typicode.com/";
-    private static Retrofit retrofit = null;
+    private static final long TAMANO_CACHE_HTTP = 10 * 1024 * 1024;
+    private static final String DIRECTORIO_CACHE_HTTP = "http_cache";
+    // max-age=0: se guarda en disco pero siempre se revalida con el servidor
+    private static final int MAX_AGE_SEGUNDOS = 0;
+    private static final int MAX_STALE_SIN_CONEXION_DIAS = 7;
+
+    // Timeouts de cada intento
+    private static final int CONNECT_TIMEOUT_SEGUNDOS = 10;
+    private static final int READ_TIMEOUT_SEGUNDOS = 15;
+    private static final int WRITE_TIMEOUT_SEGUNDOS = 15;
+
+    // Reintentos y circuit breaker
+    private static final int MAX_REINTENTOS = 3;
+    private static final long ESPERA_BASE_MS = 500;
+    private static final long ESPERA_MAXIMA_MS = 8000;
+    private static final int UMBRAL_FALLOS_CIRCUITO = 5;
+    private static final long APERTURA_CIRCUITO_MS = 30_000;
+
+    private static volatile String baseUrl = BASE_URL;
+    private static volatile Retrofit retrofit = null;
+    private static volatile OkHttpClient httpClient = null;
+    private static final HttpCacheMetrics cacheMetrics = new HttpCacheMetrics();
+    private static final RequestCoalescingInterceptor coalescing =
+            new RequestCoalescingInterceptor();
+    private static final GzipRequestInterceptor gzip = new GzipRequestInterceptor();
+    private static final NetworkTimingRecorder timingRecorder = new NetworkTimingRecorder();
+    private static final ResilienceInterceptor resilience = new ResilienceInterceptor(
+            MAX_REINTENTOS, ESPERA_BASE_MS, ESPERA_MAXIMA_MS,
+            UMBRAL_FALLOS_CIRCUITO, APERTURA_CIRCUITO_MS);
 
     /**
      * Obtiene la instancia única de Retrofit
+     * Si aún no existe se crea sin caché en disco
      */
     public static Retrofit getInstance() {
-        if (retrofit == null) {
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .build();
+        Retrofit actual = retrofit;
+        if (actual == null) {
+            synchronized (RetrofitClient.class) {
+                if (retrofit == null) {
+                    retrofit = crearRetrofit(configurarConexion(new OkHttpClient.Builder())
+                            .addInterceptor(coalescing)
+                            .addInterceptor(gzip)
+                            .addInterceptor(resilience)
+                            .eventListenerFactory(TimingEventListener.factory(timingRecorder))
+                            .build());
+                }
+                actual = retrofit;
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Obtiene la instancia única de Retrofit con caché HTTP en disco
+     */
+    public static Retrofit getInstance(Context context) {
+        if (httpClient == null) {
+            synchronized (RetrofitClient.class) {
+                if (httpClient == null) {
+                    OkHttpClient client = crearHttpClient(context.getApplicationContext());
+                    // retrofit se publica antes que httpClient: quien vea
+                    // httpClient asignado ve también el Retrofit con caché
+                    retrofit = crearRetrofit(client);
+                    httpClient = client;
+                }
+            }
         }
         return retrofit;
     }
-}
\ No newline at end of file
+
+    /**
+     * Cambia el servidor de la API y descarta los clientes ya creados
+     * Visible para los tests de las activities, que usan un MockWebServer.
+     * @param url URL base terminada en "/"; null para volver al servidor real
+     */
+    public static void setBaseUrl(String url) {
+        synchronized (RetrofitClient.class) {
+            baseUrl = url != null ? url : BASE_URL;
+            retrofit = null;
+            httpClient = null;
+        }
+    }
+
+    /**
+     * Métricas de aciertos, revalidaciones y bytes ahorrados
+     */
+    public static HttpCacheMetrics getCacheMetrics() {
+        return cacheMetrics;
+    }
+
+    /**
+     * Peticiones que se resolvieron con la respuesta de otra idéntica en curso
+     */
+    public static long getPeticionesAgrupadas() {
+        return coalescing.getAgrupadas();
+    }
+
+    /**
+     * Reintentos y estado de los circuit breakers por host
+     */
+    public static ResilienceInterceptor getResilience() {
+        return resilience;
+    }
+
+    /**
+     * Histogramas de tiempos por endpoint y fase (DNS, conexión, TLS,
+     * TTFB, cuerpo, conversión y total)
+     */
+    public static NetworkTimingRecorder getTimingRecorder() {
+        return timingRecorder;
+    }
+
+    private static OkHttpClient crearHttpClient(Context context) {
+        File directorio = new File(context.getCacheDir(), DIRECTORIO_CACHE_HTTP);
+        // Orden: agrupar, forzar caché sin conexión, comprimir una sola vez
+        // y después reintentar
+        return configurarConexion(new OkHttpClient.Builder())
+                .cache(new Cache(directorio, TAMANO_CACHE_HTTP))
+                .addInterceptor(coalescing)
+                .addInterceptor(new CacheInterceptors.Offline(context,
+                        MAX_STALE_SIN_CONEXION_DIAS, cacheMetrics))
+                .addInterceptor(gzip)
+                .addInterceptor(resilience)
+                .addNetworkInterceptor(new CacheInterceptors.Revalidation(
+                        MAX_AGE_SEGUNDOS, cacheMetrics))
+                .eventListenerFactory(TimingEventListener.factory(timingRecorder))
+                .build();
+    }
+
+    /**
+     * Timeouts comunes; los reintentos quedan solo en ResilienceInterceptor,
+     * con espera y circuit breaker, para no reintentar dos veces cada fallo
+     */
+    private static OkHttpClient.Builder configurarConexion(OkHttpClient.Builder builder) {
+        return builder
+                .retryOnConnectionFailure(false)
+                .connectTimeout(CONNECT_TIMEOUT_SEGUNDOS, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT_SEGUNDOS, TimeUnit.SECONDS)
+                .writeTimeout(WRITE_TIMEOUT_SEGUNDOS, TimeUnit.SECONDS);
+    }
+
+    private static Retrofit crearRetrofit(OkHttpClient client) {
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(client)
+                .addConverterFactory(new TimedConverterFactory(
+                        GsonConverterFactory.create(GsonProvider.get()), timingRecorder))
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.androidinterfaces.api;
+
+import com.example.androidinterfaces.api.NetworkTimingRecorder.Fase;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+
+/**
+ * Envuelve un Converter.Factory y mide el tiempo de conversión de cada
+ * respuesta, registrado como fase CONVERSION del endpoint del método
+ * (tomado de su anotación, p. ej. @GET("posts/{id}")). Las respuestas
+ * @Streaming (ResponseBody) no pasan por aquí: las convierte Retrofit.
+ */
+public class TimedConverterFactory extends Converter.Factory {
+
+    private final Converter.Factory delegado;
+    private final NetworkTimingRecorder recorder;
+
+    public TimedConverterFactory(Converter.Factory delegado, NetworkTimingRecorder recorder) {
+        this.delegado = delegado;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        Converter<ResponseBody, ?> converter =
+            delegado.responseBodyConverter(type, annotations, retrofit);
+        if (converter == null) {
+            return null;
+        }
+        String endpoint = endpointDe(annotations);
+        return body -> {
+            // El cuerpo se termina de leer antes de medir: esa espera es la
+            // fase CUERPO del EventListener, no parte de la conversión
+            body.source().request(Long.MAX_VALUE);
+            long inicio = System.nanoTime();
+            try {
+                return converter.convert(body);
+            } finally {
+                recorder.registrar(endpoint, Fase.CONVERSION, System.nanoTime() - inicio);
+            }
+        };
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type,
+            Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
+        return delegado.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+    }
+
+    private static String endpointDe(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            String ruta = null;
+            if (annotation instanceof GET) {
+                ruta = ((GET) annotation).value();
+            } else if (annotation instanceof POST) {
+                ruta = ((POST) annotation).value();
+            } else if (annotation instanceof PUT) {
+                ruta = ((PUT) annotation).value();
+            } else if (annotation instanceof DELETE) {
+                ruta = ((DELETE) annotation).value();
+            }
+            if (ruta != null) {
+                int query = ruta.indexOf('?');
+                return query >= 0 ? ruta.substring(0, query) : ruta;
+            }
+        }
+        return "desconocido";
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.androidinterfaces.api;
+
+import com.example.androidinterfaces.api.NetworkTimingRecorder.Fase;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+/**
+ * EventListener de OkHttp que mide las fases de una llamada
+ * - DNS, conexión (incluye TLS), TLS
+ * - TTFB: desde el envío de cabeceras hasta la llegada de las de respuesta
+ *   (en responseHeadersEnd: OkHttp avisa responseHeadersStart antes de esperarlas)
+ * - Cuerpo: lectura completa del cuerpo de la respuesta
+ * - Total: la llamada entera, reintentos incluidos
+ * Cada fase se registra al terminar; si un reintento la repite se
+ * registra otra vez. Se crea una instancia por llamada (ver factory()).
+ */
+public class TimingEventListener extends EventListener {
+
+    private final NetworkTimingRecorder recorder;
+    private String endpoint;
+    private long inicioLlamada;
+    private long inicioDns;
+    private long inicioConexion;
+    private long inicioTls;
+    private long inicioPeticion;
+    private long inicioCuerpo;
+
+    public TimingEventListener(NetworkTimingRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public static EventListener.Factory factory(NetworkTimingRecorder recorder) {
+        return call -> new TimingEventListener(recorder);
+    }
+
+    @Override
+    public void callStart(Call call) {
+        endpoint = NetworkTimingRecorder.endpointDe(call.request().url());
+        inicioLlamada = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        inicioDns = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        registrar(Fase.DNS, inicioDns);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        inicioConexion = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        inicioTls = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        registrar(Fase.TLS, inicioTls);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                           Protocol protocol) {
+        registrar(Fase.CONEXION, inicioConexion);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        inicioPeticion = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        registrar(Fase.TTFB, inicioPeticion);
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        inicioCuerpo = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        registrar(Fase.CUERPO, inicioCuerpo);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        registrar(Fase.TOTAL, inicioLlamada);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        registrar(Fase.TOTAL, inicioLlamada);
+    }
+
+    private void registrar(Fase fase, long inicio) {
+        if (inicio != 0 && endpoint != null) {
+            recorder.registrar(endpoint, fase, System.nanoTime() - inicio);
+        }
+    }
+}
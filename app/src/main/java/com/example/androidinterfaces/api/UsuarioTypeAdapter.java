@@ -0,0 +1,111 @@
+package com.example.androidinterfaces.api;
+
+import com.example.androidinterfaces.models.Usuario;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * TypeAdapter escrito a mano para Usuario
+ * Escribe los nombres de campo del modelo y, al leer, acepta también
+ * los de JSONPlaceholder (name, phone, address.city).
+ */
+public class UsuarioTypeAdapter extends TypeAdapter<Usuario> {
+
+    @Override
+    public void write(JsonWriter out, Usuario usuario) throws IOException {
+        if (usuario == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(usuario.getId());
+        out.name("nombre").value(usuario.getNombre());
+        out.name("email").value(usuario.getEmail());
+        out.name("telefono").value(usuario.getTelefono());
+        out.name("edad").value(usuario.getEdad());
+        out.name("ciudad").value(usuario.getCiudad());
+        out.name("genero").value(usuario.getGenero());
+        out.name("notificaciones").value(usuario.isNotificaciones());
+        out.endObject();
+    }
+
+    @Override
+    public Usuario read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Usuario usuario = new Usuario();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    usuario.setId(PostTypeAdapter.leerEntero(in));
+                    break;
+                case "nombre":
+                case "name":
+                    usuario.setNombre(PostTypeAdapter.leerTexto(in));
+                    break;
+                case "email":
+                    usuario.setEmail(PostTypeAdapter.leerTexto(in));
+                    break;
+                case "telefono":
+                case "phone":
+                    usuario.setTelefono(PostTypeAdapter.leerTexto(in));
+                    break;
+                case "edad":
+                    usuario.setEdad(PostTypeAdapter.leerEntero(in));
+                    break;
+                case "ciudad":
+                    usuario.setCiudad(PostTypeAdapter.leerTexto(in));
+                    break;
+                case "address":
+                    leerCiudadDeDireccion(in, usuario);
+                    break;
+                case "genero":
+                    usuario.setGenero(PostTypeAdapter.leerTexto(in));
+                    break;
+                case "notificaciones":
+                    usuario.setNotificaciones(leerBooleano(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return usuario;
+    }
+
+    private static void leerCiudadDeDireccion(JsonReader in, Usuario usuario) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return;
+        }
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("city".equals(in.nextName())) {
+                usuario.setCiudad(PostTypeAdapter.leerTexto(in));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+    }
+
+    private static boolean leerBooleano(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return false;
+        }
+        if (token == JsonToken.NUMBER) {
+            return in.nextInt() != 0;
+        }
+        return in.nextBoolean();
+    }
+}
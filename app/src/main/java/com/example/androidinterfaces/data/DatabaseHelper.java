@@ -3,22 +3,33 @@ package com.example.androidinterfaces.data;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import com.example.androidinterfaces.api.GsonProvider;
+import com.example.androidinterfaces.models.Post;
 import com.example.androidinterfaces.models.Usuario;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Helper de base de datos SQLite
  * Implementa CRUD completo con manejo de excepciones
+ * Hay una sola instancia por proceso (getInstance) y la conexión queda
+ * abierta mientras viva la app: abrir y cerrar la base en cada llamada
+ * cuesta más que la consulta. Con WAL las lecturas no esperan a una
+ * transacción de escritura en curso.
  */
 public class DatabaseHelper extends SQLiteOpenHelper {
 
     private static final String DATABASE_NAME = "AndroidInterfaces.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 7;
 
     // Tabla Usuarios
     private static final String TABLE_USUARIOS = "usuarios";
@@ -31,6 +42,38 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String COLUMN_GENERO = "genero";
     private static final String COLUMN_NOTIFICACIONES = "notificaciones";
 
+    // Tabla Posts (caché persistente de la API)
+    private static final String TABLE_POSTS = "posts";
+    private static final String COLUMN_POST_ID = "id";
+    private static final String COLUMN_POST_USER_ID = "user_id";
+    private static final String COLUMN_POST_TITLE = "title";
+    private static final String COLUMN_POST_BODY = "body";
+    private static final String COLUMN_POST_SINCRONIZADO = "sincronizado";
+
+    // Tabla Metadatos (marcas de tiempo de sincronización)
+    private static final String TABLE_METADATOS = "metadatos";
+    private static final String COLUMN_CLAVE = "clave";
+    private static final String COLUMN_VALOR = "valor";
+
+    // Tabla Outbox (usuarios creados pendientes de enviar al servidor)
+    private static final String TABLE_OUTBOX = "outbox";
+    private static final String COLUMN_OUTBOX_ID = "id";
+    private static final String COLUMN_OUTBOX_CLAVE = "clave_idempotencia";
+    private static final String COLUMN_OUTBOX_USUARIO_ID = "usuario_id";
+    private static final String COLUMN_OUTBOX_PAYLOAD = "payload";
+    private static final String COLUMN_OUTBOX_CREADO = "creado";
+    private static final String COLUMN_OUTBOX_INTENTOS = "intentos";
+    // 1: rechazada por el servidor o sin más intentos; no se vuelve a enviar
+    private static final String COLUMN_OUTBOX_DESCARTADO = "descartado";
+    // Bytes que agrega cada entrada en el cuerpo del lote, además de su
+    // clave y su payload: {"claveIdempotencia":"","usuario":},
+    private static final int BYTES_ENVOLTURA_OUTBOX = 36;
+
+    public static final String META_POSTS_PREFIJO = "posts_";
+    public static final String META_POSTS_ACTUALIZADO = META_POSTS_PREFIJO + "actualizado";
+    // Mayor ID sincronizado: a partir de él se piden los posts nuevos
+    public static final String META_POSTS_MARCA_ID = META_POSTS_PREFIJO + "marca_id";
+
     // Query de creación de tabla
     private static final String CREATE_TABLE_USUARIOS = 
         "CREATE TABLE " + TABLE_USUARIOS + " (" +
@@ -43,78 +86,229 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         COLUMN_GENERO + " TEXT, " +
         COLUMN_NOTIFICACIONES + " INTEGER DEFAULT 1)";
 
-    public DatabaseHelper(Context context) {
+    private static final String CREATE_TABLE_POSTS = 
+        "CREATE TABLE " + TABLE_POSTS + " (" +
+        COLUMN_POST_ID + " INTEGER PRIMARY KEY, " +
+        COLUMN_POST_USER_ID + " INTEGER, " +
+        COLUMN_POST_TITLE + " TEXT, " +
+        COLUMN_POST_BODY + " TEXT, " +
+        COLUMN_POST_SINCRONIZADO + " INTEGER DEFAULT 0)";
+
+    private static final String CREATE_TABLE_METADATOS = 
+        "CREATE TABLE " + TABLE_METADATOS + " (" +
+        COLUMN_CLAVE + " TEXT PRIMARY KEY, " +
+        COLUMN_VALOR + " INTEGER)";
+
+    private static final String CREATE_TABLE_OUTBOX = 
+        "CREATE TABLE " + TABLE_OUTBOX + " (" +
+        COLUMN_OUTBOX_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+        COLUMN_OUTBOX_CLAVE + " TEXT NOT NULL UNIQUE, " +
+        COLUMN_OUTBOX_USUARIO_ID + " INTEGER, " +
+        COLUMN_OUTBOX_PAYLOAD + " TEXT NOT NULL, " +
+        COLUMN_OUTBOX_CREADO + " INTEGER, " +
+        COLUMN_OUTBOX_INTENTOS + " INTEGER DEFAULT 0, " +
+        COLUMN_OUTBOX_DESCARTADO + " INTEGER DEFAULT 0)";
+
+    // Índices secundarios de usuarios, con la versión que los introduce
+    private static final List<SchemaIndex> INDICES_USUARIOS = Arrays.asList(
+        // Orden alfabético sin distinguir mayúsculas (obtenerTodosUsuarios)
+        new SchemaIndex("idx_usuarios_nombre_nocase", TABLE_USUARIOS,
+            COLUMN_NOMBRE + " COLLATE NOCASE", null, 2,
+            "SELECT * FROM " + TABLE_USUARIOS +
+            " ORDER BY " + COLUMN_NOMBRE + " COLLATE NOCASE ASC"),
+        // Índice de cobertura para las páginas del listado (obtenerPaginaResumen)
+        new SchemaIndex("idx_usuarios_listado", TABLE_USUARIOS,
+            COLUMN_NOMBRE + ", " + COLUMN_EMAIL + ", " + COLUMN_CIUDAD, null, 2,
+            "SELECT " + COLUMN_ID + ", " + COLUMN_NOMBRE + ", " + COLUMN_EMAIL + ", " +
+            COLUMN_CIUDAD + " FROM " + TABLE_USUARIOS + " WHERE (" + COLUMN_NOMBRE + ", " +
+            COLUMN_EMAIL + ") > ('Ana', 'ana@x.com') ORDER BY " + COLUMN_NOMBRE + " ASC, " +
+            COLUMN_EMAIL + " ASC LIMIT 50"),
+        // Índice parcial: solo usuarios con notificaciones activas
+        new SchemaIndex("idx_usuarios_notificaciones", TABLE_USUARIOS,
+            COLUMN_NOMBRE + ", " + COLUMN_EMAIL, COLUMN_NOTIFICACIONES + " = 1", 2,
+            "SELECT " + COLUMN_ID + ", " + COLUMN_NOMBRE + ", " + COLUMN_EMAIL +
+            " FROM " + TABLE_USUARIOS + " WHERE " + COLUMN_NOTIFICACIONES +
+            " = 1 ORDER BY " + COLUMN_NOMBRE + " ASC")
+    );
+
+    // Índices que ya no usa ninguna consulta, con la versión que los elimina
+    private static final List<SchemaIndex> INDICES_RETIRADOS = Arrays.asList(
+        // Filtro por ciudad: la app no ofrece esa búsqueda
+        new SchemaIndex("idx_usuarios_ciudad", TABLE_USUARIOS,
+            COLUMN_CIUDAD + " COLLATE NOCASE, " + COLUMN_NOMBRE, null, 7, null)
+    );
+
+    // Versión de la tabla usuarios: cambia con cada escritura exitosa
+    private static final AtomicLong versionUsuarios = new AtomicLong();
+
+    private static volatile DatabaseHelper instancia = null;
+
+    /**
+     * Usar getInstance(); el constructor queda visible para los tests
+     */
+    DatabaseHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    public static DatabaseHelper getInstance(Context context) {
+        DatabaseHelper actual = instancia;
+        if (actual == null) {
+            synchronized (DatabaseHelper.class) {
+                if (instancia == null) {
+                    instancia = new DatabaseHelper(context.getApplicationContext());
+                }
+                actual = instancia;
+            }
+        }
+        return actual;
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
         try {
             db.execSQL(CREATE_TABLE_USUARIOS);
+            crearIndices(db, 0);
+            db.execSQL(CREATE_TABLE_POSTS);
+            db.execSQL(CREATE_TABLE_METADATOS);
+            db.execSQL(CREATE_TABLE_OUTBOX);
         } catch (android.database.SQLException e) {
             throw new RuntimeException("Error al crear la base de datos: " + e.getMessage());
         }
     }
 
+    /**
+     * Migraciones incrementales: conservan los datos existentes
+     */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         try {
-            db.execSQL("DROP TABLE IF EXISTS " + TABLE_USUARIOS);
-            onCreate(db);
+            if (oldVersion < 3) {
+                db.execSQL(CREATE_TABLE_POSTS);
+                db.execSQL(CREATE_TABLE_METADATOS);
+            } else if (oldVersion < 4) {
+                db.execSQL("ALTER TABLE " + TABLE_POSTS + " ADD COLUMN " +
+                    COLUMN_POST_SINCRONIZADO + " INTEGER DEFAULT 0");
+            }
+            if (oldVersion < 5) {
+                db.execSQL(CREATE_TABLE_OUTBOX);
+            } else if (oldVersion < 6) {
+                db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " ADD COLUMN " +
+                    COLUMN_OUTBOX_DESCARTADO + " INTEGER DEFAULT 0");
+            }
+            crearIndices(db, oldVersion);
+            eliminarIndices(db, oldVersion);
         } catch (android.database.SQLException e) {
             throw new RuntimeException("Error al actualizar la base de datos: " + e.getMessage());
         }
     }
 
+    /**
+     * Crea los índices introducidos después de la versión indicada
+     */
+    private void crearIndices(SQLiteDatabase db, int desdeVersion) {
+        for (SchemaIndex indice : INDICES_USUARIOS) {
+            if (indice.getVersion() > desdeVersion) {
+                db.execSQL(indice.sqlCreacion());
+            }
+        }
+    }
+
+    /**
+     * Elimina los índices retirados después de la versión indicada
+     */
+    private void eliminarIndices(SQLiteDatabase db, int desdeVersion) {
+        for (SchemaIndex indice : INDICES_RETIRADOS) {
+            if (indice.getVersion() > desdeVersion) {
+                db.execSQL(indice.sqlEliminacion());
+            }
+        }
+    }
+
+    /**
+     * Versión actual de la tabla usuarios
+     * Se incrementa tras cada INSERT, UPDATE o DELETE que modifica filas
+     */
+    public static long getVersionUsuarios() {
+        return versionUsuarios.get();
+    }
+
     /**
      * CREATE - Inserta un nuevo usuario en la base de datos
+     * En la misma transacción lo deja en el outbox para enviarlo al servidor
      * @return ID del usuario insertado o -1 si hubo error
      */
     public long insertarUsuario(Usuario usuario) throws SQLException {
-        SQLiteDatabase db = null;
         try {
-            db = this.getWritableDatabase();
-            ContentValues values = new ContentValues();
-            
-            values.put(COLUMN_NOMBRE, usuario.getNombre());
-            values.put(COLUMN_EMAIL, usuario.getEmail());
-            values.put(COLUMN_TELEFONO, usuario.getTelefono());
-            values.put(COLUMN_EDAD, usuario.getEdad());
-            values.put(COLUMN_CIUDAD, usuario.getCiudad());
-            values.put(COLUMN_GENERO, usuario.getGenero());
-            values.put(COLUMN_NOTIFICACIONES, usuario.isNotificaciones() ? 1 : 0);
-
-            long resultado = db.insert(TABLE_USUARIOS, null, values);
-            
-            if (resultado == -1) {
-                throw new SQLException("Error al insertar usuario en la base de datos");
+            SQLiteDatabase db = this.getWritableDatabase();
+            long resultado;
+            db.beginTransaction();
+            try {
+                resultado = insertarUsuario(db, usuario);
+                encolarOutbox(db, usuario, resultado);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
             }
-            
+
+            versionUsuarios.incrementAndGet();
             return resultado;
 
+        } catch (SQLException e) {
+            throw e;
         } catch (android.database.SQLException e) {
             throw new SQLException("Error SQL al insertar: " + e.getMessage());
         } catch (Exception e) {
             throw new SQLException("Error general al insertar: " + e.getMessage());
-        } finally {
-            if (db != null && db.isOpen()) {
-                db.close();
-            }
         }
     }
 
+    private long insertarUsuario(SQLiteDatabase db, Usuario usuario) throws SQLException {
+        ContentValues values = new ContentValues();
+        
+        values.put(COLUMN_NOMBRE, usuario.getNombre());
+        values.put(COLUMN_EMAIL, usuario.getEmail());
+        values.put(COLUMN_TELEFONO, usuario.getTelefono());
+        values.put(COLUMN_EDAD, usuario.getEdad());
+        values.put(COLUMN_CIUDAD, usuario.getCiudad());
+        values.put(COLUMN_GENERO, usuario.getGenero());
+        values.put(COLUMN_NOTIFICACIONES, usuario.isNotificaciones() ? 1 : 0);
+
+        long resultado = db.insert(TABLE_USUARIOS, null, values);
+        
+        if (resultado == -1) {
+            throw new SQLException("Error al insertar usuario en la base de datos");
+        }
+        return resultado;
+    }
+
+    /**
+     * Agrega el usuario al outbox con una clave de idempotencia nueva
+     */
+    private void encolarOutbox(SQLiteDatabase db, Usuario usuario, long usuarioId) {
+        Usuario enviado = new Usuario((int) usuarioId, usuario.getNombre(), usuario.getEmail(),
+            usuario.getTelefono(), usuario.getEdad(), usuario.getCiudad(), usuario.getGenero(),
+            usuario.isNotificaciones());
+
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_OUTBOX_CLAVE, UUID.randomUUID().toString());
+        values.put(COLUMN_OUTBOX_USUARIO_ID, usuarioId);
+        values.put(COLUMN_OUTBOX_PAYLOAD, GsonProvider.get().toJson(enviado, Usuario.class));
+        values.put(COLUMN_OUTBOX_CREADO, System.currentTimeMillis());
+        db.insertOrThrow(TABLE_OUTBOX, null, values);
+    }
+
     /**
      * READ - Obtiene todos los usuarios
      */
     public List<Usuario> obtenerTodosUsuarios() throws SQLException, IOException {
         List<Usuario> usuarios = new ArrayList<>();
-        SQLiteDatabase db = null;
         Cursor cursor = null;
 
         try {
-            db = this.getReadableDatabase();
+            SQLiteDatabase db = this.getReadableDatabase();
             cursor = db.query(TABLE_USUARIOS, null, null, null, null, null, 
-                COLUMN_NOMBRE + " ASC");
+                COLUMN_NOMBRE + " COLLATE NOCASE ASC");
 
             if (cursor == null) {
                 throw new IOException("Error al obtener cursor de la base de datos");
@@ -148,9 +342,6 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             if (cursor != null) {
                 cursor.close();
             }
-            if (db != null && db.isOpen()) {
-                db.close();
-            }
         }
     }
 
@@ -158,11 +349,10 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      * READ - Obtiene un usuario por ID
      */
     public Usuario obtenerUsuarioPorId(int id) throws SQLException {
-        SQLiteDatabase db = null;
         Cursor cursor = null;
 
         try {
-            db = this.getReadableDatabase();
+            SQLiteDatabase db = this.getReadableDatabase();
             cursor = db.query(TABLE_USUARIOS, null, 
                 COLUMN_ID + " = ?", new String[]{String.valueOf(id)}, 
                 null, null, null);
@@ -188,9 +378,6 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             if (cursor != null) {
                 cursor.close();
             }
-            if (db != null && db.isOpen()) {
-                db.close();
-            }
         }
     }
 
@@ -198,9 +385,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      * UPDATE - Actualiza un usuario existente
      */
     public boolean actualizarUsuario(Usuario usuario) throws SQLException {
-        SQLiteDatabase db = null;
         try {
-            db = this.getWritableDatabase();
+            SQLiteDatabase db = this.getWritableDatabase();
             ContentValues values = new ContentValues();
             
             values.put(COLUMN_NOMBRE, usuario.getNombre());
@@ -218,39 +404,82 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 throw new SQLException("No se pudo actualizar el usuario");
             }
 
+            versionUsuarios.incrementAndGet();
             return filasAfectadas > 0;
 
         } catch (android.database.SQLException e) {
             throw new SQLException("Error SQL al actualizar: " + e.getMessage());
-        } finally {
-            if (db != null && db.isOpen()) {
-                db.close();
-            }
         }
     }
 
     /**
      * DELETE - Elimina un usuario por ID
+     * Su alta pendiente en el outbox se elimina en la misma transacción
      */
     public boolean eliminarUsuario(int id) throws SQLException {
-        SQLiteDatabase db = null;
         try {
-            db = this.getWritableDatabase();
-            int filasEliminadas = db.delete(TABLE_USUARIOS, 
-                COLUMN_ID + " = ?", new String[]{String.valueOf(id)});
+            SQLiteDatabase db = this.getWritableDatabase();
+            int filasEliminadas;
+            db.beginTransaction();
+            try {
+                String[] args = {String.valueOf(id)};
+                filasEliminadas = db.delete(TABLE_USUARIOS, COLUMN_ID + " = ?", args);
+                db.delete(TABLE_OUTBOX, COLUMN_OUTBOX_USUARIO_ID + " = ?", args);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
 
             if (filasEliminadas == 0) {
                 throw new SQLException("No se encontró el usuario a eliminar");
             }
 
+            versionUsuarios.incrementAndGet();
             return filasEliminadas > 0;
 
         } catch (android.database.SQLException e) {
             throw new SQLException("Error SQL al eliminar: " + e.getMessage());
-        } finally {
-            if (db != null && db.isOpen()) {
-                db.close();
+        }
+    }
+
+    /**
+     * DELETE - Elimina varios usuarios en una sola transacción
+     * Una sentencia compilada y un único commit, en vez de una apertura y
+     * un commit por usuario. Las altas pendientes de esos usuarios salen
+     * del outbox en la misma transacción: no se envía al servidor un
+     * usuario que ya no existe.
+     * @return cantidad de usuarios eliminados (los IDs inexistentes se ignoran)
+     */
+    public int eliminarUsuarios(int[] ids) throws SQLException {
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            int eliminados = 0;
+            db.beginTransaction();
+            SQLiteStatement statement = db.compileStatement(
+                "DELETE FROM " + TABLE_USUARIOS + " WHERE " + COLUMN_ID + " = ?");
+            SQLiteStatement statementOutbox = db.compileStatement(
+                "DELETE FROM " + TABLE_OUTBOX + " WHERE " + COLUMN_OUTBOX_USUARIO_ID + " = ?");
+            try {
+                for (int id : ids) {
+                    statement.bindLong(1, id);
+                    eliminados += statement.executeUpdateDelete();
+                    statementOutbox.bindLong(1, id);
+                    statementOutbox.executeUpdateDelete();
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                statement.close();
+                statementOutbox.close();
+                db.endTransaction();
             }
+
+            if (eliminados > 0) {
+                versionUsuarios.incrementAndGet();
+            }
+            return eliminados;
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al eliminar usuarios: " + e.getMessage());
         }
     }
 
@@ -259,11 +488,10 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      */
     public List<Usuario> buscarUsuariosPorNombre(String nombre) throws SQLException {
         List<Usuario> usuarios = new ArrayList<>();
-        SQLiteDatabase db = null;
         Cursor cursor = null;
 
         try {
-            db = this.getReadableDatabase();
+            SQLiteDatabase db = this.getReadableDatabase();
             cursor = db.query(TABLE_USUARIOS, null, 
                 COLUMN_NOMBRE + " LIKE ?", new String[]{"%" + nombre + "%"}, 
                 null, null, COLUMN_NOMBRE + " ASC");
@@ -292,21 +520,127 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             if (cursor != null) {
                 cursor.close();
             }
-            if (db != null && db.isOpen()) {
-                db.close();
+        }
+    }
+
+    /**
+     * READ - Página del listado por keyset, ordenada por (nombre, email)
+     * Continúa tras la última fila de la página anterior sin OFFSET: recorre
+     * el índice de cobertura desde esa posición, así el costo no crece con
+     * la profundidad del scroll. El email es único y desempata los nombres.
+     * @param nombreDesde nombre de la última fila cargada; null para la primera página
+     */
+    public List<Usuario> obtenerPaginaResumen(String nombreDesde, String emailDesde,
+                                              int limite) throws SQLException {
+        String orden = COLUMN_NOMBRE + " ASC, " + COLUMN_EMAIL + " ASC";
+        if (nombreDesde == null) {
+            return consultarResumen(null, null, orden, String.valueOf(limite));
+        }
+        return consultarResumen("(" + COLUMN_NOMBRE + ", " + COLUMN_EMAIL + ") > (?, ?)",
+            new String[]{nombreDesde, emailDesde}, orden, String.valueOf(limite));
+    }
+
+    /**
+     * Segmento de usuarios con notificaciones activas (índice parcial)
+     */
+    public List<Usuario> obtenerUsuariosConNotificaciones() throws SQLException {
+        return consultarResumen(COLUMN_NOTIFICACIONES + " = 1", null,
+            COLUMN_NOMBRE + " ASC", null);
+    }
+
+    private List<Usuario> consultarResumen(String seleccion, String[] argumentos,
+                                           String orden, String limite) throws SQLException {
+        List<Usuario> usuarios = new ArrayList<>();
+        Cursor cursor = null;
+
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            cursor = db.query(TABLE_USUARIOS,
+                new String[]{COLUMN_ID, COLUMN_NOMBRE, COLUMN_EMAIL, COLUMN_CIUDAD},
+                seleccion, argumentos, null, null, orden, limite);
+
+            if (cursor != null && cursor.moveToFirst()) {
+                do {
+                    Usuario usuario = new Usuario();
+                    usuario.setId(cursor.getInt(0));
+                    usuario.setNombre(cursor.getString(1));
+                    usuario.setEmail(cursor.getString(2));
+                    usuario.setCiudad(cursor.getString(3));
+                    usuarios.add(usuario);
+                } while (cursor.moveToNext());
+            }
+
+            return usuarios;
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al leer resumen: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
             }
         }
     }
 
+    /**
+     * Devuelve las líneas de EXPLAIN QUERY PLAN de una consulta
+     */
+    public List<String> explicarConsulta(String sql) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        Cursor cursor = null;
+
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, null);
+            if (cursor != null && cursor.moveToFirst()) {
+                int columnaDetalle = cursor.getColumnIndexOrThrow("detail");
+                do {
+                    plan.add(cursor.getString(columnaDetalle));
+                } while (cursor.moveToNext());
+            }
+            return plan;
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al explicar consulta: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Verifica que la consulta representativa de cada índice lo use
+     * @return nombres de los índices que el planificador no usa
+     */
+    public List<String> verificarIndices() throws SQLException {
+        List<String> noUsados = new ArrayList<>();
+        for (SchemaIndex indice : INDICES_USUARIOS) {
+            boolean usado = false;
+            for (String detalle : explicarConsulta(indice.getConsultaVerificacion())) {
+                if (indice.apareceEnPlan(detalle)) {
+                    usado = true;
+                    break;
+                }
+            }
+            if (!usado) {
+                noUsados.add(indice.getNombre());
+            }
+        }
+        return noUsados;
+    }
+
+    public static int getTotalIndices() {
+        return INDICES_USUARIOS.size();
+    }
+
     /**
      * Obtiene el conteo total de usuarios
      */
     public int contarUsuarios() throws SQLException {
-        SQLiteDatabase db = null;
         Cursor cursor = null;
 
         try {
-            db = this.getReadableDatabase();
+            SQLiteDatabase db = this.getReadableDatabase();
             cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_USUARIOS, null);
             
             if (cursor != null && cursor.moveToFirst()) {
@@ -321,9 +655,386 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             if (cursor != null) {
                 cursor.close();
             }
-            if (db != null && db.isOpen()) {
-                db.close();
+        }
+    }
+
+    /**
+     * Lee las entradas más antiguas del outbox (sin las descartadas) para un lote
+     * @param limite cantidad máxima de entradas
+     * @param maxBytes tamaño máximo en bytes UTF-8 de las entradas tal como
+     *                 van en el cuerpo (siempre entra al menos una)
+     */
+    public List<OutboxEntry> obtenerLoteOutbox(int limite, long maxBytes) throws SQLException {
+        List<OutboxEntry> lote = new ArrayList<>();
+        Cursor cursor = null;
+
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            cursor = db.query(TABLE_OUTBOX,
+                new String[]{COLUMN_OUTBOX_ID, COLUMN_OUTBOX_CLAVE, COLUMN_OUTBOX_PAYLOAD,
+                    COLUMN_OUTBOX_INTENTOS},
+                COLUMN_OUTBOX_DESCARTADO + " = 0", null, null, null,
+                COLUMN_OUTBOX_ID + " ASC", String.valueOf(limite));
+
+            long bytes = 0;
+            while (cursor != null && cursor.moveToNext()) {
+                String clave = cursor.getString(1);
+                String payload = cursor.getString(2);
+                bytes += BYTES_ENVOLTURA_OUTBOX + longitudUtf8(clave) + longitudUtf8(payload);
+                if (!lote.isEmpty() && bytes > maxBytes) {
+                    break;
+                }
+                lote.add(new OutboxEntry(cursor.getLong(0), clave, payload,
+                    cursor.getInt(3)));
+            }
+            return lote;
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al leer outbox: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Bytes del texto codificado en UTF-8, sin crear el arreglo
+     */
+    static long longitudUtf8(String texto) {
+        long bytes = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Quita del outbox las entradas confirmadas por el servidor
+     */
+    public void eliminarDeOutbox(List<OutboxEntry> entradas) throws SQLException {
+        actualizarOutbox(entradas,
+            "DELETE FROM " + TABLE_OUTBOX + " WHERE " + COLUMN_OUTBOX_ID + " = ?");
+    }
+
+    /**
+     * Suma un intento fallido a las entradas de un lote
+     */
+    public void registrarIntentoOutbox(List<OutboxEntry> entradas) throws SQLException {
+        actualizarOutbox(entradas,
+            "UPDATE " + TABLE_OUTBOX + " SET " + COLUMN_OUTBOX_INTENTOS + " = " +
+            COLUMN_OUTBOX_INTENTOS + " + 1 WHERE " + COLUMN_OUTBOX_ID + " = ?");
+    }
+
+    /**
+     * Aparta entradas que no se van a enviar más (dead letter); quedan en la
+     * tabla para poder revisarlas, pero obtenerLoteOutbox ya no las devuelve
+     */
+    public void descartarDeOutbox(List<OutboxEntry> entradas) throws SQLException {
+        actualizarOutbox(entradas,
+            "UPDATE " + TABLE_OUTBOX + " SET " + COLUMN_OUTBOX_DESCARTADO +
+            " = 1 WHERE " + COLUMN_OUTBOX_ID + " = ?");
+    }
+
+    /**
+     * Ejecuta la sentencia (con el ID como único parámetro) para cada
+     * entrada, en una sola transacción
+     */
+    private void actualizarOutbox(List<OutboxEntry> entradas, String sql) throws SQLException {
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            db.beginTransaction();
+            SQLiteStatement statement = db.compileStatement(sql);
+            try {
+                for (OutboxEntry entrada : entradas) {
+                    statement.bindLong(1, entrada.getId());
+                    statement.executeUpdateDelete();
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                statement.close();
+                db.endTransaction();
+            }
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al actualizar outbox: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cantidad de entradas pendientes de enviar (sin las descartadas)
+     */
+    public int contarOutbox() throws SQLException {
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            return (int) DatabaseUtils.queryNumEntries(db, TABLE_OUTBOX,
+                COLUMN_OUTBOX_DESCARTADO + " = 0");
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al contar outbox: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Guarda un lote de una sincronización completa en una transacción
+     * Cada fila queda marcada con la sincronización que la trajo
+     */
+    public void guardarLotePosts(List<Post> posts, long sincronizacion) throws SQLException {
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                upsertPosts(db, posts, sincronizacion, false);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al guardar lote de posts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cierra una sincronización completa: elimina los posts que el
+     * servidor ya no devolvió y registra la hora de actualización y
+     * la marca de ID para las sincronizaciones incrementales
+     */
+    public void finalizarSincronizacionPosts(long sincronizacion, long actualizado)
+            throws SQLException {
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                db.delete(TABLE_POSTS, COLUMN_POST_SINCRONIZADO + " != ?",
+                    new String[]{String.valueOf(sincronizacion)});
+                guardarMetadato(db, META_POSTS_ACTUALIZADO, actualizado);
+                guardarMetadato(db, META_POSTS_MARCA_ID, maximoIdPost(db));
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al finalizar sincronización: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fusiona posts de una sincronización incremental
+     * Solo se escriben las filas nuevas o con contenido distinto; la marca
+     * de ID avanza hasta el mayor ID guardado.
+     * @return los posts que se insertaron o cambiaron, en el orden recibido
+     */
+    public List<Post> fusionarPosts(List<Post> posts, long actualizado) throws SQLException {
+        List<Post> cambiados = new ArrayList<>();
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                // El WHERE del DO UPDATE evita reescribir filas iguales, así
+                // executeUpdateDelete() devuelve 0 para las que no cambiaron
+                String sql = "INSERT INTO " + TABLE_POSTS + " (" +
+                    COLUMN_POST_ID + ", " + COLUMN_POST_USER_ID + ", " + COLUMN_POST_TITLE + ", " +
+                    COLUMN_POST_BODY + ") VALUES (?, ?, ?, ?) " +
+                    "ON CONFLICT(" + COLUMN_POST_ID + ") DO UPDATE SET " +
+                    COLUMN_POST_USER_ID + " = excluded." + COLUMN_POST_USER_ID + ", " +
+                    COLUMN_POST_TITLE + " = excluded." + COLUMN_POST_TITLE + ", " +
+                    COLUMN_POST_BODY + " = excluded." + COLUMN_POST_BODY + " WHERE " +
+                    COLUMN_POST_USER_ID + " != excluded." + COLUMN_POST_USER_ID + " OR " +
+                    COLUMN_POST_TITLE + " IS NOT excluded." + COLUMN_POST_TITLE + " OR " +
+                    COLUMN_POST_BODY + " IS NOT excluded." + COLUMN_POST_BODY;
+
+                SQLiteStatement statement = db.compileStatement(sql);
+                try {
+                    for (Post post : posts) {
+                        statement.clearBindings();
+                        statement.bindLong(1, post.getId());
+                        statement.bindLong(2, post.getUserId());
+                        bindTexto(statement, 3, post.getTitle());
+                        bindTexto(statement, 4, post.getBody());
+                        if (statement.executeUpdateDelete() > 0) {
+                            cambiados.add(post);
+                        }
+                    }
+                } finally {
+                    statement.close();
+                }
+
+                guardarMetadato(db, META_POSTS_ACTUALIZADO, actualizado);
+                guardarMetadato(db, META_POSTS_MARCA_ID, maximoIdPost(db));
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+            return cambiados;
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al fusionar posts: " + e.getMessage());
+        }
+    }
+
+    private static long maximoIdPost(SQLiteDatabase db) {
+        return DatabaseUtils.longForQuery(db,
+            "SELECT IFNULL(MAX(" + COLUMN_POST_ID + "), 0) FROM " + TABLE_POSTS, null);
+    }
+
+    /**
+     * Inserta o actualiza posts con una sentencia precompilada
+     * @param conservarMarca true para no tocar la marca de sincronización
+     *                       de las filas existentes
+     */
+    private void upsertPosts(SQLiteDatabase db, List<Post> posts, long sincronizacion,
+                             boolean conservarMarca) {
+        String sql = "INSERT INTO " + TABLE_POSTS + " (" +
+            COLUMN_POST_ID + ", " + COLUMN_POST_USER_ID + ", " + COLUMN_POST_TITLE + ", " +
+            COLUMN_POST_BODY + ", " + COLUMN_POST_SINCRONIZADO + ") VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT(" + COLUMN_POST_ID + ") DO UPDATE SET " +
+            COLUMN_POST_USER_ID + " = excluded." + COLUMN_POST_USER_ID + ", " +
+            COLUMN_POST_TITLE + " = excluded." + COLUMN_POST_TITLE + ", " +
+            COLUMN_POST_BODY + " = excluded." + COLUMN_POST_BODY +
+            (conservarMarca ? "" : ", " + COLUMN_POST_SINCRONIZADO + " = excluded." +
+                COLUMN_POST_SINCRONIZADO);
+
+        SQLiteStatement statement = db.compileStatement(sql);
+        try {
+            for (Post post : posts) {
+                statement.clearBindings();
+                statement.bindLong(1, post.getId());
+                statement.bindLong(2, post.getUserId());
+                bindTexto(statement, 3, post.getTitle());
+                bindTexto(statement, 4, post.getBody());
+                statement.bindLong(5, sincronizacion);
+                statement.executeInsert();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    private static void bindTexto(SQLiteStatement statement, int indice, String valor) {
+        if (valor == null) {
+            statement.bindNull(indice);
+        } else {
+            statement.bindString(indice, valor);
+        }
+    }
+
+    /**
+     * Obtiene una página de posts ordenados por ID
+     */
+    public List<Post> obtenerPaginaPosts(int offset, int limite) throws SQLException {
+        List<Post> posts = new ArrayList<>();
+        Cursor cursor = null;
+
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            cursor = db.query(TABLE_POSTS,
+                new String[]{COLUMN_POST_ID, COLUMN_POST_USER_ID, COLUMN_POST_TITLE, COLUMN_POST_BODY},
+                null, null, null, null, COLUMN_POST_ID + " ASC", offset + ", " + limite);
+
+            if (cursor != null && cursor.moveToFirst()) {
+                do {
+                    posts.add(new Post(cursor.getInt(1), cursor.getInt(0),
+                        cursor.getString(2), cursor.getString(3)));
+                } while (cursor.moveToNext());
+            }
+
+            return posts;
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al leer página de posts: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Inserta o reemplaza una página de posts sin tocar el resto
+     * y registra la hora de actualización bajo la clave indicada
+     */
+    public void guardarPaginaPosts(List<Post> posts, String claveMetadato, long actualizado)
+            throws SQLException {
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                upsertPosts(db, posts, 0, true);
+                guardarMetadato(db, claveMetadato, actualizado);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al guardar página de posts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Elimina todos los posts en caché y sus marcas de actualización
+     */
+    public void eliminarPosts() throws SQLException {
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                db.delete(TABLE_POSTS, null, null);
+                db.delete(TABLE_METADATOS, COLUMN_CLAVE + " LIKE ?",
+                    new String[]{META_POSTS_PREFIJO + "%"});
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
             }
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al eliminar posts: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Lee un metadato numérico
+     * @return el valor guardado o el valor por defecto si no existe
+     */
+    public long obtenerMetadato(String clave, long porDefecto) throws SQLException {
+        Cursor cursor = null;
+
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            cursor = db.query(TABLE_METADATOS, new String[]{COLUMN_VALOR},
+                COLUMN_CLAVE + " = ?", new String[]{clave}, null, null, null);
+
+            if (cursor != null && cursor.moveToFirst()) {
+                return cursor.getLong(0);
+            }
+            return porDefecto;
+
+        } catch (android.database.SQLException e) {
+            throw new SQLException("Error SQL al leer metadato: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    private void guardarMetadato(SQLiteDatabase db, String clave, long valor) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_CLAVE, clave);
+        values.put(COLUMN_VALOR, valor);
+        db.insertWithOnConflict(TABLE_METADATOS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.androidinterfaces.data;
+
+import com.example.androidinterfaces.models.Usuario;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice de búsqueda tolerante a errores tipográficos
+ * Indexa las palabras de nombre y email por trigramas:
+ * - Poda de candidatos: solo se recorren las listas de trigramas más raras
+ *   y se descartan términos por longitud
+ * - Verificación con distancia de Levenshtein acotada (banda de ancho k)
+ * - Sin acentos ni mayúsculas ("Gonzales" encuentra "González")
+ *
+ * No es thread-safe: las consultas reutilizan buffers internos.
+ */
+public class FuzzySearchIndex {
+
+    public static final int MAX_DISTANCIA = 2;
+    private static final int LONGITUD_MINIMA_CONSULTA = 3;
+    private static final String RELLENO = "  ";
+    private static final int[] SIN_TERMINOS = new int[0];
+
+    private final String[] terminos;
+    private final int[][] usuariosPorTermino;
+    private final Map<String, int[]> terminosPorTrigrama;
+    private final int[] idsUsuarios;
+
+    // Buffers reutilizados entre consultas
+    private final int[] conteos;
+    private final int[] terminosTocados;
+    private final int[] marcaUsuario;
+    private int epoca;
+    private int[] filaAnterior = new int[32];
+    private int[] filaActual = new int[32];
+
+    private FuzzySearchIndex(String[] terminos, int[][] usuariosPorTermino,
+                             Map<String, int[]> terminosPorTrigrama, int[] idsUsuarios) {
+        this.terminos = terminos;
+        this.usuariosPorTermino = usuariosPorTermino;
+        this.terminosPorTrigrama = terminosPorTrigrama;
+        this.idsUsuarios = idsUsuarios;
+        this.conteos = new int[terminos.length];
+        this.terminosTocados = new int[terminos.length];
+        this.marcaUsuario = new int[idsUsuarios.length];
+    }
+
+    /**
+     * Construye el índice a partir de la lista de usuarios
+     */
+    public static FuzzySearchIndex construir(List<Usuario> usuarios) {
+        Map<String, IntList> usuariosPorPalabra = new HashMap<>();
+        int[] ids = new int[usuarios.size()];
+
+        for (int i = 0; i < usuarios.size(); i++) {
+            Usuario usuario = usuarios.get(i);
+            ids[i] = usuario.getId();
+            indexarPalabras(usuariosPorPalabra, usuario.getNombre(), i);
+
+            indexarPalabras(usuariosPorPalabra, usuario.getEmail(), i);
+        }
+
+        String[] terminos = new String[usuariosPorPalabra.size()];
+        int[][] usuariosPorTermino = new int[terminos.length][];
+        Map<String, IntList> trigramas = new HashMap<>();
+        int t = 0;
+        for (Map.Entry<String, IntList> entrada : usuariosPorPalabra.entrySet()) {
+            terminos[t] = entrada.getKey();
+            usuariosPorTermino[t] = entrada.getValue().aArreglo();
+            String relleno = RELLENO + terminos[t] + RELLENO;
+            for (int i = 0; i + 3 <= relleno.length(); i++) {
+                String trigrama = relleno.substring(i, i + 3);
+                IntList lista = trigramas.get(trigrama);
+                if (lista == null) {
+                    lista = new IntList(4);
+                    trigramas.put(trigrama, lista);
+                }
+                // Un término repite trigramas; se guarda una sola vez
+                if (lista.ultimo() != t) {
+                    lista.agregar(t);
+                }
+            }
+            t++;
+        }
+
+        Map<String, int[]> terminosPorTrigrama = new HashMap<>(trigramas.size() * 2);
+        for (Map.Entry<String, IntList> entrada : trigramas.entrySet()) {
+            terminosPorTrigrama.put(entrada.getKey(), entrada.getValue().aArreglo());
+        }
+
+        return new FuzzySearchIndex(terminos, usuariosPorTermino, terminosPorTrigrama, ids);
+    }
+
+    /**
+     * Busca usuarios cuyo nombre o email contenga una palabra a distancia
+     * de edición acotada de la consulta (se usa su palabra más larga)
+     * @return IDs de usuario ordenados de menor a mayor distancia
+     */
+    public int[] buscar(String consulta) {
+        String q = palabraMasLarga(normalizar(consulta));
+        if (q.length() < LONGITUD_MINIMA_CONSULTA) {
+            return new int[0];
+        }
+
+        int k = distanciaPermitida(q.length());
+        String relleno = RELLENO + q + RELLENO;
+        Set<String> vistos = new HashSet<>();
+        List<int[]> listas = new ArrayList<>();
+
+        for (int i = 0; i + 3 <= relleno.length(); i++) {
+            String trigrama = relleno.substring(i, i + 3);
+            if (vistos.add(trigrama)) {
+                int[] lista = terminosPorTrigrama.get(trigrama);
+                listas.add(lista != null ? lista : SIN_TERMINOS);
+            }
+        }
+
+        // Cada edición destruye como máximo 3 trigramas, así que un término
+        // válido comparte al menos uno de los (total - minimoComun + 1) más raros
+        int minimoComun = Math.max(1, listas.size() - 3 * k);
+        int listasARecorrer = listas.size() - minimoComun + 1;
+        Collections.sort(listas, (a, b) -> Integer.compare(a.length, b.length));
+
+        int tocados = 0;
+        for (int l = 0; l < listasARecorrer; l++) {
+            for (int termino : listas.get(l)) {
+                if (conteos[termino]++ == 0) {
+                    terminosTocados[tocados++] = termino;
+                }
+            }
+        }
+
+        IntList[] porDistancia = new IntList[k + 1];
+        for (int d = 0; d <= k; d++) {
+            porDistancia[d] = new IntList();
+        }
+        avanzarEpoca();
+
+        for (int i = 0; i < tocados; i++) {
+            int termino = terminosTocados[i];
+            conteos[termino] = 0;
+
+            String candidato = terminos[termino];
+            if (Math.abs(candidato.length() - q.length()) > k) {
+                continue;
+            }
+            int distancia = distanciaAcotada(q, candidato, k);
+            if (distancia <= k) {
+                for (int usuario : usuariosPorTermino[termino]) {
+                    porDistancia[distancia].agregar(usuario);
+                }
+            }
+        }
+
+        IntList resultado = new IntList();
+        for (IntList lista : porDistancia) {
+            for (int i = 0; i < lista.tamano(); i++) {
+                int usuario = lista.obtener(i);
+                if (marcaUsuario[usuario] != epoca) {
+                    marcaUsuario[usuario] = epoca;
+                    resultado.agregar(idsUsuarios[usuario]);
+                }
+            }
+        }
+        return resultado.aArreglo();
+    }
+
+    public int totalTerminos() {
+        return terminos.length;
+    }
+
+    /**
+     * Distancia de Levenshtein limitada a la banda |i - j| <= k
+     * @return la distancia, o k + 1 si supera el límite
+     */
+    int distanciaAcotada(String a, String b, int k) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > k) {
+            return k + 1;
+        }
+        if (filaAnterior.length <= m + 1) {
+            filaAnterior = new int[m + 2];
+            filaActual = new int[m + 2];
+        }
+
+        int[] anterior = filaAnterior;
+        int[] actual = filaActual;
+        for (int j = 0; j <= m; j++) {
+            anterior[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int desde = Math.max(1, i - k);
+            int hasta = Math.min(m, i + k);
+            actual[0] = i;
+            if (desde > 1) {
+                actual[desde - 1] = k + 1;
+            }
+            int minimoFila = actual[0];
+            char c = a.charAt(i - 1);
+
+            for (int j = desde; j <= hasta; j++) {
+                int costo = c == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1),
+                    anterior[j - 1] + costo);
+                actual[j] = valor;
+                if (valor < minimoFila) {
+                    minimoFila = valor;
+                }
+            }
+            if (hasta < m) {
+                actual[hasta + 1] = k + 1;
+            }
+            if (minimoFila > k) {
+                return k + 1;
+            }
+
+            int[] temporal = anterior;
+            anterior = actual;
+            actual = temporal;
+        }
+
+        return Math.min(anterior[m], k + 1);
+    }
+
+    private void avanzarEpoca() {
+        epoca++;
+        if (epoca == Integer.MAX_VALUE) {
+            Arrays.fill(marcaUsuario, 0);
+            epoca = 1;
+        }
+    }
+
+    /**
+     * Palabras cortas toleran un solo error
+     */
+    private static int distanciaPermitida(int longitud) {
+        return longitud <= 4 ? 1 : MAX_DISTANCIA;
+    }
+
+    private static String palabraMasLarga(String texto) {
+        String mejor = "";
+        for (String palabra : texto.split("[^\\p{L}\\p{N}]+")) {
+            if (palabra.length() > mejor.length()) {
+                mejor = palabra;
+            }
+        }
+        return mejor;
+    }
+
+    private static void indexarPalabras(Map<String, IntList> indice, String texto, int usuario) {
+        String normalizado = normalizar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean esLetra = i < normalizado.length()
+                && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (esLetra && inicio < 0) {
+                inicio = i;
+            } else if (!esLetra && inicio >= 0) {
+                agregarPalabra(indice, normalizado.substring(inicio, i), usuario);
+                inicio = -1;
+            }
+        }
+    }
+
+    private static void agregarPalabra(Map<String, IntList> indice, String palabra, int usuario) {
+        IntList lista = indice.get(palabra);
+        if (lista == null) {
+            lista = new IntList(2);
+            indice.put(palabra, lista);
+        }
+        if (lista.ultimo() != usuario) {
+            lista.agregar(usuario);
+        }
+    }
+
+    /**
+     * Minúsculas y sin marcas diacríticas
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        if (esAscii(texto)) {
+            // Sin marcas que quitar: se evita la normalización Unicode
+            return texto.toLowerCase(Locale.ROOT).trim();
+        }
+        String sinAcentos = Normalizer.normalize(texto, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "");
+        return sinAcentos.toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static boolean esAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.androidinterfaces.data;
+
+import java.util.Arrays;
+
+/**
+ * Lista dinámica de enteros primitivos
+ * Evita el boxing de List<Integer> en índices y listas de resultados
+ */
+public class IntList {
+    private int[] valores;
+    private int tamano;
+
+    public IntList() {
+        this(8);
+    }
+
+    public IntList(int capacidadInicial) {
+        valores = new int[Math.max(1, capacidadInicial)];
+    }
+
+    public void agregar(int valor) {
+        if (tamano == valores.length) {
+            valores = Arrays.copyOf(valores, tamano * 2);
+        }
+        valores[tamano++] = valor;
+    }
+
+    public int obtener(int posicion) {
+        if (posicion < 0 || posicion >= tamano) {
+            throw new IndexOutOfBoundsException("Posición fuera de rango: " + posicion);
+        }
+        return valores[posicion];
+    }
+
+    /**
+     * Último valor agregado o -1 si la lista está vacía
+     */
+    public int ultimo() {
+        return tamano == 0 ? -1 : valores[tamano - 1];
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    public boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    public void limpiar() {
+        tamano = 0;
+    }
+
+    /**
+     * Ordena el contenido de menor a mayor
+     */
+    public void ordenar() {
+        Arrays.sort(valores, 0, tamano);
+    }
+
+    /**
+     * Reemplaza el contenido por la intersección de dos listas ordenadas
+     * Ninguna de las dos se modifica; la capacidad propia se reutiliza.
+     */
+    public void interseccion(IntList a, IntList b) {
+        int maximo = Math.min(a.tamano, b.tamano);
+        if (valores.length < maximo) {
+            valores = new int[maximo];
+        }
+        tamano = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.tamano && j < b.tamano) {
+            if (a.valores[i] < b.valores[j]) {
+                i++;
+            } else if (a.valores[i] > b.valores[j]) {
+                j++;
+            } else {
+                valores[tamano++] = a.valores[i];
+                i++;
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Deja solo los valores que también están en "otra" (ambas ordenadas)
+     * Se compacta sobre el mismo arreglo, sin reservar memoria.
+     */
+    public void retener(IntList otra) {
+        int n = 0;
+        int j = 0;
+        for (int i = 0; i < tamano && j < otra.tamano; i++) {
+            while (j < otra.tamano && otra.valores[j] < valores[i]) {
+                j++;
+            }
+            if (j < otra.tamano && otra.valores[j] == valores[i]) {
+                valores[n++] = valores[i];
+                j++;
+            }
+        }
+        tamano = n;
+    }
+
+    /**
+     * Copia exacta del contenido como arreglo primitivo
+     */
+    public int[] aArreglo() {
+        return Arrays.copyOf(valores, tamano);
+    }
+}
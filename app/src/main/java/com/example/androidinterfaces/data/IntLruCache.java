@@ -0,0 +1,121 @@
+package com.example.androidinterfaces.data;
+
+import android.util.SparseArray;
+
+/**
+ * Caché LRU con claves int, sin boxing
+ * - Las entradas se buscan en un SparseArray y el orden de uso es una
+ *   lista doblemente enlazada: obtener() no crea ningún objeto
+ * - Al pasar la capacidad se desaloja la entrada usada hace más tiempo
+ * A diferencia de android.util.LruCache<Integer, V>, un acierto no
+ * convierte la clave en Integer. Los métodos son seguros entre hilos.
+ */
+public class IntLruCache<V> {
+
+    private static class Nodo<V> {
+        final int clave;
+        V valor;
+        Nodo<V> anterior;
+        Nodo<V> siguiente;
+
+        Nodo(int clave, V valor) {
+            this.clave = clave;
+            this.valor = valor;
+        }
+    }
+
+    private final int capacidad;
+    private final SparseArray<Nodo<V>> nodos;
+    // La cabeza es la más reciente y la cola la próxima a desalojar
+    private Nodo<V> cabeza;
+    private Nodo<V> cola;
+
+    public IntLruCache(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que cero");
+        }
+        this.capacidad = capacidad;
+        this.nodos = new SparseArray<>(capacidad);
+    }
+
+    /**
+     * Valor guardado para la clave, que pasa a ser la más reciente
+     * @return el valor o null si no está
+     */
+    public synchronized V obtener(int clave) {
+        Nodo<V> nodo = nodos.get(clave);
+        if (nodo == null) {
+            return null;
+        }
+        moverAlFrente(nodo);
+        return nodo.valor;
+    }
+
+    /**
+     * Guarda o reemplaza el valor; desaloja la menos reciente si no hay lugar
+     */
+    public synchronized void guardar(int clave, V valor) {
+        Nodo<V> nodo = nodos.get(clave);
+        if (nodo != null) {
+            nodo.valor = valor;
+            moverAlFrente(nodo);
+            return;
+        }
+        if (nodos.size() >= capacidad) {
+            Nodo<V> desalojado = cola;
+            desenlazar(desalojado);
+            nodos.remove(desalojado.clave);
+        }
+        nodo = new Nodo<>(clave, valor);
+        nodos.put(clave, nodo);
+        enlazarAlFrente(nodo);
+    }
+
+    public synchronized void limpiar() {
+        nodos.clear();
+        cabeza = null;
+        cola = null;
+    }
+
+    public synchronized int getTamano() {
+        return nodos.size();
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    private void moverAlFrente(Nodo<V> nodo) {
+        if (nodo != cabeza) {
+            desenlazar(nodo);
+            enlazarAlFrente(nodo);
+        }
+    }
+
+    private void enlazarAlFrente(Nodo<V> nodo) {
+        nodo.anterior = null;
+        nodo.siguiente = cabeza;
+        if (cabeza != null) {
+            cabeza.anterior = nodo;
+        }
+        cabeza = nodo;
+        if (cola == null) {
+            cola = nodo;
+        }
+    }
+
+    private void desenlazar(Nodo<V> nodo) {
+        if (nodo.anterior != null) {
+            nodo.anterior.siguiente = nodo.siguiente;
+        } else {
+            cabeza = nodo.siguiente;
+        }
+        if (nodo.siguiente != null) {
+            nodo.siguiente.anterior = nodo.anterior;
+        } else {
+            cola = nodo.anterior;
+        }
+        nodo.anterior = null;
+        nodo.siguiente = null;
+    }
+}
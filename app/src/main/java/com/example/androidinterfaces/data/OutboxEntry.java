@@ -0,0 +1,37 @@
+package com.example.androidinterfaces.data;
+
+/**
+ * Entrada del outbox: un usuario serializado pendiente de enviar
+ */
+public class OutboxEntry {
+    private final long id;
+    private final String claveIdempotencia;
+    private final String payload;
+    private final int intentos;
+
+    public OutboxEntry(long id, String claveIdempotencia, String payload, int intentos) {
+        this.id = id;
+        this.claveIdempotencia = claveIdempotencia;
+        this.payload = payload;
+        this.intentos = intentos;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getClaveIdempotencia() {
+        return claveIdempotencia;
+    }
+
+    /**
+     * Usuario en JSON, tal como se envía
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+}
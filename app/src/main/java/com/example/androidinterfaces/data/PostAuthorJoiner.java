@@ -0,0 +1,104 @@
+package com.example.androidinterfaces.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.models.Post;
+import com.example.androidinterfaces.models.Usuario;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import retrofit2.Response;
+
+/**
+ * Resuelve el autor (userId) de los posts sin una petición por fila
+ * Por cada página junta los userId distintos que no están en la caché LRU
+ * ni pedidos ya, y los descarga en una sola petición users?id=...
+ * resolver() y los callbacks se ejecutan en el hilo principal.
+ */
+public class PostAuthorJoiner {
+
+    /**
+     * Aviso de que hay autores nuevos en la caché
+     */
+    public interface Listener {
+        void onAutoresResueltos();
+
+        void onError(Throwable t);
+    }
+
+    private final ApiService apiService;
+    private final LruCache<Integer, Usuario> autores;
+    // Solo se modifica desde el hilo principal
+    private final Set<Integer> pendientes = new HashSet<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private volatile boolean cerrado = false;
+
+    public PostAuthorJoiner(ApiService apiService, int capacidadCache) {
+        this.apiService = apiService;
+        this.autores = new LruCache<>(capacidadCache);
+    }
+
+    /**
+     * Autor guardado en caché, o null si aún no se resolvió
+     */
+    public Usuario obtenerAutor(int userId) {
+        return autores.get(userId);
+    }
+
+    /**
+     * Pide en una sola petición los autores de los posts que faltan
+     * Cerrado el joiner no se pide nada.
+     */
+    public void resolver(List<Post> posts, Listener listener) {
+        if (cerrado) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Post post : posts) {
+            int userId = post.getUserId();
+            if (autores.get(userId) == null && pendientes.add(userId)) {
+                ids.add(userId);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                Response<List<Usuario>> response = apiService.getUsuarios(ids).execute();
+                if (!response.isSuccessful() || response.body() == null) {
+                    throw new IOException("Respuesta vacía o errónea del servidor");
+                }
+                for (Usuario autor : response.body()) {
+                    autores.put(autor.getId(), autor);
+                }
+                entregar(ids, listener::onAutoresResueltos);
+            } catch (Exception e) {
+                entregar(ids, () -> listener.onError(e));
+            }
+        });
+    }
+
+    private void entregar(List<Integer> ids, Runnable accion) {
+        handler.post(() -> {
+            // Los que no llegaron se vuelven a pedir con la próxima página
+            pendientes.removeAll(ids);
+            if (!cerrado) {
+                accion.run();
+            }
+        });
+    }
+
+    public void cerrar() {
+        cerrado = true;
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.androidinterfaces.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.models.Post;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Obtiene el detalle de varios posts por ID en paralelo
+ * - Como mucho "maxConcurrentes" peticiones a la vez
+ * - Cada petición tiene un plazo máximo, reintentos incluidos
+ * - Los detalles se guardan en una caché LRU que se consulta primero
+ * - Un ID que ya se está descargando (p. ej. por una precarga) no se
+ *   vuelve a pedir: se espera esa misma descarga
+ * Una vez cerrado no acepta más pedidos. Los resultados se entregan en el hilo principal a medida que llegan.
+ */
+public class PostDetailFetcher {
+
+    /**
+     * Receptor de los detalles de un lote de IDs
+     */
+    public interface DetalleCallback {
+        void onDetalle(Post post, boolean desdeCache);
+
+        void onError(int id, Throwable t);
+
+        void onCompletado(int obtenidos, int fallidos);
+    }
+
+    private final ApiService apiService;
+    private final long plazoMs;
+    private final ExecutorService executor;
+    private final LruCache<Integer, Post> cache;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // Descargas en curso por ID, compartidas entre obtener() y precargar()
+    private final ConcurrentHashMap<Integer, CompletableFuture<Post>> enCurso =
+        new ConcurrentHashMap<>();
+    private final Set<Call<Post>> llamadas = ConcurrentHashMap.newKeySet();
+    private volatile boolean cerrado = false;
+
+    public PostDetailFetcher(ApiService apiService, int maxConcurrentes, long plazoMs,
+                             int capacidadCache) {
+        this.apiService = apiService;
+        this.plazoMs = plazoMs;
+        this.executor = Executors.newFixedThreadPool(maxConcurrentes);
+        this.cache = new LruCache<>(capacidadCache);
+    }
+
+    /**
+     * Detalle guardado en caché, o null si no está
+     */
+    public Post obtenerDeCache(int id) {
+        return cache.get(id);
+    }
+
+    /**
+     * Obtiene los detalles de los IDs indicados
+     * Los que están en caché se entregan sin ir a la red. Cerrado el
+     * cargador no se entrega nada.
+     */
+    public void obtener(int[] ids, DetalleCallback callback) {
+        if (cerrado) {
+            return;
+        }
+        AtomicInteger restantes = new AtomicInteger(ids.length);
+        AtomicInteger fallidos = new AtomicInteger();
+        if (ids.length == 0) {
+            entregar(() -> callback.onCompletado(0, 0));
+            return;
+        }
+
+        for (int id : ids) {
+            Post enCache = cache.get(id);
+            if (enCache != null) {
+                entregar(() -> callback.onDetalle(enCache, true));
+                terminar(restantes, fallidos, ids.length, callback);
+                continue;
+            }
+            descargaEnCurso(id).whenComplete((post, error) -> {
+                if (error == null) {
+                    entregar(() -> callback.onDetalle(post, false));
+                } else {
+                    Throwable causa = error instanceof CompletionException
+                        ? error.getCause() : error;
+                    fallidos.incrementAndGet();
+                    entregar(() -> callback.onError(id, causa));
+                }
+                terminar(restantes, fallidos, ids.length, callback);
+            });
+        }
+    }
+
+    /**
+     * Descarga en segundo plano los detalles que aún no están en caché
+     * Los errores se ignoran: el detalle se volverá a pedir al necesitarlo.
+     */
+    public void precargar(int[] ids) {
+        for (int id : ids) {
+            if (cerrado) {
+                return;
+            }
+            if (cache.get(id) == null) {
+                descargaEnCurso(id);
+            }
+        }
+    }
+
+    /**
+     * Descarga en curso del ID; si no hay ninguna la inicia
+     */
+    private CompletableFuture<Post> descargaEnCurso(int id) {
+        CompletableFuture<Post> propia = new CompletableFuture<>();
+        CompletableFuture<Post> existente = enCurso.putIfAbsent(id, propia);
+        if (existente != null) {
+            return existente;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    propia.complete(descargar(id));
+                } catch (Exception e) {
+                    propia.completeExceptionally(e);
+                } finally {
+                    enCurso.remove(id, propia);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Se cerró entre la comprobación y el envío
+            enCurso.remove(id, propia);
+            propia.completeExceptionally(new IOException("Cargador cerrado"));
+        }
+        return propia;
+    }
+
+    private Post descargar(int id) throws IOException {
+        if (cerrado) {
+            throw new IOException("Cargador cerrado");
+        }
+        Call<Post> call = apiService.getPost(id);
+        call.timeout().timeout(plazoMs, TimeUnit.MILLISECONDS);
+        llamadas.add(call);
+        try {
+            Response<Post> response = call.execute();
+            Post post = response.body();
+            if (!response.isSuccessful() || post == null) {
+                throw new IOException("Respuesta vacía o errónea del servidor (" +
+                    response.code() + ")");
+            }
+            cache.put(id, post);
+            return post;
+        } finally {
+            llamadas.remove(call);
+        }
+    }
+
+    private void terminar(AtomicInteger restantes, AtomicInteger fallidos, int total,
+                          DetalleCallback callback) {
+        if (restantes.decrementAndGet() == 0) {
+            int errores = fallidos.get();
+            entregar(() -> callback.onCompletado(total - errores, errores));
+        }
+    }
+
+    private void entregar(Runnable accion) {
+        handler.post(() -> {
+            if (!cerrado) {
+                accion.run();
+            }
+        });
+    }
+
+    /**
+     * Cancela las peticiones en curso; los resultados pendientes se descartan
+     * y los pedidos posteriores se ignoran
+     */
+    public void cerrar() {
+        cerrado = true;
+        for (Call<Post> call : llamadas) {
+            call.cancel();
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.androidinterfaces.data;
+
+import com.example.androidinterfaces.models.Post;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cargador paginado de posts para scroll infinito
+ * - Precarga la página siguiente (o anterior) cuando el scroll queda a
+ *   menos de "distanciaPrefetch" elementos del borde de lo cargado
+ * - Mantiene en memoria como máximo "maxPaginas" páginas contiguas y
+ *   descarta las del extremo opuesto al scroll
+ * Todos los métodos se llaman desde el hilo principal.
+ */
+public class PostPagingLoader {
+
+    /**
+     * Notificaciones de cambios en la lista visible
+     */
+    public interface Listener {
+        void onInsertados(int posicion, int cantidad);
+
+        void onEliminados(int posicion, int cantidad);
+
+        void onCambiados(int posicion, int cantidad);
+
+        /**
+         * Una página ya visible se revalidó con contenido distinto; la lista
+         * ya tiene los posts nuevos y "anteriores" es la ventana de antes
+         */
+        void onRevalidados(List<Post> anteriores);
+
+        void onCargando(boolean cargando);
+
+        void onError(Throwable t);
+    }
+
+    private static final Listener SIN_LISTENER = new Listener() {
+        @Override
+        public void onInsertados(int posicion, int cantidad) {}
+
+        @Override
+        public void onEliminados(int posicion, int cantidad) {}
+
+        @Override
+        public void onCambiados(int posicion, int cantidad) {}
+
+        @Override
+        public void onRevalidados(List<Post> anteriores) {}
+
+        @Override
+        public void onCargando(boolean cargando) {}
+
+        @Override
+        public void onError(Throwable t) {}
+    };
+
+    private final PostRepository repository;
+    private final int tamanoPagina;
+    private final int distanciaPrefetch;
+    private final int maxPaginas;
+    private Listener listener = SIN_LISTENER;
+
+    // Ventana de páginas [primeraPagina, ultimaPagina] y tamaño de cada una
+    private final List<Post> posts = new ArrayList<>();
+    private final ArrayDeque<Integer> tamanosPaginas = new ArrayDeque<>();
+    private int primeraPagina = 1;
+    private int ultimaPagina = 0;
+    private boolean finAlcanzado = false;
+    private boolean cargando = false;
+    // Descarta respuestas de cargas anteriores a un reinicio
+    private int generacion = 0;
+
+    public PostPagingLoader(PostRepository repository, int tamanoPagina,
+                            int distanciaPrefetch, int maxPaginas) {
+        if (maxPaginas < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 páginas en memoria");
+        }
+        this.repository = repository;
+        this.tamanoPagina = tamanoPagina;
+        this.distanciaPrefetch = distanciaPrefetch;
+        this.maxPaginas = maxPaginas;
+    }
+
+    /**
+     * Receptor de los cambios; null para desconectarlo (p. ej. al destruir
+     * la activity mientras el cargador sigue vivo en su ViewModel)
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : SIN_LISTENER;
+    }
+
+    /**
+     * Lista que muestra el adapter; solo la modifica el cargador
+     */
+    public List<Post> getPosts() {
+        return posts;
+    }
+
+    public int getPaginasEnMemoria() {
+        return tamanosPaginas.size();
+    }
+
+    public boolean estaVacio() {
+        return posts.isEmpty();
+    }
+
+    public boolean isCargando() {
+        return cargando;
+    }
+
+    /**
+     * Vacía la ventana y carga la primera página
+     */
+    public void reiniciar() {
+        vaciar();
+        cargarSiguiente();
+    }
+
+    /**
+     * Vacía la ventana y descarta las cargas en curso
+     */
+    public void vaciar() {
+        generacion++;
+        int cantidad = posts.size();
+        posts.clear();
+        tamanosPaginas.clear();
+        primeraPagina = 1;
+        ultimaPagina = 0;
+        finAlcanzado = false;
+        cargando = false;
+        if (cantidad > 0) {
+            listener.onEliminados(0, cantidad);
+        }
+        listener.onCargando(false);
+    }
+
+    /**
+     * Agrega una página que llega por otra vía (sincronización en streaming)
+     * La página 1 reinicia la ventana; las siguientes se agregan solo si son
+     * contiguas y la ventana no está llena (el resto queda en SQLite).
+     */
+    public void agregarPagina(int pagina, List<Post> nuevos) {
+        if (pagina == 1) {
+            vaciar();
+        }
+        if (pagina != ultimaPagina + 1 || tamanosPaginas.size() >= maxPaginas
+                || nuevos.isEmpty()) {
+            return;
+        }
+        int posicion = posts.size();
+        posts.addAll(nuevos);
+        tamanosPaginas.addLast(nuevos.size());
+        ultimaPagina = pagina;
+        finAlcanzado = nuevos.size() < tamanoPagina;
+        listener.onInsertados(posicion, nuevos.size());
+    }
+
+    /**
+     * Aplica los cambios de una sincronización incremental a la ventana
+     * - Los posts ya visibles se reemplazan, notificando rangos de cambio
+     * - Los nuevos se agregan al final solo si la ventana lo alcanzó; si no,
+     *   se cargarán desde SQLite al llegar con el scroll
+     */
+    public void fusionar(List<Post> cambios) {
+        if (posts.isEmpty() || cambios.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> posiciones = new HashMap<>();
+        for (int i = 0; i < posts.size(); i++) {
+            posiciones.put(posts.get(i).getId(), i);
+        }
+
+        int ultimoId = posts.get(posts.size() - 1).getId();
+        List<Integer> cambiadas = new ArrayList<>();
+        List<Post> nuevos = new ArrayList<>();
+        for (Post post : cambios) {
+            Integer posicion = posiciones.get(post.getId());
+            if (posicion != null) {
+                posts.set(posicion, post);
+                cambiadas.add(posicion);
+            } else if (post.getId() > ultimoId) {
+                nuevos.add(post);
+            }
+        }
+
+        notificarCambiadas(cambiadas);
+        if (finAlcanzado && !nuevos.isEmpty()) {
+            agregarAlFinal(nuevos);
+        }
+    }
+
+    /**
+     * Notifica las posiciones cambiadas agrupadas en rangos contiguos
+     */
+    private void notificarCambiadas(List<Integer> cambiadas) {
+        Collections.sort(cambiadas);
+        int i = 0;
+        while (i < cambiadas.size()) {
+            int inicio = cambiadas.get(i);
+            int fin = inicio;
+            while (i + 1 < cambiadas.size() && cambiadas.get(i + 1) <= fin + 1) {
+                fin = cambiadas.get(++i);
+            }
+            listener.onCambiados(inicio, fin - inicio + 1);
+            i++;
+        }
+    }
+
+    /**
+     * Agrega posts tras la última página, completándola antes de abrir otras
+     */
+    private void agregarAlFinal(List<Post> nuevos) {
+        int restantes = nuevos.size();
+        while (restantes > 0) {
+            Integer ultima = tamanosPaginas.peekLast();
+            if (ultima != null && ultima < tamanoPagina) {
+                int cantidad = Math.min(tamanoPagina - ultima, restantes);
+                tamanosPaginas.removeLast();
+                tamanosPaginas.addLast(ultima + cantidad);
+                restantes -= cantidad;
+            } else {
+                int cantidad = Math.min(tamanoPagina, restantes);
+                tamanosPaginas.addLast(cantidad);
+                ultimaPagina++;
+                restantes -= cantidad;
+            }
+        }
+
+        int posicion = posts.size();
+        posts.addAll(nuevos);
+        finAlcanzado = tamanosPaginas.peekLast() < tamanoPagina;
+        listener.onInsertados(posicion, nuevos.size());
+
+        while (tamanosPaginas.size() > maxPaginas) {
+            int cantidad = tamanosPaginas.removeFirst();
+            posts.subList(0, cantidad).clear();
+            primeraPagina++;
+            listener.onEliminados(0, cantidad);
+        }
+    }
+
+    /**
+     * Se llama al hacer scroll con las posiciones visibles
+     */
+    public void onScroll(int primeraVisible, int ultimaVisible) {
+        if (cargando || ultimaVisible < 0) {
+            return;
+        }
+        if (!finAlcanzado && ultimaVisible >= posts.size() - 1 - distanciaPrefetch) {
+            cargarSiguiente();
+        } else if (primeraPagina > 1 && primeraVisible <= distanciaPrefetch) {
+            cargarAnterior();
+        }
+    }
+
+    private void cargarSiguiente() {
+        int pagina = ultimaPagina + 1;
+        int generacionActual = generacion;
+        marcarCargando(true);
+        repository.cargarPagina(pagina, tamanoPagina, new PostRepository.PaginaCallback() {
+            @Override
+            public void onPagina(List<Post> nuevos, boolean desdeCache) {
+                if (generacionActual != generacion) {
+                    return;
+                }
+                marcarCargando(false);
+                if (pagina != ultimaPagina + 1) {
+                    // La página ya llegó por la sincronización
+                    return;
+                }
+                if (nuevos.size() < tamanoPagina) {
+                    finAlcanzado = true;
+                }
+                if (nuevos.isEmpty()) {
+                    return;
+                }
+                int posicion = posts.size();
+                posts.addAll(nuevos);
+                tamanosPaginas.addLast(nuevos.size());
+                ultimaPagina = pagina;
+                listener.onInsertados(posicion, nuevos.size());
+
+                if (tamanosPaginas.size() > maxPaginas) {
+                    int cantidad = tamanosPaginas.removeFirst();
+                    posts.subList(0, cantidad).clear();
+                    primeraPagina++;
+                    listener.onEliminados(0, cantidad);
+                }
+            }
+
+            @Override
+            public void onRevalidada(List<Post> nuevos) {
+                if (generacionActual == generacion) {
+                    reemplazarPagina(pagina, nuevos);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                if (generacionActual == generacion) {
+                    marcarCargando(false);
+                    listener.onError(t);
+                }
+            }
+        });
+    }
+
+    private void cargarAnterior() {
+        int pagina = primeraPagina - 1;
+        int generacionActual = generacion;
+        marcarCargando(true);
+        repository.cargarPagina(pagina, tamanoPagina, new PostRepository.PaginaCallback() {
+            @Override
+            public void onPagina(List<Post> nuevos, boolean desdeCache) {
+                if (generacionActual != generacion) {
+                    return;
+                }
+                marcarCargando(false);
+                if (nuevos.isEmpty() || pagina != primeraPagina - 1) {
+                    return;
+                }
+                posts.addAll(0, nuevos);
+                tamanosPaginas.addFirst(nuevos.size());
+                primeraPagina = pagina;
+                listener.onInsertados(0, nuevos.size());
+
+                if (tamanosPaginas.size() > maxPaginas) {
+                    int cantidad = tamanosPaginas.removeLast();
+                    int posicion = posts.size() - cantidad;
+                    posts.subList(posicion, posts.size()).clear();
+                    ultimaPagina--;
+                    finAlcanzado = false;
+                    listener.onEliminados(posicion, cantidad);
+                }
+            }
+
+            @Override
+            public void onRevalidada(List<Post> nuevos) {
+                if (generacionActual == generacion) {
+                    reemplazarPagina(pagina, nuevos);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                if (generacionActual == generacion) {
+                    marcarCargando(false);
+                    listener.onError(t);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reemplaza una página de la ventana por su versión revalidada
+     * Si la página ya salió de la ventana no se hace nada: se volverá a
+     * leer de SQLite, donde ya quedó la versión nueva.
+     */
+    private void reemplazarPagina(int pagina, List<Post> nuevos) {
+        if (pagina < primeraPagina || pagina > ultimaPagina || nuevos.isEmpty()) {
+            return;
+        }
+        List<Integer> tamanos = new ArrayList<>(tamanosPaginas);
+        int indice = pagina - primeraPagina;
+        int posicion = 0;
+        for (int i = 0; i < indice; i++) {
+            posicion += tamanos.get(i);
+        }
+
+        List<Post> anteriores = new ArrayList<>(posts);
+        List<Post> filasPagina = posts.subList(posicion, posicion + tamanos.get(indice));
+        filasPagina.clear();
+        filasPagina.addAll(nuevos);
+        tamanos.set(indice, nuevos.size());
+        tamanosPaginas.clear();
+        tamanosPaginas.addAll(tamanos);
+        if (pagina == ultimaPagina) {
+            finAlcanzado = nuevos.size() < tamanoPagina;
+        }
+        listener.onRevalidados(anteriores);
+    }
+
+    private void marcarCargando(boolean valor) {
+        cargando = valor;
+        listener.onCargando(valor);
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.androidinterfaces.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.api.GsonProvider;
+import com.example.androidinterfaces.api.PostStreamReader;
+import com.example.androidinterfaces.models.Post;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+/**
+ * Repositorio de posts con caché persistente en SQLite
+ * - Páginas servidas desde SQLite apenas se piden; pasado el TTL se
+ *   revalidan contra la API (stale-while-revalidate)
+ * - Sincronización completa en streaming, guardada lote a lote
+ * - Sincronización incremental desde la marca de ID guardada
+ * Las sincronizaciones, las páginas y las revalidaciones corren cada una
+ * en su hilo de trabajo, así una página no espera detrás de una descarga;
+ * los callbacks se ejecutan en el hilo principal.
+ */
+public class PostRepository {
+
+    public static final long TTL_POR_DEFECTO_MS = 5 * 60 * 1000;
+
+    /**
+     * Receptor de una sincronización completa en streaming
+     */
+    public interface SyncCallback {
+        /**
+         * @param numeroLote número de lote, comenzando en 1
+         */
+        void onLote(int numeroLote, List<Post> lote);
+
+        void onCompletado(int total);
+
+        void onError(Throwable t);
+    }
+
+    /**
+     * Receptor de una sincronización incremental
+     */
+    public interface DeltaCallback {
+        /**
+         * @param cambios posts nuevos o con contenido distinto al guardado
+         * @param recibidos posts que devolvió el servidor
+         * @param duracionFusionMs tiempo de la fusión en SQLite
+         */
+        void onCambios(List<Post> cambios, int recibidos, long duracionFusionMs);
+
+        /**
+         * Aún no hubo una sincronización completa de la que partir
+         */
+        void onSinMarca();
+
+        void onError(Throwable t);
+    }
+
+    /**
+     * Receptor de una página de posts
+     */
+    public interface PaginaCallback {
+        void onPagina(List<Post> posts, boolean desdeCache);
+
+        /**
+         * La API devolvió para la página posts distintos a los ya entregados
+         * desde la caché; no se llama si la página no cambió
+         */
+        void onRevalidada(List<Post> posts);
+
+        void onError(Throwable t);
+    }
+
+    private final DatabaseHelper dbHelper;
+    private final ApiService apiService;
+    private final long ttlMs;
+    private final PostStreamReader streamReader = new PostStreamReader(GsonProvider.get());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    // Lecturas de páginas, independientes de las sincronizaciones
+    private final ExecutorService executorPaginas = Executors.newSingleThreadExecutor();
+    // Revalidaciones de páginas ya entregadas desde la caché
+    private final ExecutorService executorRevalidacion = Executors.newSingleThreadExecutor();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private volatile boolean cerrado = false;
+
+    public PostRepository(Context context, ApiService apiService, long ttlMs) {
+        this(DatabaseHelper.getInstance(context), apiService, ttlMs);
+    }
+
+    /**
+     * Visible para los tests, que usan su propia base de datos
+     */
+    PostRepository(DatabaseHelper dbHelper, ApiService apiService, long ttlMs) {
+        this.dbHelper = dbHelper;
+        this.apiService = apiService;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Descarga la colección completa decodificándola en streaming
+     * Cada lote se guarda en SQLite y se entrega apenas se decodifica,
+     * así el primer elemento aparece sin esperar al último byte y la
+     * memoria no crece con el tamaño de la respuesta.
+     */
+    public void sincronizar(int tamanoLote, SyncCallback callback) {
+        executor.execute(() -> {
+            long sincronizacion = System.currentTimeMillis();
+            int[] numeroLote = {0};
+            try {
+                Response<ResponseBody> response = apiService.getPostsStream().execute();
+                ResponseBody body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    throw new IOException("Respuesta vacía o errónea del servidor");
+                }
+
+                int total = streamReader.leer(body, tamanoLote, lote -> {
+                    try {
+                        dbHelper.guardarLotePosts(lote, sincronizacion);
+                    } catch (SQLException e) {
+                        throw new IOException("Error al guardar lote: " + e.getMessage());
+                    }
+                    int numero = ++numeroLote[0];
+                    entregar(() -> callback.onLote(numero, lote));
+                });
+
+                dbHelper.finalizarSincronizacionPosts(sincronizacion, System.currentTimeMillis());
+                entregar(() -> callback.onCompletado(total));
+            } catch (Exception e) {
+                entregar(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Pide solo los posts posteriores a la marca de ID guardada y los
+     * fusiona en SQLite; se entregan únicamente los que cambiaron
+     */
+    public void sincronizarCambios(DeltaCallback callback) {
+        executor.execute(() -> {
+            try {
+                long marcaId = dbHelper.obtenerMetadato(DatabaseHelper.META_POSTS_MARCA_ID, 0);
+                if (marcaId == 0) {
+                    entregar(callback::onSinMarca);
+                    return;
+                }
+
+                Response<List<Post>> response = apiService.getPostsDesde(marcaId).execute();
+                if (!response.isSuccessful() || response.body() == null) {
+                    throw new IOException("Respuesta vacía o errónea del servidor");
+                }
+                List<Post> recibidos = response.body();
+
+                long inicio = System.nanoTime();
+                List<Post> cambios = dbHelper.fusionarPosts(recibidos, System.currentTimeMillis());
+                long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+                entregar(() -> callback.onCambios(cambios, recibidos.size(), duracionMs));
+            } catch (Exception e) {
+                entregar(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Carga una página de posts
+     * Si la página está en SQLite se entrega enseguida, aunque esté vencida;
+     * pasado el TTL (el de la página o el de la colección completa) se pide
+     * a la API en segundo plano y, solo si cambió, se entrega otra vez con
+     * onRevalidada(). Sin caché se espera a la API; sin red y con caché la
+     * página vencida queda como está.
+     */
+    public void cargarPagina(int pagina, int limite, PaginaCallback callback) {
+        executorPaginas.execute(() -> {
+            String clave = claveMetadatoPagina(pagina, limite);
+            List<Post> cache = new ArrayList<>();
+            long actualizado = 0;
+            try {
+                cache = dbHelper.obtenerPaginaPosts((pagina - 1) * limite, limite);
+                actualizado = Math.max(
+                    dbHelper.obtenerMetadato(clave, 0),
+                    dbHelper.obtenerMetadato(DatabaseHelper.META_POSTS_ACTUALIZADO, 0));
+            } catch (SQLException ignored) {
+                // Sin caché legible se consulta directamente la API
+            }
+
+            if (cache.isEmpty()) {
+                try {
+                    List<Post> nuevos = descargarPagina(pagina, limite);
+                    entregar(() -> callback.onPagina(nuevos, false));
+                    guardarPagina(nuevos, clave);
+                } catch (Exception e) {
+                    entregar(() -> callback.onError(e));
+                }
+                return;
+            }
+
+            List<Post> entregados = cache;
+            entregar(() -> callback.onPagina(entregados, true));
+            if (System.currentTimeMillis() - actualizado >= ttlMs) {
+                revalidar(pagina, limite, entregados, callback);
+            }
+        });
+    }
+
+    /**
+     * Pide la página a la API y la compara con la que ya se entregó
+     */
+    private void revalidar(int pagina, int limite, List<Post> entregados,
+                           PaginaCallback callback) {
+        executorRevalidacion.execute(() -> {
+            try {
+                List<Post> nuevos = descargarPagina(pagina, limite);
+                if (!mismosPosts(entregados, nuevos)) {
+                    entregar(() -> callback.onRevalidada(nuevos));
+                }
+                guardarPagina(nuevos, claveMetadatoPagina(pagina, limite));
+            } catch (Exception ignored) {
+                // Sin red se sigue mostrando la página de la caché
+            }
+        });
+    }
+
+    private List<Post> descargarPagina(int pagina, int limite) throws IOException {
+        Response<List<Post>> response = apiService.getPostsPaginados(pagina, limite).execute();
+        if (!response.isSuccessful() || response.body() == null) {
+            throw new IOException("Respuesta vacía o errónea del servidor");
+        }
+        return response.body();
+    }
+
+    private void guardarPagina(List<Post> posts, String clave) {
+        try {
+            dbHelper.guardarPaginaPosts(posts, clave, System.currentTimeMillis());
+        } catch (SQLException ignored) {
+            // Los datos ya se entregaron
+        }
+    }
+
+    private static String claveMetadatoPagina(int pagina, int limite) {
+        return DatabaseHelper.META_POSTS_PREFIJO + "pagina_" + pagina + "_" + limite;
+    }
+
+    /**
+     * Mismos posts en el mismo orden y con el mismo contenido
+     */
+    static boolean mismosPosts(List<Post> a, List<Post> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            Post x = a.get(i);
+            Post y = b.get(i);
+            if (x.getId() != y.getId() || x.getUserId() != y.getUserId()
+                    || !Objects.equals(x.getTitle(), y.getTitle())
+                    || !Objects.equals(x.getBody(), y.getBody())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Elimina los posts guardados
+     */
+    public void limpiarCache() {
+        executor.execute(() -> {
+            try {
+                dbHelper.eliminarPosts();
+            } catch (SQLException ignored) {
+                // La caché se reemplaza en la próxima descarga
+            }
+        });
+    }
+
+    private void entregar(Runnable accion) {
+        handler.post(() -> {
+            if (!cerrado) {
+                accion.run();
+            }
+        });
+    }
+
+    /**
+     * Libera los hilos de trabajo; los resultados pendientes se descartan
+     */
+    public void cerrar() {
+        cerrado = true;
+        executor.shutdown();
+        executorPaginas.shutdown();
+        executorRevalidacion.shutdown();
+    }
+}
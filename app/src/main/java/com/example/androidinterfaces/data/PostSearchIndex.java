@@ -0,0 +1,245 @@
+package com.example.androidinterfaces.data;
+
+import com.example.androidinterfaces.models.Post;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Índice invertido de palabras sobre el título y el cuerpo de los posts
+ * - Se construye de forma incremental: agregar() a medida que llegan páginas
+ * - Listas de documentos primitivas y ordenadas (IntList)
+ * - Consultas: palabras separadas por espacios se combinan con AND y los
+ *   grupos separados por OR (o "|") se unen; "pal*" busca por prefijo, y la
+ *   última palabra se trata como prefijo mientras se escribe
+ * - Sin acentos ni mayúsculas, igual que FuzzySearchIndex
+ *
+ * No es thread-safe: ApiViewModel lo usa solo desde su hilo de índice, así
+ * indexar y buscar no ocupan el hilo principal.
+ */
+public class PostSearchIndex {
+
+    private static final int LONGITUD_MINIMA_PREFIJO = 2;
+    // Resultado sin documentos; nunca se modifica
+    private static final IntList VACIA = new IntList(1);
+
+    // Término -> documentos (posición en "documentos") en orden creciente
+    private final TreeMap<String, IntList> postings = new TreeMap<>();
+    private final List<Post> documentos = new ArrayList<>();
+    private final Map<Integer, Integer> documentoPorId = new HashMap<>();
+    // Documentos reemplazados por una versión más nueva del mismo post
+    private final BitSet reemplazados = new BitSet();
+
+    // Marcas reutilizadas para uniones sin duplicados
+    private int[] marcas = new int[0];
+    private int epoca = 0;
+
+    /**
+     * Indexa los posts; los ya indexados con el mismo contenido se ignoran
+     */
+    public void agregar(Collection<Post> posts) {
+        for (Post post : posts) {
+            agregar(post);
+        }
+    }
+
+    public void agregar(Post post) {
+        Integer anterior = documentoPorId.get(post.getId());
+        if (anterior != null) {
+            Post previo = documentos.get(anterior);
+            if (mismoTexto(previo, post)) {
+                documentos.set(anterior, post);
+                return;
+            }
+            reemplazados.set(anterior);
+        }
+
+        int documento = documentos.size();
+        documentos.add(post);
+        documentoPorId.put(post.getId(), documento);
+        indexarTexto(post.getTitle(), documento);
+        indexarTexto(post.getBody(), documento);
+    }
+
+    private static boolean mismoTexto(Post a, Post b) {
+        return a.getUserId() == b.getUserId()
+            && Objects.equals(a.getTitle(), b.getTitle())
+            && Objects.equals(a.getBody(), b.getBody());
+    }
+
+    private void indexarTexto(String texto, int documento) {
+        for (String palabra : palabras(FuzzySearchIndex.normalizar(texto))) {
+            IntList lista = postings.get(palabra);
+            if (lista == null) {
+                lista = new IntList(2);
+                postings.put(palabra, lista);
+            }
+            // Los documentos se numeran en orden, así la lista queda ordenada
+            if (lista.ultimo() != documento) {
+                lista.agregar(documento);
+            }
+        }
+    }
+
+    /**
+     * Busca los posts que cumplen la consulta
+     * @return posts ordenados por ID; vacío si la consulta no tiene palabras
+     */
+    public List<Post> buscar(String consulta) {
+        String normalizada = FuzzySearchIndex.normalizar(consulta);
+        boolean ultimaEsPrefijo = consulta != null && !consulta.isEmpty()
+            && !Character.isWhitespace(consulta.charAt(consulta.length() - 1));
+
+        List<List<String>> grupos = new ArrayList<>();
+        List<String> grupo = new ArrayList<>();
+        for (String token : normalizada.split("\\s+")) {
+            if (token.equals("or") || token.equals("|")) {
+                if (!grupo.isEmpty()) {
+                    grupos.add(grupo);
+                    grupo = new ArrayList<>();
+                }
+            } else if (!token.isEmpty() && !token.equals("and")) {
+                grupo.add(token);
+            }
+        }
+        if (!grupo.isEmpty()) {
+            grupos.add(grupo);
+        }
+
+        List<IntList> coincidencias = new ArrayList<>();
+        for (int g = 0; g < grupos.size(); g++) {
+            List<String> tokens = grupos.get(g);
+            boolean ultimoGrupo = g == grupos.size() - 1;
+            coincidencias.add(evaluarGrupo(tokens, ultimoGrupo && ultimaEsPrefijo));
+        }
+        return aPosts(coincidencias.size() == 1 ? coincidencias.get(0) : union(coincidencias));
+    }
+
+    /**
+     * Intersección de las palabras de un grupo (AND)
+     * Las listas de postings se leen tal cual; solo el resultado es una lista
+     * nueva, que se va recortando en su sitio con cada palabra.
+     */
+    private IntList evaluarGrupo(List<String> tokens, boolean ultimaEsPrefijo) {
+        List<IntList> listas = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            boolean prefijo = token.endsWith("*")
+                || (ultimaEsPrefijo && i == tokens.size() - 1);
+            List<String> partes = palabras(token);
+            for (int p = 0; p < partes.size(); p++) {
+                boolean esPrefijo = prefijo && p == partes.size() - 1
+                    && partes.get(p).length() >= LONGITUD_MINIMA_PREFIJO;
+                listas.add(esPrefijo ? documentosConPrefijo(partes.get(p))
+                    : documentosConTermino(partes.get(p)));
+            }
+        }
+        if (listas.isEmpty()) {
+            return VACIA;
+        }
+        if (listas.size() == 1) {
+            return listas.get(0);
+        }
+
+        // Se empieza por la lista más corta para acotar el trabajo
+        listas.sort((a, b) -> Integer.compare(a.tamano(), b.tamano()));
+        IntList resultado = new IntList(listas.get(0).tamano());
+        resultado.interseccion(listas.get(0), listas.get(1));
+        for (int i = 2; i < listas.size() && !resultado.estaVacia(); i++) {
+            resultado.retener(listas.get(i));
+        }
+        return resultado;
+    }
+
+    private IntList documentosConTermino(String termino) {
+        IntList lista = postings.get(termino);
+        return lista != null ? lista : VACIA;
+    }
+
+    private IntList documentosConPrefijo(String prefijo) {
+        Collection<IntList> listas = postings.subMap(prefijo, prefijo + Character.MAX_VALUE).values();
+        if (listas.isEmpty()) {
+            return VACIA;
+        }
+        if (listas.size() == 1) {
+            return listas.iterator().next();
+        }
+        return union(listas);
+    }
+
+    /**
+     * Unión ordenada y sin duplicados (OR)
+     */
+    private IntList union(Collection<IntList> listas) {
+        if (marcas.length < documentos.size()) {
+            marcas = new int[documentos.size()];
+            epoca = 0;
+        }
+        epoca++;
+        IntList resultado = new IntList();
+        for (IntList lista : listas) {
+            for (int i = 0; i < lista.tamano(); i++) {
+                int documento = lista.obtener(i);
+                if (marcas[documento] != epoca) {
+                    marcas[documento] = epoca;
+                    resultado.agregar(documento);
+                }
+            }
+        }
+        resultado.ordenar();
+        return resultado;
+    }
+
+    private List<Post> aPosts(IntList documentosEncontrados) {
+        List<Post> posts = new ArrayList<>(documentosEncontrados.tamano());
+        for (int i = 0; i < documentosEncontrados.tamano(); i++) {
+            int documento = documentosEncontrados.obtener(i);
+            if (!reemplazados.get(documento)) {
+                posts.add(documentos.get(documento));
+            }
+        }
+        posts.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        return posts;
+    }
+
+    /**
+     * Palabras de un texto ya normalizado (letras y dígitos)
+     */
+    private static List<String> palabras(String texto) {
+        List<String> palabras = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i <= texto.length(); i++) {
+            boolean caracterDePalabra = i < texto.length()
+                && Character.isLetterOrDigit(texto.charAt(i));
+            if (caracterDePalabra && inicio < 0) {
+                inicio = i;
+            } else if (!caracterDePalabra && inicio >= 0) {
+                palabras.add(texto.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return palabras;
+    }
+
+    public int getTotalPosts() {
+        return documentoPorId.size();
+    }
+
+    public int getTotalTerminos() {
+        return postings.size();
+    }
+
+    public void limpiar() {
+        postings.clear();
+        documentos.clear();
+        documentoPorId.clear();
+        reemplazados.clear();
+        marcas = new int[0];
+        epoca = 0;
+    }
+}
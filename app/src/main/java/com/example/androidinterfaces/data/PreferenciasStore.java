@@ -0,0 +1,258 @@
+package com.example.androidinterfaces.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.androidinterfaces.api.LatencyHistogram;
+import com.example.androidinterfaces.models.Preferencias;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Preferencias del usuario con alcance de aplicación
+ * - La instantánea vigente vive en memoria (AtomicReference): leerla no
+ *   bloquea ni toca el disco, desde cualquier hilo
+ * - guardar() reemplaza la instantánea y avisa a los observadores al
+ *   instante; la escritura a disco va en un hilo propio y se agrupa: varios
+ *   guardados seguidos terminan en una sola escritura con el último valor
+ * - Cada escritura va a un archivo temporal que luego se renombra, así un
+ *   corte a mitad de escritura nunca deja el archivo a medias
+ * La primera vez migra los valores del SharedPreferences anterior.
+ * guardar() se llama desde el hilo principal.
+ */
+public class PreferenciasStore {
+
+    private static final String ARCHIVO = "preferencias.properties";
+    private static final String PREFS_ANTERIORES = "AppPreferences";
+
+    private static final String CLAVE_TEMA_OSCURO = "tema_oscuro";
+    private static final String CLAVE_NOTIFICACIONES = "notificaciones";
+    private static final String CLAVE_SONIDOS = "sonidos";
+    private static final String CLAVE_VOLUMEN = "volumen";
+    private static final String CLAVE_IDIOMA = "idioma";
+    private static final String CLAVE_NOMBRE_USUARIO = "nombre_usuario";
+
+    private static volatile PreferenciasStore instancia = null;
+
+    private final Context context;
+    // Se resuelven con resolverArchivos() en el hilo del almacén:
+    // getFilesDir() puede tocar el disco
+    private File archivo;
+    private File temporal;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    // null hasta que termina la primera lectura
+    private final AtomicReference<Preferencias> actual = new AtomicReference<>();
+    private final MutableLiveData<Preferencias> preferencias = new MutableLiveData<>();
+    private final MutableLiveData<Exception> error = new MutableLiveData<>();
+    // Hay una escritura encolada que todavía no tomó la instantánea
+    private final AtomicBoolean escrituraPendiente = new AtomicBoolean(false);
+
+    private final LatencyHistogram tiemposEscritura = new LatencyHistogram();
+    private final LatencyHistogram tiemposGuardar = new LatencyHistogram();
+    private final AtomicLong guardados = new AtomicLong();
+    private final AtomicLong escrituras = new AtomicLong();
+
+    private PreferenciasStore(Context context) {
+        this.context = context;
+        executor.execute(this::cargar);
+    }
+
+    public static PreferenciasStore getInstance(Context context) {
+        PreferenciasStore actualStore = instancia;
+        if (actualStore == null) {
+            synchronized (PreferenciasStore.class) {
+                if (instancia == null) {
+                    instancia = new PreferenciasStore(context.getApplicationContext());
+                }
+                actualStore = instancia;
+            }
+        }
+        return actualStore;
+    }
+
+    /**
+     * Instantánea vigente; null si todavía se está leyendo del disco
+     */
+    public Preferencias get() {
+        return actual.get();
+    }
+
+    /**
+     * Instantánea vigente y sus cambios; el primer valor llega al terminar la lectura
+     */
+    public LiveData<Preferencias> getPreferencias() {
+        return preferencias;
+    }
+
+    /**
+     * Último error de lectura o escritura; se limpia con consumirError()
+     */
+    public LiveData<Exception> getError() {
+        return error;
+    }
+
+    public void consumirError() {
+        error.setValue(null);
+    }
+
+    /**
+     * Reemplaza la instantánea y encola su escritura si no hay una pendiente
+     */
+    public void guardar(Preferencias nuevas) {
+        long inicio = System.nanoTime();
+        guardados.incrementAndGet();
+        Preferencias anteriores = actual.getAndSet(nuevas);
+        if (!nuevas.equals(anteriores)) {
+            preferencias.setValue(nuevas);
+        }
+        if (escrituraPendiente.compareAndSet(false, true)) {
+            executor.execute(this::escribir);
+        }
+        tiemposGuardar.registrar(System.nanoTime() - inicio);
+    }
+
+    private void cargar() {
+        Preferencias leidas;
+        try {
+            resolverArchivos();
+            leidas = archivo.exists() ? leerArchivo() : migrarAnteriores();
+        } catch (Exception e) {
+            error.postValue(e);
+            leidas = Preferencias.DEFECTO;
+        }
+        // Si ya se guardó algo mientras se leía, gana lo guardado
+        if (actual.compareAndSet(null, leidas)) {
+            preferencias.postValue(leidas);
+        }
+    }
+
+    /**
+     * Ubica el archivo y su temporal; si la primera vez falló se reintenta,
+     * así una escritura nunca encuentra los archivos sin resolver
+     */
+    private void resolverArchivos() throws IOException {
+        if (archivo != null) {
+            return;
+        }
+        File directorio = context.getFilesDir();
+        if (directorio == null) {
+            throw new IOException("Sin directorio de archivos de la app");
+        }
+        temporal = new File(directorio, ARCHIVO + ".tmp");
+        archivo = new File(directorio, ARCHIVO);
+    }
+
+    private Preferencias leerArchivo() throws IOException {
+        Properties propiedades = new Properties();
+        try (FileInputStream entrada = new FileInputStream(archivo)) {
+            propiedades.load(entrada);
+        }
+        Preferencias d = Preferencias.DEFECTO;
+        return new Preferencias(
+            leerBoolean(propiedades, CLAVE_TEMA_OSCURO, d.isTemaOscuro()),
+            leerBoolean(propiedades, CLAVE_NOTIFICACIONES, d.isNotificaciones()),
+            leerBoolean(propiedades, CLAVE_SONIDOS, d.isSonidos()),
+            leerInt(propiedades, CLAVE_VOLUMEN, d.getVolumen()),
+            propiedades.getProperty(CLAVE_IDIOMA, d.getIdioma()),
+            propiedades.getProperty(CLAVE_NOMBRE_USUARIO, d.getNombreUsuario()));
+    }
+
+    private static boolean leerBoolean(Properties propiedades, String clave, boolean defecto) {
+        String valor = propiedades.getProperty(clave);
+        return valor != null ? Boolean.parseBoolean(valor) : defecto;
+    }
+
+    private static int leerInt(Properties propiedades, String clave, int defecto) {
+        try {
+            String valor = propiedades.getProperty(clave);
+            return valor != null ? Integer.parseInt(valor) : defecto;
+        } catch (NumberFormatException e) {
+            return defecto;
+        }
+    }
+
+    /**
+     * Copia los valores del SharedPreferences anterior al archivo nuevo
+     */
+    private Preferencias migrarAnteriores() throws IOException {
+        SharedPreferences anteriores = context.getSharedPreferences(PREFS_ANTERIORES,
+            Context.MODE_PRIVATE);
+        Preferencias d = Preferencias.DEFECTO;
+        Preferencias migradas = new Preferencias(
+            anteriores.getBoolean(CLAVE_TEMA_OSCURO, d.isTemaOscuro()),
+            anteriores.getBoolean(CLAVE_NOTIFICACIONES, d.isNotificaciones()),
+            anteriores.getBoolean(CLAVE_SONIDOS, d.isSonidos()),
+            anteriores.getInt(CLAVE_VOLUMEN, d.getVolumen()),
+            anteriores.getString(CLAVE_IDIOMA, d.getIdioma()),
+            anteriores.getString(CLAVE_NOMBRE_USUARIO, d.getNombreUsuario()));
+        escribirArchivo(migradas);
+        context.deleteSharedPreferences(PREFS_ANTERIORES);
+        return migradas;
+    }
+
+    /**
+     * Escribe la instantánea vigente; los guardados que lleguen durante la
+     * escritura encolan otra
+     */
+    private void escribir() {
+        escrituraPendiente.set(false);
+        Preferencias aEscribir = actual.get();
+        if (aEscribir == null) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            escribirArchivo(aEscribir);
+            escrituras.incrementAndGet();
+            tiemposEscritura.registrar(System.nanoTime() - inicio);
+        } catch (Exception e) {
+            // Cualquier fallo llega a la pantalla: en el executor se perdería
+            error.postValue(e);
+        }
+    }
+
+    private void escribirArchivo(Preferencias valores) throws IOException {
+        resolverArchivos();
+        Properties propiedades = new Properties();
+        propiedades.setProperty(CLAVE_TEMA_OSCURO, String.valueOf(valores.isTemaOscuro()));
+        propiedades.setProperty(CLAVE_NOTIFICACIONES, String.valueOf(valores.isNotificaciones()));
+        propiedades.setProperty(CLAVE_SONIDOS, String.valueOf(valores.isSonidos()));
+        propiedades.setProperty(CLAVE_VOLUMEN, String.valueOf(valores.getVolumen()));
+        propiedades.setProperty(CLAVE_IDIOMA, valores.getIdioma());
+        propiedades.setProperty(CLAVE_NOMBRE_USUARIO, valores.getNombreUsuario());
+
+        try (FileOutputStream salida = new FileOutputStream(temporal)) {
+            propiedades.store(salida, null);
+            // El contenido llega al disco antes de reemplazar el archivo
+            salida.getFD().sync();
+        }
+        if (!temporal.renameTo(archivo)) {
+            throw new IOException("No se pudo reemplazar " + archivo.getName());
+        }
+    }
+
+    /**
+     * Escrituras a disco terminadas
+     */
+    long getEscrituras() {
+        return escrituras.get();
+    }
+
+    /**
+     * Guardados, escrituras reales y tiempos (hilo principal frente a disco)
+     */
+    public String resumen() {
+        return "Guardados: " + guardados.get() + ", escrituras: " + escrituras.get()
+            + "\nguardar() en hilo principal: " + tiemposGuardar.resumen()
+            + "\nescritura a disco: " + tiemposEscritura.resumen();
+    }
+}
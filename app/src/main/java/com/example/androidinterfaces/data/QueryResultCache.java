@@ -0,0 +1,118 @@
+package com.example.androidinterfaces.data;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Caché LRU de resultados de búsqueda
+ * Guarda consulta -> IDs de usuario como arreglos primitivos.
+ * Se invalida completa cuando DatabaseHelper registra una escritura
+ * sobre la tabla usuarios (ver DatabaseHelper.getVersionUsuarios()).
+ */
+public class QueryResultCache {
+
+    private final int capacidad;
+    private final Map<String, int[]> entradas;
+    private long versionUsuarios;
+
+    // Métricas
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private long invalidaciones;
+
+    public QueryResultCache(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que cero");
+        }
+        this.capacidad = capacidad;
+        this.versionUsuarios = DatabaseHelper.getVersionUsuarios();
+        this.entradas = new LinkedHashMap<String, int[]>(capacidad, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                if (size() > QueryResultCache.this.capacidad) {
+                    desalojos++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Obtiene los IDs guardados para la consulta
+     * @return los IDs o null si no están en caché
+     */
+    public synchronized int[] obtener(String clave) {
+        validarVersion();
+        int[] ids = entradas.get(clave);
+        if (ids == null) {
+            fallos++;
+        } else {
+            aciertos++;
+        }
+        return ids;
+    }
+
+    /**
+     * Guarda el resultado de una consulta calculada con los datos de la
+     * versión indicada; se descarta si la tabla cambió mientras tanto
+     */
+    public synchronized void guardar(String clave, int[] ids, long versionCalculo) {
+        validarVersion();
+        if (versionCalculo == versionUsuarios) {
+            entradas.put(clave, ids);
+        }
+    }
+
+    public synchronized void limpiar() {
+        entradas.clear();
+    }
+
+    private void validarVersion() {
+        long actual = DatabaseHelper.getVersionUsuarios();
+        if (actual != versionUsuarios) {
+            if (!entradas.isEmpty()) {
+                invalidaciones++;
+            }
+            entradas.clear();
+            versionUsuarios = actual;
+        }
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    public synchronized long getDesalojos() {
+        return desalojos;
+    }
+
+    public synchronized long getInvalidaciones() {
+        return invalidaciones;
+    }
+
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    /**
+     * Porcentaje de consultas resueltas desde la caché (0 a 100)
+     */
+    public synchronized double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0 : (aciertos * 100.0) / total;
+    }
+
+    public synchronized String resumen() {
+        return String.format(Locale.getDefault(),
+            "Caché: %d/%d entradas, aciertos %.1f%% (%d/%d), desalojos %d, invalidaciones %d",
+            entradas.size(), capacidad, getTasaAciertos(), aciertos, aciertos + fallos,
+            desalojos, invalidaciones);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.androidinterfaces.data;
+
+/**
+ * Declaración de un índice secundario del esquema
+ * Cada índice indica la versión de la base de datos que lo introduce
+ * (para crearlo en la migración correspondiente) y una consulta
+ * representativa cuyo plan debe usarlo.
+ */
+public class SchemaIndex {
+    private final String nombre;
+    private final String tabla;
+    private final String columnas;
+    private final String condicion;
+    private final int version;
+    private final String consultaVerificacion;
+
+    public SchemaIndex(String nombre, String tabla, String columnas, String condicion,
+                       int version, String consultaVerificacion) {
+        this.nombre = nombre;
+        this.tabla = tabla;
+        this.columnas = columnas;
+        this.condicion = condicion;
+        this.version = version;
+        this.consultaVerificacion = consultaVerificacion;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getConsultaVerificacion() {
+        return consultaVerificacion;
+    }
+
+    /**
+     * Sentencia CREATE INDEX; parcial si tiene condición
+     */
+    public String sqlCreacion() {
+        String sql = "CREATE INDEX IF NOT EXISTS " + nombre + " ON " + tabla +
+            " (" + columnas + ")";
+        if (condicion != null) {
+            sql += " WHERE " + condicion;
+        }
+        return sql;
+    }
+
+    /**
+     * Sentencia DROP INDEX para retirarlo en una migración
+     */
+    public String sqlEliminacion() {
+        return "DROP INDEX IF EXISTS " + nombre;
+    }
+
+    /**
+     * Indica si una línea de EXPLAIN QUERY PLAN usa este índice
+     */
+    public boolean apareceEnPlan(String detalle) {
+        return detalle != null && (detalle.contains("INDEX " + nombre + " ")
+            || detalle.endsWith("INDEX " + nombre));
+    }
+}
@@ -0,0 +1,420 @@
+package com.example.androidinterfaces.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import com.example.androidinterfaces.models.Usuario;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cargador paginado del listado de usuarios
+ * - Las páginas se leen de SQLite por keyset (ver obtenerPaginaResumen) en
+ *   un hilo propio y se agregan al final a medida que el scroll se acerca
+ * - Las eliminaciones son en dos pasos: ocultar() quita las filas de la
+ *   lista y deja una lápida en memoria que se puede restaurar; purgar() las
+ *   borra de SQLite en una sola transacción
+ * - Las filas cambian con notificaciones por rangos contiguos
+ * - El total se cuenta una vez por carga y se ajusta con cada eliminación
+ * Los métodos públicos se llaman desde el hilo principal.
+ */
+public class UsuarioPagingLoader {
+
+    /**
+     * Notificaciones de cambios en la lista visible
+     */
+    public interface Listener {
+        void onInsertados(int posicion, int cantidad);
+
+        void onEliminados(int posicion, int cantidad);
+
+        void onTotal(int total);
+
+        void onCargando(boolean cargando);
+
+        void onError(Throwable t);
+    }
+
+    private static final Listener SIN_LISTENER = new Listener() {
+        @Override
+        public void onInsertados(int posicion, int cantidad) {}
+
+        @Override
+        public void onEliminados(int posicion, int cantidad) {}
+
+        @Override
+        public void onTotal(int total) {}
+
+        @Override
+        public void onCargando(boolean cargando) {}
+
+        @Override
+        public void onError(Throwable t) {}
+    };
+
+    /**
+     * Resultado del borrado físico de una eliminación
+     */
+    public interface PurgaCallback {
+        void onPurgado(int eliminados);
+
+        void onError(Throwable t);
+    }
+
+    /**
+     * Resultado de la verificación de índices
+     */
+    public interface IndicesCallback {
+        /**
+         * @param noUsados índices declarados que ninguna consulta usa; vacío si todos
+         */
+        void onVerificados(List<String> noUsados);
+
+        void onError(Throwable t);
+    }
+
+    /**
+     * Lápida: filas ocultas con su posición original, pendientes de purgar
+     */
+    public static class Eliminacion {
+        private final int[] posiciones;
+        private final List<Usuario> usuarios;
+        private final int generacion;
+        private boolean resuelta = false;
+
+        Eliminacion(int[] posiciones, List<Usuario> usuarios, int generacion) {
+            this.posiciones = posiciones;
+            this.usuarios = usuarios;
+            this.generacion = generacion;
+        }
+
+        public int getCantidad() {
+            return usuarios.size();
+        }
+
+        public boolean isResuelta() {
+            return resuelta;
+        }
+
+        int[] getIds() {
+            int[] ids = new int[usuarios.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = usuarios.get(i).getId();
+            }
+            return ids;
+        }
+    }
+
+    private final DatabaseHelper dbHelper;
+    private final int tamanoPagina;
+    private final int distanciaPrefetch;
+    private Listener listener = SIN_LISTENER;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private volatile boolean cerrado = false;
+
+    private final List<Usuario> usuarios = new ArrayList<>();
+    // IDs ocultos por lápidas sin resolver: siguen en SQLite y no se muestran
+    private final Set<Integer> ocultos = new HashSet<>();
+    // Clave (nombre, email) de la última fila leída, oculta o no
+    private String ultimoNombre = null;
+    private String ultimoEmail = null;
+    private int total = 0;
+    private boolean finAlcanzado = false;
+    private boolean cargando = false;
+    // Descarta respuestas de cargas anteriores a un reinicio
+    private int generacion = 0;
+    // Versión de la tabla usuarios con la que se hizo la última carga
+    private long versionCargada = -1;
+
+    public UsuarioPagingLoader(Context context, int tamanoPagina, int distanciaPrefetch) {
+        this(DatabaseHelper.getInstance(context), tamanoPagina, distanciaPrefetch);
+    }
+
+    /**
+     * Visible para los tests, que usan su propia base de datos
+     */
+    UsuarioPagingLoader(DatabaseHelper dbHelper, int tamanoPagina, int distanciaPrefetch) {
+        this.dbHelper = dbHelper;
+        this.tamanoPagina = tamanoPagina;
+        this.distanciaPrefetch = distanciaPrefetch;
+    }
+
+    /**
+     * Receptor de los cambios; null para desconectarlo (p. ej. al destruir
+     * la activity mientras el cargador sigue vivo en su ViewModel)
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : SIN_LISTENER;
+    }
+
+    /**
+     * Lista que muestra el adapter; solo la modifica el cargador
+     */
+    public List<Usuario> getUsuarios() {
+        return usuarios;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean isCargando() {
+        return cargando;
+    }
+
+    /**
+     * true si aún no se hizo ninguna carga
+     */
+    public boolean sinCargar() {
+        return versionCargada == -1;
+    }
+
+    /**
+     * Vacía la lista y carga la primera página con el total
+     */
+    public void reiniciar() {
+        generacion++;
+        int cantidad = usuarios.size();
+        usuarios.clear();
+        ultimoNombre = null;
+        ultimoEmail = null;
+        finAlcanzado = false;
+        cargando = false;
+        if (cantidad > 0) {
+            listener.onEliminados(0, cantidad);
+        }
+        versionCargada = DatabaseHelper.getVersionUsuarios();
+
+        int gen = generacion;
+        executor.execute(() -> {
+            try {
+                int contados = dbHelper.contarUsuarios();
+                entregar(() -> {
+                    if (gen == generacion) {
+                        total = Math.max(0, contados - ocultos.size());
+                        listener.onTotal(total);
+                    }
+                });
+            } catch (Exception e) {
+                entregar(() -> listener.onError(e));
+            }
+        });
+        cargarSiguiente();
+    }
+
+    /**
+     * Recarga solo si la tabla cambió desde la última carga (p. ej. al volver
+     * del formulario); si no, conserva la lista y la posición del scroll
+     */
+    public void recargarSiCambio() {
+        if (versionCargada != DatabaseHelper.getVersionUsuarios()) {
+            reiniciar();
+        }
+    }
+
+    /**
+     * Pide la página siguiente si la última fila visible está cerca del final
+     */
+    public void onScroll(int ultimaVisible) {
+        if (ultimaVisible >= usuarios.size() - distanciaPrefetch) {
+            cargarSiguiente();
+        }
+    }
+
+    private void cargarSiguiente() {
+        if (cargando || finAlcanzado) {
+            return;
+        }
+        cargando = true;
+        listener.onCargando(true);
+
+        String nombreDesde = ultimoNombre;
+        String emailDesde = ultimoEmail;
+        int gen = generacion;
+        executor.execute(() -> {
+            try {
+                List<Usuario> pagina =
+                    dbHelper.obtenerPaginaResumen(nombreDesde, emailDesde, tamanoPagina);
+                entregar(() -> {
+                    if (gen == generacion) {
+                        agregar(pagina);
+                    }
+                });
+            } catch (Exception e) {
+                entregar(() -> {
+                    if (gen == generacion) {
+                        cargando = false;
+                        listener.onCargando(false);
+                        listener.onError(e);
+                    }
+                });
+            }
+        });
+    }
+
+    private void agregar(List<Usuario> pagina) {
+        cargando = false;
+        finAlcanzado = pagina.size() < tamanoPagina;
+        listener.onCargando(false);
+        if (pagina.isEmpty()) {
+            return;
+        }
+        Usuario ultimo = pagina.get(pagina.size() - 1);
+        ultimoNombre = ultimo.getNombre();
+        ultimoEmail = ultimo.getEmail();
+
+        int posicion = usuarios.size();
+        for (Usuario usuario : pagina) {
+            if (!ocultos.contains(usuario.getId())) {
+                usuarios.add(usuario);
+            }
+        }
+        if (usuarios.size() > posicion) {
+            listener.onInsertados(posicion, usuarios.size() - posicion);
+        }
+    }
+
+    /**
+     * Quita de la lista los usuarios indicados sin tocar SQLite
+     * @return lápida para restaurar() o purgar(); null si ninguno estaba cargado
+     */
+    public Eliminacion ocultar(Set<Integer> ids) {
+        List<Integer> posiciones = new ArrayList<>();
+        List<Usuario> quitados = new ArrayList<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            Usuario usuario = usuarios.get(i);
+            if (ids.contains(usuario.getId())) {
+                posiciones.add(i);
+                quitados.add(usuario);
+            }
+        }
+        if (quitados.isEmpty()) {
+            return null;
+        }
+
+        // De atrás hacia adelante para que las posiciones sigan siendo válidas
+        int fin = posiciones.size() - 1;
+        while (fin >= 0) {
+            int inicio = fin;
+            while (inicio > 0 && posiciones.get(inicio - 1) == posiciones.get(inicio) - 1) {
+                inicio--;
+            }
+            int desde = posiciones.get(inicio);
+            int cantidad = fin - inicio + 1;
+            usuarios.subList(desde, desde + cantidad).clear();
+            listener.onEliminados(desde, cantidad);
+            fin = inicio - 1;
+        }
+
+        int[] arreglo = new int[posiciones.size()];
+        for (int i = 0; i < arreglo.length; i++) {
+            arreglo[i] = posiciones.get(i);
+            ocultos.add(quitados.get(i).getId());
+        }
+        total = Math.max(0, total - quitados.size());
+        listener.onTotal(total);
+        return new Eliminacion(arreglo, quitados, generacion);
+    }
+
+    /**
+     * Deshace una eliminación aún no purgada devolviendo las filas a su lugar
+     */
+    public void restaurar(Eliminacion eliminacion) {
+        if (eliminacion.resuelta) {
+            return;
+        }
+        eliminacion.resuelta = true;
+        for (Usuario usuario : eliminacion.usuarios) {
+            ocultos.remove(usuario.getId());
+        }
+        if (eliminacion.generacion != generacion) {
+            // La lista se recargó mientras tanto: las posiciones ya no valen
+            reiniciar();
+            return;
+        }
+
+        // En orden creciente cada posición original vuelve a ser correcta
+        int[] posiciones = eliminacion.posiciones;
+        int inicio = 0;
+        while (inicio < posiciones.length) {
+            int fin = inicio;
+            while (fin + 1 < posiciones.length && posiciones[fin + 1] == posiciones[fin] + 1) {
+                fin++;
+            }
+            int desde = Math.min(posiciones[inicio], usuarios.size());
+            usuarios.addAll(desde, eliminacion.usuarios.subList(inicio, fin + 1));
+            listener.onInsertados(desde, fin - inicio + 1);
+            inicio = fin + 1;
+        }
+        total += eliminacion.getCantidad();
+        listener.onTotal(total);
+    }
+
+    /**
+     * Borra de SQLite las filas de una lápida, en una sola transacción
+     * Si falla, la lista se recarga para volver a mostrarlas.
+     */
+    public void purgar(Eliminacion eliminacion, PurgaCallback callback) {
+        if (eliminacion.resuelta) {
+            return;
+        }
+        eliminacion.resuelta = true;
+        int[] ids = eliminacion.getIds();
+        executor.execute(() -> {
+            try {
+                int eliminados = dbHelper.eliminarUsuarios(ids);
+                entregar(() -> {
+                    liberarOcultos(ids);
+                    // El cambio ya se refleja en la lista: no hace falta recargar
+                    versionCargada = DatabaseHelper.getVersionUsuarios();
+                    callback.onPurgado(eliminados);
+                });
+            } catch (Exception e) {
+                entregar(() -> {
+                    liberarOcultos(ids);
+                    reiniciar();
+                    callback.onError(e);
+                });
+            }
+        });
+    }
+
+    /**
+     * Comprueba con EXPLAIN QUERY PLAN, en el hilo del cargador, que los
+     * índices declarados se usan
+     */
+    public void verificarIndices(IndicesCallback callback) {
+        executor.execute(() -> {
+            try {
+                List<String> noUsados = dbHelper.verificarIndices();
+                entregar(() -> callback.onVerificados(noUsados));
+            } catch (Exception e) {
+                entregar(() -> callback.onError(e));
+            }
+        });
+    }
+
+    private void liberarOcultos(int[] ids) {
+        for (int id : ids) {
+            ocultos.remove(id);
+        }
+    }
+
+    private void entregar(Runnable accion) {
+        handler.post(() -> {
+            if (!cerrado) {
+                accion.run();
+            }
+        });
+    }
+
+    public void cerrar() {
+        cerrado = true;
+        executor.shutdown();
+    }
+}
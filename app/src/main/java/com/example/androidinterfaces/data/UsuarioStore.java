@@ -0,0 +1,191 @@
+package com.example.androidinterfaces.data;
+
+import android.content.Context;
+import android.util.SparseArray;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.androidinterfaces.models.Usuario;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Almacén compartido de los usuarios completos, con alcance de aplicación
+ * - Una sola lectura de SQLite por versión de la tabla usuarios: las
+ *   pantallas que lo consultan comparten la misma instantánea
+ * - Publica la instantánea con LiveData; la lectura y el índice difuso se
+ *   construyen en un hilo propio
+ * Los métodos públicos se llaman desde el hilo principal.
+ */
+public class UsuarioStore {
+
+    /**
+     * Usuarios leídos con una versión de la tabla, con sus índices
+     * Inmutable: se reemplaza entera cuando cambia la tabla.
+     */
+    public static class Instantanea {
+        private final List<Usuario> usuarios;
+        private final SparseArray<Usuario> porId;
+        // Texto "nombre - ciudad" de cada resultado, armado en el hilo del almacén
+        private final SparseArray<String> textosResultado;
+        // Nombre, email y ciudad en minúsculas, por posición: la búsqueda
+        // exacta no convierte nada por tecla
+        private final String[] textosBusqueda;
+        private final String[] ciudadesBusqueda;
+        private final FuzzySearchIndex indiceDifuso;
+        private final long version;
+
+        Instantanea(List<Usuario> usuarios, long version) {
+            this.usuarios = Collections.unmodifiableList(usuarios);
+            this.porId = new SparseArray<>(usuarios.size());
+            this.textosResultado = new SparseArray<>(usuarios.size());
+            this.textosBusqueda = new String[usuarios.size()];
+            this.ciudadesBusqueda = new String[usuarios.size()];
+            for (int i = 0; i < usuarios.size(); i++) {
+                Usuario usuario = usuarios.get(i);
+                porId.put(usuario.getId(), usuario);
+                textosResultado.put(usuario.getId(),
+                    usuario.getNombre() + " - " + usuario.getCiudad());
+                ciudadesBusqueda[i] = minusculas(usuario.getCiudad());
+                // El separador no aparece en una consulta: no une campos
+                textosBusqueda[i] = minusculas(usuario.getNombre()) + '\n'
+                    + minusculas(usuario.getEmail()) + '\n' + ciudadesBusqueda[i];
+            }
+            this.indiceDifuso = FuzzySearchIndex.construir(usuarios);
+            this.version = version;
+        }
+
+        public List<Usuario> getUsuarios() {
+            return usuarios;
+        }
+
+        public Usuario obtenerPorId(int id) {
+            return porId.get(id);
+        }
+
+        /**
+         * Texto de la fila de resultados; null si el usuario no es de esta instantánea
+         */
+        public String getTextoResultado(int id) {
+            return textosResultado.get(id);
+        }
+
+        /**
+         * Nombre, email y ciudad en minúsculas del usuario en esa posición
+         */
+        public String getTextoBusqueda(int posicion) {
+            return textosBusqueda[posicion];
+        }
+
+        /**
+         * Ciudad en minúsculas del usuario en esa posición
+         */
+        public String getCiudadBusqueda(int posicion) {
+            return ciudadesBusqueda[posicion];
+        }
+
+        private static String minusculas(String texto) {
+            return texto != null ? texto.toLowerCase() : "";
+        }
+
+        public FuzzySearchIndex getIndiceDifuso() {
+            return indiceDifuso;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    private static volatile UsuarioStore instancia = null;
+
+    private final DatabaseHelper dbHelper;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final MutableLiveData<Instantanea> usuarios = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> cargando = new MutableLiveData<>(false);
+    private final MutableLiveData<Exception> error = new MutableLiveData<>();
+    // Versión que se está leyendo o ya publicada; -1 si ninguna
+    private volatile long versionPedida = -1;
+    private final AtomicLong lecturas = new AtomicLong();
+
+    private UsuarioStore(Context context) {
+        this.dbHelper = DatabaseHelper.getInstance(context);
+    }
+
+    public static UsuarioStore getInstance(Context context) {
+        UsuarioStore actual = instancia;
+        if (actual == null) {
+            synchronized (UsuarioStore.class) {
+                if (instancia == null) {
+                    instancia = new UsuarioStore(context.getApplicationContext());
+                }
+                actual = instancia;
+            }
+        }
+        return actual;
+    }
+
+    public LiveData<Instantanea> getUsuarios() {
+        return usuarios;
+    }
+
+    public LiveData<Boolean> getCargando() {
+        return cargando;
+    }
+
+    /**
+     * Último error de lectura; se limpia con consumirError()
+     */
+    public LiveData<Exception> getError() {
+        return error;
+    }
+
+    public void consumirError() {
+        error.setValue(null);
+    }
+
+    /**
+     * Lee la tabla solo si cambió desde la última lectura (o si nunca se leyó)
+     */
+    public void cargarSiCambio() {
+        long version = DatabaseHelper.getVersionUsuarios();
+        if (version == versionPedida) {
+            return;
+        }
+        versionPedida = version;
+        cargando.setValue(true);
+        executor.execute(() -> {
+            try {
+                lecturas.incrementAndGet();
+                Instantanea instantanea = new Instantanea(dbHelper.obtenerTodosUsuarios(), version);
+                usuarios.postValue(instantanea);
+            } catch (Exception e) {
+                error.postValue(e);
+                // Permite reintentar en la próxima llamada
+                versionPedida = -1;
+            } finally {
+                cargando.postValue(false);
+            }
+        });
+    }
+
+    /**
+     * Usuario de la instantánea vigente; null si no está o si la tabla cambió
+     */
+    public Usuario obtenerSiVigente(int id) {
+        Instantanea actual = usuarios.getValue();
+        if (actual == null || actual.getVersion() != DatabaseHelper.getVersionUsuarios()) {
+            return null;
+        }
+        return actual.obtenerPorId(id);
+    }
+
+    /**
+     * Lecturas completas de la tabla hechas desde que arrancó el proceso
+     */
+    public long getLecturas() {
+        return lecturas.get();
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.androidinterfaces.data;
+
+import android.content.Context;
+import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.api.RetrofitClient;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+/**
+ * Envía al servidor los usuarios pendientes en el outbox
+ * - Los lotes se acotan por cantidad y por bytes, y se espera una ventana
+ *   corta tras cada alta para juntar varias en un mismo envío
+ * - Cada lote lleva una clave de idempotencia derivada de las claves de
+ *   sus entradas: un reintento del mismo lote repite la misma clave
+ * - Las entradas se eliminan solo tras la confirmación del servidor;
+ *   ante un fallo transitorio (red, 408, 429, 5xx) se reintenta con
+ *   espera exponencial y jitter
+ * - Un rechazo permanente (otro 4xx) no se reintenta: el lote se reenvía
+ *   de a uno y solo las entradas rechazadas se descartan (dead letter),
+ *   así los lotes siguientes no quedan bloqueados detrás
+ * - Las entradas que llegan a MAX_INTENTOS fallos también se descartan
+ * Hay una sola instancia por proceso y trabaja en un hilo propio.
+ */
+public class UsuarioSyncWorker {
+
+    private static final int MAX_USUARIOS_LOTE = 50;
+    private static final long MAX_BYTES_LOTE = 64 * 1024;
+    private static final long VENTANA_LOTE_MS = 2000;
+    private static final long ESPERA_BASE_MS = 2000;
+    private static final long ESPERA_MAXIMA_MS = 5 * 60 * 1000;
+    static final int MAX_INTENTOS = 10;
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    /**
+     * El servidor rechazó el contenido; repetir el envío no cambia la respuesta
+     */
+    private static class RechazoPermanente extends IOException {
+        RechazoPermanente(int codigo) {
+            super("El servidor rechazó los usuarios: " + codigo);
+        }
+    }
+
+    private static volatile UsuarioSyncWorker instancia = null;
+
+    private final DatabaseHelper dbHelper;
+    private final ApiService apiService;
+    private final ScheduledExecutorService executor =
+        Executors.newSingleThreadScheduledExecutor();
+    private ScheduledFuture<?> programado;
+    // Ningún envío antes de este instante (espera tras un fallo)
+    private volatile long noAntesDeMs = 0;
+    // Solo se usa desde el hilo del worker
+    private int fallosSeguidos = 0;
+
+    // Métricas
+    private final AtomicLong usuariosEnviados = new AtomicLong();
+    private final AtomicLong lotesEnviados = new AtomicLong();
+    private final AtomicLong lotesFallidos = new AtomicLong();
+    private final AtomicLong usuariosDescartados = new AtomicLong();
+
+    private UsuarioSyncWorker(Context context) {
+        this.dbHelper = DatabaseHelper.getInstance(context);
+        this.apiService = RetrofitClient.getInstance(context).create(ApiService.class);
+    }
+
+    /**
+     * Visible para los tests, que usan su propia base de datos y servidor
+     */
+    UsuarioSyncWorker(DatabaseHelper dbHelper, ApiService apiService) {
+        this.dbHelper = dbHelper;
+        this.apiService = apiService;
+    }
+
+    public static UsuarioSyncWorker getInstance(Context context) {
+        UsuarioSyncWorker actual = instancia;
+        if (actual == null) {
+            synchronized (UsuarioSyncWorker.class) {
+                if (instancia == null) {
+                    instancia = new UsuarioSyncWorker(context.getApplicationContext());
+                }
+                actual = instancia;
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Envía lo que haya quedado pendiente (p. ej. al iniciar la aplicación)
+     */
+    public void iniciar() {
+        programar(0);
+    }
+
+    /**
+     * Avisa de un alta nueva; el envío espera la ventana del lote
+     */
+    public void notificarCambios() {
+        programar(VENTANA_LOTE_MS);
+    }
+
+    private synchronized void programar(long esperaMs) {
+        long espera = Math.max(esperaMs, noAntesDeMs - System.currentTimeMillis());
+        if (programado != null && !programado.isDone()) {
+            long restante = programado.getDelay(TimeUnit.MILLISECONDS);
+            if (restante > 0 && restante <= espera) {
+                // Ya hay un envío programado que llegará a tiempo
+                return;
+            }
+            if (restante > 0) {
+                programado.cancel(false);
+            }
+            // Si está en curso se programa otro para después
+        }
+        programado = executor.schedule(this::vaciar, espera, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Envía lotes hasta vaciar el outbox o hasta el primer fallo transitorio
+     */
+    private void vaciar() {
+        List<OutboxEntry> lote = null;
+        try {
+            while (true) {
+                lote = dbHelper.obtenerLoteOutbox(MAX_USUARIOS_LOTE, MAX_BYTES_LOTE);
+                if (lote.isEmpty()) {
+                    fallosSeguidos = 0;
+                    return;
+                }
+                try {
+                    enviar(lote);
+                    confirmar(lote);
+                } catch (RechazoPermanente e) {
+                    enviarUnoAUno(lote);
+                }
+                fallosSeguidos = 0;
+            }
+        } catch (Exception e) {
+            lotesFallidos.incrementAndGet();
+            if (lote != null && !lote.isEmpty()) {
+                registrarIntento(lote);
+            }
+            long espera = calcularEspera(fallosSeguidos++);
+            noAntesDeMs = System.currentTimeMillis() + espera;
+            programar(espera);
+        }
+    }
+
+    /**
+     * Reenvía por separado las entradas de un lote rechazado, para descartar
+     * solo las que el servidor no acepta
+     */
+    private void enviarUnoAUno(List<OutboxEntry> lote) throws IOException, SQLException {
+        if (lote.size() == 1) {
+            descartar(lote);
+            return;
+        }
+        for (OutboxEntry entrada : lote) {
+            List<OutboxEntry> sola = Collections.singletonList(entrada);
+            try {
+                enviar(sola);
+                confirmar(sola);
+            } catch (RechazoPermanente e) {
+                descartar(sola);
+            }
+        }
+    }
+
+    private void confirmar(List<OutboxEntry> entradas) throws SQLException {
+        dbHelper.eliminarDeOutbox(entradas);
+        usuariosEnviados.addAndGet(entradas.size());
+        lotesEnviados.incrementAndGet();
+    }
+
+    private void descartar(List<OutboxEntry> entradas) throws SQLException {
+        dbHelper.descartarDeOutbox(entradas);
+        usuariosDescartados.addAndGet(entradas.size());
+    }
+
+    /**
+     * Suma el intento fallido y descarta las entradas que llegaron al máximo
+     */
+    private void registrarIntento(List<OutboxEntry> lote) {
+        try {
+            dbHelper.registrarIntentoOutbox(lote);
+            List<OutboxEntry> agotadas = new ArrayList<>();
+            for (OutboxEntry entrada : lote) {
+                if (entrada.getIntentos() + 1 >= MAX_INTENTOS) {
+                    agotadas.add(entrada);
+                }
+            }
+            if (!agotadas.isEmpty()) {
+                descartar(agotadas);
+            }
+        } catch (SQLException ignored) {
+            // Se reintenta igual; el contador se actualizará en el próximo fallo
+        }
+    }
+
+    private void enviar(List<OutboxEntry> lote) throws IOException {
+        Response<ResponseBody> response =
+            apiService.enviarUsuarios(claveLote(lote), crearCuerpo(lote)).execute();
+        ResponseBody body = response.isSuccessful() ? response.body() : response.errorBody();
+        if (body != null) {
+            body.close();
+        }
+        // 409: el servidor ya había aplicado este lote
+        if (response.isSuccessful() || response.code() == 409) {
+            return;
+        }
+        if (esRechazoPermanente(response.code())) {
+            throw new RechazoPermanente(response.code());
+        }
+        throw new IOException("Error del servidor al enviar usuarios: " + response.code());
+    }
+
+    /**
+     * 4xx salvo 408 (timeout) y 429 (demasiadas peticiones), que son transitorios
+     */
+    static boolean esRechazoPermanente(int codigo) {
+        return codigo >= 400 && codigo < 500 && codigo != 408 && codigo != 429;
+    }
+
+    /**
+     * {"usuarios":[{"claveIdempotencia":"...","usuario":{...}}, ...]}
+     * Cada entrada conserva su clave para que el servidor descarte
+     * duplicados aunque cambie la composición del lote.
+     */
+    private static RequestBody crearCuerpo(List<OutboxEntry> lote) {
+        StringBuilder json = new StringBuilder("{\"usuarios\":[");
+        for (int i = 0; i < lote.size(); i++) {
+            OutboxEntry entrada = lote.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"claveIdempotencia\":\"").append(entrada.getClaveIdempotencia())
+                .append("\",\"usuario\":").append(entrada.getPayload()).append('}');
+        }
+        json.append("]}");
+        return RequestBody.create(JSON, json.toString());
+    }
+
+    static String claveLote(List<OutboxEntry> lote) {
+        StringBuilder claves = new StringBuilder();
+        for (OutboxEntry entrada : lote) {
+            claves.append(entrada.getClaveIdempotencia()).append(',');
+        }
+        return UUID.nameUUIDFromBytes(claves.toString().getBytes(StandardCharsets.UTF_8))
+            .toString();
+    }
+
+    static long calcularEspera(int fallos) {
+        long techo = Math.min(ESPERA_MAXIMA_MS, ESPERA_BASE_MS << Math.min(fallos, 20));
+        // Jitter: entre la mitad y el total del techo
+        return techo / 2 + ThreadLocalRandom.current().nextLong(techo / 2 + 1);
+    }
+
+    public long getUsuariosEnviados() {
+        return usuariosEnviados.get();
+    }
+
+    public long getLotesEnviados() {
+        return lotesEnviados.get();
+    }
+
+    public long getLotesFallidos() {
+        return lotesFallidos.get();
+    }
+
+    /**
+     * Usuarios apartados sin enviar: rechazados por el servidor o sin más intentos
+     */
+    public long getUsuariosDescartados() {
+        return usuariosDescartados.get();
+    }
+}
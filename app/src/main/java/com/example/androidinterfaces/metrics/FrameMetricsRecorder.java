@@ -0,0 +1,313 @@
+package com.example.androidinterfaces.metrics;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.example.androidinterfaces.api.LatencyHistogram;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Registro de frames de todas las pantallas, con alcance de aplicación
+ * - Por pantalla: histograma de duraciones, frames con jank, frames
+ *   congelados y los frames más largos
+ * - Cada frame se etiqueta con la operación que estaba en curso cuando se
+ *   dibujó ("tecla de búsqueda", "carga del listado"...)
+ * - Los últimos frames quedan en un buffer circular de tamaño fijo que se
+ *   puede exportar a CSV
+ * Los frames llegan desde el hilo de FrameTracker; las operaciones se
+ * marcan desde el hilo principal.
+ */
+public class FrameMetricsRecorder {
+
+    public static final String SIN_OPERACION = "ninguna";
+    public static final String PRIMER_FRAME = "primer frame";
+
+    private static final int CAPACIDAD_BUFFER = 1024;
+    private static final int CAPACIDAD_OPERACIONES = 32;
+    private static final int FRAMES_MAS_LARGOS = 5;
+    // A partir de 700 ms el frame se cuenta como congelado
+    private static final long CONGELADO_NANOS = 700_000_000L;
+    // Cubetas pensadas para 60/90/120 Hz
+    private static final long[] LIMITES_MS = {4, 8, 12, 17, 25, 34, 50, 100, 250, 700};
+
+    /**
+     * Operación que etiqueta los frames dibujados mientras dura
+     */
+    public static class Operacion {
+        final String nombre;
+        final long inicio;
+        // Long.MAX_VALUE mientras sigue abierta
+        volatile long fin = Long.MAX_VALUE;
+        // Se cierra con el primer frame que termine después de esta marca
+        volatile long cerrarTras = Long.MAX_VALUE;
+
+        Operacion(String nombre, long inicio) {
+            this.nombre = nombre;
+            this.inicio = inicio;
+        }
+
+        public void terminar() {
+            if (fin == Long.MAX_VALUE) {
+                fin = System.nanoTime();
+            }
+        }
+
+        /**
+         * Termina cuando se dibuje el próximo frame, que es el que muestra
+         * el resultado de la operación
+         */
+        public void terminarTrasFrame() {
+            if (cerrarTras == Long.MAX_VALUE) {
+                cerrarTras = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Receptor del resultado de exportar(), en el hilo principal
+     */
+    public interface ExportCallback {
+        void onExportado(File archivo, int frames);
+
+        void onError(IOException e);
+    }
+
+    /**
+     * Estadísticas acumuladas de una pantalla
+     */
+    static class Estadisticas {
+        final LatencyHistogram histograma = new LatencyHistogram(LIMITES_MS);
+        long jank;
+        long congelados;
+        long descartados;
+        // Frames y jank por operación: {frames, jank}
+        final Map<String, long[]> porOperacion = new TreeMap<>();
+        final long[] duracionesMasLargas = new long[FRAMES_MAS_LARGOS];
+        final String[] operacionesMasLargas = new String[FRAMES_MAS_LARGOS];
+
+        void registrar(long duracion, boolean conJank, String operacion) {
+            histograma.registrar(duracion);
+            long[] contadores = porOperacion.get(operacion);
+            if (contadores == null) {
+                contadores = new long[2];
+                porOperacion.put(operacion, contadores);
+            }
+            contadores[0]++;
+            if (conJank) {
+                jank++;
+                contadores[1]++;
+            }
+            if (duracion >= CONGELADO_NANOS) {
+                congelados++;
+            }
+            // Reemplaza el más corto de los guardados si este es mayor
+            int menor = 0;
+            for (int i = 1; i < FRAMES_MAS_LARGOS; i++) {
+                if (duracionesMasLargas[i] < duracionesMasLargas[menor]) {
+                    menor = i;
+                }
+            }
+            if (duracion > duracionesMasLargas[menor]) {
+                duracionesMasLargas[menor] = duracion;
+                operacionesMasLargas[menor] = operacion;
+            }
+        }
+    }
+
+    private static FrameMetricsRecorder instancia = null;
+
+    private final Map<String, Estadisticas> porPantalla = new TreeMap<>();
+    private final ArrayDeque<Operacion> operaciones = new ArrayDeque<>(CAPACIDAD_OPERACIONES);
+
+    // Buffer circular de los últimos frames
+    private final String[] bufferPantallas = new String[CAPACIDAD_BUFFER];
+    private final String[] bufferOperaciones = new String[CAPACIDAD_BUFFER];
+    private final long[] bufferInicios = new long[CAPACIDAD_BUFFER];
+    private final long[] bufferDuraciones = new long[CAPACIDAD_BUFFER];
+    private final boolean[] bufferJank = new boolean[CAPACIDAD_BUFFER];
+    private int siguiente = 0;
+    private int enBuffer = 0;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    FrameMetricsRecorder() {
+    }
+
+    public static synchronized FrameMetricsRecorder getInstance() {
+        if (instancia == null) {
+            instancia = new FrameMetricsRecorder();
+        }
+        return instancia;
+    }
+
+    /**
+     * Abre una operación; los frames se etiquetan con ella hasta terminar()
+     */
+    public synchronized Operacion iniciarOperacion(String nombre) {
+        if (operaciones.size() == CAPACIDAD_OPERACIONES) {
+            operaciones.removeFirst();
+        }
+        Operacion operacion = new Operacion(nombre, System.nanoTime());
+        operaciones.addLast(operacion);
+        return operacion;
+    }
+
+    /**
+     * Etiqueta solo el próximo frame (p. ej. el que muestra una tecla)
+     */
+    public void marcarProximoFrame(String nombre) {
+        iniciarOperacion(nombre).terminarTrasFrame();
+    }
+
+    /**
+     * Registra un frame de una pantalla
+     * Los tiempos usan el mismo reloj que System.nanoTime().
+     */
+    public synchronized void registrarFrame(String pantalla, long inicio, long duracion,
+                                            long presupuesto, boolean primerFrame,
+                                            int descartados) {
+        String operacion = primerFrame ? PRIMER_FRAME : operacionDe(inicio, inicio + duracion);
+        boolean conJank = duracion > presupuesto;
+
+        Estadisticas estadisticas = porPantalla.get(pantalla);
+        if (estadisticas == null) {
+            estadisticas = new Estadisticas();
+            porPantalla.put(pantalla, estadisticas);
+        }
+        estadisticas.registrar(duracion, conJank, operacion);
+        estadisticas.descartados += descartados;
+
+        bufferPantallas[siguiente] = pantalla;
+        bufferOperaciones[siguiente] = operacion;
+        bufferInicios[siguiente] = inicio;
+        bufferDuraciones[siguiente] = duracion;
+        bufferJank[siguiente] = conJank;
+        siguiente = (siguiente + 1) % CAPACIDAD_BUFFER;
+        enBuffer = Math.min(enBuffer + 1, CAPACIDAD_BUFFER);
+    }
+
+    /**
+     * Operación más reciente que se solapa con el frame [inicio, fin]
+     * De paso cierra las que esperaban a este frame y descarta las viejas.
+     */
+    private String operacionDe(long inicio, long fin) {
+        String encontrada = null;
+        Iterator<Operacion> it = operaciones.descendingIterator();
+        while (it.hasNext()) {
+            Operacion operacion = it.next();
+            if (operacion.fin == Long.MAX_VALUE && fin >= operacion.cerrarTras) {
+                operacion.fin = fin;
+            }
+            if (encontrada == null && operacion.inicio <= fin && operacion.fin >= inicio) {
+                encontrada = operacion.nombre;
+            }
+        }
+        // Las cerradas antes de este frame ya no etiquetarán ninguno
+        while (!operaciones.isEmpty() && operaciones.peekFirst().fin < inicio) {
+            operaciones.removeFirst();
+        }
+        return encontrada != null ? encontrada : SIN_OPERACION;
+    }
+
+    public synchronized int getFramesEnBuffer() {
+        return enBuffer;
+    }
+
+    public synchronized void reiniciar() {
+        porPantalla.clear();
+        siguiente = 0;
+        enBuffer = 0;
+    }
+
+    /**
+     * Volcado legible de las estadísticas de cada pantalla
+     */
+    public synchronized String resumen() {
+        if (porPantalla.isEmpty()) {
+            return "Sin frames registrados";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Estadisticas> entrada : porPantalla.entrySet()) {
+            Estadisticas e = entrada.getValue();
+            long frames = e.histograma.getCantidad();
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(entrada.getKey()).append('\n')
+                .append("  ").append(e.histograma.resumen()).append('\n')
+                .append(String.format(Locale.getDefault(),
+                    "  jank=%d (%.1f%%) congelados=%d descartados=%d\n",
+                    e.jank, frames == 0 ? 0 : e.jank * 100.0 / frames,
+                    e.congelados, e.descartados));
+            for (Map.Entry<String, long[]> operacion : e.porOperacion.entrySet()) {
+                sb.append("  ").append(operacion.getKey()).append(": ")
+                    .append(operacion.getValue()[1]).append('/')
+                    .append(operacion.getValue()[0]).append(" con jank\n");
+            }
+            sb.append("  más largos:");
+            for (int i = 0; i < FRAMES_MAS_LARGOS; i++) {
+                if (e.operacionesMasLargas[i] != null) {
+                    sb.append(String.format(Locale.getDefault(), " %.1fms (%s)",
+                        e.duracionesMasLargas[i] / 1_000_000.0, e.operacionesMasLargas[i]));
+                }
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Escribe los frames del buffer en un CSV nuevo dentro de "directorio"
+     * La copia del buffer se hace aquí; la escritura, en un hilo propio.
+     */
+    public void exportar(File directorio, ExportCallback callback) {
+        String[] pantallas;
+        String[] nombres;
+        long[] inicios;
+        long[] duraciones;
+        boolean[] jank;
+        synchronized (this) {
+            int cantidad = enBuffer;
+            pantallas = new String[cantidad];
+            nombres = new String[cantidad];
+            inicios = new long[cantidad];
+            duraciones = new long[cantidad];
+            jank = new boolean[cantidad];
+            // Del más viejo al más nuevo
+            int primero = (siguiente - cantidad + CAPACIDAD_BUFFER) % CAPACIDAD_BUFFER;
+            for (int i = 0; i < cantidad; i++) {
+                int j = (primero + i) % CAPACIDAD_BUFFER;
+                pantallas[i] = bufferPantallas[j];
+                nombres[i] = bufferOperaciones[j];
+                inicios[i] = bufferInicios[j];
+                duraciones[i] = bufferDuraciones[j];
+                jank[i] = bufferJank[j];
+            }
+        }
+
+        executor.execute(() -> {
+            File archivo = new File(directorio, "frames-" + System.currentTimeMillis() + ".csv");
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(archivo))) {
+                writer.write("pantalla,operacion,inicio_ns,duracion_ms,jank\n");
+                for (int i = 0; i < pantallas.length; i++) {
+                    writer.write(pantallas[i] + ",\"" + nombres[i] + "\"," + inicios[i] + ","
+                        + String.format(Locale.US, "%.3f", duraciones[i] / 1_000_000.0) + ","
+                        + (jank[i] ? 1 : 0) + "\n");
+                }
+                handler.post(() -> callback.onExportado(archivo, pantallas.length));
+            } catch (IOException e) {
+                handler.post(() -> callback.onError(e));
+            }
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.androidinterfaces.metrics;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+/**
+ * Pasa los FrameMetrics de la ventana de una activity a FrameMetricsRecorder
+ * iniciar() en onResume y detener() en onPause: solo se miden los frames
+ * de la pantalla visible. Las métricas llegan en un hilo compartido, no en
+ * el principal.
+ */
+public class FrameTracker implements Window.OnFrameMetricsAvailableListener {
+
+    private static Handler handlerMetricas = null;
+
+    private final Activity activity;
+    private final String pantalla;
+    private final FrameMetricsRecorder recorder = FrameMetricsRecorder.getInstance();
+    // Duración de un frame a la frecuencia de la pantalla
+    private long presupuestoNanos;
+    private boolean activo = false;
+
+    public FrameTracker(Activity activity) {
+        this.activity = activity;
+        this.pantalla = activity.getClass().getSimpleName();
+    }
+
+    public void iniciar() {
+        if (activo) {
+            return;
+        }
+        float frecuencia = activity.getDisplay().getRefreshRate();
+        presupuestoNanos = (long) (1_000_000_000L / (frecuencia > 0 ? frecuencia : 60f));
+        activity.getWindow().addOnFrameMetricsAvailableListener(this, handlerMetricas());
+        activo = true;
+    }
+
+    public void detener() {
+        if (!activo) {
+            return;
+        }
+        activity.getWindow().removeOnFrameMetricsAvailableListener(this);
+        activo = false;
+    }
+
+    private static Handler handlerMetricas() {
+        if (handlerMetricas == null) {
+            HandlerThread hilo = new HandlerThread("frame-metrics");
+            hilo.start();
+            handlerMetricas = new Handler(hilo.getLooper());
+        }
+        return handlerMetricas;
+    }
+
+    @Override
+    public void onFrameMetricsAvailable(Window window, FrameMetrics metricas, int descartados) {
+        recorder.registrarFrame(pantalla,
+            metricas.getMetric(FrameMetrics.INTENDED_VSYNC_TIMESTAMP),
+            metricas.getMetric(FrameMetrics.TOTAL_DURATION),
+            presupuestoNanos,
+            metricas.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1,
+            descartados);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.androidinterfaces.metrics;
+
+import android.content.Context;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.os.StrictMode;
+import android.os.strictmode.Violation;
+import android.util.Log;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Detector de E/S en el hilo principal para las builds de depuración
+ * - StrictMode avisa de lecturas y escrituras a disco y de red en el hilo
+ *   principal; cada aviso se agrupa por sitio de llamada ("Clase.metodo",
+ *   el primer frame de la app fuera de la capa de datos)
+ * - La duración es la del mensaje del Looper donde ocurrió: lo que la
+ *   pantalla estuvo bloqueada
+ * - La primera vez que aparece un sitio se registra con su stack trace
+ * - En modo fallo, un sitio que no está en la línea base
+ *   (assets/main_thread_io_baseline.txt) hace caer la app, así los tests
+ *   instrumentados fallan ante cualquier E/S nueva en el hilo principal
+ * Todo corre en el hilo principal.
+ */
+public class MainThreadIoGuard {
+
+    private static final String TAG = "MainThreadIo";
+    private static final String ARCHIVO_BASE = "main_thread_io_baseline.txt";
+    private static final String PAQUETE = "com.example.androidinterfaces.";
+    // Capas que hacen la E/S pero no deciden en qué hilo: el sitio es quien las llama
+    private static final String[] PAQUETES_OMITIDOS = {
+        PAQUETE + "data.", PAQUETE + "metrics."
+    };
+
+    /**
+     * Avisos acumulados de un sitio de llamada
+     */
+    static class Sitio {
+        final Set<String> tipos = new TreeSet<>();
+        int cantidad;
+        long totalMs;
+        long maximoMs;
+    }
+
+    private static MainThreadIoGuard instancia = null;
+
+    private final Map<String, Sitio> sitios = new TreeMap<>();
+    private final Set<String> lineaBase;
+    private final boolean modoFallo;
+    // Inicio y duración de los mensajes del Looper principal
+    private long inicioMensaje;
+    private long ultimaDuracionMs;
+
+    private MainThreadIoGuard(Set<String> lineaBase, boolean modoFallo) {
+        this.lineaBase = lineaBase;
+        this.modoFallo = modoFallo;
+    }
+
+    /**
+     * Activa la detección; se llama una sola vez, en Application.onCreate()
+     */
+    public static void instalar(Context context, boolean modoFallo) {
+        if (instancia != null) {
+            return;
+        }
+        MainThreadIoGuard guard = new MainThreadIoGuard(leerLineaBase(context), modoFallo);
+        instancia = guard;
+
+        Looper.getMainLooper().setMessageLogging(linea -> {
+            if (linea.startsWith(">")) {
+                guard.inicioMensaje = SystemClock.uptimeMillis();
+            } else {
+                guard.ultimaDuracionMs = SystemClock.uptimeMillis() - guard.inicioMensaje;
+            }
+        });
+
+        // Se parte de la política actual para no perder la muerte por red de la plataforma
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder(StrictMode.getThreadPolicy())
+            .detectDiskReads()
+            .detectDiskWrites()
+            .detectNetwork()
+            // Ejecutor directo: el aviso llega al inicio del mensaje siguiente
+            .penaltyListener(Runnable::run, guard::onViolacion)
+            .build());
+    }
+
+    public static boolean isInstalado() {
+        return instancia != null;
+    }
+
+    private static Set<String> leerLineaBase(Context context) {
+        Set<String> sitios = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(context.getAssets().open(ARCHIVO_BASE)))) {
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                linea = linea.trim();
+                if (!linea.isEmpty() && !linea.startsWith("#")) {
+                    sitios.add(linea);
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Sin línea base: todos los sitios cuentan como nuevos", e);
+        }
+        return sitios;
+    }
+
+    private void onViolacion(Violation violacion) {
+        String sitio = sitioDe(violacion.getStackTrace());
+        String tipo = violacion.getClass().getSimpleName().replace("Violation", "");
+
+        Sitio acumulado = sitios.get(sitio);
+        boolean nuevo = acumulado == null;
+        if (nuevo) {
+            acumulado = new Sitio();
+            sitios.put(sitio, acumulado);
+        }
+        acumulado.tipos.add(tipo);
+        acumulado.cantidad++;
+        acumulado.totalMs += ultimaDuracionMs;
+        acumulado.maximoMs = Math.max(acumulado.maximoMs, ultimaDuracionMs);
+
+        if (nuevo) {
+            Log.w(TAG, tipo + " en el hilo principal desde " + sitio
+                + " (" + ultimaDuracionMs + "ms)", violacion);
+        }
+        if (modoFallo && !lineaBase.contains(sitio)) {
+            throw new IllegalStateException(
+                "E/S nueva en el hilo principal: " + tipo + " desde " + sitio, violacion);
+        }
+    }
+
+    /**
+     * "Clase.metodo" del primer frame de la app fuera de las capas omitidas
+     * Las clases anónimas cuentan como la clase que las contiene.
+     */
+    static String sitioDe(StackTraceElement[] frames) {
+        StackTraceElement primeroDeApp = null;
+        for (StackTraceElement frame : frames) {
+            String clase = frame.getClassName();
+            if (!clase.startsWith(PAQUETE)) {
+                continue;
+            }
+            if (primeroDeApp == null) {
+                primeroDeApp = frame;
+            }
+            if (!esOmitida(clase)) {
+                return nombreDe(frame);
+            }
+        }
+        if (primeroDeApp != null) {
+            return nombreDe(primeroDeApp);
+        }
+        return frames.length > 0 ? nombreDe(frames[0]) : "desconocido";
+    }
+
+    private static boolean esOmitida(String clase) {
+        for (String paquete : PAQUETES_OMITIDOS) {
+            if (clase.startsWith(paquete)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String nombreDe(StackTraceElement frame) {
+        String clase = frame.getClassName();
+        clase = clase.substring(clase.lastIndexOf('.') + 1);
+        int interna = clase.indexOf('$');
+        if (interna >= 0) {
+            clase = clase.substring(0, interna);
+        }
+        return clase + "." + frame.getMethodName();
+    }
+
+    /**
+     * Sitios con avisos, marcando los que no están en la línea base
+     */
+    public static String resumen() {
+        MainThreadIoGuard guard = instancia;
+        if (guard == null) {
+            return "Detector de E/S no instalado";
+        }
+        if (guard.sitios.isEmpty()) {
+            return "Sin E/S en el hilo principal";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Sitio> entrada : guard.sitios.entrySet()) {
+            Sitio sitio = entrada.getValue();
+            sb.append(guard.lineaBase.contains(entrada.getKey()) ? "  " : "* ")
+                .append(entrada.getKey()).append(' ').append(sitio.tipos)
+                .append(String.format(Locale.getDefault(), " n=%d total=%dms max=%dms\n",
+                    sitio.cantidad, sitio.totalMs, sitio.maximoMs));
+        }
+        return sb.toString();
+    }
+}
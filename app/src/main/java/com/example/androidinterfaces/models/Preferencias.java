@@ -0,0 +1,81 @@
+package com.example.androidinterfaces.models;
+
+import java.util.Objects;
+
+/**
+ * Modelo de datos Preferencias
+ * Instantánea inmutable de todas las preferencias del usuario: para
+ * cambiar algo se crea otra y se guarda con PreferenciasStore.
+ */
+public final class Preferencias {
+
+    public static final String IDIOMA_ESPANOL = "espanol";
+    public static final String IDIOMA_INGLES = "ingles";
+
+    // Valores por defecto (los mismos que usaba SharedPreferences)
+    public static final Preferencias DEFECTO =
+        new Preferencias(false, true, true, 50, IDIOMA_ESPANOL, "");
+
+    private final boolean temaOscuro;
+    private final boolean notificaciones;
+    private final boolean sonidos;
+    private final int volumen;
+    private final String idioma;
+    private final String nombreUsuario;
+
+    public Preferencias(boolean temaOscuro, boolean notificaciones, boolean sonidos,
+                        int volumen, String idioma, String nombreUsuario) {
+        this.temaOscuro = temaOscuro;
+        this.notificaciones = notificaciones;
+        this.sonidos = sonidos;
+        this.volumen = volumen;
+        this.idioma = idioma;
+        this.nombreUsuario = nombreUsuario;
+    }
+
+    public boolean isTemaOscuro() {
+        return temaOscuro;
+    }
+
+    public boolean isNotificaciones() {
+        return notificaciones;
+    }
+
+    public boolean isSonidos() {
+        return sonidos;
+    }
+
+    public int getVolumen() {
+        return volumen;
+    }
+
+    public String getIdioma() {
+        return idioma;
+    }
+
+    public String getNombreUsuario() {
+        return nombreUsuario;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Preferencias)) {
+            return false;
+        }
+        Preferencias otra = (Preferencias) o;
+        return temaOscuro == otra.temaOscuro
+            && notificaciones == otra.notificaciones
+            && sonidos == otra.sonidos
+            && volumen == otra.volumen
+            && Objects.equals(idioma, otra.idioma)
+            && Objects.equals(nombreUsuario, otra.nombreUsuario);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(temaOscuro, notificaciones, sonidos, volumen, idioma, nombreUsuario);
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.androidinterfaces.viewmodels;
+
+import android.app.Application;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.androidinterfaces.adapters.PrecomputedTextCache;
+import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.api.RetrofitClient;
+import com.example.androidinterfaces.data.PostAuthorJoiner;
+import com.example.androidinterfaces.data.PostDetailFetcher;
+import com.example.androidinterfaces.data.PostPagingLoader;
+import com.example.androidinterfaces.data.PostRepository;
+import com.example.androidinterfaces.data.PostSearchIndex;
+import com.example.androidinterfaces.models.Post;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Estado de ApiActivity que sobrevive a rotaciones y cambios de tema
+ * - La ventana de posts paginada y el índice de búsqueda local, que se
+ *   construye y consulta en un hilo propio
+ * - Las cachés de detalles, de autores y de cuerpos ya medidos
+ * - Las sincronizaciones y la carga de detalles: sus callbacks son del
+ *   ViewModel y el resultado se publica con LiveData, así una rotación a
+ *   mitad de camino no pierde el progreso ni retiene la activity anterior
+ * Al recrearse, la activity vuelve a conectarse sin ir a la red ni a SQLite.
+ */
+public class ApiViewModel extends AndroidViewModel {
+
+    /**
+     * Error de red para mostrar, con el contexto de dónde ocurrió
+     */
+    public static class ErrorRed {
+        private final Throwable causa;
+        private final String sufijo;
+
+        ErrorRed(Throwable causa, String sufijo) {
+            this.causa = causa;
+            this.sufijo = sufijo;
+        }
+
+        public Throwable getCausa() {
+            return causa;
+        }
+
+        /**
+         * Texto que se agrega al mensaje, p. ej. " (post 7)"; vacío si no hay
+         */
+        public String getSufijo() {
+            return sufijo;
+        }
+    }
+
+    // Configuración de la paginación
+    private static final int TAMANO_PAGINA = 20;
+    private static final int DISTANCIA_PREFETCH = 10;
+    private static final int MAX_PAGINAS_EN_MEMORIA = 10;
+
+    // Configuración de la precarga de detalles
+    private static final int MAX_DETALLES_CONCURRENTES = 4;
+    private static final long PLAZO_DETALLE_MS = 5000;
+    private static final int CAPACIDAD_CACHE_DETALLES = 100;
+    private static final int CAPACIDAD_CACHE_AUTORES = 50;
+    private static final int CAPACIDAD_CACHE_TEXTOS = 60;
+
+    private final PostRepository repository;
+    private final PostPagingLoader pagingLoader;
+    private final PostDetailFetcher detailFetcher;
+    private final PostAuthorJoiner authorJoiner;
+    // Solo se toca desde executorIndice: indexar y buscar en orden de llegada
+    private final PostSearchIndex indiceBusqueda = new PostSearchIndex();
+    private final ExecutorService executorIndice = Executors.newSingleThreadExecutor();
+    private final MutableLiveData<List<Post>> resultadosBusqueda = new MutableLiveData<>();
+    // Última consulta pedida; las anteriores que sigan en cola se descartan
+    private volatile String consultaVigente = null;
+
+    private final MutableLiveData<Boolean> sincronizando = new MutableLiveData<>(false);
+    private final MutableLiveData<Boolean> cargandoDetalle = new MutableLiveData<>(false);
+    private final MutableLiveData<Post> detalle = new MutableLiveData<>();
+    private final MutableLiveData<String> aviso = new MutableLiveData<>();
+    private final MutableLiveData<ErrorRed> error = new MutableLiveData<>();
+    // Cambia cada vez que se resuelven autores; las filas refrescan su autor
+    private final MutableLiveData<Integer> autoresResueltos = new MutableLiveData<>(0);
+    private final PrecomputedTextCache textCache = new PrecomputedTextCache(CAPACIDAD_CACHE_TEXTOS);
+
+    public ApiViewModel(@NonNull Application application) {
+        super(application);
+        ApiService apiService = RetrofitClient.getInstance(application).create(ApiService.class);
+        repository = new PostRepository(application, apiService, PostRepository.TTL_POR_DEFECTO_MS);
+        detailFetcher = new PostDetailFetcher(apiService, MAX_DETALLES_CONCURRENTES,
+            PLAZO_DETALLE_MS, CAPACIDAD_CACHE_DETALLES);
+        authorJoiner = new PostAuthorJoiner(apiService, CAPACIDAD_CACHE_AUTORES);
+        pagingLoader = new PostPagingLoader(repository, TAMANO_PAGINA,
+            DISTANCIA_PREFETCH, MAX_PAGINAS_EN_MEMORIA);
+    }
+
+    public PostRepository getRepository() {
+        return repository;
+    }
+
+    public PostPagingLoader getPagingLoader() {
+        return pagingLoader;
+    }
+
+    public PostDetailFetcher getDetailFetcher() {
+        return detailFetcher;
+    }
+
+    public PostAuthorJoiner getAuthorJoiner() {
+        return authorJoiner;
+    }
+
+    /**
+     * Agrega los posts al índice de búsqueda en segundo plano
+     * Se copia la lista: el llamador puede seguir modificando la suya.
+     */
+    public void indexar(List<Post> posts) {
+        List<Post> copia = new ArrayList<>(posts);
+        executorIndice.execute(() -> indiceBusqueda.agregar(copia));
+    }
+
+    /**
+     * Busca en el índice; el resultado se publica en getResultadosBusqueda()
+     * Como va detrás de lo que ya se estaba indexando, ve todos esos posts.
+     */
+    public void buscar(String consulta) {
+        consultaVigente = consulta;
+        executorIndice.execute(() -> {
+            if (!consulta.equals(consultaVigente)) {
+                return;
+            }
+            List<Post> resultados = indiceBusqueda.buscar(consulta);
+            if (consulta.equals(consultaVigente)) {
+                resultadosBusqueda.postValue(resultados);
+            }
+        });
+    }
+
+    /**
+     * Descarta las búsquedas pendientes (la consulta quedó vacía)
+     */
+    public void cancelarBusqueda() {
+        consultaVigente = null;
+    }
+
+    public void limpiarIndice() {
+        executorIndice.execute(indiceBusqueda::limpiar);
+    }
+
+    public LiveData<List<Post>> getResultadosBusqueda() {
+        return resultadosBusqueda;
+    }
+
+    /**
+     * Trae solo los posts nuevos desde la última sincronización
+     * La primera vez hace la sincronización completa.
+     */
+    public void sincronizarCambios() {
+        if (Boolean.TRUE.equals(sincronizando.getValue())) {
+            return;
+        }
+        sincronizando.setValue(true);
+        repository.sincronizarCambios(new PostRepository.DeltaCallback() {
+            @Override
+            public void onCambios(List<Post> cambios, int recibidos, long duracionFusionMs) {
+                sincronizando.setValue(false);
+                indexar(cambios);
+                pagingLoader.fusionar(cambios);
+                String consulta = consultaVigente;
+                if (consulta != null) {
+                    buscar(consulta);
+                }
+                aviso.setValue(cambios.size() + " posts nuevos o modificados (" + recibidos
+                    + " recibidos, fusión " + duracionFusionMs + " ms)");
+            }
+
+            @Override
+            public void onSinMarca() {
+                sincronizarTodo();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                sincronizando.setValue(false);
+                error.setValue(new ErrorRed(t, ""));
+            }
+        });
+    }
+
+    /**
+     * Descarga la colección completa en streaming y la guarda en SQLite
+     * Las primeras páginas se muestran a medida que se decodifican
+     */
+    private void sincronizarTodo() {
+        try {
+            repository.sincronizar(TAMANO_PAGINA, new PostRepository.SyncCallback() {
+                @Override
+                public void onLote(int numeroLote, List<Post> lote) {
+                    pagingLoader.agregarPagina(numeroLote, lote);
+                }
+
+                @Override
+                public void onCompletado(int total) {
+                    sincronizando.setValue(false);
+                    aviso.setValue("Sincronizados " + total + " posts");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    sincronizando.setValue(false);
+                    error.setValue(new ErrorRed(t, ""));
+                    if (pagingLoader.estaVacio()) {
+                        pagingLoader.reiniciar();
+                    }
+                }
+            });
+        } catch (Exception e) {
+            sincronizando.setValue(false);
+            error.setValue(new ErrorRed(e, ""));
+        }
+    }
+
+    /**
+     * Resuelve los autores de esos posts; avisa con getAutoresResueltos()
+     */
+    public void resolverAutores(List<Post> posts) {
+        authorJoiner.resolver(posts, new PostAuthorJoiner.Listener() {
+            @Override
+            public void onAutoresResueltos() {
+                autoresResueltos.setValue(autoresResueltos.getValue() + 1);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Las filas siguen mostrando el userId
+            }
+        });
+    }
+
+    /**
+     * Publica el detalle de un post en getDetalle(), desde la caché si ya se precargó
+     */
+    public void cargarDetalle(int id) {
+        Post enCache = detailFetcher.obtenerDeCache(id);
+        if (enCache != null) {
+            detalle.setValue(enCache);
+            return;
+        }
+
+        cargandoDetalle.setValue(true);
+        detailFetcher.obtener(new int[]{id}, new PostDetailFetcher.DetalleCallback() {
+            @Override
+            public void onDetalle(Post post, boolean desdeCache) {
+                detalle.setValue(post);
+            }
+
+            @Override
+            public void onError(int idFallido, Throwable t) {
+                error.setValue(new ErrorRed(t, " (post " + idFallido + ")"));
+            }
+
+            @Override
+            public void onCompletado(int obtenidos, int fallidos) {
+                cargandoDetalle.setValue(false);
+            }
+        });
+    }
+
+    public LiveData<Boolean> getSincronizando() {
+        return sincronizando;
+    }
+
+    public LiveData<Boolean> getCargandoDetalle() {
+        return cargandoDetalle;
+    }
+
+    /**
+     * Detalle pedido con cargarDetalle(); se limpia con consumirDetalle()
+     */
+    public LiveData<Post> getDetalle() {
+        return detalle;
+    }
+
+    public void consumirDetalle() {
+        detalle.setValue(null);
+    }
+
+    /**
+     * Resultado de la última sincronización; se limpia con consumirAviso()
+     */
+    public LiveData<String> getAviso() {
+        return aviso;
+    }
+
+    public void consumirAviso() {
+        aviso.setValue(null);
+    }
+
+    /**
+     * Último error de red; se limpia con consumirError()
+     */
+    public LiveData<ErrorRed> getError() {
+        return error;
+    }
+
+    public void consumirError() {
+        error.setValue(null);
+    }
+
+    public LiveData<Integer> getAutoresResueltos() {
+        return autoresResueltos;
+    }
+
+    public PrecomputedTextCache getTextCache() {
+        return textCache;
+    }
+
+    @Override
+    protected void onCleared() {
+        pagingLoader.setListener(null);
+        repository.cerrar();
+        detailFetcher.cerrar();
+        authorJoiner.cerrar();
+        textCache.cerrar();
+        executorIndice.shutdownNow();
+    }
+}
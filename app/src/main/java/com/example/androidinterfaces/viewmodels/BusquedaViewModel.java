@@ -0,0 +1,53 @@
+package com.example.androidinterfaces.viewmodels;
+
+import android.app.Application;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import com.example.androidinterfaces.data.QueryResultCache;
+import com.example.androidinterfaces.data.UsuarioStore;
+
+/**
+ * Estado de BusquedaActivity que sobrevive a rotaciones y cambios de tema
+ * Los usuarios vienen del UsuarioStore compartido; la caché de consultas
+ * es propia de la pantalla y se conserva mientras viva.
+ */
+public class BusquedaViewModel extends AndroidViewModel {
+
+    private static final int CAPACIDAD_CACHE_CONSULTAS = 64;
+
+    private final UsuarioStore store;
+    private final QueryResultCache cacheConsultas = new QueryResultCache(CAPACIDAD_CACHE_CONSULTAS);
+
+    public BusquedaViewModel(@NonNull Application application) {
+        super(application);
+        store = UsuarioStore.getInstance(application);
+    }
+
+    public LiveData<UsuarioStore.Instantanea> getUsuarios() {
+        return store.getUsuarios();
+    }
+
+    public LiveData<Boolean> getCargando() {
+        return store.getCargando();
+    }
+
+    public LiveData<Exception> getError() {
+        return store.getError();
+    }
+
+    public void consumirError() {
+        store.consumirError();
+    }
+
+    /**
+     * Lee la tabla solo si cambió desde la última lectura de cualquier pantalla
+     */
+    public void cargarSiCambio() {
+        store.cargarSiCambio();
+    }
+
+    public QueryResultCache getCacheConsultas() {
+        return cacheConsultas;
+    }
+}
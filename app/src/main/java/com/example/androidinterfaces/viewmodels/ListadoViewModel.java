@@ -0,0 +1,112 @@
+package com.example.androidinterfaces.viewmodels;
+
+import android.app.Application;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.androidinterfaces.data.DatabaseHelper;
+import com.example.androidinterfaces.data.UsuarioPagingLoader;
+import com.example.androidinterfaces.data.UsuarioStore;
+import com.example.androidinterfaces.models.Usuario;
+import java.util.List;
+
+/**
+ * Estado de ListadoActivity que sobrevive a rotaciones y cambios de tema
+ * - El cargador paginado con las páginas ya leídas
+ * - La eliminación pendiente de deshacer
+ * - El resultado de la verificación de índices, publicado con LiveData
+ * La activity solo conecta su listener al cargador mientras existe.
+ */
+public class ListadoViewModel extends AndroidViewModel {
+
+    // Configuración de la paginación
+    private static final int TAMANO_PAGINA = 50;
+    private static final int DISTANCIA_PREFETCH = 20;
+
+    private final UsuarioPagingLoader pagingLoader;
+    private final UsuarioStore store;
+    private UsuarioPagingLoader.Eliminacion eliminacionPendiente;
+    private final MutableLiveData<String> verificacionIndices = new MutableLiveData<>();
+
+    public ListadoViewModel(@NonNull Application application) {
+        super(application);
+        pagingLoader = new UsuarioPagingLoader(application, TAMANO_PAGINA, DISTANCIA_PREFETCH);
+        store = UsuarioStore.getInstance(application);
+    }
+
+    public UsuarioPagingLoader getPagingLoader() {
+        return pagingLoader;
+    }
+
+    /**
+     * Usuario completo si otra pantalla ya lo leyó con la versión vigente
+     */
+    public Usuario obtenerDetalleCompartido(int id) {
+        return store.obtenerSiVigente(id);
+    }
+
+    public UsuarioPagingLoader.Eliminacion getEliminacionPendiente() {
+        return eliminacionPendiente;
+    }
+
+    public void setEliminacionPendiente(UsuarioPagingLoader.Eliminacion eliminacion) {
+        this.eliminacionPendiente = eliminacion;
+    }
+
+    /**
+     * Borra de SQLite la eliminación pendiente, si la hay
+     */
+    public void purgarPendiente(UsuarioPagingLoader.PurgaCallback callback) {
+        UsuarioPagingLoader.Eliminacion eliminacion = eliminacionPendiente;
+        eliminacionPendiente = null;
+        if (eliminacion != null && !eliminacion.isResuelta()) {
+            pagingLoader.purgar(eliminacion, callback);
+        }
+    }
+
+    /**
+     * Verifica los índices fuera del hilo principal; el texto para mostrar
+     * se publica en getVerificacionIndices()
+     */
+    public void verificarIndices() {
+        pagingLoader.verificarIndices(new UsuarioPagingLoader.IndicesCallback() {
+            @Override
+            public void onVerificados(List<String> noUsados) {
+                verificacionIndices.setValue(noUsados.isEmpty()
+                    ? "Índices verificados: " + DatabaseHelper.getTotalIndices() + " en uso"
+                    : "Índices sin usar: " + noUsados);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                verificacionIndices.setValue("Error al verificar índices: " + t.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Último resultado de verificarIndices(); se limpia con consumirVerificacionIndices()
+     */
+    public LiveData<String> getVerificacionIndices() {
+        return verificacionIndices;
+    }
+
+    public void consumirVerificacionIndices() {
+        verificacionIndices.setValue(null);
+    }
+
+    @Override
+    protected void onCleared() {
+        // La pantalla se cierra: lo pendiente se borra antes de liberar el hilo
+        purgarPendiente(new UsuarioPagingLoader.PurgaCallback() {
+            @Override
+            public void onPurgado(int eliminados) {}
+
+            @Override
+            public void onError(Throwable t) {}
+        });
+        pagingLoader.setListener(null);
+        pagingLoader.cerrar();
+    }
+}
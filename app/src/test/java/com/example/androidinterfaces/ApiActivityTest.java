@@ -0,0 +1,197 @@
+package com.example.androidinterfaces;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Bundle;
+import android.os.Looper;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.androidinterfaces.api.RetrofitClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+/**
+ * Peticiones de red de ApiActivity al recrearse
+ * La app apunta a un MockWebServer que anota cada petición.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class ApiActivityTest {
+
+    private static final int TOTAL_POSTS = 100;
+
+    /**
+     * API de posts y autores con TOTAL_POSTS posts; anota cada petición
+     */
+    private static class ServidorApi extends Dispatcher {
+        private final List<String> rutas = new ArrayList<>();
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            HttpUrl url = request.getRequestUrl();
+            synchronized (this) {
+                rutas.add(url.encodedPath());
+            }
+            if (url.encodedPath().equals("/posts") && url.queryParameter("_page") != null) {
+                int pagina = Integer.parseInt(url.queryParameter("_page"));
+                int limite = Integer.parseInt(url.queryParameter("_limit"));
+                StringBuilder json = new StringBuilder("[");
+                for (int id = (pagina - 1) * limite + 1;
+                        id <= Math.min(TOTAL_POSTS, pagina * limite); id++) {
+                    if (json.length() > 1) {
+                        json.append(',');
+                    }
+                    json.append(post(id));
+                }
+                return new MockResponse().setBody(json.append(']').toString());
+            }
+            if (url.encodedPath().startsWith("/posts/")) {
+                return new MockResponse().setBody(
+                    post(Integer.parseInt(url.pathSegments().get(1))));
+            }
+            if (url.encodedPath().equals("/users")) {
+                StringBuilder json = new StringBuilder("[");
+                for (String id : url.queryParameterValues("id")) {
+                    if (json.length() > 1) {
+                        json.append(',');
+                    }
+                    json.append("{\"id\":").append(id).append(",\"nombre\":\"Autor ")
+                        .append(id).append("\",\"email\":\"autor").append(id)
+                        .append("@correo.com\"}");
+                }
+                return new MockResponse().setBody(json.append(']').toString());
+            }
+            return new MockResponse().setResponseCode(404);
+        }
+
+        private static String post(int id) {
+            return "{\"userId\":" + (1 + id % 10) + ",\"id\":" + id + ",\"title\":\"titulo "
+                + id + "\",\"body\":\"cuerpo del post " + id + "\"}";
+        }
+
+        synchronized int peticiones() {
+            return rutas.size();
+        }
+
+        synchronized int peticionesDePaginas() {
+            int paginas = 0;
+            for (String ruta : rutas) {
+                if (ruta.equals("/posts")) {
+                    paginas++;
+                }
+            }
+            return paginas;
+        }
+    }
+
+    private MockWebServer servidor;
+    private ServidorApi api;
+
+    @Before
+    public void setUp() throws Exception {
+        servidor = new MockWebServer();
+        api = new ServidorApi();
+        servidor.setDispatcher(api);
+        servidor.start();
+        RetrofitClient.setBaseUrl(servidor.url("/").toString());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        RetrofitClient.setBaseUrl(null);
+        servidor.shutdown();
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue("Tiempo de espera agotado", System.currentTimeMillis() < limite);
+            Thread.sleep(5);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    /**
+     * Espera a que la red quede quieta: precargas de páginas, detalles y autores
+     */
+    private void esperarSinPeticiones() throws InterruptedException {
+        int anteriores;
+        do {
+            anteriores = api.peticiones();
+            long hasta = System.currentTimeMillis() + 200;
+            while (System.currentTimeMillis() < hasta) {
+                Thread.sleep(5);
+                shadowOf(Looper.getMainLooper()).idle();
+            }
+        } while (api.peticiones() != anteriores);
+    }
+
+    private static int filas(ApiActivity activity) {
+        RecyclerView recyclerView = activity.findViewById(R.id.recyclerView);
+        return recyclerView.getAdapter().getItemCount();
+    }
+
+    /**
+     * Abre la pantalla y carga la primera página
+     */
+    private ActivityController<ApiActivity> abrirYCargar() throws InterruptedException {
+        ActivityController<ApiActivity> controller =
+            Robolectric.buildActivity(ApiActivity.class).setup();
+        controller.get().findViewById(R.id.btnCargar).performClick();
+        esperar(() -> filas(controller.get()) > 0);
+        esperarSinPeticiones();
+        return controller;
+    }
+
+    @Test
+    public void rotar_noVuelveAPedirNadaALaRed() throws Exception {
+        ActivityController<ApiActivity> controller = abrirYCargar();
+        ApiActivity anterior = controller.get();
+        int filas = filas(anterior);
+        int peticiones = api.peticiones();
+        assertTrue(peticiones > 0);
+
+        controller.recreate();
+        esperarSinPeticiones();
+
+        assertNotSame(anterior, controller.get());
+        // El ViewModel conserva posts, detalles y autores
+        assertEquals(filas, filas(controller.get()));
+        assertEquals(peticiones, api.peticiones());
+        controller.pause().stop().destroy();
+    }
+
+    @Test
+    public void recrearTrasMatarElProceso_leeLaPaginaVigenteDeSQLite() throws Exception {
+        ActivityController<ApiActivity> controller = abrirYCargar();
+        int paginas = api.peticionesDePaginas();
+        Bundle estado = new Bundle();
+        // Sin cambio de configuración: el ViewModel se descarta como al morir el proceso
+        controller.pause().stop().saveInstanceState(estado).destroy();
+
+        ActivityController<ApiActivity> restaurada =
+            Robolectric.buildActivity(ApiActivity.class).setup(estado);
+        esperar(() -> filas(restaurada.get()) > 0);
+        esperarSinPeticiones();
+
+        // La página está dentro de su TTL: sale de SQLite sin pedirla otra vez
+        assertEquals(paginas, api.peticionesDePaginas());
+        restaurada.pause().stop().destroy();
+    }
+}
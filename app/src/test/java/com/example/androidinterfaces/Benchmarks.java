@@ -0,0 +1,61 @@
+package com.example.androidinterfaces;
+
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Utilidades de los benchmarks de JVM (clases *BenchmarkTest)
+ * Solo corren con -Pbenchmarks=true; el resultado se imprime en la salida
+ * estándar del test, una línea por medición.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Salta el test si los benchmarks no están activados
+     */
+    public static void requerirActivos() {
+        assumeTrue("Benchmarks desactivados (-Pbenchmarks=true)",
+            Boolean.getBoolean("benchmarks"));
+    }
+
+    /**
+     * Mide cada ejecución de la tarea, tras unas vueltas de calentamiento
+     * @return duraciones en nanosegundos, ordenadas
+     */
+    public static long[] medir(int calentamiento, int repeticiones, Runnable tarea) {
+        for (int i = 0; i < calentamiento; i++) {
+            tarea.run();
+        }
+        long[] nanos = new long[repeticiones];
+        for (int i = 0; i < repeticiones; i++) {
+            long inicio = System.nanoTime();
+            tarea.run();
+            nanos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    public static void reportar(String nombre, long[] nanosOrdenados) {
+        System.out.println(String.format(Locale.ROOT,
+            "[benchmark] %s: n=%d p50=%.3fms p95=%.3fms max=%.3fms",
+            nombre, nanosOrdenados.length,
+            percentil(nanosOrdenados, 50) / 1e6,
+            percentil(nanosOrdenados, 95) / 1e6,
+            nanosOrdenados[nanosOrdenados.length - 1] / 1e6));
+    }
+
+    public static void reportar(String nombre, String detalle) {
+        System.out.println("[benchmark] " + nombre + ": " + detalle);
+    }
+
+    private static long percentil(long[] ordenados, int percentil) {
+        int indice = (int) Math.ceil(ordenados.length * percentil / 100.0) - 1;
+        return ordenados[Math.max(0, Math.min(ordenados.length - 1, indice))];
+    }
+}
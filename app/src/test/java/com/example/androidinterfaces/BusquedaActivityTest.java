@@ -0,0 +1,70 @@
+package com.example.androidinterfaces;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.os.Looper;
+import com.example.androidinterfaces.data.DatabaseHelper;
+import com.example.androidinterfaces.data.UsuarioStore;
+import com.example.androidinterfaces.models.Usuario;
+import java.util.function.BooleanSupplier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+/**
+ * Lecturas de SQLite de BusquedaActivity al recrearse
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class BusquedaActivityTest {
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue("Tiempo de espera agotado", System.currentTimeMillis() < limite);
+            Thread.sleep(5);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    private static boolean vigente(UsuarioStore store) {
+        UsuarioStore.Instantanea actual = store.getUsuarios().getValue();
+        return actual != null && actual.getVersion() == DatabaseHelper.getVersionUsuarios();
+    }
+
+    @Test
+    public void rotar_noVuelveALeerLosUsuarios() throws Exception {
+        Application app = RuntimeEnvironment.getApplication();
+        // Cambia la tabla: la primera vez la pantalla tiene que leerla
+        DatabaseHelper.getInstance(app).insertarUsuario(new Usuario(0, "Ana",
+            "ana" + System.nanoTime() + "@correo.com", "555-0001", 30, "Lima", "Femenino", false));
+        UsuarioStore store = UsuarioStore.getInstance(app);
+        long lecturasIniciales = store.getLecturas();
+
+        ActivityController<BusquedaActivity> controller =
+            Robolectric.buildActivity(BusquedaActivity.class).setup();
+        esperar(() -> vigente(store));
+        assertEquals(lecturasIniciales + 1, store.getLecturas());
+        UsuarioStore.Instantanea instantanea = store.getUsuarios().getValue();
+        BusquedaActivity anterior = controller.get();
+
+        controller.recreate();
+        Thread.sleep(100);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertNotSame(anterior, controller.get());
+        // Misma instantánea y ninguna lectura más
+        assertSame(instantanea, store.getUsuarios().getValue());
+        assertEquals(lecturasIniciales + 1, store.getLecturas());
+        controller.pause().stop().destroy();
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkCapabilities;
+import java.io.File;
+import java.nio.file.Files;
+import okhttp3.Cache;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowNetworkCapabilities;
+
+/**
+ * Cadena de caché como en RetrofitClient: Offline como interceptor de
+ * aplicación y Revalidation con max-age=0 como interceptor de red
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class CacheInterceptorsTest {
+
+    // Mismos valores que RetrofitClient
+    private static final int MAX_AGE_SEGUNDOS = 0;
+    private static final int MAX_STALE_SIN_CONEXION_DIAS = 7;
+    private static final int TAMANO_CUERPO = 20 * 1024;
+
+    private MockWebServer servidor;
+    private OkHttpClient cliente;
+    private HttpCacheMetrics metrics;
+    private ConnectivityManager connectivity;
+
+    @Before
+    public void setUp() throws Exception {
+        servidor = new MockWebServer();
+        servidor.start();
+        Context context = RuntimeEnvironment.getApplication();
+        connectivity = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        conectar();
+
+        metrics = new HttpCacheMetrics();
+        File directorio = Files.createTempDirectory("http-cache").toFile();
+        cliente = new OkHttpClient.Builder()
+            .cache(new Cache(directorio, 1024 * 1024))
+            .addInterceptor(new CacheInterceptors.Offline(context,
+                MAX_STALE_SIN_CONEXION_DIAS, metrics))
+            .addNetworkInterceptor(new CacheInterceptors.Revalidation(MAX_AGE_SEGUNDOS, metrics))
+            .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        servidor.shutdown();
+    }
+
+    private void conectar() {
+        NetworkCapabilities capacidades = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capacidades).addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+        shadowOf(connectivity).setNetworkCapabilities(connectivity.getActiveNetwork(), capacidades);
+    }
+
+    private void desconectar() {
+        shadowOf(connectivity).setActiveNetworkInfo(null);
+    }
+
+    private static String cuerpo(int bytes) {
+        StringBuilder sb = new StringBuilder(bytes);
+        sb.append('[');
+        while (sb.length() < bytes - 1) {
+            sb.append(' ');
+        }
+        return sb.append(']').toString();
+    }
+
+    private Response get() throws Exception {
+        Response response = cliente.newCall(new Request.Builder().url(servidor.url("/posts")).build())
+            .execute();
+        response.body().string();
+        response.close();
+        return response;
+    }
+
+    @Test
+    public void sinPoliticaDelServidor_seGuardaYSeRevalidaSiempre() throws Exception {
+        servidor.enqueue(new MockResponse().setBody(cuerpo(TAMANO_CUERPO)).setHeader("ETag", "\"v1\""));
+        servidor.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        Response primera = get();
+        Response segunda = get();
+
+        assertEquals("public, max-age=0", primera.header("Cache-Control"));
+        // max-age=0: la segunda es siempre una petición condicional
+        assertEquals(2, servidor.getRequestCount());
+        servidor.takeRequest();
+        assertEquals("\"v1\"", servidor.takeRequest().getHeader("If-None-Match"));
+        assertEquals(304, segunda.networkResponse().code());
+        assertNotNull(segunda.cacheResponse());
+    }
+
+    @Test
+    public void revalidacion_cuentaEl304YLosBytesAhorrados() throws Exception {
+        servidor.enqueue(new MockResponse().setBody(cuerpo(TAMANO_CUERPO)).setHeader("ETag", "\"v1\""));
+        servidor.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        get();
+        long descargadosPrimera = metrics.getBytesDescargados();
+        Response segunda = get();
+
+        assertEquals(TAMANO_CUERPO, descargadosPrimera);
+        assertEquals(1, metrics.getFallos());
+        assertEquals(1, metrics.getRevalidadas());
+        assertEquals(0, metrics.getAciertos());
+        assertEquals(TAMANO_CUERPO, metrics.getBytesAhorrados());
+        // El 304 no trae cuerpo: la revalidación no suma bytes descargados
+        assertEquals(descargadosPrimera, metrics.getBytesDescargados());
+        assertEquals(304, segunda.networkResponse().code());
+    }
+
+    @Test
+    public void noStore_seRespetaYNoSeGuarda() throws Exception {
+        servidor.enqueue(new MockResponse().setBody("[]").setHeader("Cache-Control", "no-store"));
+        servidor.enqueue(new MockResponse().setBody("[]").setHeader("Cache-Control", "no-store"));
+
+        Response primera = get();
+        get();
+
+        assertEquals("no-store", primera.header("Cache-Control"));
+        assertEquals(2, servidor.getRequestCount());
+        assertEquals(2, metrics.getFallos());
+    }
+
+    @Test
+    public void maxAgeDelServidor_noSeReemplaza() throws Exception {
+        servidor.enqueue(new MockResponse().setBody("[]").setHeader("Cache-Control", "private, max-age=60")
+            .setHeader("ETag", "\"v1\""));
+
+        Response primera = get();
+        Response segunda = get();
+
+        assertEquals("private, max-age=60", primera.header("Cache-Control"));
+        // Dentro del max-age del servidor se sirve desde disco sin tocar la red
+        assertEquals(1, servidor.getRequestCount());
+        assertNull(segunda.networkResponse());
+        assertEquals(1, metrics.getAciertos());
+    }
+
+    @Test
+    public void sinConexion_sirveLaCopiaVencidaDesdeDisco() throws Exception {
+        servidor.enqueue(new MockResponse().setBody(cuerpo(TAMANO_CUERPO)).setHeader("ETag", "\"v1\""));
+        get();
+
+        desconectar();
+        Response segunda = get();
+
+        assertEquals(200, segunda.code());
+        assertNull(segunda.networkResponse());
+        assertEquals(1, servidor.getRequestCount());
+        assertEquals(1, metrics.getAciertos());
+        assertEquals(TAMANO_CUERPO, metrics.getBytesAhorrados());
+    }
+
+    @Test
+    public void sinConexionNiCopia_respondeSinIrALaRed() throws Exception {
+        desconectar();
+
+        Response response = get();
+
+        // only-if-cached sin entrada en disco: OkHttp responde 504
+        assertEquals(504, response.code());
+        assertEquals(0, servidor.getRequestCount());
+    }
+
+    @Test
+    public void post_noSeFuerzaALaCacheNiSeCuenta() throws Exception {
+        servidor.enqueue(new MockResponse().setResponseCode(202));
+        desconectar();
+
+        Response response = cliente.newCall(new Request.Builder()
+            .url(servidor.url("/usuarios/lote"))
+            .post(RequestBody.create(MediaType.get("application/json"), "[]"))
+            .build()).execute();
+        response.close();
+
+        assertEquals(202, response.code());
+        assertEquals(1, servidor.getRequestCount());
+        assertNull(servidor.takeRequest().getHeader("Cache-Control"));
+        assertEquals(0, metrics.getFallos());
+        assertEquals(0, metrics.getAciertos());
+    }
+}
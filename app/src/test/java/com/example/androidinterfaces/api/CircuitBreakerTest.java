@@ -0,0 +1,84 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+    private static void abrir(CircuitBreaker circuito, int fallos) {
+        for (int i = 0; i < fallos; i++) {
+            assertTrue(circuito.permitir());
+            circuito.registrarFallo();
+        }
+    }
+
+    @Test
+    public void seAbreTrasElUmbralDeFallosSeguidos() {
+        CircuitBreaker circuito = new CircuitBreaker("api", 3, 60_000);
+
+        abrir(circuito, 2);
+        assertEquals(CircuitBreaker.Estado.CERRADO, circuito.getEstado());
+        abrir(circuito, 1);
+
+        assertEquals(CircuitBreaker.Estado.ABIERTO, circuito.getEstado());
+        assertFalse(circuito.permitir());
+        assertEquals(1, circuito.getRechazadas());
+        assertTrue(circuito.getEsperaRestanteMs() > 0);
+    }
+
+    @Test
+    public void unExitoReiniciaLosFallosSeguidos() {
+        CircuitBreaker circuito = new CircuitBreaker("api", 3, 60_000);
+
+        abrir(circuito, 2);
+        circuito.permitir();
+        circuito.registrarExito();
+        abrir(circuito, 2);
+
+        assertEquals(CircuitBreaker.Estado.CERRADO, circuito.getEstado());
+    }
+
+    @Test
+    public void semiabiertoDejaPasarUnaSolaPrueba() throws InterruptedException {
+        CircuitBreaker circuito = new CircuitBreaker("api", 1, 20);
+        abrir(circuito, 1);
+        Thread.sleep(40);
+
+        assertTrue(circuito.permitir());
+        assertEquals(CircuitBreaker.Estado.SEMIABIERTO, circuito.getEstado());
+        assertFalse(circuito.permitir());
+
+        circuito.registrarExito();
+        assertEquals(CircuitBreaker.Estado.CERRADO, circuito.getEstado());
+        assertTrue(circuito.permitir());
+    }
+
+    @Test
+    public void pruebaFallidaVuelveAAbrir() throws InterruptedException {
+        CircuitBreaker circuito = new CircuitBreaker("api", 1, 20);
+        abrir(circuito, 1);
+        Thread.sleep(40);
+
+        assertTrue(circuito.permitir());
+        circuito.registrarFallo();
+
+        assertEquals(CircuitBreaker.Estado.ABIERTO, circuito.getEstado());
+        assertEquals(2, circuito.getAperturas());
+    }
+
+    @Test
+    public void liberarDevuelveLaPruebaSinCambiarElEstado() throws InterruptedException {
+        CircuitBreaker circuito = new CircuitBreaker("api", 1, 20);
+        abrir(circuito, 1);
+        Thread.sleep(40);
+
+        assertTrue(circuito.permitir());
+        circuito.liberar();
+
+        assertEquals(CircuitBreaker.Estado.SEMIABIERTO, circuito.getEstado());
+        assertTrue(circuito.permitir());
+    }
+}
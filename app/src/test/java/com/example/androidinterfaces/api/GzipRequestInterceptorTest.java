@@ -0,0 +1,99 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.GzipSource;
+import okio.Okio;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Retrofit;
+
+public class GzipRequestInterceptorTest {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private MockWebServer servidor;
+    private ApiService apiService;
+
+    @Before
+    public void setUp() throws Exception {
+        servidor = new MockWebServer();
+        servidor.start();
+        OkHttpClient cliente = new OkHttpClient.Builder()
+            .addInterceptor(new GzipRequestInterceptor())
+            .build();
+        apiService = new Retrofit.Builder()
+            .baseUrl(servidor.url("/"))
+            .client(cliente)
+            .build()
+            .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        servidor.shutdown();
+    }
+
+    private static String lote(int usuarios) {
+        StringBuilder json = new StringBuilder("{\"usuarios\":[");
+        for (int i = 0; i < usuarios; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"claveIdempotencia\":\"clave-").append(i)
+                .append("\",\"usuario\":{\"id\":").append(i)
+                .append(",\"nombre\":\"Usuario ").append(i)
+                .append("\",\"email\":\"usuario").append(i).append("@correo.com\"}}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String descomprimir(Buffer cuerpo) throws Exception {
+        return Okio.buffer(new GzipSource(cuerpo)).readUtf8();
+    }
+
+    @Test
+    public void enviarUsuarios_elCuerpoViajaComprimido() throws Exception {
+        servidor.enqueue(new MockResponse().setResponseCode(202));
+        String json = lote(50);
+
+        apiService.enviarUsuarios("clave", RequestBody.create(JSON, json)).execute();
+
+        RecordedRequest request = servidor.takeRequest();
+        assertEquals("gzip", request.getHeader("Content-Encoding"));
+        assertEquals("clave", request.getHeader("Idempotency-Key"));
+        long enviados = request.getBodySize();
+        assertEquals(String.valueOf(enviados), request.getHeader("Content-Length"));
+        assertEquals(json, descomprimir(request.getBody()));
+        // JSON repetitivo: comprimido ocupa una fracción
+        assertTrue(enviados * 4 < json.length());
+    }
+
+    @Test
+    public void sinContentEncoding_elCuerpoNoSeToca() throws Exception {
+        servidor.enqueue(new MockResponse());
+        OkHttpClient cliente = new OkHttpClient.Builder()
+            .addInterceptor(new GzipRequestInterceptor())
+            .build();
+
+        cliente.newCall(new Request.Builder()
+            .url(servidor.url("/usuarios"))
+            .post(RequestBody.create(JSON, "{\"id\":1}"))
+            .build()).execute().close();
+
+        RecordedRequest request = servidor.takeRequest();
+        assertNull(request.getHeader("Content-Encoding"));
+        assertEquals("{\"id\":1}", request.getBody().readUtf8());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    private static long ms(double milisegundos) {
+        return (long) (milisegundos * 1_000_000);
+    }
+
+    @Test
+    public void percentil_esLaCotaDeLaCubetaDondeCae() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histograma.registrar(ms(3));
+        }
+        for (int i = 0; i < 10; i++) {
+            histograma.registrar(ms(70));
+        }
+
+        // 3 ms cae en [2, 5) y 70 ms en [50, 100)
+        assertEquals(5, histograma.percentilMs(50), 0);
+        assertEquals(5, histograma.percentilMs(90), 0);
+        assertEquals(70, histograma.percentilMs(95), 0.001);
+    }
+
+    @Test
+    public void percentil_noSuperaElMaximoRegistrado() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        histograma.registrar(ms(120));
+
+        // La cubeta llega a 250 ms, pero nunca se vio nada por encima de 120
+        assertEquals(120, histograma.percentilMs(50), 0.001);
+    }
+
+    @Test
+    public void percentil_porEncimaDeLaUltimaCotaDevuelveElMaximo() {
+        LatencyHistogram histograma = new LatencyHistogram(new long[]{1, 10});
+        histograma.registrar(ms(0.5));
+        histograma.registrar(ms(42));
+
+        assertEquals(1, histograma.percentilMs(50), 0);
+        assertEquals(42, histograma.percentilMs(100), 0.001);
+    }
+
+    @Test
+    public void registrar_ignoraDuracionesNegativas() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        histograma.registrar(-1);
+
+        assertEquals(0, histograma.getCantidad());
+        assertEquals(0, histograma.percentilMs(50), 0);
+    }
+
+    @Test
+    public void mediaYMaximo() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        histograma.registrar(ms(10));
+        histograma.registrar(ms(30));
+
+        assertEquals(20, histograma.getMediaMs(), 0.001);
+        assertEquals(30, histograma.getMaximoMs(), 0.001);
+    }
+
+    @Test
+    public void reiniciar_dejaElHistogramaVacio() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        histograma.registrar(ms(30));
+        histograma.reiniciar();
+
+        assertEquals(0, histograma.getCantidad());
+        assertEquals(0, histograma.getMaximoMs(), 0);
+        assertEquals(0, histograma.getMediaMs(), 0);
+    }
+}
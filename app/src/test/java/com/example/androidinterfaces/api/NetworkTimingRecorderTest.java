@@ -0,0 +1,49 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import okhttp3.HttpUrl;
+import org.junit.Test;
+
+public class NetworkTimingRecorderTest {
+
+    private static String endpoint(String url) {
+        return NetworkTimingRecorder.endpointDe(HttpUrl.get(url));
+    }
+
+    @Test
+    public void endpointDe_reemplazaLosSegmentosNumericos() {
+        assertEquals("posts/{id}", endpoint("https://api.example.com/posts/1"));
+        assertEquals("users/{id}/posts", endpoint("https://api.example.com/users/42/posts"));
+    }
+
+    @Test
+    public void endpointDe_ignoraLaQueryYLaBarraFinal() {
+        assertEquals("posts", endpoint("https://api.example.com/posts?_page=2&_limit=20"));
+        assertEquals("posts", endpoint("https://api.example.com/posts/"));
+    }
+
+    @Test
+    public void endpointDe_segmentosMixtosNoSonIds() {
+        assertEquals("v2/posts", endpoint("https://api.example.com/v2/posts"));
+    }
+
+    @Test
+    public void endpointDe_raizEsVacia() {
+        assertEquals("", endpoint("https://api.example.com/"));
+    }
+
+    @Test
+    public void registrar_agrupaPorEndpointYFase() {
+        NetworkTimingRecorder recorder = new NetworkTimingRecorder();
+        recorder.registrar("posts/{id}", NetworkTimingRecorder.Fase.TTFB, 5_000_000);
+        recorder.registrar("posts/{id}", NetworkTimingRecorder.Fase.TTFB, 7_000_000);
+
+        assertEquals(2, recorder.getHistograma("posts/{id}", NetworkTimingRecorder.Fase.TTFB)
+            .getCantidad());
+        assertEquals(0, recorder.getHistograma("posts/{id}", NetworkTimingRecorder.Fase.DNS)
+            .getCantidad());
+        assertNull(recorder.getHistograma("users", NetworkTimingRecorder.Fase.TTFB));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.androidinterfaces.Benchmarks;
+import com.example.androidinterfaces.models.Post;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Okio;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Primer elemento y pico de heap al leer un arreglo de posts de ~50 MB
+ * PostStreamReader (lotes de 20, como la sincronización) frente a
+ * decodificar la lista completa con Gson. El cuerpo se genera mientras se
+ * lee, así el heap medido es solo el de la decodificación. El tamaño se
+ * cambia con -Dbenchmarks.megas=N.
+ */
+public class PostStreamReaderBenchmarkTest {
+
+    private static final int TAMANO_LOTE = 20;
+    private static final String CUERPO_POST = "quia et suscipit suscipit recusandae consequuntur "
+        + "expedita et cum reprehenderit molestiae ut ut quas totam nostrum rerum est autem "
+        + "sunt rem eveniet architecto";
+
+    private int megas;
+
+    @Before
+    public void setUp() {
+        Benchmarks.requerirActivos();
+        megas = Integer.getInteger("benchmarks.megas", 50);
+    }
+
+    /**
+     * Arreglo JSON de posts generado a medida que se lee
+     */
+    private static class ArregloGenerado extends InputStream {
+        private final long tamanoObjetivo;
+        private long generados = 0;
+        private int siguienteId = 1;
+        private byte[] actual = "[".getBytes(StandardCharsets.UTF_8);
+        private int posicion = 0;
+        private boolean cerrado = false;
+        int posts = 0;
+
+        ArregloGenerado(long tamanoObjetivo) {
+            this.tamanoObjetivo = tamanoObjetivo;
+        }
+
+        private boolean avanzar() {
+            if (cerrado) {
+                return false;
+            }
+            if (generados >= tamanoObjetivo) {
+                actual = "]".getBytes(StandardCharsets.UTF_8);
+                cerrado = true;
+            } else {
+                int id = siguienteId++;
+                actual = ((id > 1 ? "," : "") + "{\"userId\":" + (1 + id % 10) + ",\"id\":" + id
+                    + ",\"title\":\"titulo del post " + id + "\",\"body\":\"" + CUERPO_POST
+                    + "\"}").getBytes(StandardCharsets.UTF_8);
+                posts++;
+            }
+            generados += actual.length;
+            posicion = 0;
+            return true;
+        }
+
+        @Override
+        public int read() {
+            if (posicion == actual.length && !avanzar()) {
+                return -1;
+            }
+            return actual[posicion++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int cantidad) {
+            if (posicion == actual.length && !avanzar()) {
+                return -1;
+            }
+            int n = Math.min(cantidad, actual.length - posicion);
+            System.arraycopy(actual, posicion, destino, desde, n);
+            posicion += n;
+            return n;
+        }
+    }
+
+    /**
+     * Registra el mayor heap en uso mientras corre la medición
+     */
+    private static class MuestreoHeap implements AutoCloseable {
+        private final AtomicLong pico = new AtomicLong();
+        private final AtomicBoolean activo = new AtomicBoolean(true);
+        private final Thread hilo;
+        private final long base;
+
+        MuestreoHeap() {
+            base = usado();
+            hilo = new Thread(() -> {
+                while (activo.get()) {
+                    pico.accumulateAndGet(usado(), Math::max);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            hilo.start();
+        }
+
+        private static long usado() {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+
+        long getPicoSobreBase() {
+            return Math.max(0, pico.get() - base);
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            activo.set(false);
+            hilo.join();
+        }
+    }
+
+    private static void limpiarHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+    }
+
+    private ResponseBody cuerpo(ArregloGenerado arreglo) {
+        return ResponseBody.create(MediaType.get("application/json"), -1,
+            Okio.buffer(Okio.source(arreglo)));
+    }
+
+    @Test
+    public void streamingFrenteAListaCompleta() throws Exception {
+        long tamano = megas * 1024L * 1024L;
+        PostStreamReader reader = new PostStreamReader(GsonProvider.get());
+        // Calentamiento con 1 MB por cada camino
+        for (int i = 0; i < 5; i++) {
+            reader.leer(cuerpo(new ArregloGenerado(1024 * 1024)), TAMANO_LOTE, lote -> { });
+            GsonProvider.get().fromJson(cuerpo(new ArregloGenerado(1024 * 1024)).charStream(),
+                new TypeToken<List<Post>>() {}.getType());
+        }
+
+        limpiarHeap();
+        ArregloGenerado arregloStreaming = new ArregloGenerado(tamano);
+        long[] primerLote = {0};
+        long inicioStreaming = System.nanoTime();
+        int total;
+        long picoStreaming;
+        try (MuestreoHeap muestreo = new MuestreoHeap()) {
+            total = reader.leer(cuerpo(arregloStreaming), TAMANO_LOTE, lote -> {
+                if (primerLote[0] == 0) {
+                    primerLote[0] = System.nanoTime() - inicioStreaming;
+                }
+            });
+            picoStreaming = muestreo.getPicoSobreBase();
+        }
+        long duracionStreaming = System.nanoTime() - inicioStreaming;
+
+        limpiarHeap();
+        ArregloGenerado arregloCompleto = new ArregloGenerado(tamano);
+        long inicio = System.nanoTime();
+        List<Post> lista;
+        long picoCompleto;
+        try (MuestreoHeap muestreo = new MuestreoHeap()) {
+            lista = GsonProvider.get().fromJson(cuerpo(arregloCompleto).charStream(),
+                new TypeToken<List<Post>>() {}.getType());
+            picoCompleto = muestreo.getPicoSobreBase();
+        }
+        long duracionCompleta = System.nanoTime() - inicio;
+
+        Benchmarks.reportar("PostStreamReader " + megas + " MB (" + total + " posts)",
+            String.format(Locale.ROOT, "primer lote %.1fms, total %.0fms, pico de heap %d MB",
+                primerLote[0] / 1e6, duracionStreaming / 1e6, picoStreaming / (1024 * 1024)));
+        Benchmarks.reportar("Gson lista completa " + megas + " MB (" + lista.size() + " posts)",
+            String.format(Locale.ROOT, "primer elemento %.0fms, pico de heap %d MB",
+                duracionCompleta / 1e6, picoCompleto / (1024 * 1024)));
+
+        assertEquals(arregloStreaming.posts, total);
+        assertEquals(arregloCompleto.posts, lista.size());
+    }
+}
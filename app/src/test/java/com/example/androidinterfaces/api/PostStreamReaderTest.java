@@ -0,0 +1,89 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.example.androidinterfaces.models.Post;
+import com.google.gson.JsonSyntaxException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+
+public class PostStreamReaderTest {
+
+    private final PostStreamReader reader = new PostStreamReader(GsonProvider.get());
+
+    private static ResponseBody cuerpo(String json) {
+        return ResponseBody.create(MediaType.get("application/json"), json);
+    }
+
+    private static String arreglo(int cantidad) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 1; i <= cantidad; i++) {
+            if (i > 1) {
+                sb.append(',');
+            }
+            sb.append("{\"userId\":1,\"id\":").append(i)
+                .append(",\"title\":\"t").append(i).append("\",\"body\":\"b\"}");
+        }
+        return sb.append(']').toString();
+    }
+
+    @Test
+    public void leer_entregaLotesCompletosYElRestoAlFinal() throws IOException {
+        List<List<Post>> lotes = new ArrayList<>();
+
+        int total = reader.leer(cuerpo(arreglo(7)), 3, lotes::add);
+
+        assertEquals(7, total);
+        assertEquals(3, lotes.size());
+        assertEquals(3, lotes.get(0).size());
+        assertEquals(3, lotes.get(1).size());
+        assertEquals(1, lotes.get(2).size());
+        assertEquals(7, lotes.get(2).get(0).getId());
+        assertEquals("t4", lotes.get(1).get(0).getTitle());
+    }
+
+    @Test
+    public void leer_cadaLoteEsUnaListaNueva() throws IOException {
+        List<List<Post>> lotes = new ArrayList<>();
+
+        reader.leer(cuerpo(arreglo(4)), 2, lotes::add);
+
+        // El receptor puede quedarse con el lote: el lector no lo reutiliza
+        assertEquals(1, lotes.get(0).get(0).getId());
+        assertEquals(3, lotes.get(1).get(0).getId());
+    }
+
+    @Test
+    public void leer_arregloVacioNoEntregaLotes() throws IOException {
+        List<List<Post>> lotes = new ArrayList<>();
+
+        assertEquals(0, reader.leer(cuerpo("[]"), 10, lotes::add));
+        assertEquals(0, lotes.size());
+    }
+
+    @Test
+    public void leer_losLotesPreviosAUnErrorYaSeEntregaron() throws IOException {
+        List<List<Post>> lotes = new ArrayList<>();
+        String truncado = arreglo(5);
+        truncado = truncado.substring(0, truncado.length() - 10);
+
+        try {
+            reader.leer(cuerpo(truncado), 2, lotes::add);
+            fail("Se esperaba un error por JSON truncado");
+        } catch (IOException | JsonSyntaxException esperado) {
+            assertEquals(2, lotes.size());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void leer_propagaElErrorDelReceptor() throws IOException {
+        reader.leer(cuerpo(arreglo(2)), 1, lote -> {
+            throw new IOException("disco lleno");
+        });
+    }
+}
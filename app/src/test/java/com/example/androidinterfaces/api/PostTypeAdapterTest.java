@@ -0,0 +1,58 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.androidinterfaces.models.Post;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.util.List;
+import org.junit.Test;
+
+public class PostTypeAdapterTest {
+
+    private final Gson gson = GsonProvider.get();
+
+    @Test
+    public void read_leeLosCamposEIgnoraLosDesconocidos() {
+        Post post = gson.fromJson(
+            "{\"extra\":{\"a\":[1,2]},\"userId\":3,\"id\":7,\"title\":\"Hola\",\"body\":\"Mundo\"}",
+            Post.class);
+
+        assertEquals(3, post.getUserId());
+        assertEquals(7, post.getId());
+        assertEquals("Hola", post.getTitle());
+        assertEquals("Mundo", post.getBody());
+    }
+
+    @Test
+    public void read_nulosYCamposFaltantesQuedanPorDefecto() {
+        Post post = gson.fromJson("{\"id\":null,\"title\":null}", Post.class);
+
+        assertEquals(0, post.getId());
+        assertEquals(0, post.getUserId());
+        assertNull(post.getTitle());
+        assertNull(post.getBody());
+    }
+
+    @Test
+    public void read_elementoNuloDeUnArregloEsNull() {
+        List<Post> posts = gson.fromJson("[{\"id\":1},null]",
+            new TypeToken<List<Post>>() {}.getType());
+
+        assertEquals(2, posts.size());
+        assertNull(posts.get(1));
+    }
+
+    @Test
+    public void write_idaYVueltaConservaLosCampos() {
+        Post original = new Post(2, 9, "Título con \"comillas\"", "línea\nnueva");
+
+        Post leido = gson.fromJson(gson.toJson(original, Post.class), Post.class);
+
+        assertEquals(original.getUserId(), leido.getUserId());
+        assertEquals(original.getId(), leido.getId());
+        assertEquals(original.getTitle(), leido.getTitle());
+        assertEquals(original.getBody(), leido.getBody());
+    }
+}
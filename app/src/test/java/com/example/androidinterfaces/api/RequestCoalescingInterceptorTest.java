@@ -0,0 +1,158 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestCoalescingInterceptorTest {
+
+    private MockWebServer servidor;
+    private RequestCoalescingInterceptor coalescing;
+    private OkHttpClient cliente;
+    private final ExecutorService hilos = Executors.newCachedThreadPool();
+
+    @Before
+    public void setUp() throws Exception {
+        servidor = new MockWebServer();
+        servidor.start();
+        coalescing = new RequestCoalescingInterceptor();
+        cliente = new OkHttpClient.Builder().addInterceptor(coalescing).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        hilos.shutdownNow();
+        servidor.shutdown();
+    }
+
+    private Call llamada(OkHttpClient cliente) {
+        return cliente.newCall(new Request.Builder().url(servidor.url("/posts")).build());
+    }
+
+    private Future<String> ejecutar(Call call) {
+        return hilos.submit(() -> {
+            try (Response response = call.execute()) {
+                return response.body().string();
+            }
+        });
+    }
+
+    /**
+     * Espera a que la primera llamada esté en la red antes de lanzar las demás
+     */
+    private void esperarPeticion() throws InterruptedException {
+        servidor.takeRequest(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void peticionesIdenticasEnCursoSeAgrupan() throws Exception {
+        servidor.enqueue(new MockResponse().setBody("[1]").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        Future<String> lider = ejecutar(llamada(cliente));
+        esperarPeticion();
+        Future<String> agrupada = ejecutar(llamada(cliente));
+
+        assertEquals("[1]", lider.get(2, TimeUnit.SECONDS));
+        assertEquals("[1]", agrupada.get(2, TimeUnit.SECONDS));
+        assertEquals(1, servidor.getRequestCount());
+        assertEquals(1, coalescing.getAgrupadas());
+    }
+
+    @Test
+    public void esperaCanceladaTerminaSinEsperarALaPrimera() throws Exception {
+        servidor.enqueue(new MockResponse().setBody("[1]").setHeadersDelay(1, TimeUnit.SECONDS));
+
+        Future<String> lider = ejecutar(llamada(cliente));
+        esperarPeticion();
+        Call esperando = llamada(cliente);
+        Future<String> agrupada = ejecutar(esperando);
+        Thread.sleep(100);
+
+        long inicio = System.nanoTime();
+        esperando.cancel();
+        try {
+            agrupada.get(2, TimeUnit.SECONDS);
+            fail("La llamada cancelada no debía completarse");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertTrue(System.nanoTime() - inicio < TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals("[1]", lider.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void esperaRespetaElTimeoutDeSuLlamada() throws Exception {
+        servidor.enqueue(new MockResponse().setBody("[1]").setHeadersDelay(1, TimeUnit.SECONDS));
+        OkHttpClient impaciente = cliente.newBuilder()
+            .callTimeout(200, TimeUnit.MILLISECONDS)
+            .build();
+
+        Future<String> lider = ejecutar(llamada(cliente));
+        esperarPeticion();
+        long inicio = System.nanoTime();
+        Future<String> agrupada = ejecutar(llamada(impaciente));
+
+        try {
+            agrupada.get(2, TimeUnit.SECONDS);
+            fail("La espera debía vencer con el timeout de su llamada");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InterruptedIOException);
+        }
+        assertTrue(System.nanoTime() - inicio < TimeUnit.MILLISECONDS.toNanos(800));
+        assertEquals("[1]", lider.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void siLaPrimeraSeCancelaLaAgrupadaHaceSuPropiaPeticion() throws Exception {
+        servidor.enqueue(new MockResponse().setBody("[1]").setHeadersDelay(1, TimeUnit.SECONDS));
+        servidor.enqueue(new MockResponse().setBody("[2]"));
+
+        Call primera = llamada(cliente);
+        Future<String> lider = ejecutar(primera);
+        esperarPeticion();
+        Future<String> agrupada = ejecutar(llamada(cliente));
+        Thread.sleep(100);
+
+        primera.cancel();
+
+        assertEquals("[2]", agrupada.get(2, TimeUnit.SECONDS));
+        try {
+            lider.get(2, TimeUnit.SECONDS);
+            fail("La llamada cancelada no debía completarse");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void unErrorDelServidorSeComparteConLasQueEsperan() throws Exception {
+        servidor.enqueue(new MockResponse().setResponseCode(500).setBody("error")
+            .setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        Future<String> lider = ejecutar(llamada(cliente));
+        esperarPeticion();
+        Future<String> agrupada = ejecutar(llamada(cliente));
+
+        // Un 500 es una respuesta: ambas la reciben y solo hubo una petición
+        assertEquals("error", lider.get(2, TimeUnit.SECONDS));
+        assertEquals("error", agrupada.get(2, TimeUnit.SECONDS));
+        assertEquals(1, servidor.getRequestCount());
+    }
+}
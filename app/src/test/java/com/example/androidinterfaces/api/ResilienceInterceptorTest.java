@@ -0,0 +1,182 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResilienceInterceptorTest {
+
+    private MockWebServer servidor;
+    private final ExecutorService hilos = Executors.newCachedThreadPool();
+
+    @Before
+    public void setUp() throws Exception {
+        servidor = new MockWebServer();
+        servidor.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        hilos.shutdownNow();
+        servidor.shutdown();
+    }
+
+    private OkHttpClient cliente(Interceptor... interceptores) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder().retryOnConnectionFailure(false);
+        for (Interceptor interceptor : interceptores) {
+            builder.addInterceptor(interceptor);
+        }
+        return builder.build();
+    }
+
+    private Request get() {
+        return new Request.Builder().url(servidor.url("/posts")).build();
+    }
+
+    private static int codigo(OkHttpClient cliente, Request request) throws IOException {
+        try (Response response = cliente.newCall(request).execute()) {
+            return response.code();
+        }
+    }
+
+    @Test
+    public void reintentaLosCodigosReintentablesHastaElExito() throws Exception {
+        ResilienceInterceptor resilience = new ResilienceInterceptor(3, 1, 5, 10, 60_000);
+        servidor.enqueue(new MockResponse().setResponseCode(503));
+        servidor.enqueue(new MockResponse().setResponseCode(502));
+        servidor.enqueue(new MockResponse().setBody("ok"));
+
+        assertEquals(200, codigo(cliente(resilience), get()));
+        assertEquals(3, servidor.getRequestCount());
+        assertEquals(2, resilience.getReintentos());
+    }
+
+    @Test
+    public void noReintentaUnPostSinClaveDeIdempotencia() throws Exception {
+        ResilienceInterceptor resilience = new ResilienceInterceptor(3, 1, 5, 10, 60_000);
+        servidor.enqueue(new MockResponse().setResponseCode(503));
+        Request post = new Request.Builder().url(servidor.url("/users"))
+            .post(RequestBody.create(null, "{}")).build();
+
+        assertEquals(503, codigo(cliente(resilience), post));
+        assertEquals(1, servidor.getRequestCount());
+    }
+
+    @Test
+    public void reintentaErroresDeConexion() throws Exception {
+        ResilienceInterceptor resilience = new ResilienceInterceptor(3, 1, 5, 10, 60_000);
+        servidor.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        servidor.enqueue(new MockResponse().setBody("ok"));
+
+        assertEquals(200, codigo(cliente(resilience), get()));
+        assertEquals(1, resilience.getReintentos());
+    }
+
+    @Test
+    public void circuitoAbiertoRechazaSinIrALaRed() throws Exception {
+        ResilienceInterceptor resilience = new ResilienceInterceptor(0, 1, 5, 2, 60_000);
+        servidor.enqueue(new MockResponse().setResponseCode(500));
+        servidor.enqueue(new MockResponse().setResponseCode(500));
+        OkHttpClient cliente = cliente(resilience);
+
+        codigo(cliente, get());
+        codigo(cliente, get());
+        try {
+            codigo(cliente, get());
+            fail("El circuito debía estar abierto");
+        } catch (CircuitOpenException e) {
+            assertTrue(e.getEsperaRestanteMs() > 0);
+        }
+        assertEquals(2, servidor.getRequestCount());
+    }
+
+    @Test
+    public void unaExcepcionNoDejaTomadaLaPruebaDelSemiabierto() throws Exception {
+        ResilienceInterceptor resilience = new ResilienceInterceptor(0, 1, 5, 1, 20);
+        servidor.enqueue(new MockResponse().setResponseCode(500));
+        servidor.enqueue(new MockResponse().setBody("ok"));
+        boolean[] explotar = {false};
+        Interceptor falla = chain -> {
+            if (explotar[0]) {
+                throw new IllegalStateException("error de programación");
+            }
+            return chain.proceed(chain.request());
+        };
+        OkHttpClient cliente = cliente(resilience, falla);
+
+        codigo(cliente, get());
+        Thread.sleep(40);
+        explotar[0] = true;
+        try {
+            codigo(cliente, get());
+            fail("Se esperaba la excepción del interceptor");
+        } catch (IllegalStateException esperada) {
+            // La prueba del semiabierto terminó sin resultado
+        }
+        explotar[0] = false;
+
+        assertEquals(200, codigo(cliente, get()));
+        assertEquals(CircuitBreaker.Estado.CERRADO,
+            resilience.getCircuito(servidor.getHostName()).getEstado());
+    }
+
+    @Test
+    public void noReintentaSiLaEsperaNoCabeEnElTimeout() throws Exception {
+        ResilienceInterceptor resilience = new ResilienceInterceptor(3, 1, 10_000, 10, 60_000);
+        servidor.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "5"));
+        OkHttpClient cliente = cliente(resilience).newBuilder()
+            .callTimeout(1, TimeUnit.SECONDS)
+            .build();
+
+        long inicio = System.nanoTime();
+        assertEquals(503, codigo(cliente, get()));
+
+        assertTrue(System.nanoTime() - inicio < TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(1, servidor.getRequestCount());
+        assertEquals(0, resilience.getReintentos());
+    }
+
+    @Test
+    public void cancelarCortaLaEsperaEntreIntentos() throws Exception {
+        ResilienceInterceptor resilience = new ResilienceInterceptor(3, 1, 10_000, 10, 60_000);
+        servidor.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "5"));
+        Call call = cliente(resilience).newCall(get());
+        Future<Integer> resultado = hilos.submit(() -> {
+            try (Response response = call.execute()) {
+                return response.code();
+            }
+        });
+        servidor.takeRequest(2, TimeUnit.SECONDS);
+        Thread.sleep(100);
+
+        long inicio = System.nanoTime();
+        call.cancel();
+        try {
+            resultado.get(2, TimeUnit.SECONDS);
+            fail("La llamada cancelada no debía completarse");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertTrue(System.nanoTime() - inicio < TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(1, servidor.getRequestCount());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.androidinterfaces.api.NetworkTimingRecorder.Fase;
+import com.example.androidinterfaces.models.Post;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Dns;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Cada demora simulada debe caer en su fase y no en las vecinas
+ * - DNS: resolución lenta
+ * - TTFB: setHeadersDelay del servidor
+ * - Cuerpo: setBodyDelay del servidor
+ * - Conversión: un converter lento
+ */
+public class TimingEventListenerTest {
+
+    private static final long DEMORA_DNS_MS = 100;
+    private static final long DEMORA_CABECERAS_MS = 300;
+    private static final long DEMORA_CUERPO_MS = 200;
+    private static final long DEMORA_CONVERSION_MS = 150;
+    // Margen para el resto del trabajo de cada fase; menor que la parte
+    // de una demora que se colaría en la fase vecina
+    private static final long MARGEN_MS = 45;
+    // El servidor empieza a contar la demora del cuerpo apenas envía las
+    // cabeceras, un poco antes de que el cliente empiece a leerlo
+    private static final long TOLERANCIA_INICIO_MS = 15;
+
+    private MockWebServer servidor;
+    private NetworkTimingRecorder recorder;
+    private ApiService apiService;
+
+    /**
+     * Converter de Gson que tarda DEMORA_CONVERSION_MS más en decodificar
+     */
+    private static class ConverterLento extends Converter.Factory {
+        private final Converter.Factory gson = GsonConverterFactory.create(GsonProvider.get());
+
+        @Override
+        public Converter<ResponseBody, ?> responseBodyConverter(Type type,
+                Annotation[] annotations, Retrofit retrofit) {
+            Converter<ResponseBody, ?> converter =
+                gson.responseBodyConverter(type, annotations, retrofit);
+            return body -> {
+                dormir(DEMORA_CONVERSION_MS);
+                return converter.convert(body);
+            };
+        }
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        servidor = new MockWebServer();
+        servidor.start();
+        recorder = new NetworkTimingRecorder();
+        OkHttpClient cliente = new OkHttpClient.Builder()
+            .dns(host -> {
+                dormir(DEMORA_DNS_MS);
+                return Dns.SYSTEM.lookup(host);
+            })
+            .eventListenerFactory(TimingEventListener.factory(recorder))
+            .build();
+        apiService = new Retrofit.Builder()
+            .baseUrl(servidor.url("/"))
+            .client(cliente)
+            .addConverterFactory(new TimedConverterFactory(new ConverterLento(), recorder))
+            .build()
+            .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        servidor.shutdown();
+    }
+
+    private double ms(String endpoint, Fase fase) {
+        LatencyHistogram histograma = recorder.getHistograma(endpoint, fase);
+        assertEquals(fase + " registrada una vez", 1, histograma.getCantidad());
+        return histograma.getMaximoMs();
+    }
+
+    private static void entre(Fase fase, double ms, long minimo, long maximo) {
+        assertTrue(fase + " = " + ms + "ms, se esperaba entre " + minimo + " y " + maximo,
+            ms >= minimo && ms < maximo);
+    }
+
+    @Test
+    public void cadaDemoraCaeEnSuFase() throws Exception {
+        servidor.enqueue(new MockResponse()
+            .setBody("{\"userId\":1,\"id\":1,\"title\":\"t\",\"body\":\"b\"}")
+            .setHeadersDelay(DEMORA_CABECERAS_MS, TimeUnit.MILLISECONDS)
+            .setBodyDelay(DEMORA_CUERPO_MS, TimeUnit.MILLISECONDS));
+
+        Response<Post> response = apiService.getPost(1).execute();
+        assertEquals(1, response.body().getId());
+
+        // El endpoint de red sale de la URL; el de la conversión, de la anotación
+        entre(Fase.DNS, ms("posts/{id}", Fase.DNS), DEMORA_DNS_MS, DEMORA_DNS_MS + MARGEN_MS);
+        entre(Fase.CONEXION, ms("posts/{id}", Fase.CONEXION), 0, DEMORA_DNS_MS);
+        entre(Fase.TTFB, ms("posts/{id}", Fase.TTFB),
+            DEMORA_CABECERAS_MS, DEMORA_CABECERAS_MS + MARGEN_MS);
+        entre(Fase.CUERPO, ms("posts/{id}", Fase.CUERPO),
+            DEMORA_CUERPO_MS - TOLERANCIA_INICIO_MS, DEMORA_CUERPO_MS + MARGEN_MS);
+        entre(Fase.CONVERSION, ms("posts/{id}", Fase.CONVERSION),
+            DEMORA_CONVERSION_MS, DEMORA_CONVERSION_MS + MARGEN_MS);
+        entre(Fase.TOTAL, ms("posts/{id}", Fase.TOTAL),
+            DEMORA_DNS_MS + DEMORA_CABECERAS_MS + DEMORA_CUERPO_MS,
+            DEMORA_DNS_MS + DEMORA_CABECERAS_MS + DEMORA_CUERPO_MS + DEMORA_CONVERSION_MS
+                + 2 * MARGEN_MS);
+    }
+
+    @Test
+    public void sinTls_noRegistraLaFaseTls() throws Exception {
+        servidor.enqueue(new MockResponse().setBody("{\"id\":1}"));
+
+        apiService.getPost(1).execute();
+
+        assertEquals(0, recorder.getHistograma("posts/{id}", Fase.TLS).getCantidad());
+    }
+}
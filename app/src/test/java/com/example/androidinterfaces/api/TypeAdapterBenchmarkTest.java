@@ -0,0 +1,91 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.androidinterfaces.Benchmarks;
+import com.example.androidinterfaces.models.Post;
+import com.example.androidinterfaces.models.Usuario;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Gson por reflexión frente a GsonProvider (PostTypeAdapter y UsuarioTypeAdapter)
+ * Cada camino decodifica y codifica su propio JSON: los adapters aceptan
+ * los nombres de JSONPlaceholder y la reflexión usa los de los campos.
+ * El tamaño se cambia con -Dbenchmarks.elementos=N (por defecto 10.000).
+ */
+public class TypeAdapterBenchmarkTest {
+
+    private static final Type LISTA_POSTS = new TypeToken<List<Post>>() {}.getType();
+    private static final Type LISTA_USUARIOS = new TypeToken<List<Usuario>>() {}.getType();
+    private static final int CALENTAMIENTO = 20;
+    private static final int REPETICIONES = 50;
+
+    private final Gson reflexion = new Gson();
+    private final Gson adapters = GsonProvider.get();
+    private int cantidad;
+
+    @Before
+    public void setUp() {
+        Benchmarks.requerirActivos();
+        cantidad = Integer.getInteger("benchmarks.elementos", 10_000);
+    }
+
+    private List<Post> generarPosts() {
+        List<Post> posts = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            posts.add(new Post(1 + i % 10, i, "titulo del post " + i,
+                "cuerpo del post " + i + " con algo de texto para que ocupe como uno real"));
+        }
+        return posts;
+    }
+
+    private List<Usuario> generarUsuarios() {
+        List<Usuario> usuarios = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            usuarios.add(new Usuario(i, "Usuario " + i, "usuario" + i + "@correo.com",
+                "600" + i, 18 + i % 60, "Ciudad " + i % 50, "Otro", i % 2 == 0));
+        }
+        return usuarios;
+    }
+
+    private void comparar(String modelo, Object lista, Type tipo) {
+        String jsonReflexion = reflexion.toJson(lista, tipo);
+        String jsonAdapters = adapters.toJson(lista, tipo);
+
+        Benchmarks.reportar(modelo + " decodificar por reflexión",
+            Benchmarks.medir(CALENTAMIENTO, REPETICIONES, () -> reflexion.fromJson(jsonReflexion, tipo)));
+        Benchmarks.reportar(modelo + " decodificar con TypeAdapter",
+            Benchmarks.medir(CALENTAMIENTO, REPETICIONES, () -> adapters.fromJson(jsonAdapters, tipo)));
+        Benchmarks.reportar(modelo + " codificar por reflexión",
+            Benchmarks.medir(CALENTAMIENTO, REPETICIONES, () -> reflexion.toJson(lista, tipo)));
+        Benchmarks.reportar(modelo + " codificar con TypeAdapter",
+            Benchmarks.medir(CALENTAMIENTO, REPETICIONES, () -> adapters.toJson(lista, tipo)));
+    }
+
+    @Test
+    public void reflexionFrenteAPostTypeAdapter() {
+        List<Post> posts = generarPosts();
+        comparar("Post x" + cantidad, posts, LISTA_POSTS);
+
+        List<Post> leidos = adapters.fromJson(adapters.toJson(posts, LISTA_POSTS), LISTA_POSTS);
+        assertEquals(cantidad, leidos.size());
+        assertEquals(posts.get(cantidad - 1).getBody(), leidos.get(cantidad - 1).getBody());
+    }
+
+    @Test
+    public void reflexionFrenteAUsuarioTypeAdapter() {
+        List<Usuario> usuarios = generarUsuarios();
+        comparar("Usuario x" + cantidad, usuarios, LISTA_USUARIOS);
+
+        List<Usuario> leidos = adapters.fromJson(adapters.toJson(usuarios, LISTA_USUARIOS),
+            LISTA_USUARIOS);
+        assertEquals(cantidad, leidos.size());
+        assertEquals(usuarios.get(cantidad - 1).getEmail(), leidos.get(cantidad - 1).getEmail());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.androidinterfaces.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.androidinterfaces.models.Usuario;
+import com.google.gson.Gson;
+import org.junit.Test;
+
+public class UsuarioTypeAdapterTest {
+
+    private final Gson gson = GsonProvider.get();
+
+    @Test
+    public void read_aceptaLosNombresDeJsonPlaceholder() {
+        Usuario usuario = gson.fromJson("{\"id\":1,\"name\":\"Leanne Graham\","
+            + "\"email\":\"leanne@april.biz\",\"phone\":\"1-770-736-8031\","
+            + "\"address\":{\"street\":\"Kulas Light\",\"city\":\"Gwenborough\","
+            + "\"geo\":{\"lat\":\"-37.3159\"}},\"company\":{\"name\":\"Romaguera\"}}",
+            Usuario.class);
+
+        assertEquals(1, usuario.getId());
+        assertEquals("Leanne Graham", usuario.getNombre());
+        assertEquals("leanne@april.biz", usuario.getEmail());
+        assertEquals("1-770-736-8031", usuario.getTelefono());
+        assertEquals("Gwenborough", usuario.getCiudad());
+    }
+
+    @Test
+    public void read_direccionQueNoEsObjetoSeOmite() {
+        Usuario usuario = gson.fromJson("{\"address\":\"sin ciudad\",\"ciudad\":\"Lima\"}",
+            Usuario.class);
+
+        assertEquals("Lima", usuario.getCiudad());
+    }
+
+    @Test
+    public void read_notificacionesComoNumeroOBooleano() {
+        assertTrue(gson.fromJson("{\"notificaciones\":1}", Usuario.class).isNotificaciones());
+        assertFalse(gson.fromJson("{\"notificaciones\":0}", Usuario.class).isNotificaciones());
+        assertTrue(gson.fromJson("{\"notificaciones\":true}", Usuario.class).isNotificaciones());
+        assertFalse(gson.fromJson("{\"notificaciones\":null}", Usuario.class).isNotificaciones());
+    }
+
+    @Test
+    public void write_idaYVueltaConservaLosCampos() {
+        Usuario original = new Usuario(5, "Ana", "ana@x.com", "600000000", 30, "Madrid",
+            "Femenino", true);
+
+        Usuario leido = gson.fromJson(gson.toJson(original, Usuario.class), Usuario.class);
+
+        assertEquals(original.getId(), leido.getId());
+        assertEquals(original.getNombre(), leido.getNombre());
+        assertEquals(original.getEmail(), leido.getEmail());
+        assertEquals(original.getTelefono(), leido.getTelefono());
+        assertEquals(original.getEdad(), leido.getEdad());
+        assertEquals(original.getCiudad(), leido.getCiudad());
+        assertEquals(original.getGenero(), leido.getGenero());
+        assertEquals(original.isNotificaciones(), leido.isNotificaciones());
+    }
+
+    @Test
+    public void read_nullEsNull() {
+        assertNull(gson.fromJson("null", Usuario.class));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.androidinterfaces.Benchmarks;
+import com.example.androidinterfaces.models.Usuario;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Locale;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * Borrado de una selección de usuarios: eliminarUsuarios (una transacción y
+ * sentencias compiladas) contra eliminarUsuario uno por uno (una transacción
+ * por usuario), como borraba antes la selección múltiple
+ * Cada usuario tiene su alta en el outbox, que se borra con él. El tamaño de
+ * la selección se cambia con -Dbenchmarks.eliminados=N (por defecto 500).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class DatabaseHelperBenchmarkTest {
+
+    private static final int CALENTAMIENTO = 3;
+    private static final int REPETICIONES = 10;
+
+    private DatabaseHelper dbHelper;
+    private int cantidad;
+    private int siguiente = 0;
+
+    @Before
+    public void setUp() {
+        Benchmarks.requerirActivos();
+        cantidad = Integer.getInteger("benchmarks.eliminados", 500);
+        dbHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+    }
+
+    @After
+    public void tearDown() {
+        if (dbHelper != null) {
+            dbHelper.close();
+        }
+    }
+
+    private int[] insertarSeleccion() throws SQLException {
+        int[] ids = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            int n = siguiente++;
+            ids[i] = (int) dbHelper.insertarUsuario(new Usuario(0, "Usuario " + n,
+                "usuario" + n + "@correo.com", "555-" + n, 30, "Ciudad", "Otro", false));
+        }
+        return ids;
+    }
+
+    private interface Borrado {
+        void borrar(int[] ids) throws SQLException;
+    }
+
+    /**
+     * Mide solo el borrado; cada repetición inserta antes una selección nueva
+     * @return duraciones en nanosegundos, ordenadas
+     */
+    private long[] medir(Borrado borrado) throws SQLException {
+        long[] nanos = new long[REPETICIONES];
+        for (int i = -CALENTAMIENTO; i < REPETICIONES; i++) {
+            int[] ids = insertarSeleccion();
+            long inicio = System.nanoTime();
+            borrado.borrar(ids);
+            long duracion = System.nanoTime() - inicio;
+            if (i >= 0) {
+                nanos[i] = duracion;
+            }
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    @Test
+    public void eliminarUsuarios_contraBorradosSecuenciales() throws Exception {
+        long[] secuencial = medir(ids -> {
+            for (int id : ids) {
+                dbHelper.eliminarUsuario(id);
+            }
+        });
+        long[] lote = medir(ids -> assertEquals(ids.length, dbHelper.eliminarUsuarios(ids)));
+
+        Benchmarks.reportar("eliminarUsuario x" + cantidad + " (una transacción cada uno)",
+            secuencial);
+        Benchmarks.reportar("eliminarUsuarios(" + cantidad + ") en una transacción", lote);
+        Benchmarks.reportar("Borrado por lotes",
+            String.format(Locale.ROOT, "%.1fx más rápido (p50)",
+                secuencial[REPETICIONES / 2] / (double) lote[REPETICIONES / 2]));
+
+        assertEquals(0, dbHelper.contarUsuarios());
+        assertEquals(0, dbHelper.contarOutbox());
+    }
+}
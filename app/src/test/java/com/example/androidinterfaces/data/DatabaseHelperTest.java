@@ -0,0 +1,157 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import com.example.androidinterfaces.models.Usuario;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class DatabaseHelperTest {
+
+    private DatabaseHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        dbHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    private int insertar(String nombre, String email) throws Exception {
+        return (int) dbHelper.insertarUsuario(
+            new Usuario(0, nombre, email, "600000000", 30, "Madrid", "Otro", false));
+    }
+
+    private static String repetir(String texto, int veces) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < veces; i++) {
+            sb.append(texto);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void insertarUsuario_dejaElAltaEnElOutbox() throws Exception {
+        int id = insertar("Ana", "ana@x.com");
+
+        List<OutboxEntry> lote = dbHelper.obtenerLoteOutbox(10, 64 * 1024);
+
+        assertEquals(1, lote.size());
+        assertEquals(0, lote.get(0).getIntentos());
+        assertTrue(lote.get(0).getPayload().contains("\"id\":" + id));
+    }
+
+    @Test
+    public void eliminarUsuarios_quitaSusAltasDelOutbox() throws Exception {
+        int ana = insertar("Ana", "ana@x.com");
+        int luis = insertar("Luis", "luis@x.com");
+        insertar("Marta", "marta@x.com");
+
+        assertEquals(2, dbHelper.eliminarUsuarios(new int[]{ana, luis}));
+
+        List<OutboxEntry> lote = dbHelper.obtenerLoteOutbox(10, 64 * 1024);
+        assertEquals(1, lote.size());
+        assertTrue(lote.get(0).getPayload().contains("Marta"));
+    }
+
+    @Test
+    public void eliminarUsuario_quitaSuAltaDelOutbox() throws Exception {
+        int ana = insertar("Ana", "ana@x.com");
+
+        dbHelper.eliminarUsuario(ana);
+
+        assertEquals(0, dbHelper.obtenerLoteOutbox(10, 64 * 1024).size());
+    }
+
+    @Test
+    public void obtenerLoteOutbox_cuentaBytesUtf8YNoCaracteres() throws Exception {
+        // 500 caracteres de 2 bytes cada uno por nombre
+        insertar(repetir("ñ", 500), "a@x.com");
+        insertar(repetir("ñ", 500), "b@x.com");
+
+        // Por caracteres entrarían los dos; por bytes solo uno
+        assertEquals(1, dbHelper.obtenerLoteOutbox(10, 1500).size());
+        assertEquals(2, dbHelper.obtenerLoteOutbox(10, 4000).size());
+    }
+
+    @Test
+    public void obtenerLoteOutbox_siempreEntraAlMenosUna() throws Exception {
+        insertar(repetir("ñ", 500), "a@x.com");
+
+        assertEquals(1, dbHelper.obtenerLoteOutbox(10, 1).size());
+    }
+
+    @Test
+    public void descartarDeOutbox_apartaLasEntradasSinBorrarlas() throws Exception {
+        insertar("Ana", "ana@x.com");
+        insertar("Luis", "luis@x.com");
+        List<OutboxEntry> lote = dbHelper.obtenerLoteOutbox(10, 64 * 1024);
+
+        dbHelper.descartarDeOutbox(lote.subList(0, 1));
+
+        List<OutboxEntry> pendientes = dbHelper.obtenerLoteOutbox(10, 64 * 1024);
+        assertEquals(1, pendientes.size());
+        assertEquals(lote.get(1).getId(), pendientes.get(0).getId());
+    }
+
+    @Test
+    public void registrarIntentoOutbox_sumaUnIntento() throws Exception {
+        insertar("Ana", "ana@x.com");
+
+        dbHelper.registrarIntentoOutbox(dbHelper.obtenerLoteOutbox(10, 64 * 1024));
+        dbHelper.registrarIntentoOutbox(dbHelper.obtenerLoteOutbox(10, 64 * 1024));
+
+        assertEquals(2, dbHelper.obtenerLoteOutbox(10, 64 * 1024).get(0).getIntentos());
+    }
+
+    @Test
+    public void verificarIndices_elPlanificadorUsaTodosLosIndices() throws Exception {
+        insertar("Ana", "ana@x.com");
+        insertar("Luis", "luis@x.com");
+
+        assertEquals(Collections.emptyList(), dbHelper.verificarIndices());
+    }
+
+    @Test
+    public void onUpgrade_eliminaLosIndicesRetirados() throws Exception {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.execSQL("CREATE INDEX idx_usuarios_ciudad ON usuarios (ciudad COLLATE NOCASE, nombre)");
+
+        dbHelper.onUpgrade(db, 6, 7);
+
+        assertFalse(existeIndice(db, "idx_usuarios_ciudad"));
+        assertTrue(existeIndice(db, "idx_usuarios_listado"));
+        assertEquals(Collections.emptyList(), dbHelper.verificarIndices());
+    }
+
+    private static boolean existeIndice(SQLiteDatabase db, String nombre) {
+        return DatabaseUtils.queryNumEntries(db, "sqlite_master",
+            "type = 'index' AND name = ?", new String[]{nombre}) > 0;
+    }
+
+    @Test
+    public void longitudUtf8_coincideConGetBytes() {
+        String[] textos = {"", "hola", "ñandú", "€uro", "emoji 😀 fin", "日本語"};
+        for (String texto : textos) {
+            assertEquals(texto, texto.getBytes(StandardCharsets.UTF_8).length,
+                DatabaseHelper.longitudUtf8(texto));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.example.androidinterfaces.models.Usuario;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class FuzzySearchIndexTest {
+
+    private static Usuario usuario(int id, String nombre, String email) {
+        return new Usuario(id, nombre, email, "600000000", 30, "Madrid", "Otro", false);
+    }
+
+    private static FuzzySearchIndex indice(Usuario... usuarios) {
+        return FuzzySearchIndex.construir(Arrays.asList(usuarios));
+    }
+
+    @Test
+    public void buscar_encuentraConAcentosYMayusculas() {
+        FuzzySearchIndex indice = indice(
+            usuario(1, "María González", "maria@correo.com"),
+            usuario(2, "Pedro Ruiz", "pedro@correo.com"));
+
+        assertArrayEquals(new int[]{1}, indice.buscar("GONZALEZ"));
+        assertArrayEquals(new int[]{1}, indice.buscar("maría"));
+    }
+
+    @Test
+    public void buscar_toleraDosErroresEnPalabrasLargas() {
+        FuzzySearchIndex indice = indice(usuario(1, "Fernanda Gonzalez", "f@x.com"));
+
+        // Dos sustituciones (z→s, z→s): distancia 2
+        assertArrayEquals(new int[]{1}, indice.buscar("Gonsales"));
+        assertArrayEquals(new int[0], indice.buscar("Gxnxalxz"));
+    }
+
+    @Test
+    public void buscar_palabrasCortasToleranUnSoloError() {
+        FuzzySearchIndex indice = indice(usuario(1, "Luis Mora", "luis@x.com"));
+
+        assertArrayEquals(new int[]{1}, indice.buscar("Lujs"));
+        assertArrayEquals(new int[0], indice.buscar("Lxjs"));
+    }
+
+    @Test
+    public void buscar_consultaCortaNoDevuelveNada() {
+        FuzzySearchIndex indice = indice(usuario(1, "Ana Li", "ana@x.com"));
+
+        assertEquals(0, indice.buscar("an").length);
+        assertEquals(0, indice.buscar("").length);
+    }
+
+    @Test
+    public void buscar_ordenaPorDistanciaSinRepetir() {
+        FuzzySearchIndex indice = indice(
+            usuario(1, "Martinez Martinez", "m1@x.com"),
+            usuario(2, "Martines", "m2@x.com"),
+            usuario(3, "Martinez", "m3@x.com"));
+
+        // Exactos primero (en orden de índice), luego a distancia 1; el
+        // usuario 1 aparece una sola vez aunque tenga la palabra dos veces
+        assertArrayEquals(new int[]{1, 3, 2}, indice.buscar("martinez"));
+    }
+
+    @Test
+    public void buscar_usaLaPalabraMasLargaDeLaConsulta() {
+        FuzzySearchIndex indice = indice(
+            usuario(1, "Sara Echeverria", "s@x.com"),
+            usuario(2, "Sara Lopez", "sl@x.com"));
+
+        assertArrayEquals(new int[]{1}, indice.buscar("sa echeverira"));
+    }
+
+    @Test
+    public void buscar_indexaLasPalabrasDelEmail() {
+        FuzzySearchIndex indice = indice(usuario(7, "Juan", "jperez@empresa.com"));
+
+        assertArrayEquals(new int[]{7}, indice.buscar("empresaa"));
+    }
+
+    @Test
+    public void distanciaAcotada_cortaAlSuperarElLimite() {
+        FuzzySearchIndex indice = indice(usuario(1, "x", "x@x.com"));
+
+        assertEquals(0, indice.distanciaAcotada("casa", "casa", 2));
+        assertEquals(1, indice.distanciaAcotada("casa", "cosa", 2));
+        assertEquals(2, indice.distanciaAcotada("casa", "csaa", 2));
+        assertEquals(3, indice.distanciaAcotada("casa", "perro", 2));
+        assertEquals(3, indice.distanciaAcotada("ab", "abcdef", 2));
+    }
+
+    @Test
+    public void normalizar_quitaMarcasYMayusculas() {
+        assertEquals("aeiou n", FuzzySearchIndex.normalizar(" ÁÉÍÓÚ Ñ "));
+        assertEquals("hola", FuzzySearchIndex.normalizar("HoLa"));
+        assertEquals("", FuzzySearchIndex.normalizar(null));
+    }
+
+    @Test
+    public void totalTerminos_cuentaPalabrasDistintas() {
+        List<Usuario> usuarios = Arrays.asList(
+            usuario(1, "Ana Ana", "ana@x.com"),
+            usuario(2, "Ana", "ana@y.com"));
+
+        // ana, x, com, y
+        assertEquals(4, FuzzySearchIndex.construir(usuarios).totalTerminos());
+    }
+}
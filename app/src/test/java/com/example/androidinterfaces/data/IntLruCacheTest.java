@@ -0,0 +1,112 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.util.LruCache;
+import java.lang.management.ManagementFactory;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class IntLruCacheTest {
+
+    private static final int CLAVES = 60;
+    private static final int CONSULTAS = 200_000;
+
+    private static final com.sun.management.ThreadMXBean HILOS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Bytes reservados por el hilo actual al correr la tarea
+     */
+    private static long bytesReservados(Runnable tarea) {
+        long id = Thread.currentThread().getId();
+        long antes = HILOS.getThreadAllocatedBytes(id);
+        tarea.run();
+        return HILOS.getThreadAllocatedBytes(id) - antes;
+    }
+
+    @Test
+    public void guardar_desalojaLaMenosReciente() {
+        IntLruCache<String> cache = new IntLruCache<>(2);
+        cache.guardar(1, "uno");
+        cache.guardar(2, "dos");
+        // 1 pasa a ser la más reciente: la próxima en salir es 2
+        assertEquals("uno", cache.obtener(1));
+
+        cache.guardar(3, "tres");
+
+        assertEquals(2, cache.getTamano());
+        assertNull(cache.obtener(2));
+        assertEquals("uno", cache.obtener(1));
+        assertEquals("tres", cache.obtener(3));
+    }
+
+    @Test
+    public void guardar_reemplazaSinOcuparOtroLugar() {
+        IntLruCache<String> cache = new IntLruCache<>(2);
+        cache.guardar(1, "uno");
+        cache.guardar(2, "dos");
+
+        cache.guardar(1, "otro");
+        cache.guardar(3, "tres");
+
+        assertEquals("otro", cache.obtener(1));
+        assertNull(cache.obtener(2));
+        assertEquals(2, cache.getTamano());
+    }
+
+    @Test
+    public void limpiar_vaciaLaCache() {
+        IntLruCache<String> cache = new IntLruCache<>(4);
+        cache.guardar(1, "uno");
+        cache.guardar(2, "dos");
+
+        cache.limpiar();
+        cache.guardar(3, "tres");
+
+        assertEquals(1, cache.getTamano());
+        assertNull(cache.obtener(1));
+        assertEquals("tres", cache.obtener(3));
+    }
+
+    @Test
+    public void obtener_noReservaMemoriaEnLosAciertos() {
+        IntLruCache<String> cache = new IntLruCache<>(CLAVES);
+        LruCache<Integer, String> conBoxing = new LruCache<>(CLAVES);
+        // IDs fuera de la caché de Integer (-128..127), como los de los posts
+        for (int i = 0; i < CLAVES; i++) {
+            cache.guardar(1000 + i, "ID: " + (1000 + i));
+            conBoxing.put(1000 + i, "ID: " + (1000 + i));
+        }
+        Runnable primitiva = () -> {
+            for (int i = 0; i < CONSULTAS; i++) {
+                cache.obtener(1000 + i % CLAVES);
+            }
+        };
+        Runnable boxing = () -> {
+            for (int i = 0; i < CONSULTAS; i++) {
+                conBoxing.get(1000 + i % CLAVES);
+            }
+        };
+        // Calentamiento: que el JIT compile los dos recorridos
+        for (int i = 0; i < 5; i++) {
+            primitiva.run();
+            boxing.run();
+        }
+
+        long sinBoxing = bytesReservados(primitiva);
+        long reservadosConBoxing = bytesReservados(boxing);
+
+        // Un Integer por consulta son al menos 16 bytes; sin boxing no queda
+        // más que el ruido de la medición
+        assertTrue("IntLruCache reservó " + sinBoxing + " bytes", sinBoxing < 64 * 1024);
+        assertTrue("LruCache<Integer> reservó " + reservadosConBoxing + " bytes",
+            reservadosConBoxing >= 16L * CONSULTAS);
+    }
+}
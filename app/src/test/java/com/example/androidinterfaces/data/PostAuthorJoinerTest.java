@@ -0,0 +1,202 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.api.GsonProvider;
+import com.example.androidinterfaces.models.Post;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PostAuthorJoinerTest {
+
+    /**
+     * Responde users?id=...&id=... con un usuario por cada ID pedido
+     */
+    private static class ServidorDeUsuarios extends Dispatcher {
+        volatile long demoraMs = 0;
+        volatile int codigo = 200;
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            if (codigo != 200) {
+                return new MockResponse().setResponseCode(codigo);
+            }
+            StringBuilder sb = new StringBuilder("[");
+            for (String id : request.getRequestUrl().queryParameterValues("id")) {
+                if (sb.length() > 1) {
+                    sb.append(',');
+                }
+                sb.append("{\"id\":").append(id).append(",\"name\":\"Autor ").append(id).append("\"}");
+            }
+            return new MockResponse()
+                .setHeadersDelay(demoraMs, TimeUnit.MILLISECONDS)
+                .setBody(sb.append(']').toString());
+        }
+    }
+
+    /**
+     * Cuenta los avisos, que llegan en el hilo principal
+     */
+    private static class Grabador implements PostAuthorJoiner.Listener {
+        int resueltos = 0;
+        int errores = 0;
+
+        @Override
+        public void onAutoresResueltos() {
+            resueltos++;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            errores++;
+        }
+    }
+
+    private MockWebServer servidor;
+    private ServidorDeUsuarios dispatcher;
+    private ApiService apiService;
+    private PostAuthorJoiner joiner;
+    private Grabador grabador;
+
+    @Before
+    public void setUp() throws Exception {
+        servidor = new MockWebServer();
+        dispatcher = new ServidorDeUsuarios();
+        servidor.setDispatcher(dispatcher);
+        servidor.start();
+        apiService = new Retrofit.Builder()
+            .baseUrl(servidor.url("/"))
+            .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+            .build()
+            .create(ApiService.class);
+        joiner = new PostAuthorJoiner(apiService, 50);
+        grabador = new Grabador();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        joiner.cerrar();
+        servidor.shutdown();
+    }
+
+    private static List<Post> pagina(int... userIds) {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < userIds.length; i++) {
+            posts.add(new Post(userIds[i], i + 1, "t", "b"));
+        }
+        return posts;
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue("Tiempo de espera agotado", System.currentTimeMillis() < limite);
+            Thread.sleep(5);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    @Test
+    public void resolver_unaSolaPeticionPorPaginaConLosIdsDistintos() throws Exception {
+        joiner.resolver(pagina(1, 2, 1, 3, 2, 1), grabador);
+        esperar(() -> grabador.resueltos == 1);
+
+        assertEquals(1, servidor.getRequestCount());
+        RecordedRequest request = servidor.takeRequest();
+        assertEquals(Arrays.asList("1", "2", "3"),
+            request.getRequestUrl().queryParameterValues("id"));
+        assertEquals("Autor 2", joiner.obtenerAutor(2).getNombre());
+    }
+
+    @Test
+    public void resolver_paginaRepetidaSaleDeLaCache() throws Exception {
+        joiner.resolver(pagina(1, 2, 3), grabador);
+        esperar(() -> grabador.resueltos == 1);
+
+        joiner.resolver(pagina(1, 2, 3), grabador);
+        joiner.resolver(pagina(3, 2), grabador);
+        Thread.sleep(100);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(1, servidor.getRequestCount());
+        assertEquals(1, grabador.resueltos);
+    }
+
+    @Test
+    public void resolver_noRepiteLosIdsYaPedidos() throws Exception {
+        dispatcher.demoraMs = 200;
+        joiner.resolver(pagina(1, 2), grabador);
+        // Llega otra página mientras la primera petición sigue en curso
+        joiner.resolver(pagina(2, 3), grabador);
+        esperar(() -> grabador.resueltos == 2);
+
+        assertEquals(2, servidor.getRequestCount());
+        servidor.takeRequest();
+        assertEquals(Arrays.asList("3"),
+            servidor.takeRequest().getRequestUrl().queryParameterValues("id"));
+    }
+
+    @Test
+    public void resolver_losAutoresExpulsadosDeLaLruSeVuelvenAPedir() throws Exception {
+        PostAuthorJoiner chico = new PostAuthorJoiner(apiService, 2);
+        chico.resolver(pagina(1, 2, 3), grabador);
+        esperar(() -> grabador.resueltos == 1);
+
+        assertNull(chico.obtenerAutor(1));
+        chico.resolver(pagina(1), grabador);
+        esperar(() -> grabador.resueltos == 2);
+        chico.cerrar();
+
+        assertEquals(2, servidor.getRequestCount());
+        assertNotNull(chico.obtenerAutor(1));
+    }
+
+    @Test
+    public void resolver_trasUnErrorSeVuelvenAPedir() throws Exception {
+        dispatcher.codigo = 500;
+        joiner.resolver(pagina(1, 2), grabador);
+        esperar(() -> grabador.errores == 1);
+
+        dispatcher.codigo = 200;
+        joiner.resolver(pagina(1, 2), grabador);
+        esperar(() -> grabador.resueltos == 1);
+
+        assertEquals(2, servidor.getRequestCount());
+        assertNotNull(joiner.obtenerAutor(1));
+    }
+
+    @Test
+    public void cerrar_losPedidosPosterioresSeIgnoranSinExcepcion() throws Exception {
+        joiner.cerrar();
+
+        joiner.resolver(pagina(1, 2), grabador);
+        Thread.sleep(100);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(0, servidor.getRequestCount());
+        assertEquals(0, grabador.resueltos);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import com.example.androidinterfaces.Benchmarks;
+import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.api.GsonProvider;
+import com.example.androidinterfaces.models.Post;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Detalle de un lote de posts con latencia de red simulada, según cuántas
+ * peticiones van en paralelo (1 equivale a pedirlos uno tras otro)
+ * La latencia se cambia con -Dbenchmarks.latenciaMs=N (por defecto 20).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PostDetailFetcherBenchmarkTest {
+
+    private static final int IDS = 100;
+    private static final int REPETICIONES = 5;
+
+    private MockWebServer servidor;
+    private ApiService apiService;
+
+    @Before
+    public void setUp() throws Exception {
+        Benchmarks.requerirActivos();
+        long latenciaMs = Long.getLong("benchmarks.latenciaMs", 20);
+        servidor = new MockWebServer();
+        servidor.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String id = request.getPath().substring("/posts/".length());
+                return new MockResponse()
+                    .setHeadersDelay(latenciaMs, TimeUnit.MILLISECONDS)
+                    .setBody("{\"userId\":1,\"id\":" + id + ",\"title\":\"t\",\"body\":\"b\"}");
+            }
+        });
+        servidor.start();
+        apiService = new Retrofit.Builder()
+            .baseUrl(servidor.url("/"))
+            .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+            .build()
+            .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (servidor != null) {
+            servidor.shutdown();
+        }
+    }
+
+    private static int[] ids() {
+        int[] ids = new int[IDS];
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = i + 1;
+        }
+        return ids;
+    }
+
+    /**
+     * Tiempo hasta onCompletado con la caché vacía
+     */
+    private long medirLote(int maxConcurrentes) throws InterruptedException {
+        PostDetailFetcher fetcher = new PostDetailFetcher(apiService, maxConcurrentes, 10_000, IDS);
+        int[] obtenidos = {-1};
+        long inicio = System.nanoTime();
+        fetcher.obtener(ids(), new PostDetailFetcher.DetalleCallback() {
+            @Override
+            public void onDetalle(Post post, boolean desdeCache) {}
+
+            @Override
+            public void onError(int id, Throwable t) {}
+
+            @Override
+            public void onCompletado(int cantidad, int fallidos) {
+                obtenidos[0] = cantidad;
+            }
+        });
+        while (obtenidos[0] < 0) {
+            Thread.sleep(1);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        long duracion = System.nanoTime() - inicio;
+        fetcher.cerrar();
+        assertEquals(IDS, obtenidos[0]);
+        return duracion;
+    }
+
+    @Test
+    public void loteSegunConcurrencia() throws Exception {
+        medirLote(4);
+        for (int concurrentes : new int[]{1, 4, 8}) {
+            int pedidasAntes = servidor.getRequestCount();
+            long[] nanos = new long[REPETICIONES];
+            for (int i = 0; i < REPETICIONES; i++) {
+                nanos[i] = medirLote(concurrentes);
+            }
+            Arrays.sort(nanos);
+            Benchmarks.reportar(String.format(Locale.ROOT,
+                "PostDetailFetcher %d detalles, %d en paralelo", IDS, concurrentes), nanos);
+            assertEquals(IDS * REPETICIONES, servidor.getRequestCount() - pedidasAntes);
+        }
+    }
+}
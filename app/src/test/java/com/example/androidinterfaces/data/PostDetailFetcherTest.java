@@ -0,0 +1,213 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.api.GsonProvider;
+import com.example.androidinterfaces.models.Post;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PostDetailFetcherTest {
+
+    private static final long PLAZO_MS = 2000;
+
+    /**
+     * Responde /posts/{id} con el post de ese ID, tras la demora indicada;
+     * el ID 404 no existe
+     */
+    private static class ServidorDePosts extends Dispatcher {
+        volatile long demoraMs = 0;
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String id = request.getPath().substring("/posts/".length());
+            if (id.equals("404")) {
+                return new MockResponse().setResponseCode(404);
+            }
+            return new MockResponse()
+                .setHeadersDelay(demoraMs, TimeUnit.MILLISECONDS)
+                .setBody("{\"userId\":1,\"id\":" + id + ",\"title\":\"t" + id + "\",\"body\":\"b\"}");
+        }
+    }
+
+    /**
+     * Anota lo que recibe el callback, en el hilo principal
+     */
+    private static class Grabador implements PostDetailFetcher.DetalleCallback {
+        final List<Post> detalles = new ArrayList<>();
+        final List<Boolean> desdeCache = new ArrayList<>();
+        final List<Integer> errores = new ArrayList<>();
+        int obtenidos = -1;
+        int fallidos = -1;
+
+        @Override
+        public void onDetalle(Post post, boolean cache) {
+            detalles.add(post);
+            desdeCache.add(cache);
+        }
+
+        @Override
+        public void onError(int id, Throwable t) {
+            errores.add(id);
+        }
+
+        @Override
+        public void onCompletado(int obtenidos, int fallidos) {
+            this.obtenidos = obtenidos;
+            this.fallidos = fallidos;
+        }
+
+        boolean completado() {
+            return obtenidos >= 0;
+        }
+    }
+
+    private MockWebServer servidor;
+    private ServidorDePosts dispatcher;
+    private PostDetailFetcher fetcher;
+
+    @Before
+    public void setUp() throws Exception {
+        servidor = new MockWebServer();
+        dispatcher = new ServidorDePosts();
+        servidor.setDispatcher(dispatcher);
+        servidor.start();
+        ApiService apiService = new Retrofit.Builder()
+            .baseUrl(servidor.url("/"))
+            .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+            .build()
+            .create(ApiService.class);
+        fetcher = new PostDetailFetcher(apiService, 4, PLAZO_MS, 16);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        fetcher.cerrar();
+        servidor.shutdown();
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue("Tiempo de espera agotado", System.currentTimeMillis() < limite);
+            Thread.sleep(5);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    @Test
+    public void obtener_pideCadaIdUnaVezYCompleta() throws Exception {
+        Grabador grabador = new Grabador();
+
+        fetcher.obtener(new int[]{1, 2, 3}, grabador);
+        esperar(grabador::completado);
+
+        assertEquals(3, grabador.obtenidos);
+        assertEquals(0, grabador.fallidos);
+        assertEquals(3, servidor.getRequestCount());
+        assertFalse(grabador.desdeCache.contains(true));
+    }
+
+    @Test
+    public void obtener_lasSiguientesVecesSaleDeLaCache() throws Exception {
+        Grabador primero = new Grabador();
+        fetcher.obtener(new int[]{1, 2}, primero);
+        esperar(primero::completado);
+
+        Grabador segundo = new Grabador();
+        fetcher.obtener(new int[]{1, 2}, segundo);
+        esperar(segundo::completado);
+
+        assertEquals(2, servidor.getRequestCount());
+        assertEquals(2, segundo.obtenidos);
+        assertFalse(segundo.desdeCache.contains(false));
+    }
+
+    @Test
+    public void obtener_seUneALaPrecargaEnCurso() throws Exception {
+        dispatcher.demoraMs = 300;
+        fetcher.precargar(new int[]{7, 8});
+        esperar(() -> servidor.getRequestCount() == 2);
+
+        Grabador grabador = new Grabador();
+        fetcher.obtener(new int[]{7, 8}, grabador);
+        esperar(grabador::completado);
+
+        // Las dos precargas seguían en curso: no se pidieron otra vez
+        assertEquals(2, servidor.getRequestCount());
+        assertEquals(2, grabador.obtenidos);
+        assertEquals("t7", fetcher.obtenerDeCache(7).getTitle());
+    }
+
+    @Test
+    public void precargar_noRepiteIdsEnCursoNiEnCache() throws Exception {
+        dispatcher.demoraMs = 200;
+        fetcher.precargar(new int[]{1, 2});
+        fetcher.precargar(new int[]{1, 2});
+        esperar(() -> fetcher.obtenerDeCache(1) != null && fetcher.obtenerDeCache(2) != null);
+
+        fetcher.precargar(new int[]{1, 2});
+        Thread.sleep(100);
+
+        assertEquals(2, servidor.getRequestCount());
+    }
+
+    @Test
+    public void obtener_respuestaErroneaCuentaComoFallo() throws Exception {
+        Grabador grabador = new Grabador();
+
+        fetcher.obtener(new int[]{1, 404}, grabador);
+        esperar(grabador::completado);
+
+        assertEquals(1, grabador.obtenidos);
+        assertEquals(1, grabador.fallidos);
+        assertEquals(404, (int) grabador.errores.get(0));
+    }
+
+    @Test
+    public void obtener_pasadoElPlazoFalla() throws Exception {
+        dispatcher.demoraMs = PLAZO_MS + 1000;
+        Grabador grabador = new Grabador();
+
+        fetcher.obtener(new int[]{1}, grabador);
+        esperar(grabador::completado);
+
+        assertEquals(1, grabador.fallidos);
+    }
+
+    @Test
+    public void cerrar_losPedidosPosterioresSeIgnoranSinExcepcion() throws Exception {
+        fetcher.cerrar();
+        Grabador grabador = new Grabador();
+
+        fetcher.precargar(new int[]{1, 2});
+        fetcher.obtener(new int[]{3}, grabador);
+        Thread.sleep(100);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(0, servidor.getRequestCount());
+        assertFalse(grabador.completado());
+        assertTrue(grabador.detalles.isEmpty());
+    }
+}
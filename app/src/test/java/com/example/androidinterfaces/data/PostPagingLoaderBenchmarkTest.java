@@ -0,0 +1,135 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import com.example.androidinterfaces.Benchmarks;
+import com.example.androidinterfaces.models.Post;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * Primer elemento y memoria del scroll infinito sobre posts guardados en SQLite
+ * Se compara con leer la colección completa de una vez, como antes del
+ * paginador. El tamaño se cambia con -Dbenchmarks.posts=N (por defecto 100.000).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PostPagingLoaderBenchmarkTest {
+
+    // Mismos valores que ApiViewModel
+    private static final int TAMANO_PAGINA = 20;
+    private static final int DISTANCIA_PREFETCH = 10;
+    private static final int MAX_PAGINAS_EN_MEMORIA = 10;
+    private static final int LOTE = 1000;
+
+    private DatabaseHelper dbHelper;
+    private PostRepository repository;
+    private int cantidad;
+
+    @Before
+    public void setUp() throws Exception {
+        Benchmarks.requerirActivos();
+        cantidad = Integer.getInteger("benchmarks.posts", 100_000);
+        dbHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+        long sincronizacion = System.currentTimeMillis();
+        for (int desde = 1; desde <= cantidad; desde += LOTE) {
+            List<Post> lote = new ArrayList<>(LOTE);
+            for (int id = desde; id < desde + LOTE && id <= cantidad; id++) {
+                lote.add(new Post(1 + id % 10, id, "titulo del post " + id,
+                    "cuerpo del post " + id + " con algo de texto para que ocupe como uno real"));
+            }
+            dbHelper.guardarLotePosts(lote, sincronizacion);
+        }
+        // Colección recién sincronizada: las páginas salen de SQLite sin red
+        dbHelper.finalizarSincronizacionPosts(sincronizacion, System.currentTimeMillis());
+        repository = new PostRepository(dbHelper, null, PostRepository.TTL_POR_DEFECTO_MS);
+    }
+
+    @After
+    public void tearDown() {
+        if (repository != null) {
+            repository.cerrar();
+            dbHelper.close();
+        }
+    }
+
+    private static void esperarCarga(PostPagingLoader loader) {
+        shadowOf(Looper.getMainLooper()).idle();
+        while (loader.isCargando()) {
+            Thread.yield();
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    public void primerElementoYMemoria() throws Exception {
+        PostPagingLoader loader = new PostPagingLoader(repository, TAMANO_PAGINA,
+            DISTANCIA_PREFETCH, MAX_PAGINAS_EN_MEMORIA);
+
+        long[] primerElemento = Benchmarks.medir(20, 200, () -> {
+            loader.reiniciar();
+            esperarCarga(loader);
+        });
+        Benchmarks.reportar("PostPagingLoader primer elemento (" + cantidad + " posts)",
+            primerElemento);
+
+        long[] completa = Benchmarks.medir(1, 5, () -> {
+            try {
+                dbHelper.obtenerPaginaPosts(0, cantidad);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Benchmarks.reportar("Colección completa desde SQLite (" + cantidad + " posts)", completa);
+
+        // Scroll hasta el final: la ventana no pasa de MAX_PAGINAS_EN_MEMORIA
+        long antes = heapUsado();
+        loader.reiniciar();
+        esperarCarga(loader);
+        int maximoEnMemoria = 0;
+        long inicio = System.nanoTime();
+        int ultimoId = 0;
+        while (ultimoId < cantidad) {
+            List<Post> posts = loader.getPosts();
+            loader.onScroll(posts.size() - 1 - DISTANCIA_PREFETCH, posts.size() - 1);
+            esperarCarga(loader);
+            maximoEnMemoria = Math.max(maximoEnMemoria, loader.getPosts().size());
+            ultimoId = loader.getPosts().get(loader.getPosts().size() - 1).getId();
+        }
+        long duracionScroll = System.nanoTime() - inicio;
+        long conVentana = heapUsado() - antes;
+
+        List<Post> todos = dbHelper.obtenerPaginaPosts(0, cantidad);
+        long conColeccion = heapUsado() - antes;
+
+        Benchmarks.reportar("PostPagingLoader scroll hasta el final",
+            String.format(Locale.ROOT, "%.0fms, máximo %d posts en memoria",
+                duracionScroll / 1e6, maximoEnMemoria));
+        Benchmarks.reportar("Heap retenido",
+            String.format(Locale.ROOT, "ventana %d KB, colección completa %d KB",
+                Math.max(0, conVentana) / 1024, Math.max(0, conColeccion) / 1024));
+
+        assertEquals(cantidad, todos.size());
+        assertTrue(maximoEnMemoria <= TAMANO_PAGINA * MAX_PAGINAS_EN_MEMORIA);
+    }
+}
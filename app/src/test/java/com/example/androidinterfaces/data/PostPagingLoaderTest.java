@@ -0,0 +1,307 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.androidinterfaces.models.Post;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PostPagingLoaderTest {
+
+    private static final int TAMANO_PAGINA = 10;
+
+    /**
+     * Repositorio que guarda las peticiones de página y las responde a mano
+     */
+    private static class RepositorioFalso extends PostRepository {
+        final ArrayDeque<Integer> paginasPedidas = new ArrayDeque<>();
+        final ArrayDeque<PaginaCallback> callbacks = new ArrayDeque<>();
+        // Callbacks ya respondidos, para revalidar sus páginas
+        final Map<Integer, PaginaCallback> respondidos = new HashMap<>();
+
+        RepositorioFalso() {
+            super(RuntimeEnvironment.getApplication(), null, TTL_POR_DEFECTO_MS);
+        }
+
+        @Override
+        public void cargarPagina(int pagina, int limite, PaginaCallback callback) {
+            paginasPedidas.addLast(pagina);
+            callbacks.addLast(callback);
+        }
+
+        /**
+         * Responde la petición más antigua con "cantidad" posts de esa página
+         */
+        void responder(int cantidad) {
+            int pagina = paginasPedidas.removeFirst();
+            PaginaCallback callback = callbacks.removeFirst();
+            respondidos.put(pagina, callback);
+            callback.onPagina(pagina(pagina, cantidad), false);
+        }
+
+        /**
+         * Entrega la versión revalidada de una página ya respondida
+         */
+        void revalidar(int pagina, List<Post> posts) {
+            respondidos.get(pagina).onRevalidada(posts);
+        }
+    }
+
+    /**
+     * Anota los eventos como texto: "+pos,n", "-pos,n", "~pos,n" y "=n"
+     * (revalidación, con el tamaño de la ventana anterior)
+     */
+    private static class ListenerGrabador implements PostPagingLoader.Listener {
+        final List<String> eventos = new ArrayList<>();
+
+        @Override
+        public void onInsertados(int posicion, int cantidad) {
+            eventos.add("+" + posicion + "," + cantidad);
+        }
+
+        @Override
+        public void onEliminados(int posicion, int cantidad) {
+            eventos.add("-" + posicion + "," + cantidad);
+        }
+
+        @Override
+        public void onCambiados(int posicion, int cantidad) {
+            eventos.add("~" + posicion + "," + cantidad);
+        }
+
+        @Override
+        public void onRevalidados(List<Post> anteriores) {
+            eventos.add("=" + anteriores.size());
+        }
+
+        @Override
+        public void onCargando(boolean cargando) {}
+
+        @Override
+        public void onError(Throwable t) {}
+    }
+
+    private RepositorioFalso repositorio;
+    private ListenerGrabador listener;
+    private PostPagingLoader loader;
+
+    @Before
+    public void setUp() {
+        repositorio = new RepositorioFalso();
+        listener = new ListenerGrabador();
+        loader = new PostPagingLoader(repositorio, TAMANO_PAGINA, 3, 2);
+        loader.setListener(listener);
+    }
+
+    private static Post post(int id) {
+        return new Post(1, id, "titulo " + id, "cuerpo " + id);
+    }
+
+    private static List<Post> pagina(int pagina, int cantidad) {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            posts.add(post((pagina - 1) * TAMANO_PAGINA + i + 1));
+        }
+        return posts;
+    }
+
+    private int primerId() {
+        return loader.getPosts().get(0).getId();
+    }
+
+    private int ultimoId() {
+        return loader.getPosts().get(loader.getPosts().size() - 1).getId();
+    }
+
+    /**
+     * Carga las páginas 1 a 3 con scroll hacia abajo; queda la ventana [2, 3]
+     */
+    private void bajarHastaLaPaginaTres() {
+        loader.reiniciar();
+        repositorio.responder(TAMANO_PAGINA);
+        loader.onScroll(0, 7);
+        repositorio.responder(TAMANO_PAGINA);
+        loader.onScroll(10, 17);
+        repositorio.responder(TAMANO_PAGINA);
+    }
+
+    @Test
+    public void onScroll_precargaLaSiguienteCercaDelFinal() {
+        loader.reiniciar();
+        repositorio.responder(TAMANO_PAGINA);
+
+        loader.onScroll(0, 5);
+        assertTrue(repositorio.paginasPedidas.isEmpty());
+
+        loader.onScroll(0, 6);
+        assertEquals(Integer.valueOf(2), repositorio.paginasPedidas.peekFirst());
+    }
+
+    @Test
+    public void onScroll_descartaLaPrimeraPaginaAlSuperarElMaximo() {
+        bajarHastaLaPaginaTres();
+
+        assertEquals(2, loader.getPaginasEnMemoria());
+        assertEquals(11, primerId());
+        assertEquals(30, ultimoId());
+        assertEquals(Arrays.asList("+0,10", "+10,10", "+20,10", "-0,10"), listener.eventos);
+    }
+
+    @Test
+    public void onScroll_alSubirRecuperaLaAnteriorYDescartaLaUltima() {
+        bajarHastaLaPaginaTres();
+        listener.eventos.clear();
+
+        loader.onScroll(2, 8);
+        assertEquals(Integer.valueOf(1), repositorio.paginasPedidas.peekFirst());
+        repositorio.responder(TAMANO_PAGINA);
+
+        assertEquals(1, primerId());
+        assertEquals(20, ultimoId());
+        assertEquals(Arrays.asList("+0,10", "-20,10"), listener.eventos);
+
+        // La página 3 se volverá a pedir al bajar
+        loader.onScroll(10, 17);
+        assertEquals(Integer.valueOf(3), repositorio.paginasPedidas.peekFirst());
+    }
+
+    @Test
+    public void onScroll_paginaIncompletaMarcaElFinal() {
+        loader.reiniciar();
+        repositorio.responder(4);
+
+        loader.onScroll(0, 3);
+
+        assertTrue(repositorio.paginasPedidas.isEmpty());
+        assertEquals(4, loader.getPosts().size());
+    }
+
+    @Test
+    public void vaciar_descartaLasRespuestasEnCurso() {
+        loader.reiniciar();
+        loader.vaciar();
+        listener.eventos.clear();
+
+        repositorio.responder(TAMANO_PAGINA);
+
+        assertTrue(loader.estaVacio());
+        assertTrue(listener.eventos.isEmpty());
+        assertFalse(loader.isCargando());
+    }
+
+    @Test
+    public void agregarPagina_ignoraPaginasNoContiguas() {
+        loader.agregarPagina(1, pagina(1, TAMANO_PAGINA));
+        loader.agregarPagina(3, pagina(3, TAMANO_PAGINA));
+        loader.agregarPagina(2, pagina(2, TAMANO_PAGINA));
+        // Ventana llena: la página 3 se queda en SQLite
+        loader.agregarPagina(3, pagina(3, TAMANO_PAGINA));
+
+        assertEquals(20, loader.getPosts().size());
+        assertEquals(20, ultimoId());
+    }
+
+    @Test
+    public void fusionar_reemplazaVisiblesYAgrupaLosRangos() {
+        loader.reiniciar();
+        repositorio.responder(TAMANO_PAGINA);
+        listener.eventos.clear();
+
+        Post editado = new Post(1, 4, "editado", "cuerpo");
+        loader.fusionar(Arrays.asList(post(8), editado, post(3), post(5), post(99)));
+
+        assertSame(editado, loader.getPosts().get(3));
+        // Posiciones 2, 3, 4 y 7; el post 99 no se agrega sin haber llegado al final
+        assertEquals(Arrays.asList("~2,3", "~7,1"), listener.eventos);
+        assertEquals(10, loader.getPosts().size());
+    }
+
+    @Test
+    public void fusionar_completaLaUltimaPaginaYRecortaLaVentana() {
+        loader.reiniciar();
+        repositorio.responder(TAMANO_PAGINA);
+        loader.onScroll(0, 7);
+        repositorio.responder(6);
+        listener.eventos.clear();
+
+        List<Post> nuevos = new ArrayList<>();
+        for (int id = 17; id <= 24; id++) {
+            nuevos.add(post(id));
+        }
+        loader.fusionar(nuevos);
+
+        // 4 completan la página 2 y 4 abren la 3: sale la página 1
+        assertEquals(Arrays.asList("+16,8", "-0,10"), listener.eventos);
+        assertEquals(2, loader.getPaginasEnMemoria());
+        assertEquals(11, primerId());
+        assertEquals(24, ultimoId());
+    }
+
+    @Test
+    public void revalidar_reemplazaLaPaginaVisibleYEntregaLaVentanaAnterior() {
+        bajarHastaLaPaginaTres();
+        List<Post> antes = new ArrayList<>(loader.getPosts());
+        listener.eventos.clear();
+
+        List<Post> revalidada = pagina(3, TAMANO_PAGINA);
+        revalidada.set(2, new Post(1, 23, "editado", "cuerpo"));
+        repositorio.revalidar(3, revalidada);
+
+        assertEquals(Arrays.asList("=20"), listener.eventos);
+        assertEquals("editado", loader.getPosts().get(12).getTitle());
+        assertEquals(antes.subList(0, 10), loader.getPosts().subList(0, 10));
+        assertEquals(20, loader.getPosts().size());
+    }
+
+    @Test
+    public void revalidar_ignoraPaginasFueraDeLaVentana() {
+        bajarHastaLaPaginaTres();
+        listener.eventos.clear();
+
+        // La página 1 ya salió de la ventana: se leerá de SQLite al volver
+        repositorio.revalidar(1, pagina(1, 3));
+
+        assertTrue(listener.eventos.isEmpty());
+        assertEquals(11, primerId());
+    }
+
+    @Test
+    public void revalidar_ultimaPaginaMasCortaMarcaElFinal() {
+        loader.reiniciar();
+        repositorio.responder(TAMANO_PAGINA);
+
+        repositorio.revalidar(1, pagina(1, 4));
+        loader.onScroll(0, 3);
+
+        assertEquals(4, loader.getPosts().size());
+        assertTrue(repositorio.paginasPedidas.isEmpty());
+    }
+
+    @Test
+    public void revalidar_seDescartaTrasVaciar() {
+        loader.reiniciar();
+        repositorio.responder(TAMANO_PAGINA);
+        loader.vaciar();
+        listener.eventos.clear();
+
+        repositorio.revalidar(1, pagina(1, 4));
+
+        assertTrue(listener.eventos.isEmpty());
+        assertTrue(loader.estaVacio());
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.api.GsonProvider;
+import com.example.androidinterfaces.models.Post;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PostRepositoryTest {
+
+    private static final String PAGINA_1 = "[{\"userId\":1,\"id\":1,\"title\":\"a\",\"body\":\"x\"},"
+        + "{\"userId\":1,\"id\":2,\"title\":\"b\",\"body\":\"y\"}]";
+    private static final String PAGINA_1_EDITADA = "[{\"userId\":1,\"id\":1,\"title\":\"a\",\"body\":\"x\"},"
+        + "{\"userId\":1,\"id\":2,\"title\":\"b editado\",\"body\":\"y\"}]";
+    private static final String CLAVE_PAGINA_1 = DatabaseHelper.META_POSTS_PREFIJO + "pagina_1_2";
+
+    /**
+     * Anota lo que recibe el callback, en el hilo principal
+     */
+    private static class Grabador implements PostRepository.PaginaCallback {
+        final List<List<Post>> paginas = new ArrayList<>();
+        final List<Boolean> desdeCache = new ArrayList<>();
+        final List<List<Post>> revalidadas = new ArrayList<>();
+        Throwable error;
+
+        @Override
+        public void onPagina(List<Post> posts, boolean cache) {
+            paginas.add(posts);
+            desdeCache.add(cache);
+        }
+
+        @Override
+        public void onRevalidada(List<Post> posts) {
+            revalidadas.add(posts);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+    }
+
+    /**
+     * Servidor cuyos posts cambian durante el test; responde la colección
+     * completa (/posts) y los posts posteriores a una marca (id_gt)
+     */
+    private static class ServidorEvolutivo extends Dispatcher {
+        private final TreeMap<Integer, String> posts = new TreeMap<>();
+        final List<Long> bytesPorRespuesta = new ArrayList<>();
+
+        synchronized void publicar(int desde, int hasta) {
+            for (int id = desde; id <= hasta; id++) {
+                posts.put(id, "{\"userId\":1,\"id\":" + id + ",\"title\":\"t" + id
+                    + "\",\"body\":\"cuerpo del post " + id + "\"}");
+            }
+        }
+
+        @Override
+        public synchronized MockResponse dispatch(RecordedRequest request) {
+            String marca = request.getRequestUrl().queryParameter("id_gt");
+            Map<Integer, String> visibles = marca != null
+                ? posts.tailMap(Integer.parseInt(marca), false) : posts;
+            String cuerpo = "[" + String.join(",", visibles.values()) + "]";
+            bytesPorRespuesta.add((long) cuerpo.length());
+            return new MockResponse().setBody(cuerpo);
+        }
+    }
+
+    /**
+     * Anota el resultado de una sincronización incremental
+     */
+    private static class GrabadorDelta implements PostRepository.DeltaCallback {
+        List<Post> cambios;
+        int recibidos = -1;
+        boolean sinMarca = false;
+        Throwable error;
+
+        @Override
+        public void onCambios(List<Post> cambios, int recibidos, long duracionFusionMs) {
+            this.cambios = cambios;
+            this.recibidos = recibidos;
+        }
+
+        @Override
+        public void onSinMarca() {
+            sinMarca = true;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        boolean terminado() {
+            return cambios != null || sinMarca || error != null;
+        }
+    }
+
+    private MockWebServer servidor;
+    private ApiService apiService;
+    private DatabaseHelper dbHelper;
+    private final List<PostRepository> repositorios = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        servidor = new MockWebServer();
+        servidor.start();
+        apiService = new Retrofit.Builder()
+            .baseUrl(servidor.url("/"))
+            .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+            .build()
+            .create(ApiService.class);
+        dbHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (PostRepository repositorio : repositorios) {
+            repositorio.cerrar();
+        }
+        dbHelper.close();
+        servidor.shutdown();
+    }
+
+    private PostRepository repositorio(long ttlMs) {
+        PostRepository repositorio = new PostRepository(dbHelper, apiService, ttlMs);
+        repositorios.add(repositorio);
+        return repositorio;
+    }
+
+    /**
+     * Corre el hilo principal hasta que se cumpla la condición
+     */
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue("Tiempo de espera agotado", System.currentTimeMillis() < limite);
+            Thread.sleep(5);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    /**
+     * Espera a que termine la revalidación: guarda la página después de
+     * entregarla, así al cambiar la marca ya no queda nada por entregar
+     */
+    private void esperarRevalidacion(long marcaAnterior) throws InterruptedException {
+        esperar(() -> {
+            try {
+                return dbHelper.obtenerMetadato(CLAVE_PAGINA_1, 0) != marcaAnterior;
+            } catch (Exception e) {
+                return false;
+            }
+        });
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    /**
+     * Arranque en frío: descarga y guarda la página 1
+     */
+    private void precargar() throws Exception {
+        servidor.enqueue(new MockResponse().setBody(PAGINA_1));
+        Grabador grabador = new Grabador();
+        repositorio(PostRepository.TTL_POR_DEFECTO_MS).cargarPagina(1, 2, grabador);
+        esperar(() -> grabador.paginas.size() == 1);
+        esperar(() -> {
+            try {
+                return dbHelper.obtenerMetadato(CLAVE_PAGINA_1, 0) > 0;
+            } catch (Exception e) {
+                return false;
+            }
+        });
+    }
+
+    @Test
+    public void arranqueEnFrio_descargaLaPaginaYLaGuarda() throws Exception {
+        servidor.enqueue(new MockResponse().setBody(PAGINA_1));
+        Grabador grabador = new Grabador();
+
+        repositorio(PostRepository.TTL_POR_DEFECTO_MS).cargarPagina(1, 2, grabador);
+        esperar(() -> grabador.paginas.size() == 1);
+
+        assertFalse(grabador.desdeCache.get(0));
+        assertEquals(2, grabador.paginas.get(0).size());
+        assertEquals("/posts?_page=1&_limit=2", servidor.takeRequest().getPath());
+        esperar(() -> {
+            try {
+                return dbHelper.obtenerPaginaPosts(0, 2).size() == 2;
+            } catch (Exception e) {
+                return false;
+            }
+        });
+    }
+
+    @Test
+    public void arranqueEnCaliente_dentroDelTtlNoVaALaRed() throws Exception {
+        precargar();
+        Grabador grabador = new Grabador();
+
+        repositorio(PostRepository.TTL_POR_DEFECTO_MS).cargarPagina(1, 2, grabador);
+        esperar(() -> grabador.paginas.size() == 1);
+
+        assertTrue(grabador.desdeCache.get(0));
+        assertEquals("b", grabador.paginas.get(0).get(1).getTitle());
+        assertEquals(1, servidor.getRequestCount());
+        assertTrue(grabador.revalidadas.isEmpty());
+    }
+
+    @Test
+    public void arranqueEnCaliente_vencidaSeEntregaYSeRevalidaSiCambio() throws Exception {
+        precargar();
+        long marca = dbHelper.obtenerMetadato(CLAVE_PAGINA_1, 0);
+        servidor.enqueue(new MockResponse().setBody(PAGINA_1_EDITADA)
+            .setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        Grabador grabador = new Grabador();
+
+        repositorio(0).cargarPagina(1, 2, grabador);
+        // La página de la caché llega sin esperar a la red
+        esperar(() -> grabador.paginas.size() == 1);
+        assertTrue(grabador.desdeCache.get(0));
+        assertTrue(grabador.revalidadas.isEmpty());
+
+        esperarRevalidacion(marca);
+
+        assertEquals(2, servidor.getRequestCount());
+        assertEquals(1, grabador.paginas.size());
+        assertEquals(1, grabador.revalidadas.size());
+        assertEquals("b editado", grabador.revalidadas.get(0).get(1).getTitle());
+        assertEquals("b editado", dbHelper.obtenerPaginaPosts(0, 2).get(1).getTitle());
+    }
+
+    @Test
+    public void arranqueEnCaliente_vencidaSinCambiosNoSeEntregaOtraVez() throws Exception {
+        precargar();
+        long marca = dbHelper.obtenerMetadato(CLAVE_PAGINA_1, 0);
+        Thread.sleep(2);
+        servidor.enqueue(new MockResponse().setBody(PAGINA_1));
+        Grabador grabador = new Grabador();
+
+        repositorio(0).cargarPagina(1, 2, grabador);
+        esperarRevalidacion(marca);
+
+        assertEquals(2, servidor.getRequestCount());
+        assertEquals(1, grabador.paginas.size());
+        assertTrue(grabador.revalidadas.isEmpty());
+    }
+
+    @Test
+    public void sinRed_conCacheVencidaSeQuedaConLaCache() throws Exception {
+        precargar();
+        servidor.shutdown();
+        Grabador grabador = new Grabador();
+
+        repositorio(0).cargarPagina(1, 2, grabador);
+        esperar(() -> grabador.paginas.size() == 1);
+        Thread.sleep(200);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(grabador.desdeCache.get(0));
+        assertTrue(grabador.revalidadas.isEmpty());
+        assertNull(grabador.error);
+    }
+
+    @Test
+    public void sinRed_sinCacheEntregaElError() throws Exception {
+        servidor.shutdown();
+        Grabador grabador = new Grabador();
+
+        repositorio(PostRepository.TTL_POR_DEFECTO_MS).cargarPagina(1, 2, grabador);
+        esperar(() -> grabador.error != null);
+
+        assertNotNull(grabador.error);
+        assertTrue(grabador.paginas.isEmpty());
+    }
+
+    /**
+     * Sincronización completa contra el servidor, hasta onCompletado
+     */
+    private int sincronizarTodo(PostRepository repositorio) throws Exception {
+        int[] total = {-1};
+        repositorio.sincronizar(20, new PostRepository.SyncCallback() {
+            @Override
+            public void onLote(int numeroLote, List<Post> lote) {}
+
+            @Override
+            public void onCompletado(int cantidad) {
+                total[0] = cantidad;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+        esperar(() -> total[0] >= 0);
+        return total[0];
+    }
+
+    private GrabadorDelta sincronizarCambios(PostRepository repositorio) throws Exception {
+        GrabadorDelta grabador = new GrabadorDelta();
+        repositorio.sincronizarCambios(grabador);
+        esperar(grabador::terminado);
+        return grabador;
+    }
+
+    @Test
+    public void sincronizarCambios_sinSincronizacionCompletaPideHacerla() throws Exception {
+        GrabadorDelta grabador = sincronizarCambios(repositorio(PostRepository.TTL_POR_DEFECTO_MS));
+
+        assertTrue(grabador.sinMarca);
+        assertEquals(0, servidor.getRequestCount());
+    }
+
+    @Test
+    public void sincronizarCambios_soloPideYFusionaLosPostsNuevos() throws Exception {
+        ServidorEvolutivo evolutivo = new ServidorEvolutivo();
+        servidor.setDispatcher(evolutivo);
+        evolutivo.publicar(1, 500);
+        PostRepository repositorio = repositorio(PostRepository.TTL_POR_DEFECTO_MS);
+
+        assertEquals(500, sincronizarTodo(repositorio));
+        assertEquals("/posts", servidor.takeRequest().getPath());
+
+        // El servidor publica 3 posts más
+        evolutivo.publicar(501, 503);
+        GrabadorDelta delta = sincronizarCambios(repositorio);
+
+        assertEquals("500", servidor.takeRequest().getRequestUrl().queryParameter("id_gt"));
+        assertEquals(3, delta.recibidos);
+        assertEquals(3, delta.cambios.size());
+        assertEquals(501, delta.cambios.get(0).getId());
+        assertEquals(503, dbHelper.obtenerPaginaPosts(0, 1000).size());
+        // La respuesta incremental trae solo el delta, no la colección
+        assertTrue(evolutivo.bytesPorRespuesta.get(1) * 100 < evolutivo.bytesPorRespuesta.get(0));
+
+        // Sin novedades: se pide desde la nueva marca y no hay cambios
+        GrabadorDelta vacio = sincronizarCambios(repositorio);
+
+        assertEquals("503", servidor.takeRequest().getRequestUrl().queryParameter("id_gt"));
+        assertEquals(0, vacio.recibidos);
+        assertTrue(vacio.cambios.isEmpty());
+        assertEquals(3, servidor.getRequestCount());
+    }
+
+    @Test
+    public void mismosPosts_comparaIdYContenidoEnOrden() {
+        Post a = new Post(1, 1, "a", "x");
+        Post b = new Post(1, 2, "b", "y");
+        List<Post> ab = Arrays.asList(a, b);
+
+        assertTrue(PostRepository.mismosPosts(ab, Arrays.asList(
+            new Post(1, 1, "a", "x"), new Post(1, 2, "b", "y"))));
+        assertFalse(PostRepository.mismosPosts(ab, Arrays.asList(b, a)));
+        assertFalse(PostRepository.mismosPosts(ab, Arrays.asList(
+            a, new Post(2, 2, "b", "y"))));
+        assertFalse(PostRepository.mismosPosts(ab, Arrays.asList(a)));
+    }
+}
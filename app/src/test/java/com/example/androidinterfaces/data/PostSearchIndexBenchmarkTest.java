@@ -0,0 +1,80 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertTrue;
+
+import com.example.androidinterfaces.Benchmarks;
+import com.example.androidinterfaces.models.Post;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Construcción por páginas y consultas AND / OR / prefijo sobre posts sintéticos
+ * El tamaño se cambia con -Dbenchmarks.posts=N (por defecto 100.000).
+ */
+public class PostSearchIndexBenchmarkTest {
+
+    private static final int TAMANO_PAGINA = 20;
+
+    @Before
+    public void setUp() {
+        Benchmarks.requerirActivos();
+    }
+
+    private static String frase(Random random, int palabras) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < palabras; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(FuzzySearchIndexBenchmarkTest.palabra(random));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void construirYBuscar() {
+        int cantidad = Integer.getInteger("benchmarks.posts", 100_000);
+        Random random = new Random(42);
+        List<Post> posts = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            posts.add(new Post(1 + i % 10, i, frase(random, 5), frase(random, 30)));
+        }
+
+        // Igual que ApiActivity: una página por cada inserción del paginador
+        PostSearchIndex indice = new PostSearchIndex();
+        long inicio = System.nanoTime();
+        for (int desde = 0; desde < cantidad; desde += TAMANO_PAGINA) {
+            indice.agregar(posts.subList(desde, Math.min(cantidad, desde + TAMANO_PAGINA)));
+        }
+        Benchmarks.reportar("PostSearchIndex.agregar " + cantidad + " posts",
+            String.format(Locale.ROOT, "%.0fms, %d términos",
+                (System.nanoTime() - inicio) / 1e6, indice.getTotalTerminos()));
+
+        String[] and = new String[200];
+        String[] or = new String[200];
+        String[] prefijo = new String[200];
+        for (int i = 0; i < and.length; i++) {
+            String[] palabras = posts.get(random.nextInt(cantidad)).getBody().split(" ");
+            and[i] = palabras[0] + " " + palabras[1] + " " + palabras[2] + " ";
+            or[i] = palabras[0] + " or " + palabras[1] + " ";
+            prefijo[i] = palabras[3].substring(0, 3);
+        }
+        medirConsultas("AND de 3 palabras", indice, and, cantidad);
+        medirConsultas("OR de 2 palabras", indice, or, cantidad);
+        medirConsultas("prefijo de 3 letras", indice, prefijo, cantidad);
+
+        assertTrue(!indice.buscar(and[0]).isEmpty());
+    }
+
+    private static void medirConsultas(String nombre, PostSearchIndex indice,
+                                       String[] consultas, int cantidad) {
+        int[] siguiente = {0};
+        long[] nanos = Benchmarks.medir(50, consultas.length, () ->
+            indice.buscar(consultas[siguiente[0]++ % consultas.length]));
+        Benchmarks.reportar("PostSearchIndex.buscar (" + nombre + ") " + cantidad + " posts", nanos);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.androidinterfaces.models.Post;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PostSearchIndexTest {
+
+    private PostSearchIndex indice;
+
+    @Before
+    public void setUp() {
+        indice = new PostSearchIndex();
+        indice.agregar(Arrays.asList(
+            new Post(1, 1, "Receta de paella", "arroz con mariscos y azafrán"),
+            new Post(1, 2, "Paella valenciana", "arroz, pollo y conejo"),
+            new Post(2, 3, "Tortilla española", "huevos, patata y cebolla"),
+            new Post(2, 4, "Arroz al horno", "arroz, garbanzos y morcilla")));
+    }
+
+    private List<Integer> ids(String consulta) {
+        List<Integer> ids = new ArrayList<>();
+        for (Post post : indice.buscar(consulta)) {
+            ids.add(post.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void buscar_variasPalabrasSeIntersecan() {
+        assertEquals(Arrays.asList(1, 2), ids("paella arroz "));
+        assertEquals(Arrays.asList(2), ids("arroz paella pollo "));
+        assertEquals(Arrays.asList(), ids("paella garbanzos "));
+    }
+
+    @Test
+    public void buscar_laInterseccionNoModificaLosPostings() {
+        ids("paella arroz pollo ");
+
+        // "arroz" sigue teniendo sus tres documentos tras recortar el resultado
+        assertEquals(Arrays.asList(1, 2, 4), ids("arroz "));
+        assertEquals(Arrays.asList(1, 2), ids("paella "));
+    }
+
+    @Test
+    public void buscar_gruposConOrSeUnenSinDuplicados() {
+        assertEquals(Arrays.asList(1, 2, 3), ids("paella OR tortilla "));
+        assertEquals(Arrays.asList(1, 2, 4), ids("arroz | paella "));
+    }
+
+    @Test
+    public void buscar_prefijosYUltimaPalabraMientrasSeEscribe() {
+        assertEquals(Arrays.asList(3), ids("tort"));
+        assertEquals(Arrays.asList(1, 2, 4), ids("arr* "));
+        // Con espacio al final la palabra ya no es prefijo
+        assertEquals(Arrays.asList(), ids("tort "));
+    }
+
+    @Test
+    public void buscar_sinAcentosNiMayusculas() {
+        assertEquals(Arrays.asList(1), ids("AZAFRAN "));
+        assertEquals(Arrays.asList(3), ids("espanola "));
+    }
+
+    @Test
+    public void agregar_versionNuevaReemplazaALaAnterior() {
+        indice.agregar(new Post(1, 1, "Receta de fideuá", "fideos con mariscos"));
+
+        assertEquals(Arrays.asList(2), ids("paella "));
+        assertEquals(Arrays.asList(1), ids("fideua "));
+        assertEquals(4, indice.getTotalPosts());
+    }
+
+    @Test
+    public void buscar_consultaSinPalabrasDevuelveVacio() {
+        assertTrue(indice.buscar("   ").isEmpty());
+        assertTrue(indice.buscar("or and").isEmpty());
+    }
+
+    @Test
+    public void limpiar_vaciaElIndice() {
+        indice.limpiar();
+
+        assertTrue(indice.buscar("arroz").isEmpty());
+        assertEquals(0, indice.getTotalTerminos());
+    }
+}
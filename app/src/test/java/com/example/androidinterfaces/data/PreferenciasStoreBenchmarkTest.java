@@ -0,0 +1,106 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import com.example.androidinterfaces.Benchmarks;
+import com.example.androidinterfaces.models.Preferencias;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * guardar() de PreferenciasStore frente al SharedPreferences.commit() anterior
+ * Se mide lo que bloquea al hilo que guarda; la escritura agrupada del
+ * almacén se reporta aparte. Con Robolectric el disco es el de la JVM, así
+ * las cifras solo sirven para comparar los dos caminos entre sí.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PreferenciasStoreBenchmarkTest {
+
+    private static final int GUARDADOS = 500;
+    private static final int CALENTAMIENTO = 50;
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        Benchmarks.requerirActivos();
+        context = RuntimeEnvironment.getApplication();
+    }
+
+    private static Preferencias preferencias(int i) {
+        return new Preferencias(i % 2 == 0, true, i % 3 == 0, i % 101,
+            Preferencias.IDIOMA_ESPANOL, "usuario" + i);
+    }
+
+    @Test
+    public void guardarFrenteACommit() throws Exception {
+        SharedPreferences prefs = context.getSharedPreferences("BenchmarkCommit", Context.MODE_PRIVATE);
+        int[] siguiente = {0};
+        long[] commit = Benchmarks.medir(CALENTAMIENTO, GUARDADOS, () -> {
+            Preferencias p = preferencias(siguiente[0]++);
+            prefs.edit()
+                .putBoolean("tema_oscuro", p.isTemaOscuro())
+                .putBoolean("notificaciones", p.isNotificaciones())
+                .putBoolean("sonidos", p.isSonidos())
+                .putInt("volumen", p.getVolumen())
+                .putString("idioma", p.getIdioma())
+                .putString("nombre_usuario", p.getNombreUsuario())
+                .commit();
+        });
+        Benchmarks.reportar("SharedPreferences.commit()", commit);
+
+        PreferenciasStore store = PreferenciasStore.getInstance(context);
+        esperar(() -> store.get() != null);
+        long escriturasAntes = store.getEscrituras();
+        long inicio = System.nanoTime();
+        long[] guardar = Benchmarks.medir(CALENTAMIENTO, GUARDADOS, () ->
+            store.guardar(preferencias(siguiente[0]++)));
+        Benchmarks.reportar("PreferenciasStore.guardar()", guardar);
+
+        // Termina cuando el archivo tiene el último valor guardado
+        Preferencias ultima = preferencias(siguiente[0] - 1);
+        File archivo = new File(context.getFilesDir(), "preferencias.properties");
+        esperar(() -> contiene(archivo, "nombre_usuario=" + ultima.getNombreUsuario()));
+        long escrituras = store.getEscrituras() - escriturasAntes;
+        Benchmarks.reportar("PreferenciasStore escrituras a disco",
+            String.format(Locale.ROOT, "%d para %d guardados, %.0fms hasta vaciarse",
+                escrituras, CALENTAMIENTO + GUARDADOS, (System.nanoTime() - inicio) / 1e6));
+
+        assertEquals(ultima, store.get());
+        assertTrue(escrituras <= CALENTAMIENTO + GUARDADOS);
+    }
+
+    private static boolean contiene(File archivo, String linea) {
+        try {
+            return Files.readAllLines(archivo.toPath(), StandardCharsets.ISO_8859_1).contains(linea);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private interface Condicion {
+        boolean cumplida();
+    }
+
+    private static void esperar(Condicion condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condicion.cumplida() && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertTrue(condicion.cumplida());
+    }
+}
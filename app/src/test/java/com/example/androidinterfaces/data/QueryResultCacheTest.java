@@ -0,0 +1,111 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.androidinterfaces.models.Usuario;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class QueryResultCacheTest {
+
+    private DatabaseHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        dbHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    private static long version() {
+        return DatabaseHelper.getVersionUsuarios();
+    }
+
+    private void insertarUsuario() throws Exception {
+        dbHelper.insertarUsuario(
+            new Usuario(0, "Ana", "ana@x.com", "600000000", 30, "Madrid", "Otro", false));
+    }
+
+    @Test
+    public void obtener_devuelveLoGuardadoYCuentaAciertosYFallos() {
+        QueryResultCache cache = new QueryResultCache(4);
+
+        assertNull(cache.obtener("q:ana"));
+        cache.guardar("q:ana", new int[]{1, 2}, version());
+
+        assertArrayEquals(new int[]{1, 2}, cache.obtener("q:ana"));
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+        assertEquals(50.0, cache.getTasaAciertos(), 0.001);
+    }
+
+    @Test
+    public void guardar_desalojaLaMenosUsadaRecientemente() {
+        QueryResultCache cache = new QueryResultCache(2);
+        cache.guardar("a", new int[]{1}, version());
+        cache.guardar("b", new int[]{2}, version());
+
+        // Leer "a" la deja como la más reciente: sale "b"
+        cache.obtener("a");
+        cache.guardar("c", new int[]{3}, version());
+
+        assertEquals(2, cache.getTamano());
+        assertEquals(1, cache.getDesalojos());
+        assertNull(cache.obtener("b"));
+        assertArrayEquals(new int[]{1}, cache.obtener("a"));
+        assertArrayEquals(new int[]{3}, cache.obtener("c"));
+    }
+
+    @Test
+    public void guardar_descartaResultadosDeUnaVersionAnterior() throws Exception {
+        QueryResultCache cache = new QueryResultCache(4);
+        long versionCalculo = version();
+
+        // La tabla cambia mientras se calculaba el resultado
+        insertarUsuario();
+        cache.guardar("q:ana", new int[]{1}, versionCalculo);
+
+        assertNull(cache.obtener("q:ana"));
+        assertEquals(0, cache.getTamano());
+    }
+
+    @Test
+    public void obtener_seInvalidaTrasEscribirEnLaTablaUsuarios() throws Exception {
+        QueryResultCache cache = new QueryResultCache(4);
+        cache.guardar("q:ana", new int[]{1}, version());
+        cache.guardar("c:madrid", new int[]{1, 2}, version());
+
+        insertarUsuario();
+
+        assertNull(cache.obtener("q:ana"));
+        assertEquals(0, cache.getTamano());
+        assertEquals(1, cache.getInvalidaciones());
+    }
+
+    @Test
+    public void obtener_sinEntradasNoCuentaInvalidacion() throws Exception {
+        QueryResultCache cache = new QueryResultCache(4);
+
+        insertarUsuario();
+        cache.obtener("q:ana");
+
+        assertEquals(0, cache.getInvalidaciones());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rechazaCapacidadCero() {
+        new QueryResultCache(0);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Looper;
+import com.example.androidinterfaces.Benchmarks;
+import com.example.androidinterfaces.models.Usuario;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * Tiempo de cada frame en el hilo principal al recorrer el listado de usuarios
+ * - Antes: ListadoActivity leía la proyección completa en el hilo principal
+ *   y la pasaba al adapter del ListView
+ * - Ahora: UsuarioPagingLoader lee páginas por keyset en su hilo y el hilo
+ *   principal solo agrega cada página a la lista
+ * Cada frame avanza FILAS_POR_FRAME filas (un fling rápido); el bind de las
+ * filas visibles es el mismo en los dos casos y no se mide. El tamaño se
+ * cambia con -Dbenchmarks.usuarios=N (por defecto 100.000).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class UsuarioPagingLoaderBenchmarkTest {
+
+    // Mismos valores que ListadoViewModel
+    private static final int TAMANO_PAGINA = 50;
+    private static final int DISTANCIA_PREFETCH = 20;
+    private static final int FILAS_POR_FRAME = 8;
+    private static final long PRESUPUESTO_FRAME_NS = 16_666_667;
+
+    private DatabaseHelper dbHelper;
+    private int cantidad;
+
+    @Before
+    public void setUp() throws Exception {
+        Benchmarks.requerirActivos();
+        cantidad = Integer.getInteger("benchmarks.usuarios", 100_000);
+        dbHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.beginTransaction();
+        SQLiteStatement insert = db.compileStatement("INSERT INTO usuarios "
+            + "(nombre, email, telefono, edad, ciudad, genero, notificaciones) "
+            + "VALUES (?, ?, '555-0000', 30, ?, 'Otro', 0)");
+        try {
+            for (int i = 0; i < cantidad; i++) {
+                insert.bindString(1, "Usuario " + (i * 7919 % cantidad));
+                insert.bindString(2, "usuario" + i + "@correo.com");
+                insert.bindString(3, "Ciudad " + i % 50);
+                insert.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            insert.close();
+            db.endTransaction();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (dbHelper != null) {
+            dbHelper.close();
+        }
+    }
+
+    /**
+     * Corre lo pendiente en el hilo principal, como un frame
+     * @return duración del frame en nanosegundos
+     */
+    private static long frame(Runnable accion) {
+        long inicio = System.nanoTime();
+        accion.run();
+        shadowOf(Looper.getMainLooper()).idle();
+        return System.nanoTime() - inicio;
+    }
+
+    private static void reportarFrames(String nombre, long[] frames, int cantidad) {
+        long[] ordenados = Arrays.copyOf(frames, cantidad);
+        Arrays.sort(ordenados);
+        int lentos = 0;
+        for (long frame : ordenados) {
+            if (frame > PRESUPUESTO_FRAME_NS) {
+                lentos++;
+            }
+        }
+        Benchmarks.reportar(nombre, ordenados);
+        Benchmarks.reportar(nombre + " sobre 16ms",
+            String.format(Locale.ROOT, "%d de %d", lentos, cantidad));
+    }
+
+    @Test
+    public void framesAlRecorrerElListado() throws Exception {
+        // Antes: un único frame con la lectura completa antes del primer dibujo
+        long[] completa = Benchmarks.medir(1, 5, () -> {
+            try {
+                dbHelper.obtenerPaginaResumen(null, null, cantidad);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Benchmarks.reportar("Adapter anterior: frame con la lectura completa ("
+            + cantidad + " usuarios)", completa);
+
+        UsuarioPagingLoader loader =
+            new UsuarioPagingLoader(dbHelper, TAMANO_PAGINA, DISTANCIA_PREFETCH);
+        try {
+            // Calentamiento: un primer recorrido corto
+            loader.reiniciar();
+            for (int i = 0; i < 200; i++) {
+                int ultima = Math.min(i * FILAS_POR_FRAME, loader.getUsuarios().size() - 1);
+                frame(() -> loader.onScroll(ultima));
+            }
+
+            long[] frames = new long[cantidad];
+            int medidos = 0;
+            int sinCargar = 0;
+            long primeraFila = 0;
+            long inicio = System.nanoTime();
+            frames[medidos++] = frame(loader::reiniciar);
+            int ultimaVisible = FILAS_POR_FRAME - 1;
+            while (ultimaVisible < cantidad - 1) {
+                if (medidos == frames.length) {
+                    frames = Arrays.copyOf(frames, frames.length * 2);
+                }
+                List<Usuario> usuarios = loader.getUsuarios();
+                if (ultimaVisible >= usuarios.size()) {
+                    // La página todavía no llegó: el frame muestra la fila de carga
+                    sinCargar++;
+                    Thread.yield();
+                    frames[medidos++] = frame(() -> {});
+                    continue;
+                }
+                if (primeraFila == 0) {
+                    primeraFila = System.nanoTime() - inicio;
+                }
+                int ultima = ultimaVisible;
+                frames[medidos++] = frame(() -> loader.onScroll(ultima));
+                ultimaVisible = Math.min(cantidad - 1, ultimaVisible + FILAS_POR_FRAME);
+            }
+            while (loader.isCargando()) {
+                frame(() -> {});
+            }
+
+            reportarFrames("UsuarioPagingLoader: frames del scroll completo", frames, medidos);
+            Benchmarks.reportar("UsuarioPagingLoader primeras filas",
+                String.format(Locale.ROOT, "%.1fms, %d frames esperando una página",
+                    primeraFila / 1e6, sinCargar));
+            assertEquals(cantidad, loader.getUsuarios().size());
+        } finally {
+            loader.cerrar();
+        }
+    }
+}
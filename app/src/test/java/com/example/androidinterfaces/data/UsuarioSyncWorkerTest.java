@@ -0,0 +1,243 @@
+package com.example.androidinterfaces.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.androidinterfaces.api.ApiService;
+import com.example.androidinterfaces.api.GzipRequestInterceptor;
+import com.example.androidinterfaces.models.Usuario;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.GzipSource;
+import okio.Okio;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import retrofit2.Retrofit;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class UsuarioSyncWorkerTest {
+
+    /**
+     * Servidor que aplica cada usuario una sola vez por clave de idempotencia
+     * y sigue un guion por envío: puede cortar la conexión después de
+     * aplicar el lote (respuesta perdida) o fallar tras aplicarlo, de modo
+     * que el mismo lote llega repetido
+     */
+    private static class ServidorIdempotente extends Dispatcher {
+        final Map<String, Integer> aplicaciones = new HashMap<>();
+        final Map<String, Integer> entregas = new HashMap<>();
+        final AtomicInteger envios = new AtomicInteger();
+        private final Map<Integer, MockResponse> guion = new HashMap<>();
+
+        void alEnvio(int numero, MockResponse respuesta) {
+            guion.put(numero, respuesta);
+        }
+
+        @Override
+        public synchronized MockResponse dispatch(RecordedRequest request) {
+            String json;
+            try {
+                json = Okio.buffer(new GzipSource(request.getBody())).readUtf8();
+            } catch (IOException e) {
+                return new MockResponse().setResponseCode(400);
+            }
+            boolean todosConocidos = true;
+            for (JsonElement elemento : JsonParser.parseString(json).getAsJsonObject()
+                    .getAsJsonArray("usuarios")) {
+                String clave = elemento.getAsJsonObject().get("claveIdempotencia").getAsString();
+                entregas.merge(clave, 1, Integer::sum);
+                if (!aplicaciones.containsKey(clave)) {
+                    aplicaciones.put(clave, 1);
+                    todosConocidos = false;
+                }
+            }
+            MockResponse guionada = guion.get(envios.incrementAndGet());
+            if (guionada != null) {
+                return guionada;
+            }
+            // Lote repetido entero: ya estaba aplicado
+            return new MockResponse().setResponseCode(todosConocidos ? 409 : 200);
+        }
+
+        synchronized int repetidas() {
+            int repetidas = 0;
+            for (int veces : entregas.values()) {
+                repetidas += veces - 1;
+            }
+            return repetidas;
+        }
+    }
+
+    private MockWebServer servidor;
+    private DatabaseHelper dbHelper;
+    private UsuarioSyncWorker worker;
+
+    @Before
+    public void setUp() throws Exception {
+        servidor = new MockWebServer();
+        servidor.start();
+        // Sin reintento automático de OkHttp: los reintentos son del worker
+        OkHttpClient cliente = new OkHttpClient.Builder()
+            .addInterceptor(new GzipRequestInterceptor())
+            .retryOnConnectionFailure(false)
+            .build();
+        ApiService apiService = new Retrofit.Builder()
+            .baseUrl(servidor.url("/"))
+            .client(cliente)
+            .build()
+            .create(ApiService.class);
+        dbHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+        worker = new UsuarioSyncWorker(dbHelper, apiService);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dbHelper.close();
+        servidor.shutdown();
+    }
+
+    /**
+     * Espera a que se cumpla la condición; los reintentos del worker
+     * esperan entre 1 y 2 segundos tras cada fallo
+     */
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 20000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue("Tiempo de espera agotado", System.currentTimeMillis() < limite);
+            Thread.sleep(10);
+        }
+    }
+
+    private void insertarUsuarios(int cantidad) throws Exception {
+        for (int i = 0; i < cantidad; i++) {
+            dbHelper.insertarUsuario(new Usuario(0, "Usuario " + i, "usuario" + i + "@correo.com",
+                "555-" + i, 20 + i % 50, "Ciudad", "Otro", false));
+        }
+    }
+
+    private int pendientes() {
+        try {
+            return dbHelper.contarOutbox();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    @Test
+    public void vaciar_conRespuestasPerdidasYRepetidasAplicaCadaEntradaUnaVez() throws Exception {
+        ServidorIdempotente servidorIdempotente = new ServidorIdempotente();
+        // Envío 1 (lote 1): se aplica pero la respuesta se pierde
+        servidorIdempotente.alEnvio(1, new MockResponse()
+            .setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        // Envío 3 (lote 2): se aplica pero el servidor responde con error
+        servidorIdempotente.alEnvio(3, new MockResponse().setResponseCode(503));
+        servidor.setDispatcher(servidorIdempotente);
+        insertarUsuarios(120);
+        assertEquals(120, pendientes());
+
+        worker.iniciar();
+        esperar(() -> pendientes() == 0);
+
+        // 3 lotes (50, 50, 20) y dos reenvíos
+        assertEquals(5, servidorIdempotente.envios.get());
+        assertEquals(100, servidorIdempotente.repetidas());
+        assertEquals(120, servidorIdempotente.aplicaciones.size());
+        for (int veces : servidorIdempotente.aplicaciones.values()) {
+            assertEquals(1, veces);
+        }
+        assertEquals(120, worker.getUsuariosEnviados());
+        assertEquals(2, worker.getLotesFallidos());
+        assertEquals(0, worker.getUsuariosDescartados());
+    }
+
+    @Test
+    public void contarOutbox_noCuentaLasEntradasDescartadas() throws Exception {
+        servidor.enqueue(new MockResponse().setResponseCode(422));
+        insertarUsuarios(1);
+
+        worker.iniciar();
+        esperar(() -> worker.getUsuariosDescartados() == 1);
+
+        assertEquals(0, dbHelper.contarOutbox());
+        assertTrue(dbHelper.obtenerLoteOutbox(10, Long.MAX_VALUE).isEmpty());
+    }
+
+    private static OutboxEntry entrada(long id, String clave) {
+        return new OutboxEntry(id, clave, "{}", 0);
+    }
+
+    @Test
+    public void claveLote_esLaMismaParaLasMismasEntradas() {
+        List<OutboxEntry> lote = Arrays.asList(entrada(1, "a"), entrada(2, "b"));
+        // Reintento del mismo lote leído otra vez del outbox
+        List<OutboxEntry> releido = Arrays.asList(entrada(1, "a"), entrada(2, "b"));
+
+        assertEquals(UsuarioSyncWorker.claveLote(lote), UsuarioSyncWorker.claveLote(releido));
+    }
+
+    @Test
+    public void claveLote_cambiaConLaComposicionDelLote() {
+        String ab = UsuarioSyncWorker.claveLote(Arrays.asList(entrada(1, "a"), entrada(2, "b")));
+
+        assertNotEquals(ab, UsuarioSyncWorker.claveLote(Arrays.asList(entrada(1, "a"))));
+        assertNotEquals(ab, UsuarioSyncWorker.claveLote(
+            Arrays.asList(entrada(1, "a"), entrada(2, "b"), entrada(3, "c"))));
+        // El separador evita que "a"+"bc" choque con "ab"+"c"
+        assertNotEquals(
+            UsuarioSyncWorker.claveLote(Arrays.asList(entrada(1, "a"), entrada(2, "bc"))),
+            UsuarioSyncWorker.claveLote(Arrays.asList(entrada(1, "ab"), entrada(2, "c"))));
+    }
+
+    @Test
+    public void calcularEspera_creceExponencialmenteConJitterAcotado() {
+        for (int fallos = 0; fallos < 6; fallos++) {
+            long techo = 2000L << fallos;
+            for (int i = 0; i < 200; i++) {
+                long espera = UsuarioSyncWorker.calcularEspera(fallos);
+                assertTrue(espera >= techo / 2);
+                assertTrue(espera <= techo);
+            }
+        }
+    }
+
+    @Test
+    public void calcularEspera_noPasaDelMaximo() {
+        long maximo = 5 * 60 * 1000;
+        for (int i = 0; i < 200; i++) {
+            long espera = UsuarioSyncWorker.calcularEspera(40);
+            assertTrue(espera >= maximo / 2);
+            assertTrue(espera <= maximo);
+        }
+    }
+
+    @Test
+    public void esRechazoPermanente_soloLos4xxNoTransitorios() {
+        assertTrue(UsuarioSyncWorker.esRechazoPermanente(400));
+        assertTrue(UsuarioSyncWorker.esRechazoPermanente(422));
+        assertFalse(UsuarioSyncWorker.esRechazoPermanente(408));
+        assertFalse(UsuarioSyncWorker.esRechazoPermanente(429));
+        assertFalse(UsuarioSyncWorker.esRechazoPermanente(500));
+        assertFalse(UsuarioSyncWorker.esRechazoPermanente(503));
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.androidinterfaces.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class FrameMetricsRecorderTest {
+
+    private static final String PANTALLA = "ApiActivity";
+    private static final long PRESUPUESTO = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private FrameMetricsRecorder recorder;
+    private long finAnterior = 0;
+
+    @Before
+    public void setUp() {
+        recorder = new FrameMetricsRecorder();
+    }
+
+    private static long ms(long milisegundos) {
+        return TimeUnit.MILLISECONDS.toNanos(milisegundos);
+    }
+
+    /**
+     * Frame que empieza ahora o al terminar el anterior: nunca se solapan
+     */
+    private void frame(long duracion) {
+        long inicio = Math.max(System.nanoTime(), finAnterior + 1);
+        recorder.registrarFrame(PANTALLA, inicio, duracion, PRESUPUESTO, false, 0);
+        finAnterior = inicio + duracion;
+    }
+
+    @Test
+    public void registrarFrame_cuentaJankCongeladosYDescartados() {
+        frame(ms(10));
+        frame(ms(20));
+        frame(ms(800));
+        recorder.registrarFrame(PANTALLA, System.nanoTime(), ms(5), PRESUPUESTO, false, 3);
+
+        String resumen = recorder.resumen();
+        assertTrue(resumen, resumen.contains("n=4"));
+        assertTrue(resumen, resumen.contains("jank=2 "));
+        assertTrue(resumen, resumen.contains("congelados=1 descartados=3"));
+        assertEquals(4, recorder.getFramesEnBuffer());
+    }
+
+    @Test
+    public void registrarFrame_separaLasEstadisticasPorPantalla() {
+        frame(ms(20));
+        recorder.registrarFrame("ListadoActivity", System.nanoTime(), ms(5), PRESUPUESTO, false, 0);
+
+        String resumen = recorder.resumen();
+        assertTrue(resumen, resumen.contains(PANTALLA + "\n  n=1"));
+        assertTrue(resumen, resumen.contains("ListadoActivity\n  n=1"));
+    }
+
+    @Test
+    public void operacionDe_etiquetaLosFramesMientrasEstaAbierta() {
+        FrameMetricsRecorder.Operacion carga = recorder.iniciarOperacion("carga");
+        frame(ms(20));
+        frame(ms(5));
+        carga.terminar();
+        frame(ms(5));
+
+        String resumen = recorder.resumen();
+        assertTrue(resumen, resumen.contains("carga: 1/2 con jank"));
+        assertTrue(resumen, resumen.contains(FrameMetricsRecorder.SIN_OPERACION + ": 0/1 con jank"));
+    }
+
+    @Test
+    public void operacionDe_marcarProximoFrameSoloEtiquetaElSiguiente() {
+        recorder.marcarProximoFrame("tecla");
+        frame(ms(5));
+        frame(ms(5));
+
+        String resumen = recorder.resumen();
+        assertTrue(resumen, resumen.contains("tecla: 0/1 con jank"));
+        assertTrue(resumen, resumen.contains(FrameMetricsRecorder.SIN_OPERACION + ": 0/1 con jank"));
+    }
+
+    @Test
+    public void operacionDe_laMasRecienteGanaYElPrimerFrameVaAparte() {
+        recorder.iniciarOperacion("exterior");
+        recorder.iniciarOperacion("interior");
+        recorder.registrarFrame(PANTALLA, System.nanoTime(), ms(5), PRESUPUESTO, true, 0);
+        frame(ms(5));
+
+        String resumen = recorder.resumen();
+        assertTrue(resumen, resumen.contains(FrameMetricsRecorder.PRIMER_FRAME + ": 0/1 con jank"));
+        assertTrue(resumen, resumen.contains("interior: 0/1 con jank"));
+        assertTrue(resumen, !resumen.contains("exterior"));
+    }
+
+    @Test
+    public void exportar_escribeElBufferCircularDelMasViejoAlMasNuevo() throws Exception {
+        // 1030 frames en un buffer de 1024: los 6 primeros se pisan
+        for (int i = 0; i < 1030; i++) {
+            recorder.registrarFrame(PANTALLA, i, ms(i % 2 == 0 ? 5 : 20), PRESUPUESTO, false, 0);
+        }
+        File directorio = Files.createTempDirectory("frames").toFile();
+        File[] exportado = new File[1];
+        int[] frames = {-1};
+
+        recorder.exportar(directorio, new FrameMetricsRecorder.ExportCallback() {
+            @Override
+            public void onExportado(File archivo, int cantidad) {
+                exportado[0] = archivo;
+                frames[0] = cantidad;
+            }
+
+            @Override
+            public void onError(IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (exportado[0] == null && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+
+        assertNotNull(exportado[0]);
+        assertEquals(1024, frames[0]);
+        List<String> lineas = Files.readAllLines(exportado[0].toPath(), StandardCharsets.UTF_8);
+        assertEquals(1025, lineas.size());
+        assertEquals("pantalla,operacion,inicio_ns,duracion_ms,jank", lineas.get(0));
+        assertEquals(PANTALLA + ",\"ninguna\",6,5.000,0", lineas.get(1));
+        assertEquals(PANTALLA + ",\"ninguna\",7,20.000,1", lineas.get(2));
+        assertEquals(PANTALLA + ",\"ninguna\",1029,20.000,1", lineas.get(1024));
+    }
+
+    @Test
+    public void reiniciar_vaciaEstadisticasYBuffer() {
+        frame(ms(5));
+
+        recorder.reiniciar();
+
+        assertEquals(0, recorder.getFramesEnBuffer());
+        assertEquals("Sin frames registrados", recorder.resumen());
+    }
+}